@@ -147,7 +147,10 @@ class JellyfinApplication : Application() {
 			workManager.enqueueUniquePeriodicWork(
 				LeanbackChannelWorker.PERIODIC_UPDATE_REQUEST_NAME,
 				ExistingPeriodicWorkPolicy.UPDATE,
-				PeriodicWorkRequestBuilder<LeanbackChannelWorker>(1, TimeUnit.HOURS)
+				PeriodicWorkRequestBuilder<LeanbackChannelWorker>(
+					LeanbackChannelWorker.PERIODIC_UPDATE_INTERVAL.inWholeMinutes,
+					TimeUnit.MINUTES
+				)
 					.setBackoffCriteria(BackoffPolicy.LINEAR, 10, TimeUnit.MINUTES)
 					.build()
 			).await()
@@ -9,6 +9,8 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import org.jellyfin.androidtv.auth.repository.SessionRepository
 import org.jellyfin.androidtv.di.KoinInitializer
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider
+import org.jellyfin.playback.jellyfin.playsession.PlayStateReportQueue
 
 @Suppress("unused")
 class SessionInitializer : Initializer<Unit> {
@@ -20,6 +22,14 @@ class SessionInitializer : Initializer<Unit> {
 		// Restore system session
 		ProcessLifecycleOwner.get().lifecycleScope.launch(Dispatchers.IO) {
 			koin.get<SessionRepository>().restoreSession(destroyOnly = false)
+
+			// Send play state reports that failed in a previous run
+			koin.get<PlayStateReportQueue>().flush()
+		}
+
+		// Test the media codec capabilities before the first playback needs them
+		ProcessLifecycleOwner.get().lifecycleScope.launch(Dispatchers.Default) {
+			koin.get<DeviceProfileProvider>().capabilities
 		}
 	}
 
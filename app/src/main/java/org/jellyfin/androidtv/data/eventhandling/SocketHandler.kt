@@ -4,6 +4,7 @@ import android.content.Context
 import android.media.AudioManager
 import android.os.Build
 import android.widget.Toast
+import androidx.work.WorkManager
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.flow.launchIn
@@ -11,6 +12,7 @@ import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.data.model.DataRefreshService
+import org.jellyfin.androidtv.integration.LeanbackChannelWorker
 import org.jellyfin.androidtv.ui.itemhandling.ItemLauncher
 import org.jellyfin.androidtv.ui.navigation.Destinations
 import org.jellyfin.androidtv.ui.navigation.NavigationRepository
@@ -33,6 +35,7 @@ import org.jellyfin.sdk.model.api.MediaType
 import org.jellyfin.sdk.model.api.PlayMessage
 import org.jellyfin.sdk.model.api.PlaystateCommand
 import org.jellyfin.sdk.model.api.PlaystateMessage
+import org.jellyfin.sdk.model.api.UserDataChangedMessage
 import org.jellyfin.sdk.model.extensions.get
 import org.jellyfin.sdk.model.extensions.getValue
 import org.jellyfin.sdk.model.serializer.toUUIDOrNull
@@ -50,6 +53,7 @@ class SocketHandler(
 	private val audioManager: AudioManager,
 	private val itemLauncher: ItemLauncher,
 	private val playbackHelper: PlaybackHelper,
+	private val workManager: WorkManager,
 ) {
 	private val coroutineScope = CoroutineScope(Dispatchers.IO)
 
@@ -101,6 +105,10 @@ class SocketHandler(
 				.onEach { message -> message.data?.let(::onLibraryChanged) }
 				.launchIn(coroutineScope)
 
+			subscribe<UserDataChangedMessage>()
+				.onEach { LeanbackChannelWorker.enqueueChangeUpdate(workManager) }
+				.launchIn(coroutineScope)
+
 			// Media playback
 			subscribe<PlayMessage>()
 				.onEach { message -> onPlayMessage(message) }
@@ -176,6 +184,8 @@ class SocketHandler(
 
 		if (info.itemsAdded.any() || info.itemsRemoved.any())
 			dataRefreshService.lastLibraryChange = Instant.now()
+
+		LeanbackChannelWorker.enqueueChangeUpdate(workManager)
 	}
 
 	private fun onPlayMessage(message: PlayMessage) {
@@ -1,25 +1,82 @@
 package org.jellyfin.androidtv.data.repository
 
+import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.sdk.model.api.ItemFields
 
+/**
+ * Field projections for item requests. Each request should use the smallest profile that contains
+ * everything the screen renders, media sources and streams are only requested where they are used.
+ */
 object ItemRepository {
-	val itemFields = setOf(
+	/**
+	 * Fields used to render cards (poster, title, progress and counts) and the focused item summary.
+	 * The creation date is used by the launcher watch next row.
+	 */
+	val cardFields = setOf(
 		ItemFields.CAN_DELETE,
 		ItemFields.CHANNEL_INFO,
-		ItemFields.CHAPTERS,
 		ItemFields.CHILD_COUNT,
 		ItemFields.CUMULATIVE_RUN_TIME_TICKS,
 		ItemFields.DATE_CREATED,
 		ItemFields.DISPLAY_PREFERENCES_ID,
-		ItemFields.GENRES,
+		ItemFields.ETAG,
 		ItemFields.ITEM_COUNTS,
 		ItemFields.MEDIA_SOURCE_COUNT,
+		ItemFields.OVERVIEW,
+		ItemFields.PRIMARY_IMAGE_ASPECT_RATIO,
+	)
+
+	/**
+	 * Fields used to render cards in browsing rows and grids, including the media sources when the
+	 * resolution or audio codec badges are shown on cards.
+	 */
+	fun browseFields(userPreferences: UserPreferences): Set<ItemFields> {
+		val mediaBadgesEnabled = userPreferences[UserPreferences.showResolutionBadge] ||
+			userPreferences[UserPreferences.showAudioCodecBadge]
+		return if (mediaBadgesEnabled) cardFields + ItemFields.MEDIA_SOURCES else cardFields
+	}
+
+	/**
+	 * Fields used to render search results, including the tagline shown in global search.
+	 */
+	val searchFields = setOf(
+		ItemFields.CHANNEL_INFO,
+		ItemFields.CHILD_COUNT,
+		ItemFields.ETAG,
+		ItemFields.PRIMARY_IMAGE_ASPECT_RATIO,
+		ItemFields.TAGLINES,
+	)
+
+	/**
+	 * Fields used to render live TV channels and programs.
+	 */
+	val guideFields = setOf(
+		ItemFields.CHANNEL_INFO,
+		ItemFields.ETAG,
+		ItemFields.GENRES,
+		ItemFields.OVERVIEW,
+		ItemFields.PRIMARY_IMAGE_ASPECT_RATIO,
+	)
+
+	/**
+	 * Fields required to start playback of an item.
+	 */
+	val playbackFields = setOf(
+		ItemFields.CHANNEL_INFO,
+		ItemFields.CHAPTERS,
+		ItemFields.CHILD_COUNT,
+		ItemFields.ETAG,
+		ItemFields.MEDIA_SOURCE_COUNT,
 		ItemFields.MEDIA_SOURCES,
 		ItemFields.MEDIA_STREAMS,
 		ItemFields.OVERVIEW,
 		ItemFields.PATH,
 		ItemFields.PRIMARY_IMAGE_ASPECT_RATIO,
-		ItemFields.TAGLINES,
 		ItemFields.TRICKPLAY,
 	)
+
+	/**
+	 * Fields used for playlist and album item lists, these can be played and sorted by date added.
+	 */
+	val itemListFields = playbackFields + ItemFields.DATE_CREATED
 }
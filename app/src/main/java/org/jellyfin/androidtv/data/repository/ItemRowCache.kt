@@ -0,0 +1,187 @@
+package org.jellyfin.androidtv.data.repository
+
+import android.content.Context
+import android.util.LruCache
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.withContext
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.json.Json
+import org.jellyfin.androidtv.auth.repository.SessionRepository
+import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.sdk.model.api.BaseItemDto
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.security.MessageDigest
+import java.time.Instant
+import java.util.UUID
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * A cached page of items for a single row request.
+ */
+@Serializable
+data class ItemRowCacheEntry(
+	val items: List<BaseItemDto>,
+	val totalRecordCount: Int = items.size,
+	val timestamp: Long = Instant.now().toEpochMilli(),
+) {
+	val age get() = Instant.now().toEpochMilli() - timestamp
+}
+
+data class ItemRowCacheStats(
+	val memoryHits: Long,
+	val diskHits: Long,
+	val misses: Long,
+) {
+	val hitRatio get() = (memoryHits + diskHits).toDouble() / (memoryHits + diskHits + misses).coerceAtLeast(1)
+}
+
+/**
+ * Cache for row retrievals, used to render rows instantly with previously fetched data while the
+ * server is queried in the background. Entries are kept in an in-memory LRU and persisted to the
+ * application cache directory so they survive process restarts.
+ */
+interface ItemRowCache {
+	val stats: ItemRowCacheStats
+
+	/**
+	 * Create a cache key for the given request type and request for the current user. Returns null
+	 * when no user is signed in.
+	 */
+	fun createKey(type: String, request: Any): String?
+
+	suspend fun get(key: String): ItemRowCacheEntry?
+	suspend fun put(key: String, entry: ItemRowCacheEntry)
+	suspend fun clear()
+}
+
+class ItemRowCacheImpl(
+	private val context: Context,
+	private val userRepository: UserRepository,
+	sessionRepository: SessionRepository,
+) : ItemRowCache {
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val memoryCache = LruCache<String, ItemRowCacheEntry>(MEMORY_CACHE_ENTRIES)
+	private val memoryHits = AtomicLong()
+	private val diskHits = AtomicLong()
+	private val misses = AtomicLong()
+
+	private val json = Json {
+		ignoreUnknownKeys = true
+	}
+
+	private val storeDir
+		get() = context.cacheDir.resolve("item_rows")
+
+	override val stats
+		get() = ItemRowCacheStats(
+			memoryHits = memoryHits.get(),
+			diskHits = diskHits.get(),
+			misses = misses.get(),
+		)
+
+	init {
+		// Keep the cache when a session is restored at startup, drop it when the user signs out or
+		// switches to another user
+		var userId: UUID? = null
+		sessionRepository.currentSession
+			.map { session -> session?.userId }
+			.distinctUntilChanged()
+			.onEach { newUserId ->
+				if (userId != null) {
+					Timber.i("Clearing item row cache after session change ($stats)")
+					clear()
+				}
+				userId = newUserId
+			}
+			.launchIn(scope)
+	}
+
+	override fun createKey(type: String, request: Any): String? {
+		val userId = userRepository.currentUser.value?.id ?: return null
+		return "$userId:$type:$request".sha1()
+	}
+
+	override suspend fun get(key: String): ItemRowCacheEntry? {
+		memoryCache[key]?.let { entry ->
+			memoryHits.incrementAndGet()
+			Timber.d("Item row cache memory hit for $key (age ${entry.age}ms)")
+			return entry
+		}
+
+		val entry = withContext(Dispatchers.IO) { read(key) }
+		if (entry == null) {
+			misses.incrementAndGet()
+			Timber.d("Item row cache miss for $key")
+			return null
+		}
+
+		diskHits.incrementAndGet()
+		Timber.d("Item row cache disk hit for $key (age ${entry.age}ms)")
+		memoryCache.put(key, entry)
+		return entry
+	}
+
+	override suspend fun put(key: String, entry: ItemRowCacheEntry) {
+		memoryCache.put(key, entry)
+		withContext(Dispatchers.IO) { write(key, entry) }
+	}
+
+	override suspend fun clear() {
+		memoryCache.evictAll()
+		withContext(Dispatchers.IO) { storeDir.deleteRecursively() }
+	}
+
+	private fun read(key: String): ItemRowCacheEntry? {
+		val file = storeDir.resolve(key)
+		if (!file.exists()) return null
+
+		return try {
+			json.decodeFromString<ItemRowCacheEntry>(file.readText())
+		} catch (err: SerializationException) {
+			Timber.w(err, "Unable to read cached item row $key")
+			file.delete()
+			null
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to read cached item row $key")
+			null
+		}
+	}
+
+	private fun write(key: String, entry: ItemRowCacheEntry) {
+		try {
+			storeDir.mkdirs()
+			storeDir.resolve(key).writeText(json.encodeToString(entry))
+			trimDiskCache()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to write cached item row $key")
+		}
+	}
+
+	private fun trimDiskCache() {
+		val files = storeDir.listFiles() ?: return
+		if (files.size <= DISK_CACHE_ENTRIES) return
+
+		files
+			.sortedBy(File::lastModified)
+			.take(files.size - DISK_CACHE_ENTRIES)
+			.forEach(File::delete)
+	}
+
+	private fun String.sha1() = MessageDigest.getInstance("SHA-1")
+		.digest(toByteArray())
+		.joinToString("") { "%02x".format(it) }
+
+	private companion object {
+		private const val MEMORY_CACHE_ENTRIES = 64
+		private const val DISK_CACHE_ENTRIES = 256
+	}
+}
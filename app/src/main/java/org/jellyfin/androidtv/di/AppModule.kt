@@ -22,6 +22,8 @@ import org.jellyfin.androidtv.data.repository.CustomMessageRepository
 import org.jellyfin.androidtv.data.repository.CustomMessageRepositoryImpl
 import org.jellyfin.androidtv.data.repository.ItemMutationRepository
 import org.jellyfin.androidtv.data.repository.ItemMutationRepositoryImpl
+import org.jellyfin.androidtv.data.repository.ItemRowCache
+import org.jellyfin.androidtv.data.repository.ItemRowCacheImpl
 import org.jellyfin.androidtv.data.repository.NotificationsRepository
 import org.jellyfin.androidtv.data.repository.NotificationsRepositoryImpl
 import org.jellyfin.androidtv.data.repository.UserViewsRepository
@@ -31,6 +33,8 @@ import org.jellyfin.androidtv.integration.dream.DreamViewModel
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.ui.ScreensaverViewModel
 import org.jellyfin.androidtv.ui.itemhandling.ItemLauncher
+import org.jellyfin.androidtv.ui.livetv.EpgStore
+import org.jellyfin.androidtv.ui.livetv.EpgStoreImpl
 import org.jellyfin.androidtv.ui.navigation.Destinations
 import org.jellyfin.androidtv.ui.navigation.NavigationRepository
 import org.jellyfin.androidtv.ui.navigation.NavigationRepositoryImpl
@@ -39,6 +43,7 @@ import org.jellyfin.androidtv.ui.playback.PlaybackControllerContainer
 import org.jellyfin.androidtv.ui.playback.nextup.NextUpViewModel
 import org.jellyfin.androidtv.ui.playback.segment.MediaSegmentRepository
 import org.jellyfin.androidtv.ui.playback.segment.MediaSegmentRepositoryImpl
+import org.jellyfin.androidtv.ui.search.CachingSearchRepository
 import org.jellyfin.androidtv.ui.search.SearchFragmentDelegate
 import org.jellyfin.androidtv.ui.search.SearchRepository
 import org.jellyfin.androidtv.ui.search.SearchRepositoryImpl
@@ -50,12 +55,18 @@ import org.jellyfin.androidtv.ui.home.carousel.CarouselViewModel
 import org.jellyfin.androidtv.util.KeyProcessor
 import org.jellyfin.androidtv.util.MarkdownRenderer
 import org.jellyfin.androidtv.util.PlaybackHelper
+import org.jellyfin.androidtv.util.apiclient.PersistentPlayStateReportQueue
 import org.jellyfin.androidtv.util.apiclient.ReportingHelper
 import org.jellyfin.androidtv.util.coil.CoilTimberLogger
+import org.jellyfin.androidtv.util.coil.ImageMemoryBudget
+import org.jellyfin.androidtv.util.http.HttpClientPurpose
 import org.jellyfin.androidtv.util.coil.createCoilConnectivityChecker
+import org.jellyfin.androidtv.util.http.HttpStack
 import org.jellyfin.androidtv.util.sdk.SdkPlaybackHelper
+import org.jellyfin.playback.jellyfin.playsession.PlayStateReportQueue
 import org.jellyfin.sdk.android.androidDevice
 import org.jellyfin.sdk.api.client.HttpClientOptions
+import org.jellyfin.sdk.api.okhttp.OkHttpFactory
 import org.jellyfin.sdk.createJellyfin
 import org.jellyfin.sdk.model.ClientInfo
 import org.koin.android.ext.koin.androidContext
@@ -85,10 +96,16 @@ val appModule = module {
 	// New SDK
 	single(defaultDeviceInfo) { androidDevice(get()) }
 	single { HttpClientOptions() }
+	single { HttpStack(get(), get<UserPreferences>()[UserPreferences.http2Enabled]) }
+	single { OkHttpFactory(get<HttpStack>().client(HttpClientPurpose.API)) }
 	single {
 		createJellyfin {
 			context = androidContext()
 
+			// Share the HTTP stack with playback and images
+			apiClientFactory = get<OkHttpFactory>()
+			socketConnectionFactory = get<OkHttpFactory>()
+
 			// Add client info
 			clientInfo = ClientInfo("Dune Android TV", BuildConfig.VERSION_NAME)
 			deviceInfo = get(defaultDeviceInfo)
@@ -104,16 +121,17 @@ val appModule = module {
 	}
 
 	single {
-		SocketHandler(get(), get(), get(), get(), get(), get(), get(), get(), get())
+		SocketHandler(get(), get(), get(), get(), get(), get(), get(), get(), get(), get())
 	}
 
 	// Coil (images)
+	single { ImageMemoryBudget(androidContext()) }
 	single<ImageLoader> {
 		val context = androidContext()
 		val userPreferences: UserPreferences = get()
 
-		// Memory cache size (in bytes)
-		val memoryCacheSize = 700L * 1024 * 1024
+		val memoryBudget: ImageMemoryBudget = get()
+		val httpStack: HttpStack = get()
 		val diskCacheSizeMb = userPreferences[UserPreferences.diskCacheSizeMb]
 		val diskCacheDir = File(context.cacheDir, "image_cache")
 		if (!diskCacheDir.exists()) {
@@ -125,11 +143,7 @@ val appModule = module {
 			logger(CoilTimberLogger(if (BuildConfig.DEBUG) Logger.Level.Warn else Logger.Level.Error))
 
 			// Configure memory cache
-			memoryCache {
-				coil3.memory.MemoryCache.Builder()
-					.maxSizeBytes(memoryCacheSize)
-					.build()
-			}
+			memoryCache { memoryBudget.createMemoryCache() }
 
 			if (diskCacheSizeMb > 0) {
 				val diskCache = coil3.disk.DiskCache.Builder()
@@ -146,7 +160,10 @@ val appModule = module {
 			// Coil 3.x configuration
 			components {
 				@OptIn(ExperimentalCoilApi::class)
-				add(OkHttpNetworkFetcherFactory(connectivityChecker = ::createCoilConnectivityChecker))
+				add(OkHttpNetworkFetcherFactory(
+					callFactory = { httpStack.createImageCallFactory() },
+					connectivityChecker = ::createCoilConnectivityChecker,
+				))
 
 				if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) add(AnimatedImageDecoder.Factory())
 				else add(GifDecoder.Factory())
@@ -163,6 +180,8 @@ val appModule = module {
 	single<UserViewsRepository> { UserViewsRepositoryImpl(get()) }
 	single<NotificationsRepository> { NotificationsRepositoryImpl(get(), get()) }
 	single<ItemMutationRepository> { ItemMutationRepositoryImpl(get(), get()) }
+	single<ItemRowCache> { ItemRowCacheImpl(androidContext(), get(), get()) }
+	single<EpgStore> { EpgStoreImpl(androidContext(), get()) }
 	single<CustomMessageRepository> { CustomMessageRepositoryImpl() }
 	single<NavigationRepository> { NavigationRepositoryImpl(Destinations.home) }
 	single<SearchRepository> { SearchRepositoryImpl(get()) }
@@ -175,7 +194,7 @@ val appModule = module {
 	viewModel { NextUpViewModel(get(), get(), get()) }
 	viewModel { PictureViewerViewModel(get()) }
 	viewModel { ScreensaverViewModel(get()) }
-	viewModel { SearchViewModel(get()) }
+	viewModel { SearchViewModel(CachingSearchRepository(get())) }
 	viewModel { DreamViewModel(get(), get(), get(), get(), get()) }
 	viewModel { CarouselViewModel(get(), get(), get()) }
 
@@ -193,7 +212,8 @@ val appModule = module {
 	single { MarkdownRenderer(get()) }
 	single { ItemLauncher() }
 	single { KeyProcessor() }
-	single { ReportingHelper(get(), get()) }
+	single<PlayStateReportQueue> { PersistentPlayStateReportQueue(androidContext(), get()) }
+	single { ReportingHelper(get(), get(), get()) }
 	single<PlaybackHelper> { SdkPlaybackHelper(get(), get(), get(), get()) }
 
 	factory { (context: Context) -> SearchFragmentDelegate(context, get(), get()) }
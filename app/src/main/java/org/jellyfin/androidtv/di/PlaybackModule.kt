@@ -8,7 +8,6 @@ import android.os.Build
 import androidx.core.app.NotificationManagerCompat
 import androidx.media3.datasource.HttpDataSource
 import androidx.media3.datasource.okhttp.OkHttpDataSource
-import okhttp3.OkHttpClient
 import org.jellyfin.androidtv.R
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.UserSettingPreferences
@@ -17,42 +16,44 @@ import org.jellyfin.androidtv.ui.playback.MediaManager
 import org.jellyfin.androidtv.ui.playback.PlaybackLauncher
 import org.jellyfin.androidtv.ui.playback.VideoQueueManager
 import org.jellyfin.androidtv.ui.playback.rewrite.RewriteMediaManager
-import org.jellyfin.androidtv.util.profile.createDeviceProfile
+import org.jellyfin.androidtv.util.http.HttpClientPurpose
+import org.jellyfin.androidtv.util.http.HttpStack
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider
 import org.jellyfin.playback.core.playbackManager
 import org.jellyfin.playback.jellyfin.jellyfinPlugin
+import org.jellyfin.playback.jellyfin.mediastream.PlaybackInfoCache
+import org.jellyfin.playback.jellyfin.playsession.PlayStateReportQueue
 import org.jellyfin.playback.media3.exoplayer.ExoPlayerOptions
+import org.jellyfin.playback.media3.exoplayer.cache.MediaCache
 import org.jellyfin.playback.media3.exoplayer.exoPlayerPlugin
 import org.jellyfin.playback.media3.session.MediaSessionOptions
 import org.jellyfin.playback.media3.session.media3SessionPlugin
 import org.jellyfin.sdk.api.client.ApiClient
-import org.jellyfin.sdk.api.client.HttpClientOptions
 import org.koin.android.ext.koin.androidContext
 import org.koin.core.scope.Scope
 import org.koin.dsl.module
 import kotlin.time.Duration.Companion.milliseconds
-import kotlin.time.toJavaDuration
 import org.jellyfin.androidtv.ui.playback.PlaybackManager as LegacyPlaybackManager
 
 val playbackModule = module {
-	single { LegacyPlaybackManager(get()) }
+	single { LegacyPlaybackManager(get(), get()) }
 	single { VideoQueueManager() }
 	single<MediaManager> { RewriteMediaManager(get(), get(), get(), get()) }
 
 	single { PlaybackLauncher(get(), get(), get(), get()) }
 
-	// OkHttp data source using OkHttpFactory from SDK
+	// OkHttp data source using the shared HTTP stack
 	single<HttpDataSource.Factory> {
-		val httpClientOptions = get<HttpClientOptions>()
+		OkHttpDataSource.Factory(get<HttpStack>().client(HttpClientPurpose.PLAYBACK))
+	}
 
-		OkHttpDataSource.Factory(OkHttpClient.Builder().apply {
-			followRedirects(httpClientOptions.followRedirects)
-			connectTimeout(httpClientOptions.connectTimeout.toJavaDuration())
-			callTimeout(httpClientOptions.requestTimeout.toJavaDuration())
-			readTimeout(httpClientOptions.socketTimeout.toJavaDuration())
-			writeTimeout(httpClientOptions.socketTimeout.toJavaDuration())
-		}.build())
+	single {
+		val mediaCacheSizeMb = get<UserPreferences>()[UserPreferences.mediaCacheSizeMb]
+		MediaCache(androidContext(), mediaCacheSizeMb * 1024L * 1024)
 	}
 
+	single { PlaybackInfoCache(get()) }
+
 	single { createPlaybackManager() }
 }
 
@@ -76,6 +77,7 @@ fun Scope.createPlaybackManager() = playbackManager(androidContext()) {
 		preferFfmpeg = userPreferences[UserPreferences.preferExoPlayerFfmpeg],
 		enableDebugLogging = userPreferences[UserPreferences.debuggingEnabled],
 		baseDataSourceFactory = get<HttpDataSource.Factory>(),
+		mediaCache = get<MediaCache>().takeIf { it.enabled },
 	)
 	install(exoPlayerPlugin(get(), exoPlayerOptions))
 
@@ -87,8 +89,9 @@ fun Scope.createPlaybackManager() = playbackManager(androidContext()) {
 	)
 	install(media3SessionPlugin(get(), mediaSessionOptions))
 
-	val deviceProfileBuilder = { createDeviceProfile(userPreferences, false) }
-	install(jellyfinPlugin(get(), deviceProfileBuilder))
+	val deviceProfileProvider = get<DeviceProfileProvider>()
+	val deviceProfileBuilder = { deviceProfileProvider.getDeviceProfile(disableDirectPlay = false) }
+	install(jellyfinPlugin(get(), deviceProfileBuilder, get(), get<PlayStateReportQueue>()))
 
 	// Options
 	val userSettingPreferences = get<UserSettingPreferences>()
@@ -6,10 +6,12 @@ import org.jellyfin.androidtv.preference.SystemPreferences
 import org.jellyfin.androidtv.preference.TelemetryPreferences
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.UserSettingPreferences
+import org.jellyfin.androidtv.preference.store.DisplayPreferencesLocalStore
 import org.koin.dsl.module
 
 val preferenceModule = module {
-	single { PreferencesRepository(get(), get(), get()) }
+	single { PreferencesRepository(get(), get(), get(), get(), get()) }
+	single { DisplayPreferencesLocalStore(get()) }
 
 	single { LiveTvPreferences(get()) }
 	single { UserSettingPreferences(get()) }
@@ -2,10 +2,15 @@ package org.jellyfin.androidtv.di
 
 import android.content.Context
 import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.androidtv.util.BlurHashCache
+import org.jellyfin.androidtv.util.BlurHashCacheImpl
 import org.jellyfin.androidtv.util.ImageHelper
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider
 import org.koin.android.ext.koin.androidContext
 import org.koin.dsl.module
 
 val utilsModule = module {
 	single { ImageHelper(get(), get(), androidContext()) }
+	single<BlurHashCache> { BlurHashCacheImpl() }
+	single { DeviceProfileProvider(androidContext(), get()) }
 }
@@ -1,10 +1,12 @@
 package org.jellyfin.androidtv.integration
 
 import android.annotation.SuppressLint
+import android.content.ContentProviderOperation
 import android.content.ContentUris
 import android.content.ContentValues
 import android.content.Context
 import android.content.Intent
+import android.content.OperationApplicationException
 import android.net.Uri
 import android.os.Build
 import androidx.core.content.edit
@@ -18,9 +20,13 @@ import androidx.tvprovider.media.tv.TvContractCompat
 import androidx.tvprovider.media.tv.TvContractCompat.WatchNextPrograms
 import androidx.tvprovider.media.tv.WatchNextProgram
 import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
 import androidx.work.WorkerParameters
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.R
 import org.jellyfin.androidtv.data.repository.ItemRepository
@@ -53,7 +59,10 @@ import timber.log.Timber
 import java.time.Instant
 import java.time.ZoneId
 import java.time.format.DateTimeFormatter
+import java.util.concurrent.TimeUnit
 import kotlin.time.Duration
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.minutes
 
 /**
  * Manages channels on the android tv home screen.
@@ -66,8 +75,45 @@ class LeanbackChannelWorker(
 ) : CoroutineWorker(context, workerParams), KoinComponent {
 	companion object {
 		const val PERIODIC_UPDATE_REQUEST_NAME = "LeanbackChannelPeriodicUpdateRequest"
+		const val CHANGE_UPDATE_REQUEST_NAME = "LeanbackChannelChangeUpdateRequest"
+
+		/**
+		 * Interval of the periodic update. Server side changes are applied with [enqueueChangeUpdate],
+		 * the periodic update only catches changes that happened while not connected.
+		 */
+		val PERIODIC_UPDATE_INTERVAL = 6.hours
+
+		/**
+		 * Delay before applying server side changes, all changes within this delay are combined.
+		 */
+		val CHANGE_UPDATE_DELAY = 2.minutes
+
+		/**
+		 * Schedule an update of the channels after a server side change.
+		 */
+		fun enqueueChangeUpdate(workManager: WorkManager) {
+			workManager.enqueueUniqueWork(
+				CHANGE_UPDATE_REQUEST_NAME,
+				ExistingWorkPolicy.KEEP,
+				OneTimeWorkRequestBuilder<LeanbackChannelWorker>()
+					.setInitialDelay(CHANGE_UPDATE_DELAY.inWholeSeconds, TimeUnit.SECONDS)
+					.build()
+			)
+		}
 	}
 
+	private data class ChannelContent(
+		val resumeItems: List<BaseItemDto>,
+		val nextUpItems: List<BaseItemDto>,
+		val latestEpisodes: List<BaseItemDto>,
+		val latestMovies: List<BaseItemDto>,
+		val latestMedia: List<BaseItemDto>,
+		val myMedia: List<BaseItemDto>,
+		val movies: List<BaseItemDto>,
+		val movieCollections: List<BaseItemDto>,
+		val shows: List<BaseItemDto>,
+	)
+
 	private val api by inject<ApiClient>()
 	private val userPreferences by inject<UserPreferences>()
 	private val userViewsRepository by inject<UserViewsRepository>()
@@ -98,16 +144,27 @@ class LeanbackChannelWorker(
 			Result.success()
 		}
 		else -> try {
-			// Get next up episodes
-			val (resumeItems, nextUpItems) = getNextUpItems()
-			// Get latest media
-			val (latestEpisodes, latestMovies, latestMedia) = getLatestMedia()
-			val myMedia = getMyMedia()
-			val movies = getMovies()
-			val movieCollections = getMovieCollections()
-			val shows = getShows()
-			// Delete current items from the channels
-			context.contentResolver.delete(TvContractCompat.PreviewPrograms.CONTENT_URI, null, null)
+			// Fetch all rows at the same time
+			val content = coroutineScope {
+				val nextUp = async { getNextUpItems() }
+				val latest = async { getLatestMedia() }
+				val myMedia = async { getMyMedia() }
+				val movies = async { getMovies() }
+				val movieCollections = async { getMovieCollections() }
+				val shows = async { getShows() }
+
+				ChannelContent(
+					resumeItems = nextUp.await().first,
+					nextUpItems = nextUp.await().second,
+					latestEpisodes = latest.await().first,
+					latestMovies = latest.await().second,
+					latestMedia = latest.await().third,
+					myMedia = myMedia.await(),
+					movies = movies.await(),
+					movieCollections = movieCollections.await(),
+					shows = shows.await(),
+				)
+			}
 
 			// Get channel URIs
 			val latestMediaChannel = getChannelUri(
@@ -170,37 +227,22 @@ class LeanbackChannelWorker(
 			val preferParentThumb = userPreferences[UserPreferences.seriesThumbnailsEnabled]
 			val preferLauncherThumb = userPreferences[UserPreferences.launcherThumbnailsEnabled]
 
-
-			// Add new items
-			arrayOf(
-				nextUpItems to nextUpChannel,
-				latestMedia to latestMediaChannel,
-				latestMovies to latestMoviesChannel,
-				latestEpisodes to latestEpisodesChannel,
-				myMedia to myMediaChannel,
-				movies to moviesChannel,
-				movieCollections to movieCollectionsChannel,
-				shows to showsChannel
-			).forEach { (items, channel) ->
-				if (channel == null) {
-					Timber.e("Skipping channel because it was not available")
-				} else {
-					items.map { item ->
-						createPreviewProgram(
-							channel,
-							item,
-							preferParentThumb,
-							preferLauncherThumb
-						)
-					}.let {
-						context.contentResolver.bulkInsert(
-							TvContractCompat.PreviewPrograms.CONTENT_URI,
-							it.toTypedArray()
-						)
-					}
-				}
-			}
-			updateWatchNext(resumeItems + nextUpItems, preferLauncherThumb)
+			// Only apply the changed programs
+			syncPreviewPrograms(
+				listOf(
+					content.nextUpItems to nextUpChannel,
+					content.latestMedia to latestMediaChannel,
+					content.latestMovies to latestMoviesChannel,
+					content.latestEpisodes to latestEpisodesChannel,
+					content.myMedia to myMediaChannel,
+					content.movies to moviesChannel,
+					content.movieCollections to movieCollectionsChannel,
+					content.shows to showsChannel
+				),
+				preferParentThumb,
+				preferLauncherThumb
+			)
+			updateWatchNext(content.resumeItems + content.nextUpItems, preferLauncherThumb)
 
 			// Success!
 			Result.success()
@@ -211,6 +253,10 @@ class LeanbackChannelWorker(
 		} catch (err: ApiClientException) {
 			Timber.e(err, "SDK error, trying again later")
 
+			Result.retry()
+		} catch (err: OperationApplicationException) {
+			Timber.e(err, "Unable to apply program changes, trying again later")
+
 			Result.retry()
 		}
 	}
@@ -249,22 +295,119 @@ class LeanbackChannelWorker(
 
 			// Save uri to shared preferences
 			store.edit { putString(name, uri?.toString()) }
-		}
 
-		// Update logo
-		if (uri != null) {
-			ResourcesCompat.getDrawable(context.resources, R.mipmap.app_icon, context.theme)?.let {
-				ChannelLogoUtils.storeChannelLogo(
-					context,
-					ContentUris.parseId(uri),
-					it.toBitmap(80.dp(context), 80.dp(context))
-				)
+			// Set logo, the launcher keeps it for the lifetime of the channel
+			if (uri != null) {
+				ResourcesCompat.getDrawable(context.resources, R.mipmap.app_icon, context.theme)?.let {
+					ChannelLogoUtils.storeChannelLogo(
+						context,
+						ContentUris.parseId(uri),
+						it.toBitmap(80.dp(context), 80.dp(context))
+					)
+				}
 			}
 		}
 
 		return uri
 	}
 
+	/**
+	 * Synchronize the preview programs of all [channels] with the stored programs. Programs are
+	 * matched by channel and item id, only programs that are new, changed or removed are written
+	 * in a single batch. Unchanged programs are kept so the launcher doesn't reload their artwork.
+	 */
+	@SuppressLint("RestrictedApi")
+	private fun syncPreviewPrograms(
+		channels: List<Pair<List<BaseItemDto>, Uri?>>,
+		preferParentThumb: Boolean,
+		preferLauncherThumb: Boolean,
+	) {
+		val wanted = mutableMapOf<PreviewProgramKey, ContentValues>()
+		for ((items, channel) in channels) {
+			if (channel == null) {
+				Timber.e("Skipping channel because it was not available")
+				continue
+			}
+
+			val channelId = ContentUris.parseId(channel)
+			items.forEachIndexed { index, item ->
+				val key = PreviewProgramKey(channelId, item.id.toString())
+				if (key in wanted) return@forEachIndexed
+
+				// Higher weights are shown first, keep the order of the server response
+				wanted[key] = createPreviewProgram(channel, item, items.size - index, preferParentThumb, preferLauncherThumb)
+			}
+		}
+
+		val diff = PreviewProgramDiff.compute(
+			wanted = wanted.mapValues { (_, values) -> values.getAsLong(TvContractCompat.PreviewPrograms.COLUMN_INTERNAL_PROVIDER_FLAG1) },
+			stored = getStoredPreviewPrograms(),
+		)
+		Timber.i("Preview programs: ${diff.inserts.size} inserted, ${diff.updates.size} updated, ${diff.deletes.size} deleted")
+		if (diff.isEmpty) return
+
+		val operations = ArrayList<ContentProviderOperation>()
+		for (rowId in diff.deletes) {
+			operations += ContentProviderOperation
+				.newDelete(TvContractCompat.buildPreviewProgramUri(rowId))
+				.build()
+		}
+		for ((rowId, key) in diff.updates) {
+			operations += ContentProviderOperation
+				.newUpdate(TvContractCompat.buildPreviewProgramUri(rowId))
+				.withValues(wanted.getValue(key))
+				.build()
+		}
+		for (key in diff.inserts) {
+			operations += ContentProviderOperation
+				.newInsert(TvContractCompat.PreviewPrograms.CONTENT_URI)
+				.withValues(wanted.getValue(key))
+				.build()
+		}
+
+		context.contentResolver.applyBatch(TvContractCompat.AUTHORITY, operations)
+	}
+
+	/**
+	 * Retrieves the preview programs currently stored for this app.
+	 */
+	private fun getStoredPreviewPrograms(): List<StoredPreviewProgram> {
+		val projection = arrayOf(
+			TvContractCompat.PreviewPrograms._ID,
+			TvContractCompat.PreviewPrograms.COLUMN_CHANNEL_ID,
+			TvContractCompat.PreviewPrograms.COLUMN_INTERNAL_PROVIDER_ID,
+			TvContractCompat.PreviewPrograms.COLUMN_INTERNAL_PROVIDER_FLAG1,
+		)
+
+		return buildList {
+			context.contentResolver.query(TvContractCompat.PreviewPrograms.CONTENT_URI, projection, null, null, null)
+				?.use { cursor ->
+					while (cursor.moveToNext()) {
+						add(
+							StoredPreviewProgram(
+								rowId = cursor.getLong(0),
+								key = PreviewProgramKey(
+									channelId = cursor.getLong(1),
+									// Programs created before the sync have no item id and are always replaced
+									itemId = cursor.getString(2).orEmpty(),
+								),
+								contentHash = cursor.getLong(3),
+							)
+						)
+					}
+				}
+		}
+	}
+
+	/**
+	 * Creates a stable hash of all values, used to detect changed programs.
+	 */
+	private fun ContentValues.contentHash(): Long = keySet()
+		.sorted()
+		.joinToString(separator = "\n") { key -> "$key=${get(key)}" }
+		.hashCode()
+		.toLong()
+
 	/**
 	 * Updates the "my media" row with current media libraries.
 	 */
@@ -314,7 +457,7 @@ class LeanbackChannelWorker(
 		withContext(Dispatchers.IO) {
 			val resume = async {
 				api.itemsApi.getResumeItems(
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.cardFields,
 					imageTypeLimit = 1,
 					limit = 10,
 					mediaTypes = listOf(MediaType.VIDEO),
@@ -328,7 +471,7 @@ class LeanbackChannelWorker(
 					imageTypeLimit = 1,
 					limit = 10,
 					enableResumable = false,
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.cardFields,
 				).content.items
 			}
 
@@ -340,7 +483,7 @@ class LeanbackChannelWorker(
 		withContext(Dispatchers.IO) {
 			val latestEpisodes = async {
 				api.userLibraryApi.getLatestMedia(
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.cardFields,
 					limit = 50,
 					includeItemTypes = listOf(BaseItemKind.EPISODE),
 					isPlayed = false
@@ -349,7 +492,7 @@ class LeanbackChannelWorker(
 
 			val latestMovies = async {
 				api.userLibraryApi.getLatestMedia(
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.cardFields,
 					limit = 50,
 					includeItemTypes = listOf(BaseItemKind.MOVIE),
 					isPlayed = false
@@ -358,7 +501,7 @@ class LeanbackChannelWorker(
 
 			val latestMedia = async {
 				api.userLibraryApi.getLatestMedia(
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.cardFields,
 					limit = 50,
 					includeItemTypes = listOf(BaseItemKind.MOVIE, BaseItemKind.SERIES),
 					isPlayed = false
@@ -375,7 +518,7 @@ class LeanbackChannelWorker(
 				api.itemsApi.getItems(
 					includeItemTypes = listOf(BaseItemKind.MOVIE),
 					recursive = true,
-					fields = ItemRepository.itemFields
+					fields = ItemRepository.cardFields
 				).content.items
 			} catch (e: Exception) {
 				Timber.e(e, "Error getting movies")
@@ -389,7 +532,7 @@ class LeanbackChannelWorker(
 				api.itemsApi.getItems(
 					includeItemTypes = listOf(BaseItemKind.BOX_SET),
 					recursive = true,
-					fields = ItemRepository.itemFields
+					fields = ItemRepository.cardFields
 				).content.items
 			} catch (e: Exception) {
 				Timber.e(e, "Error getting collections")
@@ -403,7 +546,7 @@ class LeanbackChannelWorker(
 				api.itemsApi.getItems(
 					includeItemTypes = listOf(BaseItemKind.SERIES),
 					recursive = true,
-					fields = ItemRepository.itemFields
+					fields = ItemRepository.cardFields
 				).content.items
 			} catch (e: Exception) {
 				Timber.e(e, "Error getting shows")
@@ -415,6 +558,7 @@ class LeanbackChannelWorker(
 	private fun createPreviewProgram(
 		channelUri: Uri,
 		item: BaseItemDto,
+		weight: Int,
 		preferParentThumb: Boolean,
 		preferLauncherThumb: Boolean
 	): ContentValues {
@@ -428,8 +572,10 @@ class LeanbackChannelWorker(
 			else -> item.indexNumber?.toString().orEmpty()
 		}
 
-		return PreviewProgram.Builder()
+		val values = PreviewProgram.Builder()
 			.setChannelId(ContentUris.parseId(channelUri))
+			.setInternalProviderId(item.id.toString())
+			.setWeight(weight)
 			.setType(
 				when (item.type) {
 					BaseItemKind.SERIES -> WatchNextPrograms.TYPE_TV_SERIES
@@ -492,6 +638,10 @@ class LeanbackChannelWorker(
 				if ((item.indexNumber ?: 0) > 0)
 					setEpisodeNumber(episodeString, item.indexNumber!!)
 			}.build().toContentValues()
+
+		// Store the hash of the content to compare it with the next sync
+		values.put(TvContractCompat.PreviewPrograms.COLUMN_INTERNAL_PROVIDER_FLAG1, values.contentHash())
+		return values
 	}
 
 	/**
@@ -501,38 +651,47 @@ class LeanbackChannelWorker(
 	 */
 	@SuppressLint("RestrictedApi")
 	private fun updateWatchNext(nextUpItems: List<BaseItemDto>, preferLauncherThumb: Boolean) {
-		deletePrograms(nextUpItems)
-
 		// Get current watch next state
 		val currentWatchNextPrograms = getCurrentWatchNext()
+		val stalePrograms = getStalePrograms(currentWatchNextPrograms, nextUpItems)
+		val staleIds = stalePrograms.map { it.id }.toSet()
+		val keptPrograms = currentWatchNextPrograms.filter { it.id !in staleIds }
 
 		// Create all programs in nextUpItems but not in watch next
 		val programsToAdd = nextUpItems
-			.filter { next -> currentWatchNextPrograms.none { it.internalProviderId == next.id.toString() } }
-		context.contentResolver.bulkInsert(
-			WatchNextPrograms.CONTENT_URI,
-			programsToAdd.map { item -> getBaseItemAsWatchNextProgram(item, preferLauncherThumb).toContentValues() }
-				.toTypedArray())
+			.filter { next -> keptPrograms.none { it.internalProviderId == next.id.toString() } }
+
+		val operations = ArrayList<ContentProviderOperation>()
+		for (program in stalePrograms) {
+			operations += ContentProviderOperation
+				.newDelete(TvContractCompat.buildWatchNextProgramUri(program.id))
+				.build()
+		}
+		for (item in programsToAdd) {
+			operations += ContentProviderOperation
+				.newInsert(WatchNextPrograms.CONTENT_URI)
+				.withValues(getBaseItemAsWatchNextProgram(item, preferLauncherThumb).toContentValues())
+				.build()
+		}
+
+		if (operations.isNotEmpty()) context.contentResolver.applyBatch(TvContractCompat.AUTHORITY, operations)
 	}
 
 	/**
-	 * Delete stale programs from the watch next row. Items that don't need to be touched are
+	 * Get the stale programs in the watch next row. Items that don't need to be touched are
 	 * kept as is, so they keep their ordering in the watch next row.
 	 */
 	@SuppressLint("RestrictedApi")
-	private fun deletePrograms(nextUpItems: List<BaseItemDto>) {
-		// Retrieve current watch next row
-		val currentWatchNextPrograms = getCurrentWatchNext()
-
-		// Find all stale programs to delete
+	private fun getStalePrograms(
+		currentWatchNextPrograms: List<WatchNextProgram>,
+		nextUpItems: List<BaseItemDto>,
+	): List<WatchNextProgram> {
 		val deletedByUser = currentWatchNextPrograms.filter { !it.isBrowsable }
 		val noLongerInWatchNext =
 			currentWatchNextPrograms.filter { (nextUpItems).none { next -> it.internalProviderId == next.id.toString() } }
 		val continueWatching = currentWatchNextPrograms.filter { it.watchNextType == WatchNextPrograms.WATCH_NEXT_TYPE_CONTINUE }
 
-		// Delete the programs
-		(deletedByUser + noLongerInWatchNext + continueWatching)
-			.forEach { context.contentResolver.delete(TvContractCompat.buildWatchNextProgramUri(it.id), null, null) }
+		return (deletedByUser + noLongerInWatchNext + continueWatching).distinctBy { it.id }
 	}
 
 	/**
@@ -0,0 +1,61 @@
+package org.jellyfin.androidtv.integration
+
+/**
+ * Identifies a preview program by the channel it is in and the item it shows.
+ */
+data class PreviewProgramKey(
+	val channelId: Long,
+	val itemId: String,
+)
+
+/**
+ * A preview program currently stored in the TV provider.
+ */
+data class StoredPreviewProgram(
+	val rowId: Long,
+	val key: PreviewProgramKey,
+	val contentHash: Long,
+)
+
+/**
+ * The changes needed to go from the stored preview programs to the wanted preview programs.
+ * Programs with an unchanged content hash are not touched so the launcher does not reload them.
+ */
+data class PreviewProgramDiff(
+	val inserts: List<PreviewProgramKey>,
+	val updates: Map<Long, PreviewProgramKey>,
+	val deletes: List<Long>,
+) {
+	val isEmpty get() = inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty()
+
+	companion object {
+		/**
+		 * Compute the diff between the [wanted] programs (key to content hash) and the [stored]
+		 * programs. Duplicate stored programs are deleted.
+		 */
+		fun compute(
+			wanted: Map<PreviewProgramKey, Long>,
+			stored: Collection<StoredPreviewProgram>,
+		): PreviewProgramDiff {
+			val inserts = mutableListOf<PreviewProgramKey>()
+			val updates = mutableMapOf<Long, PreviewProgramKey>()
+			val deletes = mutableListOf<Long>()
+
+			val storedByKey = mutableMapOf<PreviewProgramKey, StoredPreviewProgram>()
+			for (program in stored) {
+				if (program.key !in wanted || program.key in storedByKey) deletes.add(program.rowId)
+				else storedByKey[program.key] = program
+			}
+
+			for ((key, contentHash) in wanted) {
+				val program = storedByKey[key]
+				when {
+					program == null -> inserts.add(key)
+					program.contentHash != contentHash -> updates[program.rowId] = key
+				}
+			}
+
+			return PreviewProgramDiff(inserts, updates, deletes)
+		}
+	}
+}
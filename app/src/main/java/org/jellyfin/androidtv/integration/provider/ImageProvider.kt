@@ -1,26 +1,56 @@
 package org.jellyfin.androidtv.integration.provider
 
 import android.content.ContentProvider
+import android.content.ContentResolver
 import android.content.ContentValues
+import android.content.res.AssetFileDescriptor
 import android.graphics.Bitmap
-import android.graphics.drawable.Drawable
+import android.graphics.Point
 import android.net.Uri
 import android.os.Build
+import android.os.Bundle
 import android.os.ParcelFileDescriptor
 import androidx.core.graphics.drawable.toBitmap
 import androidx.core.net.toUri
 import coil3.ImageLoader
 import coil3.asDrawable
+import coil3.disk.DiskCache
 import coil3.request.ImageRequest
+import coil3.request.SuccessResult
+import coil3.request.allowHardware
 import coil3.request.error
+import coil3.size.Scale
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import okio.Path.Companion.toOkioPath
 import org.jellyfin.androidtv.BuildConfig
 import org.jellyfin.androidtv.R
 import org.koin.android.ext.android.inject
+import timber.log.Timber
+import java.io.ByteArrayOutputStream
+import java.io.File
 import java.io.IOException
 
+/**
+ * Serves images to the launcher. Images that are already in the image cache in a format the
+ * launcher can decode are served directly from the cache file without decoding them. Other images
+ * are decoded, downscaled to the launcher size and stored in a small cache of launcher renditions.
+ */
 class ImageProvider : ContentProvider() {
 	private val imageLoader by inject<ImageLoader>()
 
+	// Requests are not bound to the caller, the launcher reads the result from a pipe
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+
+	private val renditionCache by lazy {
+		DiskCache.Builder()
+			.directory(requireNotNull(context).cacheDir.resolve("launcher_image_cache").toOkioPath())
+			.maxSizeBytes(RENDITION_CACHE_SIZE)
+			.build()
+	}
+
 	override fun onCreate(): Boolean = true
 
 	override fun getType(uri: Uri) = null
@@ -29,46 +59,131 @@ class ImageProvider : ContentProvider() {
 	override fun update(uri: Uri, values: ContentValues?, selection: String?, selectionArgs: Array<out String>?) = 0
 	override fun delete(uri: Uri, selection: String?, selectionArgs: Array<out String>?) = 0
 
-	override fun openFile(uri: Uri, mode: String): ParcelFileDescriptor? {
-		val src = requireNotNull(uri.getQueryParameter("src")).toUri()
+	override fun openFile(uri: Uri, mode: String): ParcelFileDescriptor = openImage(uri, null)
 
-		val (read, write) = ParcelFileDescriptor.createPipe()
-		val outputStream = ParcelFileDescriptor.AutoCloseOutputStream(write)
+	override fun openTypedAssetFile(uri: Uri, mimeTypeFilter: String, opts: Bundle?): AssetFileDescriptor {
+		// Launchers may request a specific size for the image
+		val size = if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+			@Suppress("DEPRECATION")
+			opts?.getParcelable<Point>(ContentResolver.EXTRA_SIZE)
+		} else null
 
-		imageLoader.enqueue(ImageRequest.Builder(context!!).apply {
-			data(src)
-			error(R.drawable.placeholder_icon)
-			target(
-				onSuccess = { image -> writeDrawable(image.asDrawable(context!!.resources), outputStream) },
-				onError = { image -> writeDrawable(requireNotNull(image?.asDrawable(context!!.resources)), outputStream) }
-			)
-		}.build())
+		return AssetFileDescriptor(openImage(uri, size), 0, AssetFileDescriptor.UNKNOWN_LENGTH)
+	}
+
+	private fun openImage(uri: Uri, requestedSize: Point?): ParcelFileDescriptor {
+		val src = requireNotNull(uri.getQueryParameter("src"))
+		val width = requestedSize?.x?.takeIf { it > 0 }?.coerceAtMost(LAUNCHER_IMAGE_SIZE) ?: LAUNCHER_IMAGE_SIZE
+		val height = requestedSize?.y?.takeIf { it > 0 }?.coerceAtMost(LAUNCHER_IMAGE_SIZE) ?: LAUNCHER_IMAGE_SIZE
+		val renditionKey = "$src#${width}x$height"
 
+		// Serve the encoded image from the image cache or an existing launcher rendition
+		imageLoader.diskCache?.openFile(src)?.let { return it }
+		renditionCache.openFile(renditionKey)?.let { return it }
+
+		val (read, write) = ParcelFileDescriptor.createPipe()
+		scope.launch { writeRendition(src, renditionKey, width, height, write) }
 		return read
 	}
 
-	private fun writeDrawable(
-		drawable: Drawable,
-		outputStream: ParcelFileDescriptor.AutoCloseOutputStream
+	/**
+	 * Open the cached file for [key] when the launcher can decode it. The launcher reads directly
+	 * from the file, it stays readable when the entry is removed from the cache in the meantime.
+	 */
+	private fun DiskCache.openFile(key: String): ParcelFileDescriptor? = try {
+		openSnapshot(key)?.use { snapshot ->
+			val file = snapshot.data.toFile()
+			if (file.length() in 1..MAX_DIRECT_FILE_SIZE && file.isSupportedImage()) {
+				ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY)
+			} else null
+		}
+	} catch (err: IOException) {
+		Timber.w(err, "Unable to open cached image")
+		null
+	}
+
+	/**
+	 * Check the file signature for image formats all launchers can decode.
+	 */
+	private fun File.isSupportedImage(): Boolean {
+		val header = ByteArray(12)
+		val read = inputStream().use { it.read(header) }
+		if (read < header.size) return false
+
+		val isJpeg = header[0] == 0xFF.toByte() && header[1] == 0xD8.toByte() && header[2] == 0xFF.toByte()
+		val isPng = header[0] == 0x89.toByte() && header.copyOfRange(1, 4).decodeToString() == "PNG"
+		val isWebp = header.copyOfRange(0, 4).decodeToString() == "RIFF" && header.copyOfRange(8, 12).decodeToString() == "WEBP"
+
+		return isJpeg || isPng || isWebp
+	}
+
+	private suspend fun writeRendition(
+		src: String,
+		renditionKey: String,
+		width: Int,
+		height: Int,
+		write: ParcelFileDescriptor,
 	) {
+		val context = requireNotNull(context)
+		val result = imageLoader.execute(ImageRequest.Builder(context).apply {
+			data(src.toUri())
+			size(width, height)
+			scale(Scale.FIT)
+			// Compressing requires a software bitmap
+			allowHardware(false)
+			error(R.drawable.placeholder_icon)
+		}.build())
+
+		val bitmap = result.image?.asDrawable(context.resources)?.toBitmap()
+		if (bitmap == null) {
+			write.close()
+			return
+		}
+
 		@Suppress("DEPRECATION")
 		val format = when {
 			Build.VERSION.SDK_INT >= Build.VERSION_CODES.R -> Bitmap.CompressFormat.WEBP_LOSSY
 			else -> Bitmap.CompressFormat.WEBP
 		}
+		val bytes = ByteArrayOutputStream().use { stream ->
+			bitmap.compress(format, COMPRESSION_QUALITY, stream)
+			stream.toByteArray()
+		}
 
 		try {
-			outputStream.use {
-				drawable.toBitmap().compress(format, COMPRESSION_QUALITY, outputStream)
-			}
+			ParcelFileDescriptor.AutoCloseOutputStream(write).use { it.write(bytes) }
 		} catch (_: IOException) {
 			// Ignore IOException as this is commonly thrown when the load request is cancelled
 		}
+
+		// Don't store the placeholder so the image is requested again next time
+		if (result is SuccessResult) {
+			storeRendition(renditionKey, bytes)
+		}
+	}
+
+	private fun storeRendition(key: String, bytes: ByteArray) {
+		val editor = renditionCache.openEditor(key) ?: return
+		try {
+			editor.data.toFile().writeBytes(bytes)
+			editor.commit()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to store launcher image")
+			editor.abort()
+		}
 	}
 
 	companion object {
 		private const val COMPRESSION_QUALITY = 95
 
+		// Largest size of the images served to the launcher
+		private const val LAUNCHER_IMAGE_SIZE = 640
+
+		// Cached images larger than this are served as downscaled rendition instead
+		private const val MAX_DIRECT_FILE_SIZE = 1024L * 1024
+
+		private const val RENDITION_CACHE_SIZE = 20L * 1024 * 1024
+
 		/**
 		 * Get a [Uri] that uses the [ImageProvider] to load an image. The input should be a valid
 		 * Jellyfin image URL created using the SDK.
@@ -3,6 +3,7 @@ package org.jellyfin.androidtv.preference
 import org.jellyfin.androidtv.constant.GridDirection
 import org.jellyfin.androidtv.constant.ImageType
 import org.jellyfin.androidtv.constant.PosterSize
+import org.jellyfin.androidtv.preference.store.DisplayPreferencesLocalStore
 import org.jellyfin.androidtv.preference.store.DisplayPreferencesStore
 import org.jellyfin.preference.booleanPreference
 import org.jellyfin.preference.enumPreference
@@ -13,9 +14,11 @@ import org.jellyfin.sdk.model.api.SortOrder
 class LibraryPreferences(
 	displayPreferencesId: String,
 	api: ApiClient,
+	localStore: DisplayPreferencesLocalStore.UserStore? = null,
 ) : DisplayPreferencesStore(
 	displayPreferencesId = displayPreferencesId,
 	api = api,
+	localStore = localStore,
 ) {
 	companion object {
 		val posterSize = enumPreference("PosterSize", PosterSize.LARGE)
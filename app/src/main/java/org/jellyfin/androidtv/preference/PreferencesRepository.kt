@@ -1,8 +1,20 @@
 package org.jellyfin.androidtv.preference
 
-import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.androidtv.preference.store.DisplayPreferencesLocalStore
 import org.jellyfin.sdk.api.client.ApiClient
-import kotlin.collections.set
+import org.jellyfin.sdk.api.client.exception.ApiClientException
+import org.jellyfin.sdk.api.client.extensions.userViewsApi
+import timber.log.Timber
 
 /**
  * Repository to access special preference stores.
@@ -11,25 +23,87 @@ class PreferencesRepository(
 	private val api: ApiClient,
 	private val liveTvPreferences: LiveTvPreferences,
 	private val userSettingPreferences: UserSettingPreferences,
+	private val userRepository: UserRepository,
+	private val displayPreferencesLocalStore: DisplayPreferencesLocalStore,
 ) {
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+
+	// Note: Do not run display preference requests in parallel as the server can't deal with that
+	// Relevant server issue: https://github.com/jellyfin/jellyfin/issues/5261
+	private val syncMutex = Mutex()
+	private var prefetchJob: Job? = null
+
 	private val libraryPreferences = mutableMapOf<String, LibraryPreferences>()
 
-	fun getLibraryPreferences(preferencesId: String): LibraryPreferences {
-		val store = libraryPreferences[preferencesId] ?: LibraryPreferences(preferencesId, api)
+	private val syncs = mutableMapOf<String, Deferred<Unit>>()
 
-		libraryPreferences[preferencesId] = store
+	/**
+	 * Get the library preferences without waiting for the server. The locally stored preferences or
+	 * the defaults are returned immediately, when the library is not loaded yet the local copy is
+	 * read and synchronized with the server in the background. Use
+	 * [LibraryPreferences.addUpdateListener] to apply the preferences when they are loaded.
+	 */
+	fun getLibraryPreferences(preferencesId: String): LibraryPreferences {
+		val store = getOrCreateLibraryPreferences(preferencesId)
 
-		// FIXME: Make [getLibraryPreferences] suspended when usages are converted to Kotlin
-		if (store.shouldUpdate) runBlocking { store.update() }
+		if (store.shouldUpdate) scope.launch {
+			if (!store.restoreLocal()) sync(preferencesId, store).await()
+		}
 
 		return store
 	}
 
+	/**
+	 * Synchronize a store with the server, a synchronization that is already running is reused.
+	 */
+	private fun sync(preferencesId: String, store: LibraryPreferences) = synchronized(syncs) {
+		syncs[preferencesId]?.takeIf { it.isActive } ?: scope.async {
+			syncMutex.withLock { store.update() }
+			Unit
+		}.also { syncs[preferencesId] = it }
+	}
+
+	private fun getOrCreateLibraryPreferences(preferencesId: String) = synchronized(libraryPreferences) {
+		libraryPreferences.getOrPut(preferencesId) {
+			val localStore = userRepository.currentUser.value?.id?.let(displayPreferencesLocalStore::forUser)
+			LibraryPreferences(preferencesId, api, localStore)
+		}
+	}
+
 	suspend fun onSessionChanged() {
-		// Note: Do not run parallel as the server can't deal with that
-		// Relevant server issue: https://github.com/jellyfin/jellyfin/issues/5261
-		liveTvPreferences.update()
+		prefetchJob?.cancel()
+		synchronized(libraryPreferences) { libraryPreferences.clear() }
+		synchronized(syncs) { syncs.clear() }
+
+		syncMutex.withLock { liveTvPreferences.update() }
+
+		val userId = userRepository.currentUser.value?.id
+		if (userId != null) {
+			prefetchJob = scope.launch {
+				// Read the local copy before libraries are opened so it's available immediately
+				displayPreferencesLocalStore.forUser(userId).load()
+				prefetchLibraryPreferences()
+			}
+		}
+	}
+
+	/**
+	 * Synchronize the preferences of all libraries one by one so opening a library doesn't wait for
+	 * the server.
+	 */
+	private suspend fun prefetchLibraryPreferences() {
+		val views = try {
+			api.userViewsApi.getUserViews().content.items
+		} catch (err: ApiClientException) {
+			Timber.w(err, "Unable to retrieve libraries for display preferences")
+			return
+		}
+
+		for (view in views) {
+			val preferencesId = view.displayPreferencesId ?: view.id.toString()
+			sync(preferencesId, getOrCreateLibraryPreferences(preferencesId)).await()
+		}
 
-		libraryPreferences.clear()
+		Timber.d("Synchronized display preferences of ${views.size} libraries")
 	}
 }
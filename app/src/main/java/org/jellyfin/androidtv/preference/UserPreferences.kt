@@ -383,6 +383,22 @@ class UserPreferences(context: Context) : SharedPreferenceStore(
 		 */
 		var diskCacheSizeMb = intPreference("disk_cache_size_mb", 250)
 
+		/**
+		 * Disk cache size in MB for direct play streams
+		 * Default: disabled
+		 */
+		var mediaCacheSizeMb = intPreference("media_cache_size_mb", 0)
+
+		/**
+		 * Allow HTTP/2 connections to the server when it supports them
+		 */
+		var http2Enabled = booleanPreference("http2_enabled", true)
+
+		/**
+		 * Time in milliseconds to coalesce server change events before updating the home rows
+		 */
+		var homeRowsInvalidationWindow = longPreference("home_rows_invalidation_window", 2_000)
+
 	}
 
 	init {
@@ -0,0 +1,105 @@
+package org.jellyfin.androidtv.preference.store
+
+import android.content.Context
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.json.Json
+import org.jellyfin.sdk.model.api.DisplayPreferencesDto
+import timber.log.Timber
+import java.io.IOException
+import java.util.UUID
+
+/**
+ * Local copy of display preferences per user, used by [DisplayPreferencesStore] to serve
+ * preferences without waiting for the server.
+ */
+class DisplayPreferencesLocalStore(
+	private val context: Context,
+) {
+	/**
+	 * Stored display preferences. The [modifiedAt] time is used to merge with the server, [dirty]
+	 * is set when the preferences are changed locally and not sent to the server yet.
+	 */
+	@Serializable
+	data class Entry(
+		val preferences: DisplayPreferencesDto,
+		val modifiedAt: Long,
+		val dirty: Boolean,
+	)
+
+	/**
+	 * Display preferences of a single user. The preferences are read from disk on first access, use
+	 * [load] or [getLoaded] on the main thread.
+	 */
+	inner class UserStore(private val userId: UUID) {
+		operator fun get(app: String, displayPreferencesId: String): Entry? =
+			synchronized(users) { getEntries(userId)[createKey(app, displayPreferencesId)] }
+
+		/**
+		 * Get an entry without reading from disk, returns null when the preferences are not loaded.
+		 */
+		fun getLoaded(app: String, displayPreferencesId: String): Entry? =
+			synchronized(users) { users[userId]?.get(createKey(app, displayPreferencesId)) }
+
+		suspend fun load() {
+			withContext(Dispatchers.IO) { synchronized(users) { getEntries(userId) } }
+		}
+
+		operator fun set(app: String, displayPreferencesId: String, entry: Entry) {
+			synchronized(users) { getEntries(userId)[createKey(app, displayPreferencesId)] = entry }
+			persist(userId)
+		}
+	}
+
+	// Single threaded so writes happen in order
+	private val scope = CoroutineScope(Dispatchers.IO.limitedParallelism(1) + SupervisorJob())
+	private val users = mutableMapOf<UUID, MutableMap<String, Entry>>()
+
+	private val json = Json {
+		ignoreUnknownKeys = true
+	}
+
+	fun forUser(userId: UUID) = UserStore(userId)
+
+	private fun createKey(app: String, displayPreferencesId: String) = "$app/$displayPreferencesId"
+
+	private fun getStoreFile(userId: UUID) =
+		context.filesDir.resolve("display_preferences").resolve("$userId.json")
+
+	private fun getEntries(userId: UUID) = users.getOrPut(userId) { restore(userId).toMutableMap() }
+
+	private fun persist(userId: UUID) {
+		scope.launch {
+			val entries = synchronized(users) { getEntries(userId).toMap() }
+
+			try {
+				val file = getStoreFile(userId)
+				file.parentFile?.mkdirs()
+				file.writeText(json.encodeToString(entries))
+			} catch (err: IOException) {
+				Timber.w(err, "Unable to store display preferences")
+			}
+		}
+	}
+
+	private fun restore(userId: UUID): Map<String, Entry> {
+		val file = getStoreFile(userId)
+		if (!file.exists()) return emptyMap()
+
+		return try {
+			json.decodeFromString<Map<String, Entry>>(file.readText())
+		} catch (err: SerializationException) {
+			Timber.w(err, "Unable to read stored display preferences")
+			file.delete()
+			emptyMap()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to read stored display preferences")
+			emptyMap()
+		}
+	}
+}
@@ -13,29 +13,160 @@ import org.jellyfin.sdk.model.api.DisplayPreferencesDto
 import org.jellyfin.sdk.model.api.ScrollDirection
 import org.jellyfin.sdk.model.api.SortOrder
 import timber.log.Timber
+import java.util.concurrent.CopyOnWriteArraySet
 
+/**
+ * Result of merging the locally stored display preferences with the server.
+ */
+internal data class MergedDisplayPreferences(
+	val customPrefs: Map<String, String?>,
+	val send: Boolean,
+)
+
+/**
+ * Merge the [local] display preferences with the [server] display preferences. The last written
+ * preferences win, local changes that were not sent yet are kept when they are newer than the
+ * server preferences and need to be sent.
+ */
+internal fun mergeDisplayPreferences(
+	local: DisplayPreferencesLocalStore.Entry?,
+	server: DisplayPreferencesDto,
+): MergedDisplayPreferences {
+	val serverModifiedAt = server.customPrefs[DisplayPreferencesStore.MODIFIED_AT_KEY]?.toLongOrNull() ?: 0
+	return if (local != null && local.dirty && local.modifiedAt >= serverModifiedAt) {
+		MergedDisplayPreferences(local.preferences.customPrefs, send = true)
+	} else {
+		MergedDisplayPreferences(server.customPrefs, send = false)
+	}
+}
+
+/**
+ * Preference store backed by the display preferences on the server. When a [localStore] is set the
+ * preferences are also stored locally, they are available immediately and synchronized with the
+ * server in [update] and [commit]. Conflicting changes are merged by keeping the latest change.
+ *
+ * The store can be used before the first [update], changes committed in the meantime are merged
+ * over the server preferences and committed when the update finishes.
+ */
 @Suppress("TooManyFunctions")
 abstract class DisplayPreferencesStore(
 	protected var displayPreferencesId: String,
 	protected var app: String = "jellyfin-androidtv",
 	private val api: ApiClient,
+	private val localStore: DisplayPreferencesLocalStore.UserStore? = null,
 ) : AsyncPreferenceStore<Unit, Unit>() {
+	companion object {
+		// Custom preference containing the time of the last change, used to merge with the server
+		internal const val MODIFIED_AT_KEY = "androidtv-modified-at"
+	}
+
+	/**
+	 * Listener called when the preferences are replaced by the local copy or the server. Called
+	 * from a background thread.
+	 */
+	fun interface UpdateListener {
+		fun onUpdated()
+	}
+
+	@Volatile
 	private var displayPreferencesDto: DisplayPreferencesDto? = null
-	private var cachedPreferences: MutableMap<String, String?> = mutableMapOf()
+
+	// Copy on write, preferences are read from the UI while updates are applied in the background
+	private val lock = Any()
+
+	@Volatile
+	private var cachedPreferences: Map<String, String?> = emptyMap()
+
+	// Keys changed since the last commit, these are kept when the preferences are updated
+	private val uncommittedKeys = mutableSetOf<String>()
+
+	// Set when commit is called before the first update
+	private var commitPending = false
+
+	private val updateListeners = CopyOnWriteArraySet<UpdateListener>()
+
 	override val shouldUpdate: Boolean
 		get() = displayPreferencesDto == null
 
+	init {
+		// Only use the local copy when it is in memory already, reading it is done in restoreLocal
+		localStore?.getLoaded(app, displayPreferencesId)?.let(::applyLocal)
+	}
+
+	fun addUpdateListener(listener: UpdateListener) {
+		updateListeners.add(listener)
+	}
+
+	fun removeUpdateListener(listener: UpdateListener) {
+		updateListeners.remove(listener)
+	}
+
+	private fun notifyUpdated() = updateListeners.forEach { it.onUpdated() }
+
+	/**
+	 * Read the local copy of the preferences when they are not loaded yet. Returns true when the
+	 * preferences are available without an [update].
+	 */
+	suspend fun restoreLocal(): Boolean {
+		if (!shouldUpdate) return true
+
+		val entry = localStore?.let { store ->
+			withContext(Dispatchers.IO) { store.get(app, displayPreferencesId) }
+		} ?: return false
+
+		applyLocal(entry)
+		notifyUpdated()
+		return true
+	}
+
+	private fun applyLocal(entry: DisplayPreferencesLocalStore.Entry) {
+		synchronized(lock) {
+			if (displayPreferencesDto != null) return
+
+			displayPreferencesDto = entry.preferences
+			replacePreferences(entry.preferences.customPrefs)
+		}
+	}
+
 	override suspend fun commit(): Boolean {
-		if (displayPreferencesDto == null) return false
+		synchronized(lock) {
+			// Not loaded yet, the changed keys are kept and committed after the update
+			if (displayPreferencesDto == null) {
+				commitPending = true
+				return true
+			}
+		}
+
+		val preferences = synchronized(lock) {
+			if (localStore != null) {
+				cachedPreferences = cachedPreferences + (MODIFIED_AT_KEY to System.currentTimeMillis().toString())
+			}
+			uncommittedKeys.clear()
+			cachedPreferences
+		}
+
+		if (localStore != null) storeLocal(preferences, dirty = true)
+
+		val sent = send(preferences)
+		if (sent) storeLocal(preferences, dirty = false)
+
+		// Local changes that are not sent are sent on the next update
+		return sent || localStore != null
+	}
+
+	private suspend fun send(preferences: Map<String, String?>): Boolean {
+		val dto = displayPreferencesDto ?: return false
 
 		try {
-			api.displayPreferencesApi.updateDisplayPreferences(
-				displayPreferencesId = displayPreferencesId,
-				client = app,
-				data = displayPreferencesDto!!.copy(
-					customPrefs = cachedPreferences
+			withContext(Dispatchers.IO) {
+				api.displayPreferencesApi.updateDisplayPreferences(
+					displayPreferencesId = displayPreferencesId,
+					client = app,
+					data = dto.copy(
+						customPrefs = preferences
+					)
 				)
-			)
+			}
 		} catch (err: ApiClientException) {
 			Timber.e(err, "Unable to save displaypreferences. (displayPreferencesId=$displayPreferencesId, app=$app)")
 			return false
@@ -51,7 +182,11 @@ abstract class DisplayPreferencesStore(
 		if (displayPreferencesDto == null) return false
 
 		displayPreferencesDto = null
-		cachedPreferences.clear()
+		synchronized(lock) {
+			cachedPreferences = emptyMap()
+			uncommittedKeys.clear()
+			commitPending = false
+		}
 
 		return true
 	}
@@ -64,22 +199,77 @@ abstract class DisplayPreferencesStore(
 					client = app
 				).content
 			}
-			displayPreferencesDto = result
-			cachedPreferences = result.customPrefs.toMutableMap()
+
+			val local = localStore?.let { store -> withContext(Dispatchers.IO) { store.get(app, displayPreferencesId) } }
+			val merged = mergeDisplayPreferences(local, result)
+			val (preferences, pending) = synchronized(lock) {
+				displayPreferencesDto = result
+				replacePreferences(merged.customPrefs) to takeCommitPending()
+			}
+
+			// Local changes are newer, send them to the server
+			if (!merged.send || send(preferences)) storeLocal(preferences, dirty = false)
+			notifyUpdated()
+			if (pending) commit()
 
 			return true
 		} catch (err: ApiClientException) {
 			Timber.e(err, "Unable to retrieve displaypreferences. (displayPreferencesId=$displayPreferencesId, app=$app)")
 
-			if (displayPreferencesDto == null) {
-				Timber.i("Creating an empty DisplayPreferencesDto for next commit.")
-				displayPreferencesDto = DisplayPreferencesDto.empty()
+			val pending = synchronized(lock) {
+				if (displayPreferencesDto == null) {
+					Timber.i("Creating an empty DisplayPreferencesDto for next commit.")
+					displayPreferencesDto = DisplayPreferencesDto.empty()
+				}
+				takeCommitPending()
 			}
 
+			// Stored locally and sent on the next update when the server is unreachable
+			if (pending) commit()
+
 			return false
 		}
 	}
 
+	private fun takeCommitPending() = commitPending.also { commitPending = false }
+
+	/**
+	 * Replace the preferences while keeping the uncommitted changes. Returns the new preferences.
+	 */
+	private fun replacePreferences(preferences: Map<String, String?>) = synchronized(lock) {
+		val current = cachedPreferences
+		cachedPreferences = preferences.toMutableMap().apply {
+			for (key in uncommittedKeys) {
+				if (key in current) put(key, current[key])
+				else remove(key)
+			}
+		}
+		cachedPreferences
+	}
+
+	private fun edit(key: String, body: MutableMap<String, String?>.() -> Unit) {
+		synchronized(lock) {
+			cachedPreferences = cachedPreferences.toMutableMap().apply(body)
+			uncommittedKeys.add(key)
+		}
+	}
+
+	private suspend fun storeLocal(preferences: Map<String, String?>, dirty: Boolean) {
+		val dto = displayPreferencesDto ?: return
+		val localStore = localStore ?: return
+		withContext(Dispatchers.IO) {
+			localStore.set(
+				app = app,
+				displayPreferencesId = displayPreferencesId,
+				entry = DisplayPreferencesLocalStore.Entry(
+					preferences = dto.copy(customPrefs = preferences),
+					modifiedAt = preferences[MODIFIED_AT_KEY]?.toLongOrNull() ?: 0,
+					dirty = dirty,
+				),
+			)
+		}
+	}
+
 	override fun getInt(key: String, defaultValue: Int) =
 		cachedPreferences[key]?.toIntOrNull() ?: defaultValue
 
@@ -95,28 +285,28 @@ abstract class DisplayPreferencesStore(
 	override fun getString(key: String, defaultValue: String) =
 		cachedPreferences[key] ?: defaultValue
 
-	override fun setInt(key: String, value: Int) {
-		cachedPreferences[key] = value.toString()
+	override fun setInt(key: String, value: Int) = edit(key) {
+		put(key, value.toString())
 	}
 
-	override fun setLong(key: String, value: Long) {
-		cachedPreferences[key] = value.toString()
+	override fun setLong(key: String, value: Long) = edit(key) {
+		put(key, value.toString())
 	}
 
-	override fun setFloat(key: String, value: Float) {
-		cachedPreferences[key] = value.toString()
+	override fun setFloat(key: String, value: Float) = edit(key) {
+		put(key, value.toString())
 	}
 
-	override fun setBool(key: String, value: Boolean) {
-		cachedPreferences[key] = value.toString()
+	override fun setBool(key: String, value: Boolean) = edit(key) {
+		put(key, value.toString())
 	}
 
-	override fun setString(key: String, value: String) {
-		cachedPreferences[key] = value
+	override fun setString(key: String, value: String) = edit(key) {
+		put(key, value)
 	}
 
-	override fun <T : Any> delete(preference: Preference<T>) {
-		cachedPreferences.remove(preference.key)
+	override fun <T : Any> delete(preference: Preference<T>) = edit(preference.key) {
+		remove(preference.key)
 	}
 
 	override fun <T : Enum<T>> getEnum(preference: Preference<T>): T {
@@ -26,7 +26,7 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.R
-import org.jellyfin.androidtv.util.BlurHashDecoder
+import org.jellyfin.androidtv.util.BlurHashCache
 import org.jellyfin.androidtv.util.DeviceMemoryUtils
 import org.jellyfin.androidtv.util.applyNetworkOptimizations
 import org.jellyfin.androidtv.util.applyPerformanceMonitoring
@@ -36,7 +36,6 @@ import org.jellyfin.androidtv.util.applySmartSizing
 import org.koin.core.component.KoinComponent
 import org.koin.core.component.inject
 import timber.log.Timber
-import kotlin.math.round
 import kotlin.time.Duration.Companion.milliseconds
 
 /**
@@ -60,6 +59,7 @@ class AsyncImageView @JvmOverloads constructor(
 	private val lifeCycleOwner get() = findViewTreeLifecycleOwner()
 	private val styledAttributes = context.obtainStyledAttributes(attrs, R.styleable.AsyncImageView, defStyleAttr, 0)
 	private val imageLoader by inject<ImageLoader>()
+	private val blurHashCache by inject<BlurHashCache>()
 
 	// Memory management
 	private var currentRequest: ImageRequest? = null
@@ -139,6 +139,12 @@ class AsyncImageView @JvmOverloads constructor(
 	 */
 	var circleCrop = styledAttributes.getBoolean(R.styleable.AsyncImageView_circleCrop, false)
 
+	/**
+	 * The url of the image that was last requested with [load].
+	 */
+	var url: String? = null
+		private set
+
 	/**
 	 * Load an image from the network using [url]. When the [url] is null or returns a bad response
 	 * the [placeholder] is shown. A [blurHash] is shown while loading the image. An aspect ratio is
@@ -163,6 +169,7 @@ class AsyncImageView @JvmOverloads constructor(
 		enableRetry: Boolean = true,
 	) = doOnAttach {
 		isAttached = true
+		this.url = url
 
 		// Cancel any existing request
 		cancelCurrentRequest()
@@ -234,12 +241,7 @@ class AsyncImageView @JvmOverloads constructor(
 		resolution: Int
 	): Drawable? = withContext(Dispatchers.IO) {
 		try {
-			val blurHashBitmap = BlurHashDecoder.decode(
-				blurHash,
-				if (aspectRatio > 1) round(resolution * aspectRatio).toInt() else resolution,
-				if (aspectRatio >= 1) resolution else round(resolution / aspectRatio).toInt(),
-			)
-			blurHashBitmap?.toDrawable(resources)
+			blurHashCache.get(blurHash, aspectRatio, resolution)?.toDrawable(resources)
 		} catch (e: Exception) {
 			Timber.w(e, "Failed to decode BlurHash")
 			null
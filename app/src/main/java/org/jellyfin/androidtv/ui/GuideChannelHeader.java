@@ -26,14 +26,18 @@ public class GuideChannelHeader extends RelativeLayout {
     private Context mContext;
     private LiveTvGuide mTvGuide;
 
-    public GuideChannelHeader(Context context, LiveTvGuide tvGuide, BaseItemDto channel) {
+    public GuideChannelHeader(Context context, LiveTvGuide tvGuide) {
         super(context);
-        initComponent(context, tvGuide, channel);
+        initComponent(context, tvGuide);
+    }
+
+    public GuideChannelHeader(Context context, LiveTvGuide tvGuide, BaseItemDto channel) {
+        this(context, tvGuide);
+        setChannel(channel);
     }
 
-    private void initComponent(Context context, LiveTvGuide tvGuide, BaseItemDto channel) {
+    private void initComponent(Context context, LiveTvGuide tvGuide) {
         mContext = context;
-        mChannel = channel;
         mTvGuide = tvGuide;
         LayoutInflater inflater = LayoutInflater.from(context);
         View v = inflater.inflate(R.layout.channel_header, this, false);
@@ -44,13 +48,8 @@ public class GuideChannelHeader extends RelativeLayout {
         ));
         this.addView(v);
         this.setFocusable(true);
-        ((TextView) findViewById(R.id.channelName)).setText(channel.getName());
-        ((TextView) findViewById(R.id.channelNumber)).setText(channel.getNumber());
         mChannelImage = findViewById(R.id.channelImage);
         mFavImage = findViewById(R.id.favImage);
-
-        if (mChannel.getUserData() != null && mChannel.getUserData().isFavorite())
-            mFavImage.setVisibility(View.VISIBLE);
     }
 
     public void loadImage() {
@@ -65,7 +64,13 @@ public class GuideChannelHeader extends RelativeLayout {
     }
 
     public BaseItemDto getChannel() { return mChannel; }
-    public void setChannel(BaseItemDto channel) { mChannel = channel; }
+
+    public void setChannel(BaseItemDto channel) {
+        mChannel = channel;
+        ((TextView) findViewById(R.id.channelName)).setText(channel.getName());
+        ((TextView) findViewById(R.id.channelNumber)).setText(channel.getNumber());
+        refreshFavorite();
+    }
 
     public void refreshFavorite() {
         if (mChannel.getUserData() != null && mChannel.getUserData().isFavorite())
@@ -51,15 +51,39 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
 
         mProgramName = findViewById(R.id.programName);
         mInfoRow = findViewById(R.id.infoRow);
-        mProgramName.setText(program.getName());
-        mProgram = program;
         mRecIndicator = findViewById(R.id.recIndicator);
 
+        setProgram(program);
+
+        if (keyListen) {
+            setOnClickListener(new OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    mActivity.showProgramOptions();
+                }
+            });
+        }
+    }
+
+    /**
+     * Bind a (new) program to this cell, used when cells are recycled by the guide.
+     */
+    public void setProgram(BaseItemDto program) {
+        Context context = getContext();
+        mProgram = program;
+        isFirst = false;
+        isLast = false;
+        mProgramName.setText(program.getName());
+        mInfoRow.removeAllViews();
+        mRecIndicator.setImageDrawable(null);
+        mBackgroundColor = 0;
+        if (!hasFocus()) setBackground(null);
+
         setCellBackground();
 
         if (program.getStartDate() != null && program.getEndDate() != null) {
             LocalDateTime localStart = program.getStartDate();
-            if (localStart.plusMinutes(1).isBefore(activity.getCurrentLocalStartDate())) {
+            if (localStart.plusMinutes(1).isBefore(mActivity.getCurrentLocalStartDate())) {
                 mProgramName.setText("<< "+mProgramName.getText());
                 TextView time = new TextView(context);
                 time.setTypeface(Typeface.create("sans-serif-light", Typeface.NORMAL));
@@ -96,17 +120,6 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
         } else if (program.getTimerId() != null) {
             mRecIndicator.setImageResource(R.drawable.ic_record_red);
         }
-
-
-        if (keyListen) {
-            setOnClickListener(new OnClickListener() {
-                @Override
-                public void onClick(View v) {
-                    mActivity.showProgramOptions();
-                }
-            });
-        }
-
     }
 
     private void addBlockText(String text, float size, int textColor, int backgroundRes) {
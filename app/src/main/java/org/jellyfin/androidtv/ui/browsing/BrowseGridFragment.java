@@ -51,6 +51,8 @@ import org.jellyfin.androidtv.databinding.HorizontalGridBrowseBinding;
 import org.jellyfin.androidtv.databinding.PopupEmptyBinding;
 import org.jellyfin.androidtv.preference.LibraryPreferences;
 import org.jellyfin.androidtv.preference.PreferencesRepository;
+import org.jellyfin.androidtv.preference.UserPreferences;
+import org.jellyfin.androidtv.preference.store.DisplayPreferencesStore;
 import org.jellyfin.androidtv.ui.AlphaPickerView;
 import org.jellyfin.androidtv.ui.VerticalAlphaPickerView;
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem;
@@ -158,6 +160,18 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
     private UUID mParentId;
     private BaseItemDto mFolder;
     private LibraryPreferences libraryPreferences;
+    // Preferences are loaded in the background when the library is opened for the first time
+    private final DisplayPreferencesStore.UpdateListener libraryPreferencesListener = () -> mHandler.post(() -> {
+        if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED) || mAdapter == null) return;
+        if (mAdapter.getSortBy() != libraryPreferences.get(LibraryPreferences.Companion.getSortBy())
+                || mAdapter.getFilters().isFavoriteOnly() != libraryPreferences.get(LibraryPreferences.Companion.getFilterFavoritesOnly())
+                || mAdapter.getFilters().isUnwatchedOnly() != libraryPreferences.get(LibraryPreferences.Companion.getFilterUnwatchedOnly())) {
+            mDirty = true;
+        }
+        applyDisplayPreferences();
+        if (mUnwatchedButton != null) mUnwatchedButton.setActivated(mAdapter.getFilters().isUnwatchedOnly());
+        if (mFavoriteButton != null) mFavoriteButton.setActivated(mAdapter.getFilters().isFavoriteOnly());
+    });
     private HorizontalGridBrowseBinding binding;
     private ItemRowAdapter mAdapter;
     private Presenter mGridPresenter;
@@ -173,6 +187,7 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
 
     private final Lazy<BackgroundService> backgroundService = inject(BackgroundService.class);
     private final Lazy<PreferencesRepository> preferencesRepository = inject(PreferencesRepository.class);
+    private final Lazy<UserPreferences> userPreferences = inject(UserPreferences.class);
     private final Lazy<UserViewsRepository> userViewsRepository = inject(UserViewsRepository.class);
     private final Lazy<CustomMessageRepository> customMessageRepository = inject(CustomMessageRepository.class);
     private final Lazy<NavigationRepository> navigationRepository = inject(NavigationRepository.class);
@@ -221,6 +236,7 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
         mainTitle = mFolder.getName();
         String displayPreferencesId = mFolder.getDisplayPreferencesId() != null ? mFolder.getDisplayPreferencesId() : mFolder.getId().toString();
         libraryPreferences = preferencesRepository.getValue().getLibraryPreferences(displayPreferencesId);
+        libraryPreferences.addUpdateListener(libraryPreferencesListener);
         mPosterSizeSetting = libraryPreferences.get(LibraryPreferences.Companion.getPosterSize());
         mImageType = libraryPreferences.get(LibraryPreferences.Companion.getImageType());
         mGridDirection = libraryPreferences.get(LibraryPreferences.Companion.getGridDirection());
@@ -336,6 +352,12 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
         mHandler.removeCallbacksAndMessages(null);
     }
 
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        libraryPreferences.removeUpdateListener(libraryPreferencesListener);
+    }
+
     private void createGrid() {
         if (mGridPresenter == null) return;
         mGridViewHolder = mGridPresenter.onCreateViewHolder(binding.rowsFragment);
@@ -781,20 +803,34 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
             if (type == CollectionType.MUSIC) {
                 String includeType = getArguments().getString(Extras.IncludeType, null);
                 if ("AlbumArtist".equals(includeType)) {
-                    setRowDef(new BrowseRowDef("", BrowsingUtils.createAlbumArtistsRequest(mParentId), CHUNK_SIZE_MINIMUM, new ChangeTriggerType[]{}));
+                    setRowDef(new BrowseRowDef("", BrowsingUtils.createAlbumArtistsRequest(userPreferences.getValue(), mParentId), CHUNK_SIZE_MINIMUM, new ChangeTriggerType[]{}));
                     return;
                 } else if ("Artist".equals(includeType)) {
-                    setRowDef(new BrowseRowDef("", BrowsingUtils.createArtistsRequest(mParentId), CHUNK_SIZE_MINIMUM, new ChangeTriggerType[]{}));
+                    setRowDef(new BrowseRowDef("", BrowsingUtils.createArtistsRequest(userPreferences.getValue(), mParentId), CHUNK_SIZE_MINIMUM, new ChangeTriggerType[]{}));
                     return;
                 }
             }
         }
-        setRowDef(new BrowseRowDef("", BrowsingUtils.createBrowseGridItemsRequest(mFolder), CHUNK_SIZE_MINIMUM, false, true));
+        setRowDef(new BrowseRowDef("", BrowsingUtils.createBrowseGridItemsRequest(userPreferences.getValue(), mFolder), CHUNK_SIZE_MINIMUM, false, true));
     }
 
     @Override
     public void onResume() {
         super.onResume();
+        applyDisplayPreferences();
+        if (!justLoaded && mAdapter != null) {
+            mHandler.postDelayed(() -> {
+                if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) return;
+                if (mAdapter != null && mAdapter.size() > 0) {
+                    if (!mAdapter.ReRetrieveIfNeeded()) refreshCurrentItem();
+                }
+            }, 500);
+        } else {
+            justLoaded = false;
+        }
+    }
+
+    private void applyDisplayPreferences() {
         PosterSize posterSizeSetting = libraryPreferences.get(LibraryPreferences.Companion.getPosterSize());
         ImageType imageType = libraryPreferences.get(LibraryPreferences.Companion.getImageType());
         GridDirection gridDirection = libraryPreferences.get(LibraryPreferences.Companion.getGridDirection());
@@ -816,21 +852,12 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
             loadGrid();
             determiningPosterSize = false;
         }
-        if (!justLoaded && mAdapter != null) {
-            mHandler.postDelayed(() -> {
-                if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) return;
-                if (mAdapter != null && mAdapter.size() > 0) {
-                    if (!mAdapter.ReRetrieveIfNeeded()) refreshCurrentItem();
-                }
-            }, 500);
-        } else {
-            justLoaded = false;
-        }
     }
 
     private void buildAdapter() {
         mCardPresenter = new CardPresenter(true, mImageType, mCardHeight, mGridDirection.equals(GridDirection.LIST));
         mCardPresenter.setUniformAspect(true);
+        mCardPresenter.setShowBlurHash(true);
         int chunkSize = mRowDef.getChunkSize();
         if (mCardsScreenEst > 0 && mCardsScreenEst >= chunkSize) {
             chunkSize = Math.min(mCardsScreenEst + mCardsScreenStride, 150);
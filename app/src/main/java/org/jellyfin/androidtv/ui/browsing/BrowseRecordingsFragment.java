@@ -42,22 +42,22 @@ public class BrowseRecordingsFragment extends EnhancedBrowseFragment {
     protected void setupQueries(final RowLoader rowLoader) {
         showViews = true;
         //Latest Recordings
-        mRows.add(new BrowseRowDef(getString(R.string.lbl_recent_recordings), BrowsingUtils.createLiveTVRecordingsRequest(40), 40));
+        mRows.add(new BrowseRowDef(getString(R.string.lbl_recent_recordings), BrowsingUtils.createLiveTVRecordingsRequest(userPreferences.getValue(), 40), 40));
 
         //Movies
-        BrowseRowDef moviesDef = new BrowseRowDef(getString(R.string.lbl_movies), BrowsingUtils.createLiveTVMovieRecordingsRequest(), 60);
+        BrowseRowDef moviesDef = new BrowseRowDef(getString(R.string.lbl_movies), BrowsingUtils.createLiveTVMovieRecordingsRequest(userPreferences.getValue()), 60);
 
         //Shows
-        BrowseRowDef showsDef = new BrowseRowDef(getString(R.string.lbl_tv_series), BrowsingUtils.createLiveTVSeriesRecordingsRequest(), 60);
+        BrowseRowDef showsDef = new BrowseRowDef(getString(R.string.lbl_tv_series), BrowsingUtils.createLiveTVSeriesRecordingsRequest(userPreferences.getValue()), 60);
 
         mRows.add(showsDef);
         mRows.add(moviesDef);
 
         //Sports
-        mRows.add(new BrowseRowDef(getString(R.string.lbl_sports), BrowsingUtils.createLiveTVSportsRecordingsRequest(), 60));
+        mRows.add(new BrowseRowDef(getString(R.string.lbl_sports), BrowsingUtils.createLiveTVSportsRecordingsRequest(userPreferences.getValue()), 60));
 
         //Kids
-        mRows.add(new BrowseRowDef(getString(R.string.lbl_kids), BrowsingUtils.createLiveTVKidsRecordingsRequest(), 60));
+        mRows.add(new BrowseRowDef(getString(R.string.lbl_kids), BrowsingUtils.createLiveTVKidsRecordingsRequest(userPreferences.getValue()), 60));
 
         rowLoader.loadRows(mRows);
         addNext24Timers();
@@ -5,6 +5,7 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.data.repository.ItemRepository
+import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.liveTvApi
 import org.jellyfin.sdk.model.api.BaseItemDto
@@ -22,12 +23,13 @@ fun EnhancedBrowseFragment.getLiveTvRecordingsAndTimers(
 	errorCallback: (exception: Throwable) -> Unit,
 ) {
 	val api by inject<ApiClient>()
+	val userPreferences by inject<UserPreferences>()
 
 	lifecycleScope.launch {
 		runCatching {
 			val recordings = withContext(Dispatchers.IO) {
 				api.liveTvApi.getRecordings(
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.browseFields(userPreferences),
 					enableImages = true,
 					limit = 40,
 				).content
@@ -6,6 +6,7 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.data.repository.ItemRepository
+import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.exception.ApiClientException
 import org.jellyfin.sdk.api.client.extensions.itemsApi
@@ -62,27 +63,28 @@ object BrowsingUtils {
 	}
 
 	@JvmStatic
-	fun createGetNextUpRequest(parentId: UUID) = GetNextUpRequest(
+	fun createGetNextUpRequest(userPreferences: UserPreferences, parentId: UUID) = GetNextUpRequest(
 		limit = 50,
 		parentId = parentId,
 		imageTypeLimit = 1,
-		fields = ItemRepository.itemFields
+		fields = ItemRepository.browseFields(userPreferences)
 	)
 
 	@JvmStatic
-	fun createSeriesGetNextUpRequest(parentId: UUID) = GetNextUpRequest(
+	fun createSeriesGetNextUpRequest(userPreferences: UserPreferences, parentId: UUID) = GetNextUpRequest(
 		seriesId = parentId,
-		fields = ItemRepository.itemFields
+		fields = ItemRepository.browseFields(userPreferences)
 	)
 
 	@JvmStatic
 	@JvmOverloads
 	fun createLatestMediaRequest(
+		userPreferences: UserPreferences,
 		parentId: UUID,
 		itemType: BaseItemKind? = null,
 		groupItems: Boolean? = null
 	) = GetLatestMediaRequest(
-		fields = ItemRepository.itemFields,
+		fields = ItemRepository.browseFields(userPreferences),
 		parentId = parentId,
 		limit = 50,
 		imageTypeLimit = 1,
@@ -91,28 +93,28 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createSeasonsRequest(seriesId: UUID) = GetSeasonsRequest(
+	fun createSeasonsRequest(userPreferences: UserPreferences, seriesId: UUID) = GetSeasonsRequest(
 		seriesId = seriesId,
-		fields = ItemRepository.itemFields,
+		fields = ItemRepository.browseFields(userPreferences),
 	)
 
 	@JvmStatic
-	fun createUpcomingEpisodesRequest(parentId: UUID) = GetUpcomingEpisodesRequest(
+	fun createUpcomingEpisodesRequest(userPreferences: UserPreferences, parentId: UUID) = GetUpcomingEpisodesRequest(
 		parentId = parentId,
-		fields = ItemRepository.itemFields,
+		fields = ItemRepository.browseFields(userPreferences),
 	)
 
 	@JvmStatic
-	fun createSimilarItemsRequest(itemId: UUID) = GetSimilarItemsRequest(
+	fun createSimilarItemsRequest(userPreferences: UserPreferences, itemId: UUID) = GetSimilarItemsRequest(
 		itemId = itemId,
-		fields = ItemRepository.itemFields,
+		fields = ItemRepository.browseFields(userPreferences),
 		limit = 20,
 	)
 
 	@JvmStatic
 	fun createLiveTVOnNowRequest() = GetRecommendedProgramsRequest(
 		isAiring = true,
-		fields = ItemRepository.itemFields,
+		fields = ItemRepository.guideFields,
 		imageTypeLimit = 1,
 		enableTotalRecordCount = false,
 		limit = 150,
@@ -122,7 +124,7 @@ object BrowsingUtils {
 	fun createLiveTVUpcomingRequest() = GetRecommendedProgramsRequest(
 		isAiring = false,
 		hasAired = false,
-		fields = ItemRepository.itemFields,
+		fields = ItemRepository.guideFields,
 		imageTypeLimit = 1,
 		enableTotalRecordCount = false,
 		limit = 150,
@@ -130,39 +132,39 @@ object BrowsingUtils {
 
 	@JvmStatic
 	@JvmOverloads
-	fun createLiveTVRecordingsRequest(limit: Int? = null) = GetRecordingsRequest(
-		fields = ItemRepository.itemFields,
+	fun createLiveTVRecordingsRequest(userPreferences: UserPreferences, limit: Int? = null) = GetRecordingsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		enableImages = true,
 		limit = limit,
 	)
 
 	@JvmStatic
-	fun createLiveTVMovieRecordingsRequest() = GetRecordingsRequest(
-		fields = ItemRepository.itemFields,
+	fun createLiveTVMovieRecordingsRequest(userPreferences: UserPreferences) = GetRecordingsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		enableImages = true,
 		limit = 60,
 		isMovie = true,
 	)
 
 	@JvmStatic
-	fun createLiveTVSeriesRecordingsRequest() = GetRecordingsRequest(
-		fields = ItemRepository.itemFields,
+	fun createLiveTVSeriesRecordingsRequest(userPreferences: UserPreferences) = GetRecordingsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		enableImages = true,
 		limit = 60,
 		isSeries = true,
 	)
 
 	@JvmStatic
-	fun createLiveTVSportsRecordingsRequest() = GetRecordingsRequest(
-		fields = ItemRepository.itemFields,
+	fun createLiveTVSportsRecordingsRequest(userPreferences: UserPreferences) = GetRecordingsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		enableImages = true,
 		limit = 60,
 		isSports = true,
 	)
 
 	@JvmStatic
-	fun createLiveTVKidsRecordingsRequest() = GetRecordingsRequest(
-		fields = ItemRepository.itemFields,
+	fun createLiveTVKidsRecordingsRequest(userPreferences: UserPreferences) = GetRecordingsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		enableImages = true,
 		limit = 60,
 		isKids = true,
@@ -174,20 +176,20 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createAlbumArtistsRequest(parentId: UUID) = GetAlbumArtistsRequest(
-		fields = ItemRepository.itemFields,
+	fun createAlbumArtistsRequest(userPreferences: UserPreferences, parentId: UUID) = GetAlbumArtistsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		parentId = parentId,
 	)
 
 	@JvmStatic
-	fun createArtistsRequest(parentId: UUID) = GetArtistsRequest(
-		fields = ItemRepository.itemFields,
+	fun createArtistsRequest(userPreferences: UserPreferences, parentId: UUID) = GetArtistsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		parentId = parentId,
 	)
 
 	@JvmStatic
-	fun createPersonItemsRequest(personId: UUID, itemType: BaseItemKind) = GetItemsRequest(
-		fields = ItemRepository.itemFields,
+	fun createPersonItemsRequest(userPreferences: UserPreferences, personId: UUID, itemType: BaseItemKind) = GetItemsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		personIds = setOf(personId),
 		recursive = true,
 		includeItemTypes = setOf(itemType),
@@ -195,8 +197,8 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createArtistItemsRequest(artistId: UUID, itemType: BaseItemKind) = GetItemsRequest(
-		fields = ItemRepository.itemFields,
+	fun createArtistItemsRequest(userPreferences: UserPreferences, artistId: UUID, itemType: BaseItemKind) = GetItemsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		artistIds = setOf(artistId),
 		recursive = true,
 		includeItemTypes = setOf(itemType),
@@ -204,8 +206,8 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createNextEpisodesRequest(seasonId: UUID, indexNumber: Int) = GetItemsRequest(
-		fields = ItemRepository.itemFields,
+	fun createNextEpisodesRequest(userPreferences: UserPreferences, seasonId: UUID, indexNumber: Int) = GetItemsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		parentId = seasonId,
 		includeItemTypes = setOf(BaseItemKind.EPISODE),
 		startIndex = indexNumber,
@@ -213,8 +215,8 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createResumeItemsRequest(parentId: UUID, itemType: BaseItemKind) = GetItemsRequest(
-		fields = ItemRepository.itemFields,
+	fun createResumeItemsRequest(userPreferences: UserPreferences, parentId: UUID, itemType: BaseItemKind) = GetItemsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		includeItemTypes = setOf(itemType),
 		recursive = true,
 		parentId = parentId,
@@ -228,29 +230,29 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createFavoriteItemsRequest(parentId: UUID, itemType: BaseItemKind) = GetItemsRequest(
+	fun createFavoriteItemsRequest(userPreferences: UserPreferences, parentId: UUID, itemType: BaseItemKind) = GetItemsRequest(
 		parentId = parentId,
 		includeItemTypes = setOf(itemType),
 		filters = setOf(ItemFilter.IS_FAVORITE),
 		sortBy = setOf(ItemSortBy.SORT_NAME),
 		recursive = true,
 		limit = 100,
-		fields = ItemRepository.itemFields,
+		fields = ItemRepository.browseFields(userPreferences),
 	)
 
 	@JvmStatic
-	fun createFavoriteItemsRequest(itemType: BaseItemKind) = GetItemsRequest(
+	fun createFavoriteItemsRequest(userPreferences: UserPreferences, itemType: BaseItemKind) = GetItemsRequest(
 		includeItemTypes = setOf(itemType),
 		filters = setOf(ItemFilter.IS_FAVORITE),
 		sortBy = setOf(ItemSortBy.SORT_NAME),
 		recursive = true,
 		limit = 100,
-		fields = ItemRepository.itemFields,
+		fields = ItemRepository.browseFields(userPreferences),
 	)
 
 	@JvmStatic
-	fun createCollectionsRequest(parentId: UUID) = GetItemsRequest(
-		fields = ItemRepository.itemFields,
+	fun createCollectionsRequest(userPreferences: UserPreferences, parentId: UUID) = GetItemsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		includeItemTypes = setOf(BaseItemKind.BOX_SET),
 		recursive = true,
 		imageTypeLimit = 1,
@@ -259,8 +261,8 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createPremieresRequest(parentId: UUID) = GetItemsRequest(
-		fields = ItemRepository.itemFields,
+	fun createPremieresRequest(userPreferences: UserPreferences, parentId: UUID) = GetItemsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		includeItemTypes = setOf(BaseItemKind.EPISODE),
 		parentId = parentId,
 		indexNumber = 1,
@@ -275,8 +277,8 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createLastPlayedRequest(parentId: UUID) = GetItemsRequest(
-		fields = ItemRepository.itemFields,
+	fun createLastPlayedRequest(userPreferences: UserPreferences, parentId: UUID) = GetItemsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		includeItemTypes = setOf(BaseItemKind.AUDIO),
 		recursive = true,
 		parentId = parentId,
@@ -289,8 +291,8 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createPlaylistsRequest() = GetItemsRequest(
-		fields = ItemRepository.itemFields,
+	fun createPlaylistsRequest(userPreferences: UserPreferences) = GetItemsRequest(
+		fields = ItemRepository.browseFields(userPreferences),
 		includeItemTypes = setOf(BaseItemKind.PLAYLIST),
 		imageTypeLimit = 1,
 		recursive = true,
@@ -299,9 +301,9 @@ object BrowsingUtils {
 	)
 
 	@JvmStatic
-	fun createBrowseGridItemsRequest(parent: BaseItemDto): GetItemsRequest {
+	fun createBrowseGridItemsRequest(userPreferences: UserPreferences, parent: BaseItemDto): GetItemsRequest {
 		val baseRequest = GetItemsRequest(
-			fields = ItemRepository.itemFields,
+			fields = ItemRepository.browseFields(userPreferences),
 			parentId = parent.id,
 		)
 
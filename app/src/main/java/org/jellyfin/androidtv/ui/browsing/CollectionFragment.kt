@@ -12,21 +12,21 @@ class CollectionFragment : EnhancedBrowseFragment() {
 		// prevent duplicates
 		mRows.clear()
 		val movies = GetItemsRequest(
-			fields = ItemRepository.itemFields,
+			fields = ItemRepository.browseFields(userPreferences.value),
 			parentId = mFolder.id,
 			includeItemTypes = setOf(BaseItemKind.MOVIE),
 		)
 		mRows.add(BrowseRowDef(getString(R.string.lbl_movies), movies, 100))
 
 		val series = GetItemsRequest(
-			fields = ItemRepository.itemFields,
+			fields = ItemRepository.browseFields(userPreferences.value),
 			parentId = mFolder.id,
 			includeItemTypes = setOf(BaseItemKind.SERIES),
 		)
 		mRows.add(BrowseRowDef(getString(R.string.lbl_tv_series), series, 100))
 
 		val others = GetItemsRequest(
-			fields = ItemRepository.itemFields,
+			fields = ItemRepository.browseFields(userPreferences.value),
 			parentId = mFolder.id,
 			excludeItemTypes = setOf(BaseItemKind.MOVIE, BaseItemKind.SERIES),
 		)
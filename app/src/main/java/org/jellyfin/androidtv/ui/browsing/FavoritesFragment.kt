@@ -50,7 +50,7 @@ class FavoritesFragment : EnhancedBrowseFragment() {
 				sortOrder = setOf(SortOrder.DESCENDING),
 				recursive = true,
 				limit = 20,
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.browseFields(userPreferences.value),
 				enableImages = true,
 				enableUserData = true
 			)
@@ -66,7 +66,7 @@ class FavoritesFragment : EnhancedBrowseFragment() {
 				sortOrder = setOf(SortOrder.DESCENDING),
 				recursive = true,
 				limit = 20,
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.browseFields(userPreferences.value),
 				enableImages = true,
 				enableUserData = true
 			)
@@ -82,7 +82,7 @@ class FavoritesFragment : EnhancedBrowseFragment() {
 				sortOrder = setOf(SortOrder.DESCENDING),
 				recursive = true,
 				limit = 20,
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.browseFields(userPreferences.value),
 				enableImages = true,
 				enableUserData = true
 			)
@@ -98,7 +98,7 @@ class FavoritesFragment : EnhancedBrowseFragment() {
 				sortOrder = setOf(SortOrder.DESCENDING),
 				recursive = true,
 				limit = 20,
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.browseFields(userPreferences.value),
 				enableImages = true,
 				enableUserData = true
 			)
@@ -116,7 +116,7 @@ class FavoritesFragment : EnhancedBrowseFragment() {
 				limit = 20,
 				imageTypeLimit = 1,
 				enableImageTypes = setOf(SdkImageType.THUMB, SdkImageType.BACKDROP, SdkImageType.PRIMARY),
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.browseFields(userPreferences.value),
 				enableImages = true,
 				enableUserData = true
 			),
@@ -133,7 +133,7 @@ class FavoritesFragment : EnhancedBrowseFragment() {
 				sortOrder = setOf(SortOrder.DESCENDING),
 				recursive = true,
 				limit = 20,
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.browseFields(userPreferences.value),
 				enableImages = true,
 				enableUserData = true
 			)
@@ -151,7 +151,7 @@ class FavoritesFragment : EnhancedBrowseFragment() {
 				recursive = true,
 				imageTypeLimit = 1,
 				enableImageTypes = setOf(SdkImageType.THUMB,SdkImageType.BACKDROP,SdkImageType.PRIMARY),
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.browseFields(userPreferences.value),
 				enableImages = true,
 				enableUserData = true
 			),
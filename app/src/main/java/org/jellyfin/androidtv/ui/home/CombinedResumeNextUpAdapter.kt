@@ -84,7 +84,7 @@ class CombinedResumeNextUpAdapter(
                 GetResumeItemsRequest(
                     userId = currentUserId,
                     limit = RESUME_LIMIT,
-                    fields = ItemRepository.itemFields,
+                    fields = ItemRepository.browseFields(userPreferences),
                     imageTypeLimit = 1,
                     enableTotalRecordCount = false,
                     mediaTypes = listOf(MediaType.VIDEO),
@@ -106,7 +106,7 @@ class CombinedResumeNextUpAdapter(
                     userId = currentUserId,
                     limit = NEXT_UP_LIMIT,
                     enableResumable = false,
-                    fields = ItemRepository.itemFields,
+                    fields = ItemRepository.browseFields(userPreferences),
                     imageTypeLimit = 1
                 )
             ).content
@@ -268,7 +268,7 @@ class GenreManager(
 			sortOrder = listOf(SortOrder.DESCENDING),
 			limit = GENRE_ITEM_LIMIT,
 			recursive = true,
-			fields = ItemRepository.itemFields,
+			fields = ItemRepository.browseFields(userPreferences),
 			imageTypeLimit = 1,
 			enableTotalRecordCount = false
 		)
@@ -301,7 +301,7 @@ class GenreManager(
 			mediaTypes = setOf(MediaType.AUDIO),
 			sortBy = listOf(userPreferences[UserPreferences.genreSortBy].itemSortBy),
 			limit = GENRE_ITEM_LIMIT,
-			fields = ItemRepository.itemFields,
+			fields = ItemRepository.browseFields(userPreferences),
 			recursive = true,
 			excludeItemTypes = setOf(BaseItemKind.MOVIE, BaseItemKind.SERIES, BaseItemKind.EPISODE)
 		)
@@ -340,7 +340,7 @@ class GenreManager(
 			recursive = true,
 			imageTypeLimit = 1,
 			enableTotalRecordCount = false,
-			fields = ItemRepository.itemFields,
+			fields = ItemRepository.browseFields(userPreferences),
 			enableImages = true
 		)
 
@@ -49,7 +49,7 @@ class HomeFragmentHelper(
             mediaTypes = setOf(MediaType.AUDIO),
             sortBy = setOf(ItemSortBy.SORT_NAME),
             limit = ITEM_LIMIT,
-            fields = ItemRepository.itemFields,
+            fields = ItemRepository.browseFields(userPreferences),
             recursive = true,
             excludeItemTypes = setOf(BaseItemKind.MOVIE, BaseItemKind.SERIES, BaseItemKind.EPISODE)
         )
@@ -57,12 +57,12 @@ class HomeFragmentHelper(
     }
 
     fun loadMusicVideosRow(): HomeFragmentRow {
-        return HomeFragmentMusicVideosRow(userRepository)
+        return HomeFragmentMusicVideosRow(userRepository, userPreferences)
     }
 
 
     fun loadRecentlyAdded(userViews: Collection<org.jellyfin.sdk.model.api.BaseItemDto>): HomeFragmentRow {
-        return HomeFragmentLatestRow(userRepository, userViews)
+        return HomeFragmentLatestRow(userRepository, userViews, userPreferences)
     }
 
     fun loadResumeVideo(): HomeFragmentRow {
@@ -75,7 +75,7 @@ class HomeFragmentHelper(
 
     fun loadLatestLiveTvRecordings(): HomeFragmentRow {
         val query = GetRecordingsRequest(
-            fields = ItemRepository.itemFields,
+            fields = ItemRepository.browseFields(userPreferences),
             enableImages = true,
             limit = ITEM_LIMIT_RECORDINGS
         )
@@ -88,7 +88,7 @@ class HomeFragmentHelper(
             imageTypeLimit = 1,
             limit = ITEM_LIMIT_NEXT_UP,
             enableResumable = false,
-            fields = ItemRepository.itemFields
+            fields = ItemRepository.browseFields(userPreferences)
         )
 
         // Check if series thumbnails are enabled
@@ -176,7 +176,7 @@ class HomeFragmentHelper(
     fun loadOnNow(): HomeFragmentRow {
         val query = GetRecommendedProgramsRequest(
             isAiring = true,
-            fields = ItemRepository.itemFields,
+            fields = ItemRepository.browseFields(userPreferences),
             imageTypeLimit = 1,
             enableTotalRecordCount = false,
             limit = ITEM_LIMIT_ON_NOW
@@ -188,7 +188,7 @@ class HomeFragmentHelper(
     private fun loadResume(title: String, includeMediaTypes: Collection<MediaType>): HomeFragmentRow {
         val query = GetResumeItemsRequest(
             limit = ITEM_LIMIT_RESUME,
-            fields = ItemRepository.itemFields,
+            fields = ItemRepository.browseFields(userPreferences),
             imageTypeLimit = 1,
             enableTotalRecordCount = false,
             mediaTypes = includeMediaTypes.toList(),
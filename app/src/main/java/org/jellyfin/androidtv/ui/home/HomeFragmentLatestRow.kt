@@ -7,6 +7,7 @@ import org.jellyfin.androidtv.R
 import org.jellyfin.androidtv.auth.repository.UserRepository
 import org.jellyfin.androidtv.constant.ChangeTriggerType
 import org.jellyfin.androidtv.data.repository.ItemRepository
+import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.ui.browsing.BrowseRowDef
 import org.jellyfin.androidtv.ui.presentation.CardPresenter
 import org.jellyfin.androidtv.ui.presentation.MutableObjectAdapter
@@ -17,6 +18,7 @@ import org.jellyfin.sdk.model.api.request.GetLatestMediaRequest
 class HomeFragmentLatestRow(
 	private val userRepository: UserRepository,
 	private val userViews: Collection<BaseItemDto>,
+	private val userPreferences: UserPreferences,
 ) : HomeFragmentRow {
 	@SuppressLint("StringFormatInvalid")
 	override fun addToRowsAdapter(context: Context, cardPresenter: CardPresenter, rowsAdapter: MutableObjectAdapter<Row>) {
@@ -36,7 +38,7 @@ class HomeFragmentLatestRow(
 			.forEach { item ->
 				// Create query and add it to a new row
 				val request = GetLatestMediaRequest(
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.browseFields(userPreferences),
 					imageTypeLimit = 1,
 					parentId = item.id,
 					groupItems = true,
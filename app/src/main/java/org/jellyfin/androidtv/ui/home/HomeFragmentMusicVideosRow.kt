@@ -9,6 +9,7 @@ import org.jellyfin.androidtv.constant.ChangeTriggerType
 import org.jellyfin.androidtv.constant.ImageType
 import org.jellyfin.androidtv.data.repository.ItemRepository
 import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.ui.browsing.BrowseRowDef
 import org.jellyfin.androidtv.ui.presentation.CardPresenter
 import org.jellyfin.androidtv.ui.presentation.MutableObjectAdapter
@@ -17,7 +18,8 @@ import org.jellyfin.sdk.model.api.ItemSortBy
 import org.jellyfin.sdk.model.api.request.GetItemsRequest
 
 class HomeFragmentMusicVideosRow(
-    private val userRepository: UserRepository
+    private val userRepository: UserRepository,
+    private val userPreferences: UserPreferences,
 ) : HomeFragmentRow {
     override fun addToRowsAdapter(context: Context, cardPresenter: CardPresenter, rowsAdapter: MutableObjectAdapter<Row>) {
         val currentUserId = userRepository.currentUser.value?.id ?: return
@@ -32,7 +34,7 @@ class HomeFragmentMusicVideosRow(
             recursive = true,
             imageTypeLimit = 1,
             enableTotalRecordCount = false,
-            fields = ItemRepository.itemFields,
+            fields = ItemRepository.browseFields(userPreferences),
             enableImages = true
         )
 
@@ -3,6 +3,8 @@ package org.jellyfin.androidtv.ui.home
 import android.os.Bundle
 import android.view.KeyEvent
 import android.view.View
+import android.view.ViewGroup
+import androidx.core.view.descendants
 import androidx.leanback.app.RowsSupportFragment
 import androidx.leanback.widget.ListRow
 import androidx.leanback.widget.ObjectAdapter
@@ -38,6 +40,7 @@ import org.jellyfin.androidtv.data.repository.UserViewsRepository
 import org.jellyfin.androidtv.data.service.BackgroundService
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.UserSettingPreferences
+import org.jellyfin.androidtv.ui.AsyncImageView
 import org.jellyfin.androidtv.ui.browsing.CompositeClickedListener
 import org.jellyfin.androidtv.ui.browsing.CompositeSelectedListener
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem
@@ -54,6 +57,7 @@ import org.jellyfin.androidtv.util.KeyProcessor
 import org.jellyfin.androidtv.util.apiclient.getUrl
 import org.jellyfin.androidtv.util.apiclient.itemImages
 import org.jellyfin.androidtv.util.apiclient.parentImages
+import org.jellyfin.androidtv.util.coil.ImageMemoryBudget
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.liveTvApi
 import org.jellyfin.sdk.api.sockets.subscribe
@@ -61,6 +65,7 @@ import org.jellyfin.sdk.model.api.LibraryChangedMessage
 import org.jellyfin.sdk.model.api.UserDataChangedMessage
 import org.koin.android.ext.android.inject
 import timber.log.Timber
+import kotlin.time.Duration.Companion.milliseconds
 import kotlin.time.Duration.Companion.seconds
 
 class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyListener {
@@ -76,6 +81,7 @@ class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyLi
 	private val navigationRepository by inject<NavigationRepository>()
 	private val itemLauncher by inject<ItemLauncher>()
 	private val keyProcessor by inject<KeyProcessor>()
+	private val imageMemoryBudget by inject<ImageMemoryBudget>()
 
 	private val userPreferences by inject<UserPreferences>()
 	private val helper by lazy { HomeFragmentHelper(requireContext(), userRepository, userPreferences) }
@@ -89,6 +95,9 @@ class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyLi
 	private val nowPlaying by lazy { HomeFragmentNowPlayingRow(mediaManager) }
 	private val liveTVRow by lazy { HomeFragmentLiveTVRow(requireActivity(), userRepository, navigationRepository) }
 	private val genreManager by lazy { GenreManager(requireContext(), userRepository, userPreferences, userSettingPreferences, api) }
+	private val rowsInvalidator by lazy {
+		HomeRowsInvalidator(api, this, userPreferences[UserPreferences.homeRowsInvalidationWindow].milliseconds) { adapter }
+	}
 
 	override fun onCreate(savedInstanceState: Bundle?) {
 		super.onCreate(savedInstanceState)
@@ -249,13 +258,13 @@ class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyLi
 		lifecycleScope.launch {
 			lifecycle.repeatOnLifecycle(Lifecycle.State.RESUMED) {
 				api.webSocket.subscribe<UserDataChangedMessage>()
-					.onEach { refreshRows(force = true, delayed = false) }
+					.onEach { message -> rowsInvalidator.onUserDataChanged(message) }
 					.launchIn(this)
 
 				api.webSocket.subscribe<LibraryChangedMessage>()
-				.onEach {
+				.onEach { message ->
 					genreManager.refreshEnabledGenres()
-					refreshRows(force = true, delayed = false)
+					rowsInvalidator.onLibraryChanged(message)
 				}
 				.launchIn(this)
 			}
@@ -489,6 +498,11 @@ private inner class ItemViewSelectedListener : OnItemViewSelectedListener {
             currentItem = item
             currentRow = row as? ListRow
 
+            // Keep the images of the focused row in memory the longest
+            (rowViewHolder?.view as? ViewGroup)?.let { rowView ->
+                imageMemoryBudget.setFocusedImages(rowView.descendants.filterIsInstance<AsyncImageView>().mapNotNull { it.url }.toList())
+            }
+
             // Safely cast row to ListRow and get its adapter
             (row as? ListRow)?.let { listRow ->
                 val itemRowAdapter = listRow.adapter as? ItemRowAdapter
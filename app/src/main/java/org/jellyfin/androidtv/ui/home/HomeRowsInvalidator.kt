@@ -0,0 +1,135 @@
+package org.jellyfin.androidtv.ui.home
+
+import androidx.leanback.widget.ListRow
+import androidx.leanback.widget.ObjectAdapter
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.lifecycleScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import org.jellyfin.androidtv.constant.QueryType
+import org.jellyfin.androidtv.ui.itemhandling.AudioQueueBaseRowItem
+import org.jellyfin.androidtv.ui.itemhandling.BaseItemDtoBaseRowItem
+import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter
+import org.jellyfin.androidtv.ui.itemhandling.refreshItem
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.model.api.LibraryChangedMessage
+import org.jellyfin.sdk.model.api.UserDataChangedMessage
+import org.jellyfin.sdk.model.api.UserItemDataDto
+import org.jellyfin.sdk.model.serializer.toUUIDOrNull
+import timber.log.Timber
+import java.util.UUID
+import kotlin.time.Duration
+
+/**
+ * Applies server change events to the home rows. Events are coalesced over [window], after which
+ * changed user data is patched into the cards that contain the changed items and only rows whose
+ * membership can change are queried again: resume and next up for user data, latest, next up,
+ * recordings and item rows (like playlists) for added items.
+ */
+class HomeRowsInvalidator(
+	private val api: ApiClient,
+	private val lifecycleOwner: LifecycleOwner,
+	private val window: Duration,
+	private val rowsAdapter: () -> ObjectAdapter?,
+) {
+	private val pendingUserData = mutableMapOf<UUID, UserItemDataDto>()
+	private val pendingUpdated = mutableSetOf<UUID>()
+	private val pendingRemoved = mutableSetOf<UUID>()
+	private var pendingAdded = false
+	private var flushJob: Job? = null
+
+	fun onUserDataChanged(message: UserDataChangedMessage) {
+		val userDataList = message.data?.userDataList.orEmpty()
+		for (userData in userDataList) pendingUserData[userData.itemId] = userData
+		scheduleFlush()
+	}
+
+	fun onLibraryChanged(message: LibraryChangedMessage) {
+		val info = message.data ?: return
+
+		pendingUpdated += info.itemsUpdated.mapNotNull { it.toUUIDOrNull() }
+		pendingRemoved += info.itemsRemoved.mapNotNull { it.toUUIDOrNull() }
+		if (info.itemsAdded.isNotEmpty()) pendingAdded = true
+		scheduleFlush()
+	}
+
+	private fun scheduleFlush() {
+		if (flushJob?.isActive == true) return
+
+		flushJob = lifecycleOwner.lifecycleScope.launch {
+			delay(window)
+			flush()
+		}
+	}
+
+	private fun flush() {
+		val userData = pendingUserData.toMap()
+		val updated = pendingUpdated.toSet()
+		val removed = pendingRemoved.toSet()
+		val added = pendingAdded
+		pendingUserData.clear()
+		pendingUpdated.clear()
+		pendingRemoved.clear()
+		pendingAdded = false
+
+		Timber.d("Invalidating home rows: ${userData.size} user data changes, ${updated.size} updated, ${removed.size} removed, added=$added")
+
+		val adapter = rowsAdapter() ?: return
+		val rowAdapters = (0 until adapter.size())
+			.mapNotNull { (adapter[it] as? ListRow)?.adapter as? ItemRowAdapter }
+
+		for (rowAdapter in rowAdapters) {
+			val requery = when {
+				// New episodes can become the next episode of a series
+				rowAdapter is CombinedResumeNextUpAdapter -> userData.isNotEmpty() || added
+				rowAdapter.queryType == QueryType.NextUp -> userData.isNotEmpty() || added
+				rowAdapter.queryType == QueryType.Resume -> userData.isNotEmpty()
+				rowAdapter.queryType == QueryType.LatestItems -> added || removed.isNotEmpty()
+				rowAdapter.queryType == QueryType.LiveTvRecording -> added
+				rowAdapter.queryType == QueryType.Items -> added
+				else -> false
+			}
+
+			if (requery) {
+				Timber.d("Re-retrieving row of type ${rowAdapter.queryType}")
+				rowAdapter.Retrieve()
+			} else {
+				rowAdapter.patch(userData, updated, removed)
+			}
+		}
+	}
+
+	private fun ItemRowAdapter.patch(
+		userData: Map<UUID, UserItemDataDto>,
+		updated: Set<UUID>,
+		removed: Set<UUID>,
+	) {
+		// Iterate backwards so removals don't shift the remaining indices
+		for (index in size() - 1 downTo 0) {
+			val rowItem = get(index) as? BaseItemDtoBaseRowItem ?: continue
+			if (rowItem is AudioQueueBaseRowItem) continue
+			val item = rowItem.baseItem ?: continue
+
+			when (item.id) {
+				in removed -> {
+					removeAt(index)
+					// Keep the paging state in sync so the next chunk starts at the right offset
+					totalItems = (totalItems - 1).coerceAtLeast(0)
+					itemsLoaded = (itemsLoaded - 1).coerceAtLeast(0)
+				}
+				in updated -> refreshItem(api, lifecycleOwner, rowItem)
+				in userData -> set(
+					index = index,
+					element = BaseItemDtoBaseRowItem(
+						item = item.copy(userData = userData[item.id]),
+						preferParentThumb = rowItem.preferParentThumb,
+						staticHeight = rowItem.staticHeight,
+						selectAction = rowItem.selectAction,
+						preferSeriesPoster = rowItem.preferSeriesPoster
+					)
+				)
+			}
+		}
+	}
+}
@@ -81,6 +81,7 @@ import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.BaseItemUtils;
 import org.jellyfin.androidtv.util.apiclient.Response;
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider;
 import org.jellyfin.androidtv.util.sdk.BaseItemExtensionsKt;
 import org.jellyfin.androidtv.util.sdk.TrailerUtils;
 import org.jellyfin.androidtv.util.sdk.compat.JavaCompat;
@@ -417,75 +418,39 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
 
         Timber.d("Starting batch probing for %d video versions", mBaseItem.getMediaSources().size());
 
-        List<org.jellyfin.sdk.model.api.MediaSourceInfo> probedSources = new ArrayList<>();
-        java.util.concurrent.atomic.AtomicInteger completedCount = new java.util.concurrent.atomic.AtomicInteger(0);
-        int totalSources = mBaseItem.getMediaSources().size();
+        List<org.jellyfin.sdk.model.api.MediaSourceInfo> mediaSources = mBaseItem.getMediaSources();
+        DeviceProfile deviceProfile = KoinJavaComponent.get(DeviceProfileProvider.class).getDeviceProfile(false);
 
-        for (org.jellyfin.sdk.model.api.MediaSourceInfo mediaSource : mBaseItem.getMediaSources()) {
-            probeMediaSource(mediaSource.getId(), probedSource -> {
-                synchronized (probedSources) {
-                    if (probedSource != null) {
-                        probedSources.add(probedSource);
-                    }
-                }
-
-                int completed = completedCount.incrementAndGet();
-                Timber.d("Completed probing %d/%d video versions", completed, totalSources);
-
-                if (completed == totalSources) {
-                    if (!probedSources.isEmpty()) {
-                        mBaseItem = JavaCompat.copyWithMediaSources(mBaseItem, probedSources);
-                        Timber.d("Successfully probed %d video versions with complete stream information", probedSources.size());
+        // Without media source id the server probes all versions in a single request, the response is
+        // cached so starting playback of any version skips the request
+        FullDetailsFragmentHelperKt.getPostedPlaybackInfo(this, mBaseItem.getId(), null, deviceProfile, response -> {
+            if (response == null || response.getErrorCode() != null) {
+                Timber.w("Failed to probe video versions: %s", response != null ? response.getErrorCode() : null);
+                return null;
+            }
 
-                        if (versions != null) {
-                            versions = new ArrayList<>(probedSources);
-                        }
-                    } else {
-                        Timber.w("No media sources were successfully probed");
+            List<org.jellyfin.sdk.model.api.MediaSourceInfo> probedSources = new ArrayList<>();
+            for (org.jellyfin.sdk.model.api.MediaSourceInfo mediaSource : mediaSources) {
+                for (org.jellyfin.sdk.model.api.MediaSourceInfo probedSource : response.getMediaSources()) {
+                    if (probedSource.getId() != null && probedSource.getId().equals(mediaSource.getId())) {
+                        probedSources.add(probedSource);
+                        break;
                     }
                 }
-            });
-        }
-    }
-    private void probeMediaSource(String mediaSourceId, java.util.function.Consumer<org.jellyfin.sdk.model.api.MediaSourceInfo> callback) {
-        try {
-            UserPreferences userPreferences = KoinJavaComponent.get(UserPreferences.class);
-
-            // Create device profile for probing
-            DeviceProfile deviceProfile = org.jellyfin.androidtv.util.profile.DeviceProfileKt.createDeviceProfile(userPreferences, false);
-
-            FullDetailsFragmentHelperKt.getPostedPlaybackInfo(this, mBaseItem.getId(), mediaSourceId, deviceProfile, response -> {
-                if (response != null) {
-                    if (response.getErrorCode() != null) {
-                        Timber.w("Playback info error for source %s: %s", mediaSourceId, response.getErrorCode());
-                        callback.accept(null);
-                        return null;
-                    }
+            }
 
-                    org.jellyfin.sdk.model.api.MediaSourceInfo probedSource = response.getMediaSources().stream()
-                        .filter(source -> mediaSourceId.equals(source.getId()))
-                        .findFirst()
-                        .orElse(null);
+            if (!probedSources.isEmpty()) {
+                mBaseItem = JavaCompat.copyWithMediaSources(mBaseItem, probedSources);
+                Timber.d("Successfully probed %d video versions with complete stream information", probedSources.size());
 
-                    if (probedSource != null) {
-                        Timber.d("Successfully probed media source: %s", mediaSourceId);
-                        callback.accept(probedSource);
-                        return null;
-                    } else {
-                        Timber.w("Media source not found in response: %s", mediaSourceId);
-                        callback.accept(null);
-                        return null;
-                    }
-                } else {
-                    callback.accept(null);
-                    return null;
+                if (versions != null) {
+                    versions = new ArrayList<>(probedSources);
                 }
-            });
-
-        } catch (Exception e) {
-            Timber.e(e, "Exception probing media source: %s", mediaSourceId);
-            callback.accept(null);
-        }
+            } else {
+                Timber.w("No media sources were successfully probed");
+            }
+            return null;
+        });
     }
 
     @Override
@@ -662,7 +627,7 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
                 }
 
                 //Similar
-                ItemRowAdapter similarMoviesAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSimilarItemsRequest(mBaseItem.getId()), QueryType.SimilarMovies, new CardPresenter(), adapter);
+                ItemRowAdapter similarMoviesAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSimilarItemsRequest(userPreferences.getValue(), mBaseItem.getId()), QueryType.SimilarMovies, new CardPresenter(), adapter);
                 addItemRow(adapter, similarMoviesAdapter, 5, getString(R.string.lbl_more_like_this));
 
                 addInfoRows(adapter);
@@ -676,31 +641,31 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
                 }
 
                 //Similar
-                ItemRowAdapter similarTrailerAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSimilarItemsRequest(mBaseItem.getId()), QueryType.SimilarMovies, new CardPresenter(), adapter);
+                ItemRowAdapter similarTrailerAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSimilarItemsRequest(userPreferences.getValue(), mBaseItem.getId()), QueryType.SimilarMovies, new CardPresenter(), adapter);
                 addItemRow(adapter, similarTrailerAdapter, 4, getString(R.string.lbl_more_like_this));
                 addInfoRows(adapter);
                 break;
             case PERSON:
-                ItemRowAdapter personMoviesAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createPersonItemsRequest(mBaseItem.getId(), BaseItemKind.MOVIE), 100, false, new CardPresenter(), adapter);
+                ItemRowAdapter personMoviesAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createPersonItemsRequest(userPreferences.getValue(), mBaseItem.getId(), BaseItemKind.MOVIE), 100, false, new CardPresenter(), adapter);
                 addItemRow(adapter, personMoviesAdapter, 0, getString(R.string.lbl_movies));
 
-                ItemRowAdapter personSeriesAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createPersonItemsRequest(mBaseItem.getId(), BaseItemKind.SERIES), 100, false, new CardPresenter(), adapter);
+                ItemRowAdapter personSeriesAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createPersonItemsRequest(userPreferences.getValue(), mBaseItem.getId(), BaseItemKind.SERIES), 100, false, new CardPresenter(), adapter);
                 addItemRow(adapter, personSeriesAdapter, 1, getString(R.string.lbl_tv_series));
 
-                ItemRowAdapter personEpisodesAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createPersonItemsRequest(mBaseItem.getId(), BaseItemKind.EPISODE), 100, false, new CardPresenter(), adapter);
+                ItemRowAdapter personEpisodesAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createPersonItemsRequest(userPreferences.getValue(), mBaseItem.getId(), BaseItemKind.EPISODE), 100, false, new CardPresenter(), adapter);
                 addItemRow(adapter, personEpisodesAdapter, 2, getString(R.string.lbl_episodes));
 
                 break;
             case MUSIC_ARTIST:
-                ItemRowAdapter artistAlbumsAdapter = new ItemRowAdapter(requireContext(),  BrowsingUtils.createArtistItemsRequest(mBaseItem.getId(), BaseItemKind.MUSIC_ALBUM), 100, false, new CardPresenter(), adapter);
+                ItemRowAdapter artistAlbumsAdapter = new ItemRowAdapter(requireContext(),  BrowsingUtils.createArtistItemsRequest(userPreferences.getValue(), mBaseItem.getId(), BaseItemKind.MUSIC_ALBUM), 100, false, new CardPresenter(), adapter);
                 addItemRow(adapter, artistAlbumsAdapter, 0, getString(R.string.lbl_albums));
 
                 break;
             case SERIES:
-                ItemRowAdapter nextUpAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSeriesGetNextUpRequest(mBaseItem.getId()), false, new CardPresenter(true, 130), adapter);
+                ItemRowAdapter nextUpAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSeriesGetNextUpRequest(userPreferences.getValue(), mBaseItem.getId()), false, new CardPresenter(true, 130), adapter);
                 addItemRow(adapter, nextUpAdapter, 0, getString(R.string.lbl_next_up));
 
-                ItemRowAdapter seasonsAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSeasonsRequest(mBaseItem.getId()), new CardPresenter(), adapter);
+                ItemRowAdapter seasonsAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSeasonsRequest(userPreferences.getValue(), mBaseItem.getId()), new CardPresenter(), adapter);
                 addItemRow(adapter, seasonsAdapter, 1, getString(R.string.lbl_seasons));
 
                 //Specials
@@ -708,7 +673,7 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
                     addItemRow(adapter, new ItemRowAdapter(requireContext(), new GetSpecialsRequest(mBaseItem.getId()), new CardPresenter(), adapter), 3, getString(R.string.lbl_specials));
                 }
 
-                ItemRowAdapter upcomingAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createUpcomingEpisodesRequest(mBaseItem.getId()), new CardPresenter(), adapter);
+                ItemRowAdapter upcomingAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createUpcomingEpisodesRequest(userPreferences.getValue(), mBaseItem.getId()), new CardPresenter(), adapter);
                 addItemRow(adapter, upcomingAdapter, 2, getString(R.string.lbl_upcoming));
 
                 if (mBaseItem.getPeople() != null && !mBaseItem.getPeople().isEmpty()) {
@@ -716,14 +681,14 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
                     addItemRow(adapter, seriesCastAdapter, 3, getString(R.string.lbl_cast_crew));
                 }
 
-                ItemRowAdapter similarAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSimilarItemsRequest(mBaseItem.getId()), QueryType.SimilarSeries, new CardPresenter(), adapter);
+                ItemRowAdapter similarAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createSimilarItemsRequest(userPreferences.getValue(), mBaseItem.getId()), QueryType.SimilarSeries, new CardPresenter(), adapter);
                 addItemRow(adapter, similarAdapter, 4, getString(R.string.lbl_more_like_this));
                 break;
 
             case EPISODE:
                 if (mBaseItem.getSeasonId() != null && mBaseItem.getIndexNumber() != null) {
                     // query index is zero-based but episode no is not
-                    ItemRowAdapter nextAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createNextEpisodesRequest(mBaseItem.getSeasonId(), mBaseItem.getIndexNumber()), 0, false, true, new CardPresenter(true, 120), adapter);
+                    ItemRowAdapter nextAdapter = new ItemRowAdapter(requireContext(), BrowsingUtils.createNextEpisodesRequest(userPreferences.getValue(), mBaseItem.getSeasonId(), mBaseItem.getIndexNumber()), 0, false, true, new CardPresenter(true, 120), adapter);
                     addItemRow(adapter, nextAdapter, 5, getString(R.string.lbl_next_episode));
                 }
 
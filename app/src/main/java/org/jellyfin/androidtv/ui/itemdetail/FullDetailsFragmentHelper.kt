@@ -20,12 +20,12 @@ import org.jellyfin.androidtv.util.sdk.TrailerUtils.getExternalTrailerIntent
 import org.jellyfin.androidtv.util.sdk.compat.canResume
 import org.jellyfin.androidtv.util.sdk.compat.copyWithUserData
 import org.jellyfin.androidtv.util.showIfNotEmpty
+import org.jellyfin.playback.jellyfin.mediastream.PlaybackInfoCache
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.exception.ApiClientException
 import org.jellyfin.sdk.api.client.extensions.itemsApi
 import org.jellyfin.sdk.api.client.extensions.libraryApi
 import org.jellyfin.sdk.api.client.extensions.liveTvApi
-import org.jellyfin.sdk.api.client.extensions.mediaInfoApi
 import org.jellyfin.sdk.api.client.extensions.tvShowsApi
 import org.jellyfin.sdk.api.client.extensions.userLibraryApi
 import org.jellyfin.sdk.model.api.BaseItemDto
@@ -34,7 +34,6 @@ import org.jellyfin.sdk.model.api.DeviceProfile
 import org.jellyfin.sdk.model.api.ItemFilter
 import org.jellyfin.sdk.model.api.ItemSortBy
 import org.jellyfin.sdk.model.api.MediaType
-import org.jellyfin.sdk.model.api.PlaybackInfoDto
 import org.jellyfin.sdk.model.api.PlaybackInfoResponse
 import org.jellyfin.sdk.model.api.SeriesTimerInfoDto
 import org.jellyfin.sdk.model.extensions.ticks
@@ -262,7 +261,7 @@ fun FullDetailsFragment.resumePlayback() {
 					includeItemTypes = setOf(BaseItemKind.EPISODE),
 					recursive = true,
 					filters = setOf(ItemFilter.IS_UNPLAYED),
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.playbackFields,
 					sortBy = setOf(
 						ItemSortBy.PARENT_INDEX_NUMBER,
 						ItemSortBy.INDEX_NUMBER,
@@ -393,25 +392,11 @@ fun FullDetailsFragment.getPostedPlaybackInfo(
 	deviceProfile: DeviceProfile,
 	callback: (response: PlaybackInfoResponse?) -> Unit,
 ) {
-	val api by inject<ApiClient>()
+	val playbackInfoCache by inject<PlaybackInfoCache>()
 
 	lifecycleScope.launch {
 		try {
-			val response = withContext(Dispatchers.IO) {
-				api.mediaInfoApi.getPostedPlaybackInfo(
-					itemId = itemId,
-					data = PlaybackInfoDto(
-						mediaSourceId = mediaSourceId,
-						deviceProfile = deviceProfile,
-						enableDirectPlay = true,
-						enableDirectStream = true,
-						enableTranscoding = true,
-						allowVideoStreamCopy = true,
-						allowAudioStreamCopy = true,
-						autoOpenLiveStream = false,
-					)
-				).content
-			}
+			val response = playbackInfoCache.getPlaybackInfo(itemId, mediaSourceId, deviceProfile)
 			callback(response)
 		} catch (err: ApiClientException) {
 			Timber.w(err, "Failed to get playback info for item $itemId")
@@ -45,7 +45,7 @@ fun MusicFavoritesListFragment.getFavoritePlaylist(
 				filters = setOf(org.jellyfin.sdk.model.api.ItemFilter.IS_FAVORITE_OR_LIKES),
 				sortBy = setOf(ItemSortBy.RANDOM),
 				limit = 100,
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.itemListFields,
 			).content
 		}
 
@@ -78,7 +78,7 @@ fun ItemListFragment.getPlaylist(
 								playlistId = item.id,
 								startIndex = 0,
 								limit = 700,
-								fields = ItemRepository.itemFields,
+								fields = ItemRepository.itemListFields,
 							).content
 
 							val items = batchResult.items ?: emptyList()
@@ -92,7 +92,7 @@ fun ItemListFragment.getPlaylist(
 								sortBy = setOf(sortBy),
 								sortOrder = setOf(sortOrder),
 								limit = 700,
-								fields = ItemRepository.itemFields,
+								fields = ItemRepository.itemListFields,
 							).content
 							val items = result.items ?: emptyList()
 							Timber.d("Loaded ${items.size} regular items")
@@ -153,7 +153,7 @@ fun ItemListFragment.getPlaylistBatch(
 							playlistId = item.id,
 							startIndex = startIndex,
 							limit = limit,
-							fields = ItemRepository.itemFields,
+							fields = ItemRepository.itemListFields,
 						).content
 
 						batchResult.items ?: emptyList()
@@ -169,7 +169,7 @@ fun ItemListFragment.getPlaylistBatch(
 					sortOrder = setOf(sortOrder),
 					startIndex = startIndex,
 					limit = limit,
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.itemListFields,
 				).content.items ?: emptyList()
 			}
 		}
@@ -24,6 +24,7 @@ import org.jellyfin.androidtv.data.querying.GetSeriesTimersRequest;
 import org.jellyfin.androidtv.data.querying.GetSpecialsRequest;
 import org.jellyfin.androidtv.data.querying.GetTrailersRequest;
 import org.jellyfin.androidtv.data.querying.GetUserViewsRequest;
+import org.jellyfin.androidtv.data.repository.ItemRowCache;
 import org.jellyfin.androidtv.data.repository.UserViewsRepository;
 import org.jellyfin.androidtv.ui.GridButton;
 import org.jellyfin.androidtv.ui.browsing.BrowseGridFragment;
@@ -108,6 +109,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
 
     private final Lazy<org.jellyfin.sdk.api.client.ApiClient> api = inject(org.jellyfin.sdk.api.client.ApiClient.class);
     private final Lazy<UserViewsRepository> userViewsRepository = inject(UserViewsRepository.class);
+    private final Lazy<ItemRowCache> itemRowCache = inject(ItemRowCache.class);
     private Context context;
 
     public boolean isCurrentlyRetrieving() {
@@ -580,7 +582,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
                 }
                 notifyRetrieveStarted();
 
-                ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), mQuery, itemsLoaded, chunkSize);
+                ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), itemRowCache.getValue(), mQuery, itemsLoaded, chunkSize);
                 break;
         }
     }
@@ -694,16 +696,16 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
         switch (queryType) {
             case Items:
                 if (mQuery.getStartIndex() != null && mQuery.getLimit() != null) {
-                    ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), mQuery, mQuery.getStartIndex(), mQuery.getLimit());
+                    ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), itemRowCache.getValue(), mQuery, mQuery.getStartIndex(), mQuery.getLimit());
                 } else {
-                    ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), mQuery, 0, chunkSize);
+                    ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), itemRowCache.getValue(), mQuery, 0, chunkSize);
                 }
                 break;
             case NextUp:
-                ItemRowAdapterHelperKt.retrieveNextUpItems(this, api.getValue(), mNextUpQuery);
+                ItemRowAdapterHelperKt.retrieveNextUpItems(this, api.getValue(), itemRowCache.getValue(), mNextUpQuery);
                 break;
             case LatestItems:
-                ItemRowAdapterHelperKt.retrieveLatestMedia(this, api.getValue(), mLatestQuery);
+                ItemRowAdapterHelperKt.retrieveLatestMedia(this, api.getValue(), itemRowCache.getValue(), mLatestQuery);
                 break;
             case Upcoming:
                 ItemRowAdapterHelperKt.retrieveUpcomingEpisodes(this, api.getValue(), mUpcomingQuery);
@@ -712,7 +714,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
                 ItemRowAdapterHelperKt.retrieveSeasons(this, api.getValue(), mSeasonQuery);
                 break;
             case Views:
-                ItemRowAdapterHelperKt.retrieveUserViews(this, api.getValue(), userViewsRepository.getValue());
+                ItemRowAdapterHelperKt.retrieveUserViews(this, api.getValue(), itemRowCache.getValue(), userViewsRepository.getValue());
                 break;
             case SimilarSeries:
             case SimilarMovies:
@@ -769,7 +771,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
                 ItemRowAdapterHelperKt.retrieveLiveTvSeriesTimers(this, api.getValue(), context, canManageRecordings);
                 break;
             case Resume:
-                ItemRowAdapterHelperKt.retrieveResumeItems(this, api.getValue(), resumeQuery);
+                ItemRowAdapterHelperKt.retrieveResumeItems(this, api.getValue(), itemRowCache.getValue(), resumeQuery);
                 break;
         }
     }
@@ -838,7 +840,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
         clear();
         add(new GridButtonBaseRowItem(new GridButton(EnhancedBrowseFragment.FAVSONGS, context.getString(R.string.lbl_favorites), R.drawable.favorites)));
         itemsLoaded = 1;
-        ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), mQuery, 0, chunkSize);
+        ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), itemRowCache.getValue(), mQuery, 0, chunkSize);
     }
 
     protected void notifyRetrieveFinished() {
@@ -12,10 +12,18 @@ import org.jellyfin.androidtv.constant.LiveTvOption
 import org.jellyfin.androidtv.data.querying.GetAdditionalPartsRequest
 import org.jellyfin.androidtv.data.querying.GetSpecialsRequest
 import org.jellyfin.androidtv.data.querying.GetTrailersRequest
+import org.jellyfin.androidtv.data.repository.ItemRowCache
+import org.jellyfin.androidtv.data.repository.ItemRowCacheEntry
 import org.jellyfin.androidtv.data.repository.UserViewsRepository
 import org.jellyfin.androidtv.ui.GridButton
 import org.jellyfin.androidtv.ui.browsing.BrowseGridFragment.SortOption
+import org.jellyfin.androidtv.ui.presentation.CardPresenter
+import org.jellyfin.androidtv.util.BlurHashCache
+import org.jellyfin.androidtv.util.DeviceMemoryUtils
+import org.jellyfin.androidtv.util.ImageHelper
+import org.jellyfin.androidtv.util.apiclient.itemImages
 import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.exception.ApiClientException
 import org.jellyfin.sdk.api.client.exception.InvalidStatusException
 import org.jellyfin.sdk.api.client.extensions.artistsApi
 import org.jellyfin.sdk.api.client.extensions.itemsApi
@@ -25,6 +33,7 @@ import org.jellyfin.sdk.api.client.extensions.tvShowsApi
 import org.jellyfin.sdk.api.client.extensions.userLibraryApi
 import org.jellyfin.sdk.api.client.extensions.userViewsApi
 import org.jellyfin.sdk.api.client.extensions.videosApi
+import org.jellyfin.sdk.model.api.ImageType
 import org.jellyfin.sdk.model.api.ItemFilter
 import org.jellyfin.sdk.model.api.ItemSortBy
 import org.jellyfin.sdk.model.api.SeriesTimerInfoDto
@@ -40,59 +49,152 @@ import org.jellyfin.sdk.model.api.request.GetResumeItemsRequest
 import org.jellyfin.sdk.model.api.request.GetSeasonsRequest
 import org.jellyfin.sdk.model.api.request.GetSimilarItemsRequest
 import org.jellyfin.sdk.model.api.request.GetUpcomingEpisodesRequest
+import org.koin.java.KoinJavaComponent
 import timber.log.Timber
+import kotlin.math.max
 import kotlin.math.min
 
-fun <T : Any> ItemRowAdapter.setItems(
+suspend fun <T : Any> ItemRowAdapter.setItems(
 	items: Collection<T>,
 	transform: (T, Int) -> BaseRowItem?,
 ) {
 	Timber.d("Creating items from $itemsLoaded existing and ${items.size} new, adapter size is ${size()}")
 
-	val allItems = buildList {
-		// Add current items before loaded items
-		repeat(itemsLoaded) {
-			add(this@setItems.get(it))
+	val mappedItems = items.mapIndexedNotNull { index, item ->
+		transform(item, itemsLoaded + index)
+	}
+	prefetchBlurHashes(mappedItems)
+
+	if (itemsLoaded in 1..size()) {
+		// Loading the next page, only update the range of the page instead of diffing the whole row
+		val start = itemsLoaded
+		val replaceCount = min(mappedItems.size, size() - start)
+		repeat(replaceCount) { offset ->
+			val current = get(start + offset)
+			val new = mappedItems[offset]
+			if (current == null || current != new || !areRowContentsTheSame(current, new)) set(start + offset, new)
 		}
+		addAll(start + replaceCount, mappedItems.subList(replaceCount, mappedItems.size))
+
+		itemsLoaded = max(start + mappedItems.size, min(totalItems, size()))
+		return
+	}
 
+	val allItems = buildList {
 		// Add loaded items
-		val mappedItems = items.mapIndexedNotNull { index, item ->
-			transform(item, itemsLoaded + index)
-		}
-		mappedItems.forEach { add(it) }
+		addAll(mappedItems)
 
 		// Add current items after loaded items
-		repeat(min(totalItems, size()) - itemsLoaded - mappedItems.size) {
-			add(this@setItems.get(it + itemsLoaded + mappedItems.size))
+		repeat(min(totalItems, size()) - mappedItems.size) {
+			add(this@setItems.get(it + mappedItems.size))
 		}
 	}
 
-	replaceAll(allItems)
+	submitList(
+		items = allItems,
+		areContentsTheSame = ::areRowContentsTheSame,
+	)
 	itemsLoaded = allItems.size
 }
 
-fun ItemRowAdapter.retrieveResumeItems(api: ApiClient, query: GetResumeItemsRequest) {
+/**
+ * Decode the card placeholders of a newly loaded page in the background so they are cached by the
+ * time the cards are bound. Only done for cards that show placeholders.
+ */
+private fun ItemRowAdapter.prefetchBlurHashes(items: List<BaseRowItem>) {
+	if (items.isEmpty()) return
+	if ((getPresenter(items.first()) as? CardPresenter)?.showBlurHash != true) return
+
+	val context = KoinJavaComponent.get<Context>(Context::class.java)
+	if (DeviceMemoryUtils.isLowEndDevice(context)) return
+
+	val imageHelper = KoinJavaComponent.get<ImageHelper>(ImageHelper::class.java)
+	val blurHashCache = KoinJavaComponent.get<BlurHashCache>(BlurHashCache::class.java)
+	items
+		.mapNotNull { item ->
+			val baseItem = item.baseItem ?: return@mapNotNull null
+			val blurHash = baseItem.itemImages[ImageType.PRIMARY]?.blurHash ?: return@mapNotNull null
+			imageHelper.getImageAspectRatio(baseItem, item.preferParentThumb) to blurHash
+		}
+		.groupBy({ it.first }, { it.second })
+		.forEach { (aspectRatio, blurHashes) -> blurHashCache.prefetch(blurHashes, aspectRatio) }
+}
+
+/**
+ * Compare row items by the item etag and user data when available so unchanged cards are never
+ * rebound.
+ */
+private fun areRowContentsTheSame(old: Any, new: Any): Boolean {
+	if (old !is BaseRowItem || new !is BaseRowItem) return old == new
+
+	val oldItem = old.baseItem ?: return false
+	val newItem = new.baseItem ?: return false
+
+	return if (oldItem.etag != null && newItem.etag != null) {
+		oldItem.etag == newItem.etag && oldItem.userData == newItem.userData
+	} else {
+		oldItem == newItem
+	}
+}
+
+/**
+ * Stale-while-revalidate retrieval: render the cached entry for [key] (if any) right away when the
+ * row is still empty, then fetch fresh data and render it again so the adapter diff only touches
+ * changed cards. Fetch failures are ignored when cached data was already shown.
+ */
+private suspend fun ItemRowAdapter.retrieveCached(
+	cache: ItemRowCache,
+	key: String?,
+	fetch: suspend () -> ItemRowCacheEntry,
+	render: suspend (entry: ItemRowCacheEntry) -> Unit,
+) {
+	val initialItemsLoaded = itemsLoaded
+	val cached = key
+		?.takeIf { size() <= initialItemsLoaded }
+		?.let { cache.get(it) }
+		?.takeIf { it.items.isNotEmpty() }
+	if (cached != null) render(cached)
+
+	val fresh = try {
+		withContext(Dispatchers.IO) { fetch() }
+	} catch (err: ApiClientException) {
+		if (cached == null) throw err
+		Timber.w(err, "Unable to revalidate cached row, keeping cached items")
+		return
+	}
+
+	itemsLoaded = initialItemsLoaded
+	render(fresh)
+	if (key != null) cache.put(key, fresh)
+}
+
+fun ItemRowAdapter.retrieveResumeItems(api: ApiClient, cache: ItemRowCache, query: GetResumeItemsRequest) {
 	if (this.isScrolling) {
 		return
 	}
 	ProcessLifecycleOwner.get().lifecycleScope.launch {
 		runCatching {
-			val response = withContext(Dispatchers.IO) {
-				api.itemsApi.getResumeItems(query).content
-			}
-
-			setItems(
-				items = response.items,
-				transform = { item, _ ->
-					BaseItemDtoBaseRowItem(
-						item,
-						preferParentThumb,
-						isStaticHeight
-					)
-				}
-			)
+			retrieveCached(
+				cache = cache,
+				key = cache.createKey("resume", query),
+				fetch = {
+					val response = api.itemsApi.getResumeItems(query).content
+					ItemRowCacheEntry(response.items, response.totalRecordCount)
+				},
+			) { response ->
+				setItems(
+					items = response.items,
+					transform = { item, _ ->
+						BaseItemDtoBaseRowItem(
+							item,
+							preferParentThumb,
+							isStaticHeight
+						)
+					}
+				)
 
-			if (response.items.isEmpty()) removeRow()
+				if (response.items.isEmpty()) removeRow()
+			}
 		}.fold(
 			onSuccess = { notifyRetrieveFinished() },
 			onFailure = { error -> notifyRetrieveFinished(error as? Exception) }
@@ -100,12 +202,38 @@ fun ItemRowAdapter.retrieveResumeItems(api: ApiClient, query: GetResumeItemsRequ
 	}
 }
 
-fun ItemRowAdapter.retrieveNextUpItems(api: ApiClient, query: GetNextUpRequest) {
+fun ItemRowAdapter.retrieveNextUpItems(api: ApiClient, cache: ItemRowCache, query: GetNextUpRequest) {
 	if (this.isScrolling) {
 		return
 	}
 	ProcessLifecycleOwner.get().lifecycleScope.launch {
 		runCatching {
+			// Only the plain next up row (home screen) is cached, the series flavor depends on the response
+			if (query.seriesId == null) {
+				retrieveCached(
+					cache = cache,
+					key = cache.createKey("next_up", query),
+					fetch = {
+						val response = api.tvShowsApi.getNextUp(query).content
+						ItemRowCacheEntry(response.items, response.totalRecordCount)
+					},
+				) { response ->
+					setItems(
+						items = response.items,
+						transform = { item, _ ->
+							BaseItemDtoBaseRowItem(
+								item,
+								preferParentThumb,
+								isStaticHeight
+							)
+						}
+					)
+
+					if (response.items.isEmpty()) removeRow()
+				}
+				return@runCatching
+			}
+
 			val response = withContext(Dispatchers.IO) {
 				api.tvShowsApi.getNextUp(query).content
 			}
@@ -162,30 +290,32 @@ fun ItemRowAdapter.retrieveNextUpItems(api: ApiClient, query: GetNextUpRequest)
 	}
 }
 
-fun ItemRowAdapter.retrieveLatestMedia(api: ApiClient, query: GetLatestMediaRequest) {
+fun ItemRowAdapter.retrieveLatestMedia(api: ApiClient, cache: ItemRowCache, query: GetLatestMediaRequest) {
 	if (this.isScrolling) {
 		return
 	}
 	ProcessLifecycleOwner.get().lifecycleScope.launch {
 		runCatching {
-			val response = withContext(Dispatchers.IO) {
-				api.userLibraryApi.getLatestMedia(query).content
-			}
-
-			setItems(
-				items = response,
-				transform = { item, _ ->
-					BaseItemDtoBaseRowItem(
-						item,
-						preferParentThumb,
-						isStaticHeight,
-						BaseRowItemSelectAction.ShowDetails,
-						preferParentThumb,
-					)
-				}
-			)
+			retrieveCached(
+				cache = cache,
+				key = cache.createKey("latest", query),
+				fetch = { ItemRowCacheEntry(api.userLibraryApi.getLatestMedia(query).content) },
+			) { response ->
+				setItems(
+					items = response.items,
+					transform = { item, _ ->
+						BaseItemDtoBaseRowItem(
+							item,
+							preferParentThumb,
+							isStaticHeight,
+							BaseRowItemSelectAction.ShowDetails,
+							preferParentThumb,
+						)
+					}
+				)
 
-			if (response.isEmpty()) removeRow()
+				if (response.items.isEmpty()) removeRow()
+			}
 		}.fold(
 			onSuccess = { notifyRetrieveFinished() },
 			onFailure = { error -> notifyRetrieveFinished(error as? Exception) }
@@ -238,23 +368,31 @@ fun ItemRowAdapter.retrieveAdditionalParts(api: ApiClient, query: GetAdditionalP
 	}
 }
 
-fun ItemRowAdapter.retrieveUserViews(api: ApiClient, userViewsRepository: UserViewsRepository) {
+fun ItemRowAdapter.retrieveUserViews(
+	api: ApiClient,
+	cache: ItemRowCache,
+	userViewsRepository: UserViewsRepository,
+) {
 	ProcessLifecycleOwner.get().lifecycleScope.launch {
 		runCatching {
-			val response = withContext(Dispatchers.IO) {
-				api.userViewsApi.getUserViews().content
-			}
-
-			val filteredItems = response.items
-				.filter { userViewsRepository.isSupported(it.collectionType) }
-				.map { it.copy(displayPreferencesId = it.id.toString()) }
-
-			setItems(
-				items = filteredItems,
-				transform = { item, _ -> BaseItemDtoBaseRowItem(item) }
-			)
+			retrieveCached(
+				cache = cache,
+				key = cache.createKey("user_views", Unit),
+				fetch = {
+					val response = api.userViewsApi.getUserViews().content
+					val filteredItems = response.items
+						.filter { userViewsRepository.isSupported(it.collectionType) }
+						.map { it.copy(displayPreferencesId = it.id.toString()) }
+					ItemRowCacheEntry(filteredItems)
+				},
+			) { response ->
+				setItems(
+					items = response.items,
+					transform = { item, _ -> BaseItemDtoBaseRowItem(item) }
+				)
 
-			if (filteredItems.isEmpty()) removeRow()
+				if (response.items.isEmpty()) removeRow()
+			}
 		}.fold(
 			onSuccess = { notifyRetrieveFinished() },
 			onFailure = { error -> notifyRetrieveFinished(error as? Exception) }
@@ -579,6 +717,7 @@ fun ItemRowAdapter.retrieveArtists(
 
 fun ItemRowAdapter.retrieveItems(
 	api: ApiClient,
+	cache: ItemRowCache,
 	query: GetItemsRequest,
 	startIndex: Int,
 	batchSize: Int
@@ -588,28 +727,34 @@ fun ItemRowAdapter.retrieveItems(
 	}
 	ProcessLifecycleOwner.get().lifecycleScope.launch {
 		runCatching {
-			val response = withContext(Dispatchers.IO) {
-				api.itemsApi.getItems(
-					query.copy(
-						startIndex = startIndex,
-						limit = batchSize,
-					)
-				).content
-			}
+			val pageQuery = query.copy(
+				startIndex = startIndex,
+				limit = batchSize,
+			)
 
-			totalItems = response.totalRecordCount
-			setItems(
-				items = response.items,
-				transform = { item, _ ->
-					BaseItemDtoBaseRowItem(
-						item,
-						preferParentThumb,
-						isStaticHeight,
-					)
+			retrieveCached(
+				cache = cache,
+				// Only the first page is cached, following pages are loaded on demand
+				key = if (startIndex == 0) cache.createKey("items", pageQuery) else null,
+				fetch = {
+					val response = api.itemsApi.getItems(pageQuery).content
+					ItemRowCacheEntry(response.items, response.totalRecordCount)
 				},
-			)
+			) { response ->
+				totalItems = response.totalRecordCount
+				setItems(
+					items = response.items,
+					transform = { item, _ ->
+						BaseItemDtoBaseRowItem(
+							item,
+							preferParentThumb,
+							isStaticHeight,
+						)
+					},
+				)
 
-			if (itemsLoaded == 0) removeRow()
+				if (itemsLoaded == 0) removeRow()
+			}
 		}.fold(
 			onSuccess = { notifyRetrieveFinished() },
 			onFailure = { error -> notifyRetrieveFinished(error as? Exception) }
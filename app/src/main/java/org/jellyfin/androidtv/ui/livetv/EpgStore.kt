@@ -0,0 +1,356 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import android.content.Context
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.plus
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.json.Json
+import org.jellyfin.androidtv.auth.repository.SessionRepository
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.serializer.toUUIDOrNull
+import timber.log.Timber
+import java.io.IOException
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.util.TreeMap
+import java.util.UUID
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.minutes
+
+enum class EpgCoverage {
+	/**
+	 * (Part of) the requested window was never loaded.
+	 */
+	MISSING,
+
+	/**
+	 * The window is loaded but should be refreshed.
+	 */
+	STALE,
+
+	/**
+	 * The window is loaded and up-to-date.
+	 */
+	FRESH,
+}
+
+/**
+ * Store for live TV program guide data. Programs are kept per channel sorted by start time together
+ * with the time windows that were loaded for the channel, so the guide can fetch only the channels
+ * and windows it is missing.
+ */
+interface EpgStore {
+	/**
+	 * Get the programs of a channel that overlap with the given window, sorted by start time.
+	 */
+	fun getPrograms(channelId: UUID, start: LocalDateTime, end: LocalDateTime): List<BaseItemDto>
+
+	fun getCoverage(channelId: UUID, start: LocalDateTime, end: LocalDateTime): EpgCoverage
+
+	/**
+	 * Store the result of a program request for [channelIds] in the given window. The [programs]
+	 * replace the previously stored programs for the window.
+	 */
+	fun putPrograms(channelIds: Collection<UUID>, start: LocalDateTime, end: LocalDateTime, programs: Collection<BaseItemDto>)
+
+	/**
+	 * Mark all stored windows as stale so they are refreshed on the next request while still being
+	 * shown in the meantime.
+	 */
+	fun invalidate()
+
+	/**
+	 * Write the store to disk in the background.
+	 */
+	fun persist()
+}
+
+class EpgStoreImpl(
+	private val context: Context,
+	sessionRepository: SessionRepository,
+	private val maxPrograms: Int = 20_000,
+	private val maxAge: Duration = 1.hours,
+) : EpgStore {
+	private companion object {
+		/**
+		 * Interval to remove programs that have ended.
+		 */
+		private val PRUNE_INTERVAL = 30.minutes
+	}
+
+	/**
+	 * The guide depends on the server and the user (parental controls), each has its own file.
+	 */
+	private data class StoreKey(
+		val serverId: UUID,
+		val userId: UUID,
+	)
+
+	private data class Window(
+		val start: LocalDateTime,
+		val end: LocalDateTime,
+		val fetchedAt: Long,
+	)
+
+	private class ChannelSchedule {
+		val programs = TreeMap<LocalDateTime, BaseItemDto>()
+		val windows = TreeMap<LocalDateTime, Window>()
+	}
+
+	@Serializable
+	private data class StoredWindow(
+		val start: Long,
+		val end: Long,
+		val fetchedAt: Long,
+	)
+
+	@Serializable
+	private data class StoredChannel(
+		val channelId: String,
+		val programs: List<BaseItemDto>,
+		val windows: List<StoredWindow>,
+	)
+
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val channels = LinkedHashMap<UUID, ChannelSchedule>(16, 0.75f, true)
+	private var programCount = 0
+	private var storeKey: StoreKey? = null
+
+	private val json = Json {
+		ignoreUnknownKeys = true
+	}
+
+	private fun getStoreFile(key: StoreKey) =
+		context.cacheDir.resolve("live_tv_guide").resolve("${key.serverId}-${key.userId}.json")
+
+	init {
+		// Unconfined so the current session is applied before the store is used
+		sessionRepository.currentSession
+			.map { session -> session?.let { StoreKey(it.serverId, it.userId) } }
+			.distinctUntilChanged()
+			.onEach { key -> switchStore(key) }
+			.launchIn(scope + Dispatchers.Unconfined)
+
+		scope.launch {
+			while (true) {
+				delay(PRUNE_INTERVAL)
+				synchronized(this@EpgStoreImpl) { prune() }
+			}
+		}
+	}
+
+	private fun switchStore(key: StoreKey?) {
+		synchronized(this) {
+			if (storeKey == key) return
+			storeKey = key
+			channels.clear()
+			programCount = 0
+		}
+
+		if (key != null) scope.launch { restore(key) }
+	}
+
+	@Synchronized
+	override fun getPrograms(channelId: UUID, start: LocalDateTime, end: LocalDateTime): List<BaseItemDto> {
+		val schedule = channels[channelId] ?: return emptyList()
+
+		// Programs don't overlap, so only the program starting right before the window can extend into it
+		val from = schedule.programs.floorEntry(start)
+			?.takeIf { (_, program) -> program.endDate?.isAfter(start) == true }
+			?.key
+			?: start
+
+		return schedule.programs.subMap(from, true, end, false).values.toList()
+	}
+
+	@Synchronized
+	override fun getCoverage(channelId: UUID, start: LocalDateTime, end: LocalDateTime): EpgCoverage {
+		val schedule = channels[channelId] ?: return EpgCoverage.MISSING
+		val staleBefore = Instant.now().toEpochMilli() - maxAge.inWholeMilliseconds
+
+		var coveredUntil = start
+		var stale = false
+		for (window in schedule.windows.headMap(end, false).values) {
+			if (!window.end.isAfter(coveredUntil)) continue
+			if (window.start.isAfter(coveredUntil)) return EpgCoverage.MISSING
+
+			coveredUntil = window.end
+			if (window.fetchedAt < staleBefore) stale = true
+			if (!coveredUntil.isBefore(end)) break
+		}
+
+		return when {
+			coveredUntil.isBefore(end) -> EpgCoverage.MISSING
+			stale -> EpgCoverage.STALE
+			else -> EpgCoverage.FRESH
+		}
+	}
+
+	@Synchronized
+	override fun putPrograms(
+		channelIds: Collection<UUID>,
+		start: LocalDateTime,
+		end: LocalDateTime,
+		programs: Collection<BaseItemDto>,
+	) {
+		val programsByChannel = programs
+			.filter { it.startDate != null && it.endDate != null }
+			.groupBy { it.channelId }
+		val window = Window(start, end, Instant.now().toEpochMilli())
+
+		for (channelId in channelIds) {
+			val schedule = channels.getOrPut(channelId) { ChannelSchedule() }
+
+			// Replace the programs in the window with the new result
+			val removed = schedule.programs.subMap(start, true, end, false)
+			programCount -= removed.size
+			removed.clear()
+
+			for (program in programsByChannel[channelId].orEmpty()) {
+				if (schedule.programs.put(program.startDate!!, program) == null) programCount++
+			}
+
+			schedule.putWindow(window)
+		}
+
+		evict()
+	}
+
+	/**
+	 * Add a window, overlapping windows are trimmed so the parts outside of the new window keep
+	 * their own fetch time.
+	 */
+	private fun ChannelSchedule.putWindow(window: Window) {
+		val overlapping = windows.headMap(window.end, false).values.filter { it.end.isAfter(window.start) }
+
+		for (existing in overlapping) {
+			windows.remove(existing.start)
+			if (existing.start.isBefore(window.start)) windows[existing.start] = existing.copy(end = window.start)
+			if (existing.end.isAfter(window.end)) windows[window.end] = existing.copy(start = window.end)
+		}
+
+		windows[window.start] = window
+	}
+
+	@Synchronized
+	override fun invalidate() {
+		for (schedule in channels.values) {
+			for (entry in schedule.windows.entries) entry.setValue(entry.value.copy(fetchedAt = 0))
+		}
+	}
+
+	override fun persist() {
+		scope.launch {
+			val (key, stored) = synchronized(this@EpgStoreImpl) {
+				val key = storeKey ?: return@launch
+				key to channels.map { (channelId, schedule) ->
+					StoredChannel(
+						channelId = channelId.toString(),
+						programs = schedule.programs.values.toList(),
+						windows = schedule.windows.values.map { window ->
+							StoredWindow(window.start.toEpochSecond(), window.end.toEpochSecond(), window.fetchedAt)
+						},
+					)
+				}
+			}
+
+			try {
+				val file = getStoreFile(key)
+				file.parentFile?.mkdirs()
+				file.writeText(json.encodeToString(stored))
+				Timber.d("Stored guide data for ${stored.size} channels")
+			} catch (err: IOException) {
+				Timber.w(err, "Unable to store guide data")
+			}
+		}
+	}
+
+	private fun restore(key: StoreKey) {
+		val file = getStoreFile(key)
+		if (!file.exists()) return
+
+		val stored = try {
+			json.decodeFromString<List<StoredChannel>>(file.readText())
+		} catch (err: SerializationException) {
+			Timber.w(err, "Unable to read stored guide data")
+			file.delete()
+			return
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to read stored guide data")
+			return
+		}
+
+		synchronized(this) {
+			// The session changed while reading
+			if (storeKey != key) return
+
+			for (channel in stored) {
+				val channelId = channel.channelId.toUUIDOrNull() ?: continue
+				// Data loaded since startup is more recent
+				if (channels.containsKey(channelId)) continue
+
+				val schedule = ChannelSchedule()
+				for (program in channel.programs) {
+					val startDate = program.startDate ?: continue
+					schedule.programs[startDate] = program
+				}
+				for (window in channel.windows) {
+					val start = window.start.toLocalDateTime()
+					schedule.windows[start] = Window(start, window.end.toLocalDateTime(), window.fetchedAt)
+				}
+				channels[channelId] = schedule
+				programCount += schedule.programs.size
+			}
+
+			prune()
+			evict()
+			Timber.d("Restored guide data for ${channels.size} channels")
+		}
+	}
+
+	/**
+	 * Remove programs and windows that have ended. Runs when restoring and periodically as it
+	 * visits every channel.
+	 */
+	private fun prune() {
+		val now = LocalDateTime.now()
+
+		for (schedule in channels.values) {
+			val ended = schedule.programs.headMap(now.minusHours(1))
+			val iterator = ended.values.iterator()
+			while (iterator.hasNext()) {
+				if (iterator.next().endDate?.isBefore(now) == true) {
+					iterator.remove()
+					programCount--
+				}
+			}
+
+			schedule.windows.values.removeAll { it.end.isBefore(now) }
+		}
+	}
+
+	/**
+	 * Evict the least recently used channels until the store is within its memory budget.
+	 */
+	private fun evict() {
+		val iterator = channels.values.iterator()
+		while (programCount > maxPrograms && channels.size > 1 && iterator.hasNext()) {
+			programCount -= iterator.next().programs.size
+			iterator.remove()
+		}
+	}
+
+	private fun LocalDateTime.toEpochSecond() = toEpochSecond(ZoneOffset.UTC)
+	private fun Long.toLocalDateTime() = LocalDateTime.ofEpochSecond(this, 0, ZoneOffset.UTC)
+}
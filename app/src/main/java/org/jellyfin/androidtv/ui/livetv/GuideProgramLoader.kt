@@ -0,0 +1,73 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import androidx.fragment.app.Fragment
+import org.jellyfin.androidtv.util.apiclient.EmptyResponse
+import org.jellyfin.sdk.model.api.BaseItemDto
+import timber.log.Timber
+import java.time.LocalDateTime
+
+/**
+ * Loads the programs of the guide in chunks of channels while their rows are bound. Positions are indices in
+ * [TvManager.getAllChannels].
+ */
+class GuideProgramLoader(
+	private val fragment: Fragment,
+	private val listener: Listener,
+) {
+	companion object {
+		const val CHANNEL_CHUNK_SIZE = 25
+	}
+
+	fun interface Listener {
+		fun onProgramsLoaded(start: Int, count: Int)
+	}
+
+	private val loadingChunks = mutableSetOf<Int>()
+	private val loadedChunks = mutableSetOf<Int>()
+	private var generation = 0
+	private var channelCount = 0
+	private var guideStart = LocalDateTime.MIN
+	private var guideEnd = LocalDateTime.MIN
+
+	/**
+	 * Start loading programs for a new time window, responses for the previous window are ignored.
+	 */
+	fun reset(channelCount: Int, guideStart: LocalDateTime, guideEnd: LocalDateTime) {
+		generation++
+		loadingChunks.clear()
+		loadedChunks.clear()
+		this.channelCount = channelCount
+		this.guideStart = guideStart
+		this.guideEnd = guideEnd
+	}
+
+	/**
+	 * Get the programs of the channel at [position]. Missing or stale programs are refreshed together with the other channels in
+	 * the chunk and the next chunk is prefetched. Returns null while the programs of the channel are not loaded yet.
+	 */
+	fun getPrograms(channel: BaseItemDto, position: Int): List<BaseItemDto>? {
+		val chunk = position / CHANNEL_CHUNK_SIZE
+		val coverage = TvManager.getProgramsCoverage(channel.id, guideStart, guideEnd)
+		if (coverage != EpgCoverage.FRESH) requestChunk(chunk)
+		requestChunk(chunk + 1)
+
+		if (coverage == EpgCoverage.MISSING && chunk !in loadedChunks) return null
+		return TvManager.getProgramsForChannel(channel.id, null, guideStart, guideEnd)
+	}
+
+	private fun requestChunk(chunk: Int) {
+		val start = chunk * CHANNEL_CHUNK_SIZE
+		if (start >= channelCount || !loadingChunks.add(chunk)) return
+		val end = minOf(start + CHANNEL_CHUNK_SIZE, channelCount) - 1
+		val requestGeneration = generation
+
+		Timber.d("*** Loading programs for channels %d to %d", start, end)
+		TvManager.loadProgramsAsync(fragment, start, end, guideStart, guideEnd, object : EmptyResponse() {
+			override fun onResponse() {
+				if (requestGeneration != generation) return
+				loadedChunks.add(chunk)
+				listener.onProgramsLoaded(start, end - start + 1)
+			}
+		})
+	}
+}
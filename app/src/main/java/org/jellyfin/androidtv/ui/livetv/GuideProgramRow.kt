@@ -0,0 +1,175 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import android.annotation.SuppressLint
+import android.content.Context
+import android.graphics.Rect
+import android.view.View
+import android.view.ViewGroup
+import org.jellyfin.androidtv.ui.ProgramGridCell
+import org.jellyfin.sdk.model.api.BaseItemDto
+
+/**
+ * Pool of program cells shared by all rows of a guide.
+ */
+class GuideCellPool(
+	private val guide: LiveTvGuide,
+	private val maxSize: Int,
+) {
+	private val cells = ArrayDeque<ProgramGridCell>()
+
+	fun obtain(context: Context, program: BaseItemDto): ProgramGridCell {
+		val cell = cells.removeFirstOrNull() ?: return ProgramGridCell(context, guide, program, false)
+		cell.setProgram(program)
+		return cell
+	}
+
+	fun release(cell: ProgramGridCell) {
+		if (cells.size < maxSize) cells.addLast(cell)
+	}
+}
+
+/**
+ * Row of program cells for a single channel. Only the slots in the visible part of the time axis, plus one on either side so
+ * focus can move to them, have a cell. All rows are scrolled to the same horizontal offset by the [GuideProgramRowAdapter].
+ */
+@SuppressLint("ViewConstructor")
+class GuideProgramRow(
+	context: Context,
+	private val cellPool: GuideCellPool,
+	private val pixelsPerMinute: Int,
+	private val onCellFocused: (left: Int, right: Int) -> Unit,
+) : ViewGroup(context) {
+	private var slots: List<GuideSlot> = emptyList()
+	private val cells = mutableMapOf<Int, ProgramGridCell>()
+
+	fun setSlots(slots: List<GuideSlot>) {
+		val focusedCell = focusedChild as? ProgramGridCell
+		val focusedCenter = focusedCell?.let { (it.left + it.right) / 2 }
+
+		// Keep the cells of programs that are still in the row
+		val previousCells = cells.values.toList()
+		val previousByProgram = previousCells.associateBy { it.program.id }
+		cells.clear()
+		this.slots = slots
+		slots.forEachIndexed { index, slot ->
+			val cell = previousByProgram[slot.program.id] ?: return@forEachIndexed
+			cell.setProgram(slot.program)
+			if (slot.isFirst) cell.setFirst()
+			if (slot.isLast) cell.setLast()
+			cells[index] = cell
+		}
+
+		updateCells(keepFocused = false)
+
+		// Move focus before the old cell is removed so it doesn't jump to another row
+		if (focusedCell != null && focusedCenter != null && focusedCell !in cells.values) {
+			cells.values.firstOrNull { focusedCenter in it.left until it.right }?.requestFocus()
+		}
+
+		for (cell in previousCells) {
+			if (cell in cells.values) continue
+			removeViewInLayout(cell)
+			cellPool.release(cell)
+		}
+	}
+
+	fun setScrollOffset(offset: Int) {
+		if (scrollX == offset) return
+		scrollTo(offset, 0)
+		updateCells(keepFocused = true)
+	}
+
+	/**
+	 * Focus the last cell in the visible part of the row.
+	 */
+	fun requestFocusAtEnd(): Boolean = cells.entries
+		.filter { (index, _) -> slotLeft(slots[index]) < scrollX + width }
+		.maxByOrNull { (index, _) -> index }
+		?.value
+		?.requestFocus() == true
+
+	private fun slotLeft(slot: GuideSlot) = slot.startMinute * pixelsPerMinute
+	private fun slotRight(slot: GuideSlot) = slot.endMinute * pixelsPerMinute
+
+	private fun updateCells(keepFocused: Boolean) {
+		if (width == 0) return
+
+		val windowStart = scrollX
+		val windowEnd = scrollX + width
+		val first = slots.indexOfFirst { slotRight(it) > windowStart }
+		val last = slots.indexOfLast { slotLeft(it) < windowEnd }
+		val visible = if (first == -1 || last == -1) IntRange.EMPTY else (first - 1).coerceAtLeast(0)..(last + 1).coerceAtMost(slots.lastIndex)
+
+		if (keepFocused) {
+			val iterator = cells.iterator()
+			while (iterator.hasNext()) {
+				val (index, cell) = iterator.next()
+				if (index in visible || cell.hasFocus()) continue
+				iterator.remove()
+				removeViewInLayout(cell)
+				cellPool.release(cell)
+			}
+		}
+
+		for (index in visible) {
+			val slot = slots[index]
+			val cell = cells.getOrPut(index) {
+				cellPool.obtain(context, slot.program).apply {
+					if (slot.isFirst) setFirst()
+					if (slot.isLast) setLast()
+				}
+			}
+			if (cell.parent == null) addViewInLayout(cell, -1, generateDefaultLayoutParams(), true)
+		}
+
+		for ((index, cell) in cells) layoutCell(cell, slots[index])
+		invalidate()
+	}
+
+	private fun layoutCell(cell: ProgramGridCell, slot: GuideSlot) {
+		val left = slotLeft(slot)
+		val right = slotRight(slot)
+		if (!cell.isLayoutRequested && cell.left == left && cell.right == right && cell.height == height) return
+
+		cell.measure(
+			MeasureSpec.makeMeasureSpec(right - left, MeasureSpec.EXACTLY),
+			MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY),
+		)
+		cell.layout(left, 0, right, height)
+	}
+
+	override fun generateDefaultLayoutParams() = LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT)
+
+	override fun onMeasure(widthMeasureSpec: Int, heightMeasureSpec: Int) {
+		setMeasuredDimension(
+			getDefaultSize(suggestedMinimumWidth, widthMeasureSpec),
+			getDefaultSize(suggestedMinimumHeight, heightMeasureSpec),
+		)
+	}
+
+	override fun onLayout(changed: Boolean, l: Int, t: Int, r: Int, b: Int) = updateCells(keepFocused = true)
+
+	override fun requestChildFocus(child: View, focused: View) {
+		super.requestChildFocus(child, focused)
+		onCellFocused(child.left, child.right)
+	}
+
+	override fun onRequestFocusInDescendants(direction: Int, previouslyFocusedRect: Rect?): Boolean {
+		// Prefer the first cell in the visible part of the row over cells outside of it
+		val cell = cells.entries
+			.filter { (index, _) -> slotRight(slots[index]) > scrollX }
+			.minByOrNull { (index, _) -> index }
+			?.value
+		return cell?.requestFocus(direction, previouslyFocusedRect) == true
+	}
+
+	/**
+	 * Return all cells to the pool, used when the row is recycled.
+	 */
+	fun clear() {
+		slots = emptyList()
+		for (cell in cells.values) cellPool.release(cell)
+		cells.clear()
+		removeAllViewsInLayout()
+	}
+}
@@ -0,0 +1,94 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import android.content.Context
+import org.jellyfin.sdk.model.api.BaseItemDto
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+
+private const val EMPTY_SLOT_MINUTES = 30
+
+/**
+ * A program (or gap without program data) in a guide row, positioned in minutes from the start of the guide.
+ */
+data class GuideSlot(
+	val program: BaseItemDto,
+	val startMinute: Int,
+	val endMinute: Int,
+	val isFirst: Boolean,
+	val isLast: Boolean,
+)
+
+private fun minutesBetween(start: LocalDateTime, end: LocalDateTime) = Duration.between(start, end).toMinutes().toInt()
+
+/**
+ * Lay out the [programs] of a channel on the time axis of the guide. Gaps between programs are filled with "no program data" items
+ * and a channel without programs is filled with half hour slots.
+ */
+fun createGuideSlots(
+	context: Context,
+	channelId: UUID,
+	programs: List<BaseItemDto>,
+	guideStart: LocalDateTime,
+	guideEnd: LocalDateTime,
+): List<GuideSlot> {
+	val guideMinutes = minutesBetween(guideStart, guideEnd)
+
+	if (programs.isEmpty()) {
+		val count = (guideMinutes + EMPTY_SLOT_MINUTES - 1) / EMPTY_SLOT_MINUTES
+		return List(count) { slot ->
+			val startMinute = slot * EMPTY_SLOT_MINUTES
+			val endMinute = minOf(startMinute + EMPTY_SLOT_MINUTES, guideMinutes)
+			GuideSlot(
+				program = createNoProgramDataBaseItem(
+					context,
+					channelId,
+					guideStart.plusMinutes(startMinute.toLong()),
+					guideStart.plusMinutes(endMinute.toLong())
+				),
+				startMinute = startMinute,
+				endMinute = endMinute,
+				isFirst = slot == 0,
+				isLast = slot == count - 1,
+			)
+		}
+	}
+
+	val slots = mutableListOf<GuideSlot>()
+	fun addEmpty(start: LocalDateTime, end: LocalDateTime) {
+		slots += GuideSlot(
+			program = createNoProgramDataBaseItem(context, channelId, start, end),
+			startMinute = minutesBetween(guideStart, start),
+			endMinute = minutesBetween(guideStart, end),
+			isFirst = start == guideStart,
+			isLast = end == guideEnd,
+		)
+	}
+
+	var prevEnd = guideStart
+	for (program in programs) {
+		val start = program.startDate?.coerceAtLeast(guideStart) ?: guideStart
+		if (start >= guideEnd || start < prevEnd) continue
+
+		// Fill empty time slot
+		if (start > prevEnd) addEmpty(prevEnd, start)
+
+		val end = program.endDate?.coerceAtMost(guideEnd) ?: guideEnd
+		prevEnd = end
+
+		if (minutesBetween(start, end) > 0) {
+			slots += GuideSlot(
+				program = program,
+				startMinute = minutesBetween(guideStart, start),
+				endMinute = minutesBetween(guideStart, end),
+				isFirst = start == guideStart,
+				isLast = end == guideEnd,
+			)
+		}
+	}
+
+	// Fill in the rest of the time period
+	if (prevEnd < guideEnd) addEmpty(prevEnd, guideEnd)
+
+	return slots
+}
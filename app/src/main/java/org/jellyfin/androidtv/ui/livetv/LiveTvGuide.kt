@@ -5,7 +5,6 @@ import java.time.LocalDateTime
 import java.util.UUID
 
 interface LiveTvGuide {
-	fun displayChannels(start: Int, max: Int)
 	fun getCurrentLocalStartDate(): LocalDateTime
 	fun showProgramOptions()
 	fun setSelectedProgram(programView: RelativeLayout)
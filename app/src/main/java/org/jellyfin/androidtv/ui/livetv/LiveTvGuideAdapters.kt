@@ -0,0 +1,145 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import android.annotation.SuppressLint
+import android.view.ViewGroup
+import androidx.core.view.children
+import androidx.recyclerview.widget.RecyclerView
+import org.jellyfin.androidtv.ui.GuideChannelHeader
+import org.jellyfin.sdk.model.api.BaseItemDto
+
+/**
+ * Provides the slots of a channel in a recycled guide row. An empty list leaves the row empty, for example while the programs
+ * of the channel are still loading.
+ */
+fun interface GuideProgramRowBinder {
+	fun bind(channel: BaseItemDto, position: Int): List<GuideSlot>
+}
+
+/**
+ * Called when the program rows of the guide scroll horizontally, used to keep the timeline in sync.
+ */
+fun interface GuideScrollListener {
+	fun onScrolled(offset: Int)
+}
+
+/**
+ * Adapter for the channel header column of the live TV guide.
+ */
+class GuideChannelHeaderAdapter(
+	private val guide: LiveTvGuide,
+) : RecyclerView.Adapter<GuideChannelHeaderAdapter.ViewHolder>() {
+	class ViewHolder(val header: GuideChannelHeader) : RecyclerView.ViewHolder(header)
+
+	var channels: List<BaseItemDto> = emptyList()
+		@SuppressLint("NotifyDataSetChanged")
+		set(value) {
+			field = value
+			notifyDataSetChanged()
+		}
+
+	override fun getItemCount() = channels.size
+
+	override fun onCreateViewHolder(parent: ViewGroup, viewType: Int) = ViewHolder(GuideChannelHeader(parent.context, guide))
+
+	override fun onBindViewHolder(holder: ViewHolder, position: Int) {
+		holder.header.channel = channels[position]
+		holder.header.loadImage()
+	}
+}
+
+/**
+ * Adapter for the program rows of the live TV guide. Rows are only bound while visible and share a single horizontal scroll
+ * offset, cells are only created for the visible part of the time axis and recycled between all rows.
+ */
+class GuideProgramRowAdapter(
+	guide: LiveTvGuide,
+	private val binder: GuideProgramRowBinder,
+	private val pixelsPerMinute: Int,
+	private val rowHeight: Int,
+) : RecyclerView.Adapter<GuideProgramRowAdapter.ViewHolder>() {
+	companion object {
+		private const val MAX_POOLED_CELLS = 200
+	}
+
+	class ViewHolder(val row: GuideProgramRow) : RecyclerView.ViewHolder(row)
+
+	private val cellPool = GuideCellPool(guide, MAX_POOLED_CELLS)
+	private var recyclerView: RecyclerView? = null
+
+	var channels: List<BaseItemDto> = emptyList()
+		@SuppressLint("NotifyDataSetChanged")
+		set(value) {
+			field = value
+			notifyDataSetChanged()
+		}
+
+	/**
+	 * Length of the time axis of the guide.
+	 */
+	var guideMinutes: Int = 0
+		set(value) {
+			field = value
+			scrollTo(scrollOffset)
+		}
+
+	var scrollOffset: Int = 0
+		private set
+
+	var scrollListener: GuideScrollListener? = null
+
+	private val maxScrollOffset: Int
+		get() {
+			val contentWidth = guideMinutes * pixelsPerMinute
+			val viewportWidth = recyclerView?.width ?: 0
+			return if (viewportWidth > 0) (contentWidth - viewportWidth).coerceAtLeast(0) else contentWidth
+		}
+
+	fun scrollTo(offset: Int) {
+		val clamped = offset.coerceIn(0, maxScrollOffset)
+		if (clamped == scrollOffset) return
+		scrollOffset = clamped
+
+		recyclerView?.children?.filterIsInstance<GuideProgramRow>()?.forEach { row -> row.setScrollOffset(clamped) }
+		scrollListener?.onScrolled(clamped)
+	}
+
+	fun scrollToEnd() = scrollTo(Int.MAX_VALUE)
+
+	private fun scrollToShow(left: Int, right: Int) {
+		val viewportWidth = recyclerView?.width ?: return
+		when {
+			left < scrollOffset -> scrollTo(left)
+			right > scrollOffset + viewportWidth -> scrollTo(minOf(left, right - viewportWidth))
+		}
+	}
+
+	override fun onAttachedToRecyclerView(recyclerView: RecyclerView) {
+		this.recyclerView = recyclerView
+	}
+
+	override fun onDetachedFromRecyclerView(recyclerView: RecyclerView) {
+		this.recyclerView = null
+	}
+
+	override fun getItemCount() = channels.size
+
+	override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): ViewHolder {
+		val row = GuideProgramRow(parent.context, cellPool, pixelsPerMinute, ::scrollToShow).apply {
+			layoutParams = RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, rowHeight)
+		}
+
+		return ViewHolder(row)
+	}
+
+	override fun onBindViewHolder(holder: ViewHolder, position: Int) {
+		holder.row.setScrollOffset(scrollOffset)
+		holder.row.setSlots(binder.bind(channels[position], position))
+	}
+
+	override fun onViewAttachedToWindow(holder: ViewHolder) {
+		// Rows kept in the view cache are not rebound, catch up on scrolling while they were detached
+		holder.row.setScrollOffset(scrollOffset)
+	}
+
+	override fun onViewRecycled(holder: ViewHolder) = holder.row.clear()
+}
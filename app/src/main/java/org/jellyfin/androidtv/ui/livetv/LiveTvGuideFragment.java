@@ -3,10 +3,8 @@ package org.jellyfin.androidtv.ui.livetv;
 import static org.koin.java.KoinJavaComponent.inject;
 
 import android.app.AlertDialog;
-import android.content.Context;
 import android.content.DialogInterface;
 import android.graphics.Color;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.Handler;
 import android.view.KeyEvent;
@@ -24,6 +22,8 @@ import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.Lifecycle;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.constant.CustomMessage;
@@ -32,13 +32,8 @@ import org.jellyfin.androidtv.databinding.LiveTvGuideBinding;
 import org.jellyfin.androidtv.ui.AsyncImageView;
 import org.jellyfin.androidtv.ui.FriendlyDateButton;
 import org.jellyfin.androidtv.ui.GuideChannelHeader;
-import org.jellyfin.androidtv.ui.GuidePagingButton;
-import org.jellyfin.androidtv.ui.HorizontalScrollViewListener;
 import org.jellyfin.androidtv.ui.LiveProgramDetailPopup;
-import org.jellyfin.androidtv.ui.ObservableHorizontalScrollView;
-import org.jellyfin.androidtv.ui.ObservableScrollView;
 import org.jellyfin.androidtv.ui.ProgramGridCell;
-import org.jellyfin.androidtv.ui.ScrollViewListener;
 import org.jellyfin.androidtv.ui.navigation.ActivityDestinations;
 import org.jellyfin.androidtv.ui.navigation.NavigationRepository;
 import org.jellyfin.androidtv.util.CoroutineUtils;
@@ -46,7 +41,6 @@ import org.jellyfin.androidtv.util.DateTimeExtensionsKt;
 import org.jellyfin.androidtv.util.ImageHelper;
 import org.jellyfin.androidtv.util.InfoLayoutHelper;
 import org.jellyfin.androidtv.util.PlaybackHelper;
-import org.jellyfin.androidtv.util.TextUtilsKt;
 import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.EmptyResponse;
@@ -55,6 +49,8 @@ import org.jellyfin.androidtv.data.service.BackgroundService;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -64,7 +60,6 @@ import timber.log.Timber;
 public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.OnKeyListener {
     public static final int GUIDE_ROW_HEIGHT_DP = 55;
     public static final int GUIDE_ROW_WIDTH_PER_MIN_DP = 7;
-    public static final int PAGE_SIZE = 75;
     public static final int NORMAL_HOURS = 9;
     public static final int FILTERED_HOURS = 4;
 
@@ -77,11 +72,15 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     private TextView mSummary;
     private AsyncImageView mImage;
     private LinearLayout mInfoRow;
-    private LinearLayout mChannels;
+    private RecyclerView mChannels;
     private LinearLayout mTimeline;
-    private LinearLayout mProgramRows;
-    private ObservableScrollView mChannelScroller;
+    private RecyclerView mProgramRows;
     private HorizontalScrollView mTimelineScroller;
+    private GuideChannelHeaderAdapter mChannelAdapter;
+    private GuideProgramRowAdapter mProgramRowAdapter;
+    private GuideProgramLoader mProgramLoader;
+    private int mProgramGeneration = 0;
+    private boolean mSyncingScroll = false;
     private View mSpinner;
     private View mResetButton;
 
@@ -89,17 +88,13 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     RelativeLayout mSelectedProgramView;
 
     private List<BaseItemDto> mAllChannels;
+    private List<BaseItemDto> mDisplayChannels = new ArrayList<>();
     private UUID mFirstFocusChannelId;
     private boolean focusAtEnd;
     private GuideFilters mFilters = new GuideFilters();
 
     private LocalDateTime mCurrentGuideStart = LocalDateTime.now();
     private LocalDateTime mCurrentGuideEnd;
-    private int mCurrentDisplayChannelStartNdx = 0;
-    private int mCurrentDisplayChannelEndNdx = 0;
-
-    private int guideRowHeightPx;
-    private int guideRowWidthPerMinPx;
 
     private Handler mHandler = new Handler();
 
@@ -111,9 +106,6 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
-        guideRowHeightPx = Utils.convertDpToPixel(requireContext(), GUIDE_ROW_HEIGHT_DP);
-        guideRowWidthPerMinPx = Utils.convertDpToPixel(requireContext(), GUIDE_ROW_WIDTH_PER_MIN_DP);
-
         LiveTvGuideBinding binding = LiveTvGuideBinding.inflate(getLayoutInflater(), container, false);
 
         mDisplayDate = binding.displayDate;
@@ -168,19 +160,39 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
             }
         });
 
+        mChannelAdapter = new GuideChannelHeaderAdapter(this);
+        mChannels.setLayoutManager(new LinearLayoutManager(requireContext()));
+        mChannels.setAdapter(mChannelAdapter);
+        mChannels.setItemAnimator(null);
+        mChannels.setFocusable(false);
+
+        mProgramLoader = new GuideProgramLoader(this, (start, count) -> {
+            // The response can be immediate when all programs are stored, don't update while binding
+            mProgramRows.post(() -> mProgramRowAdapter.notifyItemRangeChanged(start, count));
+        });
+        mProgramRowAdapter = new GuideProgramRowAdapter(
+                this,
+                this::bindProgramRow,
+                Utils.convertDpToPixel(requireContext(), GUIDE_ROW_WIDTH_PER_MIN_DP),
+                Utils.convertDpToPixel(requireContext(), GUIDE_ROW_HEIGHT_DP)
+        );
+        mProgramRowAdapter.setScrollListener(offset -> mTimelineScroller.scrollTo(offset, 0));
+        mProgramRows.setLayoutManager(new LinearLayoutManager(requireContext()));
+        mProgramRows.setAdapter(mProgramRowAdapter);
+        mProgramRows.setItemAnimator(null);
         mProgramRows.setFocusable(false);
-        mChannelScroller = binding.channelScroller;
-        ObservableScrollView programVScroller = binding.programVScroller;
-        programVScroller.setScrollViewListener(new ScrollViewListener() {
+
+        // Both lists contain the same rows, keep their vertical position in sync
+        mProgramRows.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                mChannelScroller.scrollTo(x, y);
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                syncScroll(mChannels, dy);
             }
         });
-        mChannelScroller.setScrollViewListener(new ScrollViewListener() {
+        mChannels.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                programVScroller.scrollTo(x, y);
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                syncScroll(mProgramRows, dy);
             }
         });
 
@@ -189,21 +201,6 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
         mTimelineScroller.setFocusableInTouchMode(false);
         mTimeline.setFocusable(false);
         mTimeline.setFocusableInTouchMode(false);
-        mChannelScroller.setFocusable(false);
-        mChannelScroller.setFocusableInTouchMode(false);
-        ObservableHorizontalScrollView programHScroller = binding.programHScroller;
-        programHScroller.setScrollViewListener(new HorizontalScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableHorizontalScrollView scrollView, int x, int y, int oldx, int oldy) {
-                mTimelineScroller.scrollTo(x, y);
-            }
-        });
-
-        programHScroller.setFocusable(false);
-        programHScroller.setFocusableInTouchMode(false);
-
-        mChannels.setFocusable(false);
-        mChannelScroller.setFocusable(false);
 
         // Register to receive message from popup
         CoroutineUtils.readCustomMessagesOnLifecycle(getLifecycle(), customMessageRepository.getValue(), message -> {
@@ -221,16 +218,9 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     private void load() {
         fillTimeLine(mCurrentGuideStart, getGuideHours());
         TvManager.loadAllChannels(this, ndx -> {
-            if (ndx >= PAGE_SIZE) {
-                // last channel is not in first page so grab a set where it will be in the middle
-                ndx = ndx - (PAGE_SIZE / 2);
-            } else {
-                ndx = 0; // just start at beginning
-            }
-
             mAllChannels = TvManager.getAllChannels();
-            if (!mAllChannels.isEmpty()) {
-                displayChannels(ndx, PAGE_SIZE);
+            if (mAllChannels != null && !mAllChannels.isEmpty()) {
+                loadProgramData();
             } else {
                 mSpinner.setVisibility(View.GONE);
             }
@@ -243,11 +233,25 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
             View child = mChannels.getChildAt(i);
             if (!(child instanceof GuideChannelHeader)) continue;
             GuideChannelHeader gch = (GuideChannelHeader) child;
-            if (gch.getChannel().getId().equals(channelId.toString()))
+            if (gch.getChannel().getId().equals(channelId))
                 gch.refreshFavorite();
         }
     }
 
+    public void updateChannel(BaseItemDto channel) {
+        TvManager.updateChannel(channel);
+        for (int i = 0; i < mDisplayChannels.size(); i++) {
+            if (mDisplayChannels.get(i).getId().equals(channel.getId())) mDisplayChannels.set(i, channel);
+        }
+    }
+
+    private void syncScroll(RecyclerView target, int dy) {
+        if (mSyncingScroll || dy == 0) return;
+        mSyncingScroll = true;
+        target.scrollBy(0, dy);
+        mSyncingScroll = false;
+    }
+
     @Override
     public void onResume() {
         super.onResume();
@@ -257,7 +261,7 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     }
 
     protected void doLoad() {
-        if (TvManager.shouldForceReload() || mCurrentGuideStart.plusMinutes(30).isBefore(LocalDateTime.now()) || mChannels.getChildCount() == 0) {
+        if (TvManager.shouldForceReload() || mCurrentGuideStart.plusMinutes(30).isBefore(LocalDateTime.now()) || mChannelAdapter.getItemCount() == 0) {
             load();
 
             mFirstFocusChannelId = TvManager.getLastLiveTvChannel();
@@ -268,9 +272,8 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     public void onPause() {
         super.onPause();
 
-        if (mDisplayProgramsTask != null) {
-            mDisplayProgramsTask.cancel(true);
-        }
+        TvManager.persistPrograms();
+
         if (mDetailPopup != null) {
             mDetailPopup.dismiss();
         }
@@ -453,251 +456,91 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
         TvManager.forceReload();
     }
 
-    public void displayChannels(int start, int max) {
-        int end = start + max;
-        if (end > mAllChannels.size()) {
-            end = mAllChannels.size();
-        }
-
-        if (mFilters.any()) {
-            // if we are filtered, then we need to get programs for all channels
-            mCurrentDisplayChannelStartNdx = 0;
-            mCurrentDisplayChannelEndNdx = mAllChannels.size()-1;
-        } else {
-            mCurrentDisplayChannelStartNdx = start;
-            mCurrentDisplayChannelEndNdx = end - 1;
-        }
-        Timber.d("*** Display channels pre-execute");
-        mSpinner.setVisibility(View.VISIBLE);
-
-        loadProgramData();
+    private void scrollToChannel(int position) {
+        ((LinearLayoutManager) mChannels.getLayoutManager()).scrollToPositionWithOffset(position, 0);
+        ((LinearLayoutManager) mProgramRows.getLayoutManager()).scrollToPositionWithOffset(position, 0);
     }
 
     private void loadProgramData() {
-        mProgramRows.removeAllViews();
-        mChannels.removeAllViews();
+        mProgramGeneration++;
+        mProgramLoader.reset(mAllChannels.size(), mCurrentGuideStart, mCurrentGuideEnd);
         mChannelStatus.setText("");
         mFilterStatus.setText("");
-        TvManager.getProgramsAsync(this, mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx, mCurrentGuideStart, mCurrentGuideEnd, new EmptyResponse() {
-            @Override
-            public void onResponse() {
-                Timber.d("*** Programs response");
-                if (mDisplayProgramsTask != null) mDisplayProgramsTask.cancel(true);
-                mDisplayProgramsTask = new DisplayProgramsTask();
-                mDisplayProgramsTask.execute(mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx);
-            }
-        });
-    }
-
-    DisplayProgramsTask mDisplayProgramsTask;
-    class DisplayProgramsTask extends AsyncTask<Integer, Integer, Void> {
+        mSpinner.setVisibility(View.VISIBLE);
 
-        View firstFocusView;
-        int displayedChannels = 0;
+        if (mFilters.any()) {
+            // Only channels with matching programs are shown, so the programs of all channels are needed upfront
+            int generation = mProgramGeneration;
+            TvManager.loadProgramsAsync(this, 0, mAllChannels.size() - 1, mCurrentGuideStart, mCurrentGuideEnd, new EmptyResponse() {
+                @Override
+                public void onResponse() {
+                    if (generation != mProgramGeneration) return;
 
-        @Override
-        protected void onPreExecute() {
-            Timber.d("*** Display programs pre-execute");
-            mChannels.removeAllViews();
-            mProgramRows.removeAllViews();
-
-            if (mCurrentDisplayChannelStartNdx > 0) {
-                // Show a paging row for channels above
-                int pageUpStart = mCurrentDisplayChannelStartNdx - PAGE_SIZE;
-                if (pageUpStart < 0) {
-                    pageUpStart = 0;
+                    List<BaseItemDto> channels = new ArrayList<>();
+                    for (BaseItemDto channel : mAllChannels) {
+                        if (!TvManager.getProgramsForChannel(channel.getId(), mFilters, mCurrentGuideStart, mCurrentGuideEnd).isEmpty()) channels.add(channel);
+                    }
+                    showChannels(channels);
                 }
-
-                TextView placeHolder = new TextView(requireContext());
-                placeHolder.setHeight(guideRowHeightPx);
-                mChannels.addView(placeHolder);
-                displayedChannels = 0;
-
-                String label = TextUtilsKt.getLoadChannelsLabel(requireContext(), mAllChannels.get(pageUpStart).getNumber(), mAllChannels.get(mCurrentDisplayChannelStartNdx - 1).getNumber());
-                mProgramRows.addView(new GuidePagingButton(requireContext(), LiveTvGuideFragment.this, pageUpStart, label));
-            }
+            });
+        } else {
+            // Programs are loaded in chunks while rows are bound, positions match the channel indices
+            showChannels(new ArrayList<>(mAllChannels));
         }
+    }
 
-        @Override
-        protected Void doInBackground(Integer... params) {
-            int start = params[0];
-            int end = params[1];
-            boolean first = true;
-
-            Timber.d("*** About to iterate programs");
-            LinearLayout prevRow = null;
-            for (int i = start; i <= end; i++) {
-                if (isCancelled()) return null;
-                final BaseItemDto channel = TvManager.getChannel(i);
-                List<BaseItemDto> programs = TvManager.getProgramsForChannel(channel.getId(), mFilters);
-                final LinearLayout row = getProgramRow(programs, channel.getId());
-                if (row == null) continue; // no row to show
-
-                if (first) {
-                    first = false;
-                    firstFocusView = row;
-                }
+    private void showChannels(List<BaseItemDto> channels) {
+        if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) return;
+        Timber.d("*** Showing %d channels", channels.size());
 
-                // set focus parameters if we are not on first row
-                // this makes focus movements more predictable for the grid view
-                if (prevRow != null) {
-                    TvManager.setFocusParams(row, prevRow, true);
-                    TvManager.setFocusParams(prevRow, row, false);
-                }
-                prevRow = row;
+        mDisplayChannels = channels;
+        mChannelAdapter.setChannels(channels);
+        mProgramRowAdapter.setChannels(channels);
 
-                requireActivity().runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) return;
-
-                        GuideChannelHeader header = getChannelHeader(requireContext(), channel);
-                        mChannels.addView(header);
-                        header.loadImage();
-                        mProgramRows.addView(row);
-                        // put focus on the last tuned channel
-                        if (channel.getId().equals(mFirstFocusChannelId)) {
-                            firstFocusView = focusAtEnd ? row.getChildAt(row.getChildCount()-1) : row;
-                            focusAtEnd = false;
-                            mFirstFocusChannelId = null;
-                        }
+        mChannelStatus.setText(channels.size()+" of "+mAllChannels.size()+" channels");
+        mFilterStatus.setText(mFilters.toString() + " for "+getGuideHours()+" hours");
+        mFilterStatus.setTextColor(mFilters.any() ? Color.WHITE : Color.GRAY);
 
-                    }
-                });
+        mResetButton.setVisibility(mCurrentGuideStart.isAfter(LocalDateTime.now()) ? View.VISIBLE : View.GONE); // show reset button if paged ahead
 
-                displayedChannels++;
+        // put focus on the last tuned channel
+        int position = 0;
+        for (int i = 0; i < channels.size(); i++) {
+            if (channels.get(i).getId().equals(mFirstFocusChannelId)) {
+                position = i;
+                break;
             }
-            return null;
         }
+        mFirstFocusChannelId = null;
+        scrollToChannel(position);
 
-        @Override
-        protected void onPostExecute(Void aVoid) {
-            Timber.d("*** Display programs post execute");
-            if (mCurrentDisplayChannelEndNdx < mAllChannels.size()-1 && !mFilters.any()) {
-                // Show a paging row for channels below
-                int pageDnEnd = mCurrentDisplayChannelEndNdx + PAGE_SIZE;
-                if (pageDnEnd >= mAllChannels.size()) pageDnEnd = mAllChannels.size()-1;
-
-                TextView placeHolder = new TextView(requireContext());
-                placeHolder.setHeight(guideRowHeightPx);
-                mChannels.addView(placeHolder);
-
-                String label = TextUtilsKt.getLoadChannelsLabel(requireContext(), mAllChannels.get(mCurrentDisplayChannelEndNdx + 1).getNumber(), mAllChannels.get(pageDnEnd).getNumber());
-                mProgramRows.addView(new GuidePagingButton(requireContext(), LiveTvGuideFragment.this, mCurrentDisplayChannelEndNdx + 1, label));
-            }
-
-            mChannelStatus.setText(displayedChannels+" of "+mAllChannels.size()+" channels");
-            mFilterStatus.setText(mFilters.toString() + " for "+getGuideHours()+" hours");
-            mFilterStatus.setTextColor(mFilters.any() ? Color.WHITE : Color.GRAY);
-
-            mResetButton.setVisibility(mCurrentGuideStart.isAfter(LocalDateTime.now()) ? View.VISIBLE : View.GONE); // show reset button if paged ahead
-
+        final int focusPosition = position;
+        mProgramRows.post(() -> {
             mSpinner.setVisibility(View.GONE);
-            if (firstFocusView != null) {
-                firstFocusView.requestFocus();
-            }
-        }
-    }
-
-    private int currentCellId = 0;
-
-    private GuideChannelHeader getChannelHeader(Context context, org.jellyfin.sdk.model.api.BaseItemDto channel){
-        return new GuideChannelHeader(context, this, channel);
+            RecyclerView.ViewHolder holder = mProgramRows.findViewHolderForAdapterPosition(focusPosition);
+            if (holder == null) return;
+            GuideProgramRow row = (GuideProgramRow) holder.itemView;
+            if (!focusAtEnd || !row.requestFocusAtEnd()) row.requestFocus();
+            focusAtEnd = false;
+        });
     }
 
-    private LinearLayout getProgramRow(List<BaseItemDto> programs, UUID channelId) {
-
-        LinearLayout programRow = new LinearLayout(requireContext());
-
-        if (programs.size() == 0) {
-            if (mFilters.any()) return null; // don't show rows with no program data
-
-            int minutes = ((Long) ((mCurrentGuideEnd.toInstant(ZoneOffset.UTC).toEpochMilli() - mCurrentGuideStart.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue();
-            int slot = 0;
-            do {
-                BaseItemDto empty = LiveTvGuideFragmentHelperKt.createNoProgramDataBaseItem(
-                        getContext(),
-                        channelId,
-                        mCurrentGuideStart.plusMinutes(30l * slot),
-                        mCurrentGuideEnd.plusMinutes(30l * (slot + 1))
-                );
-
-                ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(30 * guideRowWidthPerMinPx, guideRowHeightPx));
-                programRow.addView(cell);
-                if (slot == 0)
-                    cell.setFirst();
-                if (slot == (minutes / 30) - 1)
-                    cell.setLast();
-                slot++;
-            } while((30*slot) < minutes);
-            return programRow;
-        }
-
-        LocalDateTime prevEnd = getCurrentLocalStartDate();
-        for (BaseItemDto item : programs) {
-            LocalDateTime start = item.getStartDate() != null ? item.getStartDate() : getCurrentLocalStartDate();
-            if (start.isBefore(getCurrentLocalStartDate())) {
-                start = getCurrentLocalStartDate();
-            }
-
-            if (start.isBefore(prevEnd))
-                continue;
-
-            if (start.isAfter(prevEnd)) {
-                // fill empty time slot
-                BaseItemDto empty = LiveTvGuideFragmentHelperKt.createNoProgramDataBaseItem(
-                        getContext(),
-                        channelId,
-                        prevEnd,
-                        start
-                );
-
-                ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(((Long) ((start.toInstant(ZoneOffset.UTC).toEpochMilli() - prevEnd.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-                if (prevEnd == mCurrentGuideStart) {
-                    cell.setFirst();
-                }
-                programRow.addView(cell);
-            }
-            LocalDateTime end = item.getEndDate() != null ? item.getEndDate() : getCurrentLocalEndDate();
-            if (end.isAfter(getCurrentLocalEndDate())) end = getCurrentLocalEndDate();
-            prevEnd = end;
-            Long duration = (end.toInstant(ZoneOffset.UTC).toEpochMilli() - start.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000;
-            if (duration > 0) {
-                ProgramGridCell program = new ProgramGridCell(requireContext(), this, item, false);
-                program.setId(currentCellId++);
-                program.setLayoutParams(new ViewGroup.LayoutParams(duration.intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-                if (start == mCurrentGuideStart) {
-                    program.setFirst();
-                }
-                if (end == mCurrentGuideEnd) {
-                    program.setLast();
-                }
-
-                programRow.addView(program);
-            }
+    private List<GuideSlot> bindProgramRow(BaseItemDto channel, int position) {
+        List<BaseItemDto> programs;
+        if (mFilters.any()) {
+            // Filtered guides load all programs upfront and their positions don't match the channel indices
+            programs = TvManager.getProgramsForChannel(channel.getId(), mFilters, mCurrentGuideStart, mCurrentGuideEnd);
+        } else {
+            programs = mProgramLoader.getPrograms(channel, position);
+            // Leave the row empty until its chunk is loaded
+            if (programs == null) return Collections.emptyList();
         }
 
-        //If not at end of time period - fill in the rest
-        if (prevEnd.isBefore(mCurrentGuideEnd)) {
-            // fill empty time slot
-            BaseItemDto empty = LiveTvGuideFragmentHelperKt.createNoProgramDataBaseItem(
-                    getContext(),
-                    channelId,
-                    prevEnd,
-                    mCurrentGuideEnd
-            );
-
-            ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-            cell.setId(currentCellId++);
-            cell.setLayoutParams(new ViewGroup.LayoutParams(((Long)((mCurrentGuideEnd.toInstant(ZoneOffset.UTC).toEpochMilli() - prevEnd.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-            programRow.addView(cell);
-        }
+        return GuideSlotsKt.createGuideSlots(requireContext(), channel.getId(), programs, mCurrentGuideStart, mCurrentGuideEnd);
+    }
 
-        return programRow;
+    private int getMinutesBetween(LocalDateTime start, LocalDateTime end) {
+        return ((Long) ((end.toInstant(ZoneOffset.UTC).toEpochMilli() - start.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue();
     }
 
     private void fillTimeLine(LocalDateTime start, int hours) {
@@ -710,6 +553,10 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
         mDisplayDate.setText(TimeUtils.getFriendlyDate(requireContext(), mCurrentGuideStart));
         mCurrentGuideEnd = mCurrentGuideStart
                 .plusHours(hours);
+        mProgramRowAdapter.setGuideMinutes(getMinutesBetween(mCurrentGuideStart, mCurrentGuideEnd));
+        mProgramRowAdapter.scrollTo(focusAtEnd ? Integer.MAX_VALUE : 0);
+
+        int guideRowWidthPerMinPx = Utils.convertDpToPixel(requireContext(), GUIDE_ROW_WIDTH_PER_MIN_DP);
         int oneHour = 60 * guideRowWidthPerMinPx;
         int halfHour = 30 * guideRowWidthPerMinPx;
         int interval = mCurrentGuideStart.getMinute() >= 30 ? 30 : 60;
@@ -763,22 +610,14 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
             mHandler.removeCallbacks(detailUpdateTask);
             mHandler.postDelayed(detailUpdateTask, 500);
         } else if (mSelectedProgramView instanceof GuideChannelHeader) {
-            for (int i = 0; i < mChannels.getChildCount(); i++) {
-                if (mSelectedProgramView == mChannels.getChildAt(i)) {
-                    LinearLayout programRow = (LinearLayout)mProgramRows.getChildAt(i);
-                    if (programRow == null)
-                        return;
-                    for (int ii = 0; ii < programRow.getChildCount(); ii++) {
-                        ProgramGridCell prog = (ProgramGridCell)programRow.getChildAt(ii);
-                        if (prog.getProgram() != null && prog.getProgram().getStartDate().isBefore(LocalDateTime.now()) && prog.getProgram().getEndDate().isAfter(LocalDateTime.now())) {
-                            mSelectedProgram = prog.getProgram();
-                            if (mSelectedProgram != null) {
-                                mHandler.removeCallbacks(detailUpdateTask);
-                                mHandler.postDelayed(detailUpdateTask, 500);
-                            }
-                            return;
-                        }
-                    }
+            UUID channelId = ((GuideChannelHeader) mSelectedProgramView).getChannel().getId();
+            LocalDateTime now = LocalDateTime.now();
+            for (BaseItemDto program : TvManager.getProgramsForChannel(channelId, null, mCurrentGuideStart, mCurrentGuideEnd)) {
+                if (program.getStartDate() != null && program.getStartDate().isBefore(now) && program.getEndDate() != null && program.getEndDate().isAfter(now)) {
+                    mSelectedProgram = program;
+                    mHandler.removeCallbacks(detailUpdateTask);
+                    mHandler.postDelayed(detailUpdateTask, 500);
+                    return;
                 }
             }
         }
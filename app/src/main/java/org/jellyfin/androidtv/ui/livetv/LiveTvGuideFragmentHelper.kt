@@ -53,6 +53,7 @@ fun LiveTvGuideFragment.toggleFavorite() {
 
 			header.channel = header.channel.copy(userData = userData)
 			header.findViewById<View>(R.id.favImage).isVisible = userData.isFavorite
+			updateChannel(header.channel)
 			dataRefreshService.lastFavoriteUpdate = Instant.now()
 		}
 	}
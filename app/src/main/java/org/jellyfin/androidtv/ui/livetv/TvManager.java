@@ -6,6 +6,7 @@ import android.text.format.DateUtils;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
+import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.leanback.widget.HeaderItem;
 import androidx.leanback.widget.ListRow;
@@ -14,7 +15,6 @@ import androidx.leanback.widget.Row;
 
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.preference.SystemPreferences;
-import org.jellyfin.androidtv.ui.ProgramGridCell;
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter;
 import org.jellyfin.androidtv.ui.presentation.MutableObjectAdapter;
 import org.jellyfin.androidtv.util.DateTimeExtensionsKt;
@@ -24,14 +24,13 @@ import org.jellyfin.androidtv.util.apiclient.EmptyResponse;
 import org.jellyfin.sdk.model.api.BaseItemDto;
 import org.koin.java.KoinJavaComponent;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -42,10 +41,14 @@ import timber.log.Timber;
 public class TvManager {
     private static List<BaseItemDto> allChannels;
     private static UUID[] channelIds;
-    private static HashMap<UUID, ArrayList<BaseItemDto>> mProgramsDict = new HashMap<>();
-    private static LocalDateTime needLoadTime;
+    private static LocalDateTime lastWindowStart;
+    private static LocalDateTime lastWindowEnd;
     private static boolean forceReload;
 
+    private static EpgStore getEpgStore() {
+        return KoinJavaComponent.<EpgStore>get(EpgStore.class);
+    }
+
     public static UUID getLastLiveTvChannel() {
         return Utils.uuidOrNull(KoinJavaComponent.<SystemPreferences>get(SystemPreferences.class).get(SystemPreferences.Companion.getLiveTvLastChannel()));
     }
@@ -68,6 +71,8 @@ public class TvManager {
 
     public static void forceReload() {
         forceReload = true;
+        // Keep showing the stored programs but refresh them on the next load
+        getEpgStore().invalidate();
     }
 
     public static boolean shouldForceReload() { return forceReload; }
@@ -93,8 +98,16 @@ public class TvManager {
         }
     }
 
+    public static void updateChannel(BaseItemDto channel) {
+        if (allChannels != null) {
+            int ndx = getAllChannelsIndex(channel.getId());
+            if (ndx >= 0) allChannels.set(ndx, channel);
+        }
+    }
+
     public static void loadAllChannels(Fragment fragment, Function<Integer, Void> outerResponse) {
         TvManagerHelperKt.loadLiveTvChannels(fragment, channels -> {
+            forceReload = false;
             if (channels != null) {
                 allChannels = new ArrayList<>(channels);
                 outerResponse.apply(fillChannelIds());
@@ -110,61 +123,70 @@ public class TvManager {
         if (allChannels != null) {
             channelIds = new UUID[allChannels.size()];
             UUID last = getLastLiveTvChannel();
-            if (last == null) return ndx;
-            int i = 0;
-            for (BaseItemDto channel : allChannels) {
-                channelIds[i++] = channel.getId();
-                if (channel.getId().equals(last.toString())) ndx = i;
+            for (int i = 0; i < allChannels.size(); i++) {
+                UUID id = allChannels.get(i).getId();
+                channelIds[i] = id;
+                if (id.equals(last)) ndx = i;
             }
         }
 
         return ndx;
     }
 
-    public static void getProgramsAsync(Fragment fragment, int startNdx, int endNdx, final LocalDateTime startTime, LocalDateTime endTime, final EmptyResponse outerResponse) {
-        LocalDateTime startTimeRounded = startTime.withMinute(startTime.getMinute() >= 30 ? 30 : 0).withSecond(0).withNano(0);
-        LocalDateTime endTimeRounded = endTime.minusSeconds(1);
-
-        if (forceReload || needLoadTime == null || startTimeRounded.isAfter(needLoadTime) || !mProgramsDict.containsKey(channelIds[startNdx]) || !mProgramsDict.containsKey(channelIds[endNdx])) {
-            forceReload = false;
+    private static LocalDateTime roundWindowStart(LocalDateTime startTime) {
+        return startTime.withMinute(startTime.getMinute() >= 30 ? 30 : 0).withSecond(0).withNano(0);
+    }
 
-            endNdx = endNdx > channelIds.length ? channelIds.length : endNdx+1; //array copy range final ndx is exclusive
+    /**
+     * Load the programs for the channels in the given (inclusive) index range. Only channels whose
+     * programs for the window are missing or stale are requested. Afterwards the adjacent window is
+     * prefetched in the background so paging the guide forward is instant.
+     */
+    public static void loadProgramsAsync(Fragment fragment, int startNdx, int endNdx, LocalDateTime startTime, LocalDateTime endTime, final EmptyResponse outerResponse) {
+        LocalDateTime windowStart = roundWindowStart(startTime);
+        LocalDateTime windowEnd = endTime;
+        lastWindowStart = windowStart;
+        lastWindowEnd = windowEnd;
 
-            TvManagerHelperKt.getPrograms(fragment, Arrays.copyOfRange(channelIds, startNdx, endNdx), startTimeRounded, endTimeRounded, programs -> {
-                if (programs != null) {
-                    Timber.d("*** About to build dictionary");
-                    buildProgramsDict(programs, startTimeRounded);
-                    Timber.d("*** Programs retrieval finished");
+        UUID[] range = Arrays.copyOfRange(channelIds, startNdx, Math.min(endNdx + 1, channelIds.length));
+        fetchPrograms(fragment, range, windowStart, windowEnd, () -> {
+            outerResponse.onResponse();
 
-                    outerResponse.onResponse();
-                } else {
-                    outerResponse.onResponse();
-                }
+            long windowMinutes = Duration.between(windowStart, windowEnd).toMinutes();
+            fetchPrograms(fragment, range, windowEnd, windowEnd.plusMinutes(windowMinutes), null);
+        });
+    }
 
-                return null;
-            });
+    private static void fetchPrograms(Fragment fragment, UUID[] ids, LocalDateTime windowStart, LocalDateTime windowEnd, @Nullable Runnable onLoaded) {
+        EpgStore epgStore = getEpgStore();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            if (epgStore.getCoverage(id, windowStart, windowEnd) != EpgCoverage.FRESH) missing.add(id);
+        }
 
-            Timber.d("*** About to get programs");
-        } else {
-            outerResponse.onResponse();
+        if (missing.isEmpty()) {
+            if (onLoaded != null) onLoaded.run();
+            return;
         }
+
+        Timber.d("*** Loading programs for %d of %d channels from %s to %s", missing.size(), ids.length, windowStart, windowEnd);
+        TvManagerHelperKt.getPrograms(fragment, missing.toArray(new UUID[0]), windowStart, windowEnd.minusSeconds(1), programs -> {
+            if (programs != null) epgStore.putPrograms(missing, windowStart, windowEnd, programs);
+            if (onLoaded != null) onLoaded.run();
+            return null;
+        });
     }
 
-    private static void buildProgramsDict(Collection<BaseItemDto> programs, LocalDateTime startTime) {
-        mProgramsDict = new HashMap<>();
-        for (BaseItemDto program : programs) {
-            UUID id = program.getChannelId();
-            if (!mProgramsDict.containsKey(id)) mProgramsDict.put(id, new ArrayList<BaseItemDto>());
-            if (program.getEndDate().isAfter(startTime))
-                mProgramsDict.get(id).add(program);
-        }
-        needLoadTime = startTime.plusMinutes(29);
+    public static EpgCoverage getProgramsCoverage(UUID channelId, LocalDateTime startTime, LocalDateTime endTime) {
+        return getEpgStore().getCoverage(channelId, roundWindowStart(startTime), endTime);
     }
 
-    public static List<BaseItemDto> getProgramsForChannel(UUID channelId, GuideFilters filters) {
-        if (!mProgramsDict.containsKey(channelId)) return new ArrayList<>();
+    public static void persistPrograms() {
+        getEpgStore().persist();
+    }
 
-        List<BaseItemDto> results = mProgramsDict.get(channelId);
+    public static List<BaseItemDto> getProgramsForChannel(UUID channelId, GuideFilters filters, LocalDateTime startTime, LocalDateTime endTime) {
+        List<BaseItemDto> results = getEpgStore().getPrograms(channelId, roundWindowStart(startTime), endTime);
         boolean passes = filters == null || !filters.any();
         if (passes) return results;
 
@@ -176,8 +198,13 @@ public class TvManager {
         return passes ? results : new ArrayList<BaseItemDto>();
     }
 
+    public static List<BaseItemDto> getProgramsForChannel(UUID channelId, GuideFilters filters) {
+        if (lastWindowStart == null) return new ArrayList<>();
+        return getProgramsForChannel(channelId, filters, lastWindowStart, lastWindowEnd);
+    }
+
     public static List<BaseItemDto> getProgramsForChannel(UUID channelId) {
-        return !mProgramsDict.containsKey(channelId) ? new ArrayList<BaseItemDto>() : mProgramsDict.get(channelId);
+        return getProgramsForChannel(channelId, null);
     }
 
     public static void setTimelineRow(Context context, LinearLayout timelineRow, BaseItemDto program) {
@@ -203,33 +230,6 @@ public class TvManager {
         timelineRow.addView(datetime);
     }
 
-    // this makes focus movements more predictable for the grid view
-    public static void setFocusParams(LinearLayout currentRow, LinearLayout otherRow, boolean up) {
-        for (int currentRowNdx = 0; currentRowNdx < currentRow.getChildCount(); currentRowNdx++) {
-            ProgramGridCell cell = (ProgramGridCell) currentRow.getChildAt(currentRowNdx);
-            ProgramGridCell otherCell = getOtherCell(otherRow, cell);
-            if (otherCell != null) {
-                if (up) {
-                    cell.setNextFocusUpId(otherCell.getId());
-                } else {
-                    cell.setNextFocusDownId(otherCell.getId());
-                }
-            }
-        }
-    }
-
-    private static ProgramGridCell getOtherCell(LinearLayout otherRow, ProgramGridCell cell) {
-        // find first cell in other row where our left edge is within its body (will be first one who's right edge is greater than our left)
-        for (int otherRowNdx = 0; otherRowNdx < otherRow.getChildCount(); otherRowNdx++) {
-            ProgramGridCell otherCell = (ProgramGridCell) otherRow.getChildAt(otherRowNdx);
-            if (otherCell.getProgram().getEndDate() != null && cell.getProgram().getStartDate() != null &&
-                    otherCell.getProgram().getEndDate().isAfter(cell.getProgram().getStartDate())) {
-                return otherCell;
-            }
-        }
-        return null;
-    }
-
     public static void getScheduleRowsAsync(Fragment fragment, String seriesTimerId, final Presenter presenter, final MutableObjectAdapter<Row> rowAdapter) {
         TvManagerHelperKt.getScheduleRows(fragment, seriesTimerId, timerMap -> {
             for (Map.Entry<LocalDate, ? extends List<BaseItemDto>> entry : timerMap.entrySet()) {
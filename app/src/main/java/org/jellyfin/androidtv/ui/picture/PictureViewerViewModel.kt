@@ -39,7 +39,7 @@ class PictureViewerViewModel(private val api: ApiClient) : ViewModel() {
 			api.itemsApi.getItems(
 				parentId = itemResponse.parentId,
 				includeItemTypes = setOf(BaseItemKind.PHOTO),
-				fields = ItemRepository.itemFields,
+				fields = ItemRepository.cardFields,
 				sortBy = sortBy,
 				sortOrder = listOf(sortOrder),
 			).content
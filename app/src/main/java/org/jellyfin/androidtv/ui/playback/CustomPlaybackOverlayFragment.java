@@ -6,7 +6,6 @@ import android.app.AlertDialog;
 import android.content.Context;
 import android.graphics.Color;
 import android.media.AudioManager;
-import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
@@ -17,7 +16,6 @@ import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
-import android.widget.LinearLayout;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
@@ -36,6 +34,8 @@ import androidx.leanback.widget.Presenter;
 import androidx.leanback.widget.Row;
 import androidx.leanback.widget.RowPresenter;
 import androidx.lifecycle.Lifecycle;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.constant.CustomMessage;
@@ -44,18 +44,17 @@ import org.jellyfin.androidtv.data.service.BackgroundService;
 import org.jellyfin.androidtv.databinding.OverlayTvGuideBinding;
 import org.jellyfin.androidtv.databinding.VlcPlayerInterfaceBinding;
 import org.jellyfin.androidtv.ui.GuideChannelHeader;
-import org.jellyfin.androidtv.ui.GuidePagingButton;
-import org.jellyfin.androidtv.ui.HorizontalScrollViewListener;
 import org.jellyfin.androidtv.ui.LiveProgramDetailPopup;
-import org.jellyfin.androidtv.ui.ObservableHorizontalScrollView;
-import org.jellyfin.androidtv.ui.ObservableScrollView;
 import org.jellyfin.androidtv.ui.ProgramGridCell;
-import org.jellyfin.androidtv.ui.ScrollViewListener;
 import org.jellyfin.androidtv.ui.itemhandling.ChapterItemInfoBaseRowItem;
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter;
+import org.jellyfin.androidtv.ui.livetv.GuideChannelHeaderAdapter;
+import org.jellyfin.androidtv.ui.livetv.GuideProgramLoader;
+import org.jellyfin.androidtv.ui.livetv.GuideProgramRowAdapter;
+import org.jellyfin.androidtv.ui.livetv.GuideSlot;
+import org.jellyfin.androidtv.ui.livetv.GuideSlotsKt;
 import org.jellyfin.androidtv.ui.livetv.LiveTvGuide;
 import org.jellyfin.androidtv.ui.livetv.LiveTvGuideFragment;
-import org.jellyfin.androidtv.ui.livetv.LiveTvGuideFragmentHelperKt;
 import org.jellyfin.androidtv.ui.livetv.TvManager;
 import org.jellyfin.androidtv.preference.UserPreferences;
 import org.jellyfin.androidtv.ui.navigation.Destinations;
@@ -70,7 +69,6 @@ import org.jellyfin.androidtv.ui.presentation.PositionableListRowPresenter;
 import org.jellyfin.androidtv.util.CoroutineUtils;
 import org.jellyfin.androidtv.util.DateTimeExtensionsKt;
 import org.jellyfin.androidtv.util.ImageHelper;
-import org.jellyfin.androidtv.util.TextUtilsKt;
 import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.EmptyResponse;
@@ -82,6 +80,7 @@ import org.jellyfin.sdk.model.api.request.GetItemsRequest;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -101,7 +100,6 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
     private PositionableListRowPresenter mPopupRowPresenter;
 
     //Live guide items
-    private static final int PAGE_SIZE = 75;
     private static final int GUIDE_HOURS = 9;
 
     BaseItemDto mSelectedProgram;
@@ -109,10 +107,11 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
     private boolean mGuideVisible = false;
     private LocalDateTime mCurrentGuideStart;
     private LocalDateTime mCurrentGuideEnd;
-    private int mCurrentDisplayChannelStartNdx = 0;
-    private int mCurrentDisplayChannelEndNdx = 0;
     private List<BaseItemDto> mAllChannels;
-    private UUID mFirstFocusChannelId;
+    private GuideChannelHeaderAdapter mChannelAdapter;
+    private GuideProgramRowAdapter mProgramRowAdapter;
+    private GuideProgramLoader mProgramLoader;
+    private boolean mSyncingScroll = false;
 
     private List<BaseItemDto> mItemsToPlay;
 
@@ -260,18 +259,39 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         tvGuideBinding.channelsStatus.setTextColor(Color.GRAY);
         tvGuideBinding.filterStatus.setTextColor(Color.GRAY);
 
+        mChannelAdapter = new GuideChannelHeaderAdapter(this);
+        tvGuideBinding.channels.setLayoutManager(new LinearLayoutManager(requireContext()));
+        tvGuideBinding.channels.setAdapter(mChannelAdapter);
+        tvGuideBinding.channels.setItemAnimator(null);
+        tvGuideBinding.channels.setFocusable(false);
+
+        mProgramLoader = new GuideProgramLoader(this, (start, count) -> {
+            // The response can be immediate when all programs are stored, don't update while binding
+            tvGuideBinding.programRows.post(() -> mProgramRowAdapter.notifyItemRangeChanged(start, count));
+        });
+        mProgramRowAdapter = new GuideProgramRowAdapter(
+                this,
+                this::bindProgramRow,
+                Utils.convertDpToPixel(requireContext(), LiveTvGuideFragment.GUIDE_ROW_WIDTH_PER_MIN_DP),
+                Utils.convertDpToPixel(requireContext(), LiveTvGuideFragment.GUIDE_ROW_HEIGHT_DP)
+        );
+        mProgramRowAdapter.setScrollListener(offset -> tvGuideBinding.timelineHScroller.scrollTo(offset, 0));
+        tvGuideBinding.programRows.setLayoutManager(new LinearLayoutManager(requireContext()));
+        tvGuideBinding.programRows.setAdapter(mProgramRowAdapter);
+        tvGuideBinding.programRows.setItemAnimator(null);
         tvGuideBinding.programRows.setFocusable(false);
-        tvGuideBinding.programVScroller.setScrollViewListener(new ScrollViewListener() {
+
+        // Both lists contain the same rows, keep their vertical position in sync
+        tvGuideBinding.programRows.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                tvGuideBinding.channelScroller.scrollTo(x, y);
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                syncScroll(tvGuideBinding.channels, dy);
             }
         });
-
-        tvGuideBinding.channelScroller.setScrollViewListener(new ScrollViewListener() {
+        tvGuideBinding.channels.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                tvGuideBinding.programVScroller.scrollTo(x, y);
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                syncScroll(tvGuideBinding.programRows, dy);
             }
         });
 
@@ -279,20 +299,6 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         tvGuideBinding.timelineHScroller.setFocusableInTouchMode(false);
         tvGuideBinding.timeline.setFocusable(false);
         tvGuideBinding.timeline.setFocusableInTouchMode(false);
-        tvGuideBinding.channelScroller.setFocusable(false);
-        tvGuideBinding.channelScroller.setFocusableInTouchMode(false);
-
-        tvGuideBinding.programHScroller.setScrollViewListener(new HorizontalScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableHorizontalScrollView scrollView, int x, int y, int oldx, int oldy) {
-                tvGuideBinding.timelineHScroller.scrollTo(x, y);
-            }
-        });
-        tvGuideBinding.programHScroller.setFocusable(false);
-        tvGuideBinding.programHScroller.setFocusableInTouchMode(false);
-
-        tvGuideBinding.channels.setFocusable(false);
-        tvGuideBinding.channelScroller.setFocusable(false);
 
         // register to receive message from popup
         CoroutineUtils.readCustomMessagesOnLifecycle(getLifecycle(), customMessageRepository.getValue(), message -> {
@@ -487,12 +493,21 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
 
     public void refreshFavorite(UUID channelId) {
         for (int i = 0; i < tvGuideBinding.channels.getChildCount(); i++) {
-            GuideChannelHeader gch = (GuideChannelHeader) tvGuideBinding.channels.getChildAt(i);
-            if (gch.getChannel().getId().equals(channelId.toString()))
+            View child = tvGuideBinding.channels.getChildAt(i);
+            if (!(child instanceof GuideChannelHeader)) continue;
+            GuideChannelHeader gch = (GuideChannelHeader) child;
+            if (gch.getChannel().getId().equals(channelId))
                 gch.refreshFavorite();
         }
     }
 
+    private void syncScroll(RecyclerView target, int dy) {
+        if (mSyncingScroll || dy == 0) return;
+        mSyncingScroll = true;
+        target.scrollBy(0, dy);
+        mSyncingScroll = false;
+    }
+
     private View.OnKeyListener keyListener = new View.OnKeyListener() {
         @Override
         public boolean onKey(View v, int keyCode, KeyEvent event) {
@@ -803,16 +818,11 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         tvGuideBinding.spinner.setVisibility(View.VISIBLE);
         fillTimeLine(GUIDE_HOURS);
         TvManager.loadAllChannels(this, ndx -> {
-            if (ndx >= PAGE_SIZE) {
-                // last channel is not in first page so grab a set where it will be in the middle
-                ndx = ndx - (PAGE_SIZE / 2);
-            } else {
-                ndx = 0; // just start at beginning
-            }
-
             mAllChannels = TvManager.getAllChannels();
             if (!mAllChannels.isEmpty()) {
-                displayChannels(ndx, PAGE_SIZE);
+                // put focus on the playing channel, or the last tuned channel when it isn't in the list
+                int playingNdx = TvManager.getAllChannelsIndex(playbackControllerContainer.getValue().getPlaybackController().getCurrentlyPlayingItem().getId());
+                showChannels(playingNdx >= 0 ? playingNdx : Math.max(ndx, 0));
             } else {
                 tvGuideBinding.spinner.setVisibility(View.GONE);
             }
@@ -821,211 +831,35 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         });
     }
 
-    public void displayChannels(int start, int max) {
-        int end = start + max;
-        if (end > mAllChannels.size()) end = mAllChannels.size();
+    private void showChannels(int focusPosition) {
+        if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) return;
+        Timber.d("*** Showing %d channels", mAllChannels.size());
 
-        mCurrentDisplayChannelStartNdx = start;
-        mCurrentDisplayChannelEndNdx = end - 1;
-        Timber.d("*** Display channels pre-execute");
-        tvGuideBinding.spinner.setVisibility(View.VISIBLE);
-
-        tvGuideBinding.channels.removeAllViews();
-        tvGuideBinding.programRows.removeAllViews();
-        tvGuideBinding.channelsStatus.setText("");
-        tvGuideBinding.filterStatus.setText("");
-        final CustomPlaybackOverlayFragment self = this;
-        TvManager.getProgramsAsync(this, mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx, mCurrentGuideStart, mCurrentGuideEnd, new EmptyResponse() {
-            @Override
-            public void onResponse() {
-                Timber.d("*** Programs response");
-                if (mDisplayProgramsTask != null) mDisplayProgramsTask.cancel(true);
-                mDisplayProgramsTask = new DisplayProgramsTask(self);
-                mDisplayProgramsTask.execute(mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx);
-            }
-        });
-        binding.skipOverlay.setSkipUiEnabled(!mIsVisible && !mGuideVisible && !mPopupPanelVisible);
-    }
-
-    DisplayProgramsTask mDisplayProgramsTask;
+        // Programs are loaded in chunks while rows are bound
+        mProgramLoader.reset(mAllChannels.size(), mCurrentGuideStart, mCurrentGuideEnd);
+        mChannelAdapter.setChannels(mAllChannels);
+        mProgramRowAdapter.setChannels(mAllChannels);
 
-    class DisplayProgramsTask extends AsyncTask<Integer, Integer, Void> {
-        private View firstRow;
-        private int displayedChannels = 0;
-        private final LiveTvGuide guide;
+        tvGuideBinding.channelsStatus.setText(getResources().getString(R.string.lbl_tv_channel_status, mAllChannels.size(), mAllChannels.size()));
+        tvGuideBinding.filterStatus.setText(getResources().getString(R.string.lbl_tv_filter_status, GUIDE_HOURS));
 
-        DisplayProgramsTask(LiveTvGuide guide) {
-            super();
-            this.guide = guide;
-        }
-
-        @Override
-        protected void onPreExecute() {
-            Timber.d("*** Display programs pre-execute");
-            tvGuideBinding.channels.removeAllViews();
-            tvGuideBinding.programRows.removeAllViews();
-            mFirstFocusChannelId = playbackControllerContainer.getValue().getPlaybackController().getCurrentlyPlayingItem().getId();
-
-            if (mCurrentDisplayChannelStartNdx > 0) {
-                // Show a paging row for channels above
-                int pageUpStart = mCurrentDisplayChannelStartNdx - PAGE_SIZE;
-                if (pageUpStart < 0) pageUpStart = 0;
-
-                TextView placeHolder = new TextView(requireContext());
-                placeHolder.setHeight(Utils.convertDpToPixel(requireContext(), LiveTvGuideFragment.GUIDE_ROW_HEIGHT_DP));
-                tvGuideBinding.channels.addView(placeHolder);
-                displayedChannels = 0;
-
-                String label = TextUtilsKt.getLoadChannelsLabel(requireContext(), mAllChannels.get(pageUpStart).getNumber(), mAllChannels.get(mCurrentDisplayChannelStartNdx - 1).getNumber());
-                tvGuideBinding.programRows.addView(new GuidePagingButton(requireContext(), guide, pageUpStart, label));
-            }
-        }
-
-        @Override
-        protected Void doInBackground(Integer... params) {
-            int start = params[0];
-            int end = params[1];
-
-            boolean first = true;
-
-            Timber.d("*** About to iterate programs");
-            LinearLayout prevRow = null;
-            for (int i = start; i <= end; i++) {
-                if (isCancelled()) return null;
-                final BaseItemDto channel = TvManager.getChannel(i);
-                List<BaseItemDto> programs = TvManager.getProgramsForChannel(channel.getId());
-                final LinearLayout row = getProgramRow(programs, channel.getId());
-                if (first) {
-                    first = false;
-                    firstRow = row;
-                }
-
-                // put focus on the last tuned channel
-                if (channel.getId().equals(mFirstFocusChannelId.toString())) {
-                    firstRow = row;
-                    mFirstFocusChannelId = null; // only do this first time in not while paging around
-                }
-
-                // set focus parameters if we are not on first row
-                // this makes focus movements more predictable for the grid view
-                if (prevRow != null) {
-                    TvManager.setFocusParams(row, prevRow, true);
-                    TvManager.setFocusParams(prevRow, row, false);
-                }
-                prevRow = row;
-
-                requireActivity().runOnUiThread(() -> {
-                    GuideChannelHeader header = getChannelHeader(requireContext(), channel);
-                    tvGuideBinding.channels.addView(header);
-                    header.loadImage();
-                    tvGuideBinding.programRows.addView(row);
-                });
-
-                displayedChannels++;
-            }
-            return null;
-        }
-
-        @Override
-        protected void onPostExecute(Void aVoid) {
-            Timber.d("*** Display programs post execute");
-            if (mCurrentDisplayChannelEndNdx < mAllChannels.size() - 1) {
-                // Show a paging row for channels below
-                int pageDnEnd = mCurrentDisplayChannelEndNdx + PAGE_SIZE;
-                if (pageDnEnd >= mAllChannels.size()) pageDnEnd = mAllChannels.size() - 1;
-
-                TextView placeHolder = new TextView(requireContext());
-                placeHolder.setHeight(Utils.convertDpToPixel(requireContext(), LiveTvGuideFragment.GUIDE_ROW_HEIGHT_DP));
-                tvGuideBinding.channels.addView(placeHolder);
-
-                String label = TextUtilsKt.getLoadChannelsLabel(requireContext(), mAllChannels.get(mCurrentDisplayChannelEndNdx + 1).getNumber(), mAllChannels.get(pageDnEnd).getNumber());
-                tvGuideBinding.programRows.addView(new GuidePagingButton(requireContext(), guide, mCurrentDisplayChannelEndNdx + 1, label));
-            }
-
-            tvGuideBinding.channelsStatus.setText(getResources().getString(R.string.lbl_tv_channel_status, displayedChannels, mAllChannels.size()));
-            tvGuideBinding.filterStatus.setText(getResources().getString(R.string.lbl_tv_filter_status, GUIDE_HOURS));
+        ((LinearLayoutManager) tvGuideBinding.channels.getLayoutManager()).scrollToPositionWithOffset(focusPosition, 0);
+        ((LinearLayoutManager) tvGuideBinding.programRows.getLayoutManager()).scrollToPositionWithOffset(focusPosition, 0);
 
+        tvGuideBinding.programRows.post(() -> {
             tvGuideBinding.spinner.setVisibility(View.GONE);
-
-            if (firstRow != null) firstRow.requestFocus();
-        }
-    }
-
-    private int currentCellId = 0;
-
-    private GuideChannelHeader getChannelHeader(Context context, BaseItemDto channel) {
-        return new GuideChannelHeader(context, this, channel);
+            RecyclerView.ViewHolder holder = tvGuideBinding.programRows.findViewHolderForAdapterPosition(focusPosition);
+            if (holder != null) holder.itemView.requestFocus();
+        });
+        binding.skipOverlay.setSkipUiEnabled(!mIsVisible && !mGuideVisible && !mPopupPanelVisible);
     }
 
-    private LinearLayout getProgramRow(List<BaseItemDto> programs, UUID channelId) {
-        int guideRowHeightPx = Utils.convertDpToPixel(requireContext(), LiveTvGuideFragment.GUIDE_ROW_HEIGHT_DP);
-        int guideRowWidthPerMinPx = Utils.convertDpToPixel(requireContext(), LiveTvGuideFragment.GUIDE_ROW_WIDTH_PER_MIN_DP);
-
-        LinearLayout programRow = new LinearLayout(requireContext());
-        if (programs.size() == 0) {
-
-            int minutes = ((Long) ((mCurrentGuideEnd.toInstant(ZoneOffset.UTC).toEpochMilli() - mCurrentGuideStart.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue();
-            int slot = 0;
-
-            do {
-                BaseItemDto empty = LiveTvGuideFragmentHelperKt.createNoProgramDataBaseItem(
-                        getContext(),
-                        channelId,
-                        mCurrentGuideStart.plusMinutes(30l * slot),
-                        mCurrentGuideEnd.plusMinutes(30l * (slot + 1))
-                );
-                ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(30 * guideRowWidthPerMinPx, guideRowHeightPx));
-                programRow.addView(cell);
-                if (slot == 0)
-                    cell.setFirst();
-                if (slot == (minutes / 30) - 1)
-                    cell.setLast();
-                slot++;
-            } while ((30 * slot) < minutes);
-
-            return programRow;
-        }
-
-        LocalDateTime prevEnd = getCurrentLocalStartDate();
-        for (BaseItemDto item : programs) {
-            LocalDateTime start = item.getStartDate() != null ? item.getStartDate() : getCurrentLocalStartDate();
-            if (start.isBefore(getCurrentLocalStartDate())) start = getCurrentLocalStartDate();
-            if (start.isAfter(getCurrentLocalEndDate())) continue;
-            if (start.isBefore(prevEnd)) continue;
-
-            if (start.isAfter(prevEnd)) {
-                BaseItemDto empty = LiveTvGuideFragmentHelperKt.createNoProgramDataBaseItem(
-                        getContext(),
-                        channelId,
-                        prevEnd,
-                        start
-                );
-                ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(((Long) ((start.toInstant(ZoneOffset.UTC).toEpochMilli() - prevEnd.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-                programRow.addView(cell);
-            }
-            LocalDateTime end = item.getEndDate() != null ? item.getEndDate() : getCurrentLocalEndDate();
-            if (end.isAfter(getCurrentLocalEndDate())) end = getCurrentLocalEndDate();
-            prevEnd = end;
-            Long duration = (end.toInstant(ZoneOffset.UTC).toEpochMilli() - start.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000;
-            if (duration > 0) {
-                ProgramGridCell program = new ProgramGridCell(requireContext(), this, item, false);
-                program.setId(currentCellId++);
-                program.setLayoutParams(new ViewGroup.LayoutParams(duration.intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-
-                if (start == getCurrentLocalStartDate())
-                    program.setFirst();
-                if (end == getCurrentLocalEndDate())
-                    program.setLast();
-
-                programRow.addView(program);
-            }
-        }
+    private List<GuideSlot> bindProgramRow(BaseItemDto channel, int position) {
+        List<BaseItemDto> programs = mProgramLoader.getPrograms(channel, position);
+        // Leave the row empty until its chunk is loaded
+        if (programs == null) return Collections.emptyList();
 
-        return programRow;
+        return GuideSlotsKt.createGuideSlots(requireContext(), channel.getId(), programs, mCurrentGuideStart, mCurrentGuideEnd);
     }
 
     private void fillTimeLine(int hours) {
@@ -1038,8 +872,12 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         tvGuideBinding.displayDate.setText(TimeUtils.getFriendlyDate(requireContext(), mCurrentGuideStart));
         mCurrentGuideEnd = mCurrentGuideStart
                 .plusHours(hours);
-        int oneHour = 60 * Utils.convertDpToPixel(requireContext(), 7);
-        int halfHour = 30 * Utils.convertDpToPixel(requireContext(), 7);
+        mProgramRowAdapter.setGuideMinutes(((Long) ((mCurrentGuideEnd.toInstant(ZoneOffset.UTC).toEpochMilli() - mCurrentGuideStart.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue());
+        mProgramRowAdapter.scrollTo(0);
+
+        int guideRowWidthPerMinPx = Utils.convertDpToPixel(requireContext(), LiveTvGuideFragment.GUIDE_ROW_WIDTH_PER_MIN_DP);
+        int oneHour = 60 * guideRowWidthPerMinPx;
+        int halfHour = 30 * guideRowWidthPerMinPx;
         int interval = mCurrentGuideStart.getMinute() >= 30 ? 30 : 60;
         tvGuideBinding.timeline.removeAllViews();
 
@@ -1083,22 +921,14 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
             mHandler.removeCallbacks(detailUpdateTask);
             mHandler.postDelayed(detailUpdateTask, 500);
         } else if (mSelectedProgramView instanceof GuideChannelHeader) {
-            for (int i = 0; i < tvGuideBinding.channels.getChildCount(); i++) {
-                if (mSelectedProgramView == tvGuideBinding.channels.getChildAt(i)) {
-                    LinearLayout programRow = (LinearLayout) tvGuideBinding.programRows.getChildAt(i);
-                    if (programRow == null)
-                        return;
-                    for (int ii = 0; ii < programRow.getChildCount(); ii++) {
-                        ProgramGridCell prog = (ProgramGridCell) programRow.getChildAt(ii);
-                        if (prog.getProgram() != null && prog.getProgram().getStartDate().isBefore(LocalDateTime.now()) && prog.getProgram().getEndDate().isAfter(LocalDateTime.now())) {
-                            mSelectedProgram = prog.getProgram();
-                            if (mSelectedProgram != null) {
-                                mHandler.removeCallbacks(detailUpdateTask);
-                                mHandler.postDelayed(detailUpdateTask, 500);
-                            }
-                            return;
-                        }
-                    }
+            UUID channelId = ((GuideChannelHeader) mSelectedProgramView).getChannel().getId();
+            LocalDateTime now = LocalDateTime.now();
+            for (BaseItemDto program : TvManager.getProgramsForChannel(channelId, null, mCurrentGuideStart, mCurrentGuideEnd)) {
+                if (program.getStartDate() != null && program.getStartDate().isBefore(now) && program.getEndDate() != null && program.getEndDate().isAfter(now)) {
+                    mSelectedProgram = program;
+                    mHandler.removeCallbacks(detailUpdateTask);
+                    mHandler.postDelayed(detailUpdateTask, 500);
+                    return;
                 }
             }
         }
@@ -1364,6 +1194,7 @@ public class CustomPlaybackOverlayFragment extends Fragment implements LiveTvGui
         BaseItemDto currentEpisode = playbackControllerContainer.getValue().getPlaybackController().getCurrentlyPlayingItem();
         if (currentEpisode == null || currentEpisode.getSeasonId() == null) return;
         GetItemsRequest episodesRequest = org.jellyfin.androidtv.ui.browsing.BrowsingUtils.createNextEpisodesRequest(
+            userPreferences.getValue(),
             currentEpisode.getSeasonId(),
             0
         );
@@ -9,6 +9,7 @@ import org.jellyfin.androidtv.data.compat.PlaybackException
 import org.jellyfin.androidtv.data.compat.StreamInfo
 import org.jellyfin.androidtv.data.compat.VideoOptions
 import org.jellyfin.androidtv.util.apiclient.Response
+import org.jellyfin.playback.jellyfin.mediastream.PlaybackInfoCache
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.hlsSegmentApi
 import org.jellyfin.sdk.api.client.extensions.mediaInfoApi
@@ -54,7 +55,8 @@ private fun createStreamInfo(
 }
 
 class PlaybackManager(
-	private val api: ApiClient
+	private val api: ApiClient,
+	private val playbackInfoCache: PlaybackInfoCache,
 ) {
 	fun getVideoStreamInfo(
 		lifecycleOwner: LifecycleOwner,
@@ -91,7 +93,7 @@ class PlaybackManager(
 		options: VideoOptions,
 		startTimeTicks: Long
 	) = runCatching {
-		val response =withContext(Dispatchers.IO) {
+		val response = getCachedPlaybackInfo(options) ?: withContext(Dispatchers.IO) {
 			api.mediaInfoApi.getPostedPlaybackInfo(
 				itemId = requireNotNull(options.itemId) { "Item id cannot be null" },
 				data = PlaybackInfoDto(
@@ -118,4 +120,25 @@ class PlaybackManager(
 
 		createStreamInfo(api, options, response)
 	}
+
+	/**
+	 * Get the playback info probed by the details screen. Only direct play responses are used, the
+	 * stream url of other play methods depends on the start position and selected streams. The
+	 * probe is sent without stream selection, so it is not used when streams or audio channels are
+	 * chosen as those change the direct play decision (e.g. burning in image subtitles).
+	 */
+	private suspend fun getCachedPlaybackInfo(options: VideoOptions): PlaybackInfoResponse? {
+		val itemId = options.itemId ?: return null
+		val profile = options.profile ?: return null
+		if (!options.enableDirectPlay) return null
+		if (options.audioStreamIndex.takeIf { it != null && it >= 0 } != null) return null
+		if (options.subtitleStreamIndex != null || options.maxAudioChannels != null) return null
+
+		val response = playbackInfoCache.takePlaybackInfo(itemId, options.mediaSourceId, profile) ?: return null
+		val source = response.mediaSources.firstOrNull { options.mediaSourceId == null || it.id == options.mediaSourceId }
+
+		// Live streams are not opened by the probe
+		if (source == null || source.requiresOpening || source.isInfiniteStream) return null
+		return response.takeIf { source.supportsDirectPlay }
+	}
 }
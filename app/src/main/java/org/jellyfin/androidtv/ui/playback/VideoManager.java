@@ -35,6 +35,7 @@ import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.exoplayer.analytics.AnalyticsListener;
 import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
 import androidx.media3.exoplayer.util.EventLogger;
 import androidx.media3.extractor.DefaultExtractorsFactory;
 import androidx.media3.extractor.ExtractorsFactory;
@@ -50,7 +51,15 @@ import org.jellyfin.androidtv.preference.UserPreferences;
 import org.jellyfin.androidtv.preference.constant.ZoomMode;
 import org.jellyfin.sdk.api.client.ApiClient;
 import org.jellyfin.sdk.model.api.MediaStream;
+import org.jellyfin.playback.core.mediastream.MediaConversionMethod;
+import org.jellyfin.playback.media3.exoplayer.buffering.BufferingMetricsListener;
+import org.jellyfin.playback.media3.exoplayer.buffering.BufferingProfile;
+import org.jellyfin.playback.media3.exoplayer.buffering.BufferingProfileKt;
+import org.jellyfin.playback.media3.exoplayer.buffering.DefaultBufferingProfileSelector;
+import org.jellyfin.playback.media3.exoplayer.buffering.ProfileLoadControl;
+import org.jellyfin.playback.media3.exoplayer.cache.MediaCache;
 import org.jellyfin.sdk.model.api.MediaStreamType;
+import org.jellyfin.sdk.model.api.PlayMethod;
 import org.jellyfin.sdk.model.api.SubtitleDeliveryMethod;
 import org.koin.java.KoinJavaComponent;
 
@@ -88,6 +97,9 @@ public class VideoManager {
 
     private final UserPreferences userPreferences = KoinJavaComponent.get(UserPreferences.class);
     private final HttpDataSource.Factory exoPlayerHttpDataSourceFactory = KoinJavaComponent.get(HttpDataSource.Factory.class);
+    private final MediaCache mediaCache = KoinJavaComponent.get(MediaCache.class);
+    private DefaultBandwidthMeter bandwidthMeter;
+    private ProfileLoadControl loadControl;
 
     public VideoManager(@NonNull Activity activity, @NonNull View view, @NonNull PlaybackOverlayFragmentHelper helper) {
         mActivity = activity;
@@ -98,6 +110,7 @@ public class VideoManager {
         AssHandler assHandler = assDirectPlay ? new AssHandler(AssRenderType.OVERLAY) : null;
 
         mExoPlayer = configureExoplayerBuilder(activity, assHandler).build();
+        mExoPlayer.addAnalyticsListener(new BufferingMetricsListener(() -> loadControl.getProfile()));
 
         if (userPreferences.get(UserPreferences.Companion.getDebuggingEnabled())) {
             mExoPlayer.addAnalyticsListener(new EventLogger());
@@ -233,10 +246,15 @@ public class VideoManager {
         );
         exoPlayerBuilder.setTrackSelector(trackSelector);
 
+        bandwidthMeter = DefaultBandwidthMeter.getSingletonInstance(context);
+        loadControl = new ProfileLoadControl(selectBufferingProfile(context, PlayMethod.DIRECT_PLAY));
+        exoPlayerBuilder.setBandwidthMeter(bandwidthMeter);
+        exoPlayerBuilder.setLoadControl(loadControl);
+
         DefaultExtractorsFactory extractorsFactory = new DefaultExtractorsFactory().setTsExtractorTimestampSearchBytes(TsExtractor.DEFAULT_TIMESTAMP_SEARCH_BYTES * 3);
         extractorsFactory.setConstantBitrateSeekingEnabled(true);
         extractorsFactory.setConstantBitrateSeekingAlwaysEnabled(true);
-        DefaultDataSource.Factory dataSourceFactory = new DefaultDataSource.Factory(context, exoPlayerHttpDataSourceFactory);
+        DefaultDataSource.Factory dataSourceFactory = new DefaultDataSource.Factory(context, mediaCache.createDataSourceFactory(exoPlayerHttpDataSourceFactory));
         if (assHandler != null) {
             AssSubtitleParserFactory assSubtitleParserFactory = new AssSubtitleParserFactory(assHandler);
             ExtractorsFactory assExtractorsFactory = AssPlayerKt.withAssMkvSupport(extractorsFactory, assSubtitleParserFactory, assHandler);
@@ -252,6 +270,27 @@ public class VideoManager {
         return exoPlayerBuilder;
     }
 
+    private BufferingProfile selectBufferingProfile(Context context, PlayMethod playMethod) {
+        MediaConversionMethod conversionMethod;
+        switch (playMethod) {
+            case TRANSCODE:
+                conversionMethod = MediaConversionMethod.Transcode.INSTANCE;
+                break;
+            case DIRECT_STREAM:
+                conversionMethod = MediaConversionMethod.Remux.INSTANCE;
+                break;
+            default:
+                conversionMethod = MediaConversionMethod.None.INSTANCE;
+                break;
+        }
+
+        return DefaultBufferingProfileSelector.INSTANCE.select(
+                conversionMethod,
+                bandwidthMeter.getBitrateEstimate(),
+                BufferingProfileKt.getBufferMemoryBudget(context)
+        );
+    }
+
     public boolean isInitialized() {
         return mExoPlayer != null;
     }
@@ -326,10 +365,12 @@ public class VideoManager {
 
     public void pause() {
         mExoPlayer.setPlayWhenReady(false);
+        mediaCache.keepResumeRange(mExoPlayer);
     }
 
     public void stopPlayback() {
         if (mExoPlayer != null) {
+            mediaCache.keepResumeRange(mExoPlayer);
             mExoPlayer.stop();
 
             mExoPlayer.setTrackSelectionParameters(mExoPlayer.getTrackSelectionParameters()
@@ -374,6 +415,7 @@ public class VideoManager {
             return;
         }
         Timber.i("Video path set to: %s", path);
+        loadControl.setProfile(selectBufferingProfile(mActivity, streamInfo.getPlayMethod()));
 
         try {
             // Add external subtitles
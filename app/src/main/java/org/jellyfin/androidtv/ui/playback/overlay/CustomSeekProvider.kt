@@ -1,19 +1,21 @@
 package org.jellyfin.androidtv.ui.playback.overlay
 
 import android.content.Context
+import android.graphics.Bitmap
 import androidx.leanback.widget.PlaybackSeekDataProvider
 import coil3.ImageLoader
+import coil3.memory.MemoryCache
 import coil3.network.NetworkHeaders
 import coil3.network.httpHeaders
 import coil3.request.Disposable
 import coil3.request.ImageRequest
-import coil3.request.transformations
+import coil3.request.allowHardware
 import coil3.size.Size
 import coil3.toBitmap
-import org.jellyfin.androidtv.util.coil.SubsetTransformation
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.trickplayApi
 import org.jellyfin.sdk.api.client.util.AuthorizationHeaderBuilder
+import org.jellyfin.sdk.model.api.TrickplayInfoDto
 import org.jellyfin.sdk.model.serializer.toUUIDOrNull
 import kotlin.math.ceil
 import kotlin.math.min
@@ -26,7 +28,26 @@ class CustomSeekProvider(
 	private val trickPlayEnabled: Boolean,
 	private val forwardTime: Long
 ) : PlaybackSeekDataProvider() {
-	private val imageRequests = mutableMapOf<Int, Disposable>()
+	/**
+	 * A single thumbnail within a trickplay sheet.
+	 */
+	private data class Tile(
+		val sheetUrl: String,
+		val sheetIndex: Int,
+		val x: Int,
+		val y: Int,
+		val width: Int,
+		val height: Int,
+	)
+
+	// Requests per sheet url, each sheet is only requested once and shared by all its thumbnails
+	private val sheetRequests = mutableMapOf<String, Disposable>()
+	private val pendingThumbnails = mutableMapOf<String, MutableMap<Int, Pair<Tile, ResultCallback>>>()
+
+	// Width of the focused thumbnail in the seek bar, used to pick the trickplay resolution
+	private val thumbnailWidth by lazy {
+		context.resources.getDimensionPixelSize(androidx.leanback.R.dimen.lb_playback_transport_hero_thumbs_width)
+	}
 
 	override fun getSeekPositions(): LongArray {
 		if (!videoPlayerAdapter.canSeek()) return LongArray(0)
@@ -39,40 +60,94 @@ class CustomSeekProvider(
 	override fun getThumbnail(index: Int, callback: ResultCallback) {
 		if (!trickPlayEnabled) return
 
-		val currentRequest = imageRequests[index]
-		if (currentRequest?.isDisposed == false) currentRequest.dispose()
-
 		val item = videoPlayerAdapter.currentlyPlayingItem
 		val mediaSource = videoPlayerAdapter.currentMediaSource
 		val mediaSourceId = mediaSource?.id?.toUUIDOrNull()
 		if (item == null || mediaSource == null || mediaSourceId == null) return
 
 		val trickPlayResolutions = item.trickplay?.get(mediaSource.id)
-		val trickPlayInfo = trickPlayResolutions?.values?.firstOrNull()
-		if (trickPlayInfo == null) return
+		val trickPlayInfo = selectResolution(trickPlayResolutions?.values.orEmpty()) ?: return
 
 		val currentTimeMs = (index * forwardTime).coerceIn(0, videoPlayerAdapter.duration)
-		val currentTile = currentTimeMs.floorDiv(trickPlayInfo.interval).toInt()
-
-		val tileSize = trickPlayInfo.tileWidth * trickPlayInfo.tileHeight
-		val tileOffset = currentTile % tileSize
-		val tileIndex = currentTile / tileSize
-
-		val tileOffsetX = tileOffset % trickPlayInfo.tileWidth
-		val tileOffsetY = tileOffset / trickPlayInfo.tileWidth
-		val offsetX = tileOffsetX * trickPlayInfo.width
-		val offsetY = tileOffsetY * trickPlayInfo.height
-
-		val url = api.trickplayApi.getTrickplayTileImageUrl(
-			itemId = item.id,
-			width = trickPlayInfo.width,
-			index = tileIndex,
-			mediaSourceId = mediaSourceId,
+		val tile = getTile(trickPlayInfo, currentTimeMs) { tileIndex ->
+			api.trickplayApi.getTrickplayTileImageUrl(
+				itemId = item.id,
+				width = trickPlayInfo.width,
+				index = tileIndex,
+				mediaSourceId = mediaSourceId,
+			)
+		}
+
+		// Serve thumbnails of decoded sheets directly from the memory cache
+		val sheet = getCachedSheet(tile.sheetUrl)
+		if (sheet != null) {
+			sheet.crop(tile)?.let { thumbnail -> callback.onThumbnailLoaded(thumbnail, index) }
+		} else {
+			pendingThumbnails.getOrPut(tile.sheetUrl) { mutableMapOf() }[index] = tile to callback
+			requestSheet(tile.sheetUrl)
+		}
+
+		// Prefetch the adjacent sheets so scrubbing across sheet boundaries does not wait
+		val sheetSize = trickPlayInfo.tileWidth * trickPlayInfo.tileHeight
+		val sheetCount = ceil(trickPlayInfo.thumbnailCount.toDouble() / sheetSize).toInt()
+		for (sheetIndex in listOf(tile.sheetIndex - 1, tile.sheetIndex + 1)) {
+			if (sheetIndex !in 0 until sheetCount) continue
+
+			val url = api.trickplayApi.getTrickplayTileImageUrl(
+				itemId = item.id,
+				width = trickPlayInfo.width,
+				index = sheetIndex,
+				mediaSourceId = mediaSourceId,
+			)
+			if (getCachedSheet(url) == null) requestSheet(url)
+		}
+	}
+
+	/**
+	 * Select the smallest resolution that is at least as wide as the thumbnail on screen, or the
+	 * largest resolution when all are smaller.
+	 */
+	private fun selectResolution(resolutions: Collection<TrickplayInfoDto>): TrickplayInfoDto? {
+		if (resolutions.size <= 1) return resolutions.firstOrNull()
+
+		return resolutions
+			.filter { it.width >= thumbnailWidth }
+			.minByOrNull { it.width }
+			?: resolutions.maxByOrNull { it.width }
+	}
+
+	private fun getTile(info: TrickplayInfoDto, timeMs: Long, getSheetUrl: (index: Int) -> String): Tile {
+		val currentTile = timeMs.floorDiv(info.interval).toInt()
+
+		val sheetSize = info.tileWidth * info.tileHeight
+		val tileOffset = currentTile % sheetSize
+		val sheetIndex = currentTile / sheetSize
+
+		val tileOffsetX = tileOffset % info.tileWidth
+		val tileOffsetY = tileOffset / info.tileWidth
+
+		return Tile(
+			sheetUrl = getSheetUrl(sheetIndex),
+			sheetIndex = sheetIndex,
+			x = tileOffsetX * info.width,
+			y = tileOffsetY * info.height,
+			width = info.width,
+			height = info.height,
 		)
+	}
+
+	private fun getCachedSheet(url: String): Bitmap? =
+		imageLoader.memoryCache?.get(MemoryCache.Key(url))?.image?.toBitmap()
 
-		imageRequests[index] = imageLoader.enqueue(ImageRequest.Builder(context).apply {
+	private fun requestSheet(url: String) {
+		if (sheetRequests[url]?.isDisposed == false) return
+
+		sheetRequests[url] = imageLoader.enqueue(ImageRequest.Builder(context).apply {
 			data(url)
 			size(Size.ORIGINAL)
+			// Thumbnails are cropped from the sheet, which requires a software bitmap
+			allowHardware(false)
+			memoryCacheKey(url)
 			httpHeaders(NetworkHeaders.Builder().apply {
 				set(
 					key = "Authorization",
@@ -86,21 +161,42 @@ class CustomSeekProvider(
 				)
 			}.build())
 
-			transformations(SubsetTransformation(offsetX, offsetY, trickPlayInfo.width, trickPlayInfo.height))
-
 			target(
 				onSuccess = { image ->
-					val bitmap = image.toBitmap()
-					callback.onThumbnailLoaded(bitmap, index)
-				}
+					sheetRequests.remove(url)
+					val sheet = image.toBitmap()
+					val pending = pendingThumbnails.remove(url).orEmpty()
+					for ((index, thumbnail) in pending) {
+						val (tile, callback) = thumbnail
+						sheet.crop(tile)?.let { bitmap -> callback.onThumbnailLoaded(bitmap, index) }
+					}
+				},
+				onError = {
+					sheetRequests.remove(url)
+					pendingThumbnails.remove(url)
+				},
 			)
 		}.build())
 	}
 
+	private fun Bitmap.crop(tile: Tile): Bitmap? {
+		// The last sheet is not always filled completely
+		if (tile.x >= width || tile.y >= height) return null
+
+		return Bitmap.createBitmap(
+			this,
+			tile.x,
+			tile.y,
+			tile.width.coerceAtMost(width - tile.x),
+			tile.height.coerceAtMost(height - tile.y),
+		)
+	}
+
 	override fun reset() {
-		for (request in imageRequests.values) {
+		for (request in sheetRequests.values) {
 			if (!request.isDisposed) request.dispose()
 		}
-		imageRequests.clear()
+		sheetRequests.clear()
+		pendingThumbnails.clear()
 	}
 }
@@ -3,6 +3,7 @@ package org.jellyfin.androidtv.ui.playback.overlay.action
 import android.content.Context
 import android.os.Handler
 import android.os.Looper
+import android.text.format.Formatter
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
@@ -19,15 +20,19 @@ import org.jellyfin.androidtv.ui.playback.model.NetworkStats
 import org.jellyfin.androidtv.ui.playback.overlay.CustomPlaybackTransportControlGlue
 import org.jellyfin.androidtv.ui.playback.overlay.VideoPlayerAdapter
 import org.jellyfin.androidtv.util.dp
+import org.jellyfin.playback.media3.exoplayer.cache.MediaCache
 import org.jellyfin.sdk.model.api.MediaStream
 import org.jellyfin.sdk.model.api.MediaStreamType
 import org.jellyfin.sdk.model.api.VideoRangeType
+import org.koin.core.component.KoinComponent
+import org.koin.core.component.inject
 import java.util.Locale
 
 class StatsAction(
     context: Context,
     customPlaybackTransportControlGlue: CustomPlaybackTransportControlGlue
-) : CustomAction(context, customPlaybackTransportControlGlue) {
+) : CustomAction(context, customPlaybackTransportControlGlue), KoinComponent {
+    private val mediaCache by inject<MediaCache>()
     private var isStatsVisible = false
     private var statsOverlay: View? = null
     private var binding: OverlayStatsBindingBinding? = null
@@ -406,6 +411,13 @@ class StatsAction(
                     }
                 } else {
                     append("Direct Play")
+
+                    if (mediaCache.enabled) {
+                        val cacheStats = mediaCache.getStats()
+                        val hitRate = String.format(Locale.US, "%.0f", cacheStats.hitRatio * 100)
+                        val cacheSize = Formatter.formatShortFileSize(context, cacheStats.size)
+                        append("\nCache: $hitRate% hit rate • $cacheSize")
+                    }
                 }
             }
 
@@ -6,10 +6,12 @@ import androidx.lifecycle.lifecycleScope
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.collectLatest
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.launch
-import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import org.jellyfin.androidtv.constant.QueryType
 import org.jellyfin.androidtv.ui.itemhandling.AudioQueueBaseRowItem
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter
@@ -30,6 +32,7 @@ import org.jellyfin.playback.jellyfin.queue.createBaseItemQueueEntry
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.model.api.BaseItemDto
 import org.jellyfin.sdk.model.api.MediaType
+import kotlin.time.Duration.Companion.milliseconds
 
 @Suppress("TooManyFunctions")
 class RewriteMediaManager(
@@ -38,6 +41,15 @@ class RewriteMediaManager(
 	private val navigationRepository: NavigationRepository,
 	private val playbackManager: PlaybackManager,
 ) : MediaManager {
+	private companion object {
+		/**
+		 * Amount of upcoming queue entries shown in the queue row.
+		 */
+		private const val QUEUE_WINDOW_SIZE = 100
+
+		private val PROGRESS_INTERVAL = 100.milliseconds
+	}
+
 	private val queueSupplier = BaseItemQueueSupplier(api)
 
 	override fun hasAudioQueueItems(): Boolean = currentAudioQueue.size() > 0 && currentAudioItem != null
@@ -90,11 +102,17 @@ class RewriteMediaManager(
 	private val audioListeners = mutableListOf<AudioEventListener>()
 	private var audioListenersJob: Job? = null
 
+	// Queue operations may need to load items from the server, they are never awaited on the main thread
+	private val scope = ProcessLifecycleOwner.get().lifecycleScope
+	private var adapterUpdateJob: Job? = null
+	private var hasNextItem = false
+	private val queueCommandMutex = Mutex()
+
 	override fun addAudioEventListener(listener: AudioEventListener) {
 		audioListeners.add(listener)
 
 		if (audioListenersJob == null) {
-			audioListenersJob = ProcessLifecycleOwner.get().lifecycleScope.launch {
+			audioListenersJob = scope.launch {
 				watchPlaybackStateChanges()
 			}
 		}
@@ -117,12 +135,15 @@ class RewriteMediaManager(
 			}
 		}.launchIn(this)
 
+		// Only tick progress while playing, the position does not change otherwise
 		launch {
-			while (true) {
-				notifyListeners {
-					onProgress(playbackManager.state.positionInfo.active.inWholeMilliseconds)
+			playbackManager.state.playState.collectLatest { playState ->
+				notifyListeners { onProgress(playbackManager.state.positionInfo.active.inWholeMilliseconds) }
+
+				while (playState == PlayState.PLAYING) {
+					delay(PROGRESS_INTERVAL)
+					notifyListeners { onProgress(playbackManager.state.positionInfo.active.inWholeMilliseconds) }
 				}
-				delay(@Suppress("MagicNumber") 100)
 			}
 		}
 
@@ -137,25 +158,44 @@ class RewriteMediaManager(
 		playbackManager.state.playbackOrder.onEach { updateAdapter() }.launchIn(this)
 	}
 
+	/**
+	 * Update the queue row with a snapshot of the current entry and the upcoming window of the
+	 * queue. Only the latest update is applied when updates are requested in quick succession.
+	 */
 	private fun updateAdapter() {
-		val currentItem = playbackManager.queue.entry.value?.baseItem?.let(::AudioQueueBaseRowItem)?.apply {
-			playing = true
+		adapterUpdateJob?.cancel()
+		adapterUpdateJob = scope.launch {
+			val currentItem = playbackManager.queue.entry.value?.baseItem?.let(::AudioQueueBaseRowItem)?.apply {
+				playing = playbackManager.state.playState.value == PlayState.PLAYING
+			}
+			val upcomingItems = playbackManager.queue.peekNext(QUEUE_WINDOW_SIZE)
+				.mapNotNull { item -> item.baseItem?.let(::AudioQueueBaseRowItem) }
+			hasNextItem = upcomingItems.isNotEmpty()
+
+			val items = listOfNotNull(currentItem) + upcomingItems
+
+			// Update item row
+			currentAudioQueue.submitList(
+				items,
+				areItemsTheSame = { old, new -> (old as? AudioQueueBaseRowItem)?.baseItem?.id == (new as? AudioQueueBaseRowItem)?.baseItem?.id },
+				// The equals functions for BaseRowItem only compare by id
+				areContentsTheSame = { old, new ->
+					old is AudioQueueBaseRowItem && new is AudioQueueBaseRowItem &&
+						old.baseItem == new.baseItem && old.playing == new.playing
+				},
+			)
+
+			notifyListeners { onQueueReplaced() }
 		}
-		// It's safe to run this blocking as all items are prefetched via the [BaseItemQueueSupplier]
-		val upcomingItems = runBlocking { playbackManager.queue.peekNext(100) }
-			.mapIndexedNotNull { index, item -> item.baseItem?.let(::AudioQueueBaseRowItem) }
-
-		val items = listOfNotNull(currentItem) + upcomingItems
-
-		// Update item row
-		currentAudioQueue.replaceAll(
-			items,
-			areItemsTheSame = { old, new -> (old as? AudioQueueBaseRowItem)?.baseItem?.id == (new as? AudioQueueBaseRowItem)?.baseItem?.id },
-			// The equals functions for BaseRowItem only compare by id
-			areContentsTheSame = { _, _ -> false },
-		)
+	}
 
-		notifyListeners { onQueueReplaced() }
+	/**
+	 * Run a queue command that may suspend to load items. Commands are started in order and the next
+	 * command only starts once the previous one completed, so rapid next/previous presses are applied
+	 * in sequence instead of racing each other.
+	 */
+	private fun launchQueueCommand(command: suspend () -> Unit) = scope.launch {
+		queueCommandMutex.withLock { command() }
 	}
 
 	private fun notifyListeners(body: AudioEventListener.() -> Unit) {
@@ -191,6 +231,8 @@ class RewriteMediaManager(
 			playbackManager.queue.clear()
 			playbackManager.queue.addSupplier(queueSupplier)
 			playbackManager.state.play()
+		} else {
+			playbackManager.queue.notifyChanged()
 		}
 
 		updateAdapter()
@@ -204,6 +246,7 @@ class RewriteMediaManager(
 		if (playbackManager.queue.entryIndex.value == index) return
 
 		queueSupplier.items.removeAt(index)
+		playbackManager.queue.notifyChanged()
 		updateAdapter()
 	}
 
@@ -223,9 +266,9 @@ class RewriteMediaManager(
 	override fun playFrom(item: BaseItemDto): Boolean {
 		val index = queueSupplier.items.indexOf(item)
 		if (index == -1) return false
-		return runBlocking {
-			playbackManager.queue.setIndex(index) != null
-		}
+
+		launchQueueCommand { playbackManager.queue.setIndex(index) }
+		return true
 	}
 
 	override fun shuffleAudioQueue() {
@@ -237,22 +280,25 @@ class RewriteMediaManager(
 		playbackManager.state.setPlaybackOrder(newMode)
 	}
 
-	override fun hasNextAudioItem(): Boolean = runBlocking {
-		playbackManager.queue.peekNext() != null
-	}
+	// Based on the last queue snapshot, the queue may need to load items to know for sure
+	override fun hasNextAudioItem(): Boolean = hasNextItem
 
 	override fun hasPrevAudioItem(): Boolean = playbackManager.queue.entryIndex.value > 0
 
 	override fun nextAudioItem(): Int {
-		runBlocking { playbackManager.queue.next() }
-		notifyListeners { onQueueStatusChanged(hasAudioQueueItems()) }
+		launchQueueCommand {
+			playbackManager.queue.next()
+			notifyListeners { onQueueStatusChanged(hasAudioQueueItems()) }
+		}
 
 		return playbackManager.queue.entryIndex.value
 	}
 
 	override fun prevAudioItem(): Int {
-		runBlocking { playbackManager.queue.previous() }
-		notifyListeners { onQueueStatusChanged(hasAudioQueueItems()) }
+		launchQueueCommand {
+			playbackManager.queue.previous()
+			notifyListeners { onQueueStatusChanged(hasAudioQueueItems()) }
+		}
 
 		return playbackManager.queue.entryIndex.value
 	}
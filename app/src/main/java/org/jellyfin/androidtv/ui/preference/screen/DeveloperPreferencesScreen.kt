@@ -3,9 +3,12 @@ package org.jellyfin.androidtv.ui.preference.screen
 import android.app.AlertDialog
 import android.content.Intent
 import android.text.format.Formatter
+import androidx.lifecycle.lifecycleScope
 import coil3.ImageLoader
+import kotlinx.coroutines.launch
 import org.jellyfin.androidtv.BuildConfig
 import org.jellyfin.androidtv.R
+import org.jellyfin.androidtv.data.repository.ItemRowCache
 import org.jellyfin.androidtv.preference.SystemPreferences
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.ui.preference.dsl.OptionsFragment
@@ -13,6 +16,9 @@ import org.jellyfin.androidtv.ui.preference.dsl.action
 import org.jellyfin.androidtv.ui.preference.dsl.checkbox
 import org.jellyfin.androidtv.ui.preference.dsl.list
 import org.jellyfin.androidtv.ui.preference.dsl.optionsScreen
+import org.jellyfin.androidtv.util.coil.ImageMemoryBudget
+import org.jellyfin.androidtv.util.http.HttpStack
+import org.jellyfin.playback.media3.exoplayer.cache.MediaCache
 import org.jellyfin.androidtv.util.isTvDevice
 import org.koin.android.ext.android.inject
 
@@ -20,6 +26,10 @@ class DeveloperPreferencesScreen : OptionsFragment() {
 	private val userPreferences: UserPreferences by inject()
 	private val systemPreferences: SystemPreferences by inject()
 	private val imageLoader: ImageLoader by inject()
+	private val imageMemoryBudget: ImageMemoryBudget by inject()
+	private val itemRowCache: ItemRowCache by inject()
+	private val httpStack: HttpStack by inject()
+	private val mediaCache: MediaCache by inject()
 
 	private fun showRestartDialog() {
 		AlertDialog.Builder(requireContext())
@@ -97,6 +107,66 @@ class DeveloperPreferencesScreen : OptionsFragment() {
 				}
 			}
 
+			action {
+				val usage = imageMemoryBudget.getUsage()
+				setTitle(R.string.image_memory_cache)
+				content = getString(
+					R.string.image_memory_cache_content,
+					Formatter.formatFileSize(context, usage.size),
+					Formatter.formatFileSize(context, usage.limit),
+					Formatter.formatFileSize(context, usage.maxSize),
+				)
+				onActivate = { rebuild() }
+			}
+
+			action {
+				val stats = itemRowCache.stats
+				setTitle(R.string.clear_item_row_cache)
+				content = getString(
+					R.string.clear_item_row_cache_content,
+					stats.memoryHits,
+					stats.diskHits,
+					stats.misses,
+					(stats.hitRatio * 100).toInt(),
+				)
+				onActivate = {
+					lifecycleScope.launch {
+						itemRowCache.clear()
+						rebuild()
+					}
+				}
+			}
+
+			checkbox {
+				setTitle(R.string.http2_enabled)
+				setContent(R.string.http2_enabled_content)
+				bind {
+					get { userPreferences[UserPreferences.http2Enabled] }
+					set {
+						userPreferences[UserPreferences.http2Enabled] = it
+						showRestartDialog()
+					}
+					default { UserPreferences.http2Enabled.defaultValue }
+				}
+			}
+
+			action {
+				val metrics = httpStack.getTotalMetrics()
+				setTitle(R.string.http_connections)
+				content = getString(
+					R.string.http_connections_content,
+					metrics.calls,
+					metrics.connectionsOpened,
+					metrics.connectionsReused,
+					metrics.tlsHandshakes,
+					metrics.openConnections,
+				)
+				onActivate = {
+					httpStack.logMetrics()
+					rebuild()
+				}
+			}
+
 			list {
 				setTitle(R.string.pref_disk_cache_size)
 				entries = setOf(
@@ -126,6 +196,44 @@ class DeveloperPreferencesScreen : OptionsFragment() {
 					default { userPreferences[UserPreferences.diskCacheSizeMb].toString() }
 				}
 			}
+
+			list {
+				setTitle(R.string.pref_media_cache_size)
+				entries = setOf(
+					0, 1024, 2048, 4096, 8192
+				).associate {
+					it.toString() to when (it) {
+						0 -> getString(R.string.pref_disk_cache_size_disabled)
+						1024 -> getString(R.string.pref_disk_cache_size_1gb)
+						2048 -> getString(R.string.pref_disk_cache_size_2gb)
+						4096 -> getString(R.string.pref_media_cache_size_4gb)
+						8192 -> getString(R.string.pref_media_cache_size_8gb)
+						else -> it.toString()
+					}
+				}
+				bind {
+					get { userPreferences[UserPreferences.mediaCacheSizeMb].toString() }
+					set {
+						val newValue = it.toInt()
+						if (userPreferences[UserPreferences.mediaCacheSizeMb] != newValue) {
+							userPreferences[UserPreferences.mediaCacheSizeMb] = newValue
+							showRestartDialog()
+						}
+					}
+					default { userPreferences[UserPreferences.mediaCacheSizeMb].toString() }
+				}
+			}
+
+			if (mediaCache.enabled) {
+				action {
+					setTitle(R.string.clear_media_cache)
+					content = getString(R.string.clear_image_cache_content, Formatter.formatFileSize(context, mediaCache.getStats().size))
+					onActivate = {
+						mediaCache.clear()
+						rebuild()
+					}
+				}
+			}
 		}
 	}
 }
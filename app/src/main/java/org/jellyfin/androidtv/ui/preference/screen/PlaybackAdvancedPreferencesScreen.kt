@@ -20,6 +20,7 @@ import org.jellyfin.androidtv.ui.preference.dsl.list
 import org.jellyfin.androidtv.ui.preference.dsl.optionsScreen
 import org.jellyfin.androidtv.ui.preference.dsl.seekbar
 import org.jellyfin.androidtv.util.TimeUtils
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider
 import org.jellyfin.androidtv.util.profile.createDeviceProfileReport
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.clientLogApi
@@ -29,6 +30,7 @@ import timber.log.Timber
 class PlaybackAdvancedPreferencesScreen : OptionsFragment() {
 	private val api: ApiClient by inject()
 	private val userPreferences: UserPreferences by inject()
+	private val deviceProfileProvider: DeviceProfileProvider by inject()
 	private var deviceProfileReported = false
 
 	override val screen by optionsScreen {
@@ -159,7 +161,7 @@ class PlaybackAdvancedPreferencesScreen : OptionsFragment() {
 					lifecycleScope.launch {
 						runCatching {
 							withContext(Dispatchers.IO) {
-								api.clientLogApi.logFile(createDeviceProfileReport(context, userPreferences)).content
+								api.clientLogApi.logFile(createDeviceProfileReport(context, deviceProfileProvider)).content
 							}
 						}.fold(
 							onSuccess = { result ->
@@ -26,6 +26,7 @@ import org.jellyfin.androidtv.ui.itemhandling.AudioQueueBaseRowItem;
 import org.jellyfin.androidtv.ui.itemhandling.BaseItemDtoBaseRowItem;
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem;
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowType;
+import org.jellyfin.androidtv.util.BlurHashCache;
 import org.jellyfin.androidtv.util.ImageHelper;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.JellyfinImage;
@@ -54,6 +55,7 @@ public class CardPresenter extends Presenter {
     private boolean isUniformAspect = false;
     private boolean isHomeScreen = false;
     private boolean isListLayout = false; // New field to track List layout mode
+    private boolean showBlurHash = false;
     private final Lazy<ImageHelper> imageHelper = KoinJavaComponent.<ImageHelper>inject(ImageHelper.class);
 
     // Performance optimization: Cache ImageLoader instance
@@ -101,6 +103,18 @@ public class CardPresenter extends Presenter {
         this.isListLayout = isListLayout;
     }
 
+    /**
+     * Show the BlurHash of the image while it loads. Only enabled for large grids where the
+     * placeholders are prefetched when a page of items loads.
+     */
+    public void setShowBlurHash(boolean showBlurHash) {
+        this.showBlurHash = showBlurHash;
+    }
+
+    public boolean getShowBlurHash() {
+        return showBlurHash;
+    }
+
     public class ViewHolder extends Presenter.ViewHolder {
         private int cardWidth = 115;
         private int cardHeight = 140;
@@ -482,11 +496,14 @@ public class CardPresenter extends Presenter {
                 currentImageUrl = url;
                 hasPendingImageLoad = true;
 
+                String placeholderBlurHash = showBlurHash ? blurHash : null;
+                int blurHashResolution = showBlurHash ? BlurHashCache.DEFAULT_RESOLUTION : 0;
+
                 if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.M) {
                     if (mCardView instanceof LegacyImageCardView) {
-                        ((LegacyImageCardView) mCardView).getMainImageView().load(url, null, mDefaultCardImage, aspect, 0);
+                        ((LegacyImageCardView) mCardView).getMainImageView().load(url, placeholderBlurHash, mDefaultCardImage, aspect, blurHashResolution);
                     } else if (mCardView instanceof InfoUnderSummaryCardView) {
-                        ((InfoUnderSummaryCardView) mCardView).getMainImageView().load(url, null, mDefaultCardImage, aspect, 0);
+                        ((InfoUnderSummaryCardView) mCardView).getMainImageView().load(url, placeholderBlurHash, mDefaultCardImage, aspect, blurHashResolution);
                     }
                 } else {
                     loadImageCompat(url, mDefaultCardImage);
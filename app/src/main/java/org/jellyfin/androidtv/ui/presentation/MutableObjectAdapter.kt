@@ -5,6 +5,8 @@ import androidx.leanback.widget.Presenter
 import androidx.leanback.widget.PresenterSelector
 import androidx.recyclerview.widget.DiffUtil
 import androidx.recyclerview.widget.ListUpdateCallback
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
 
 /**
  * A leanback ObjectAdapter using a Kotlin list as backend. Implements Iterable to allow collection
@@ -13,6 +15,10 @@ import androidx.recyclerview.widget.ListUpdateCallback
 open class MutableObjectAdapter<T : Any> : ObjectAdapter, Iterable<T> {
 	private val data = mutableListOf<T>()
 
+	// Incremented on every modification, used to detect changes while calculating a diff
+	private var modificationCount = 0
+	private var submitGeneration = 0
+
 	// Constructors
 	constructor(presenterSelector: PresenterSelector) : super(presenterSelector)
 	constructor(presenter: Presenter) : super(presenter)
@@ -27,16 +33,27 @@ open class MutableObjectAdapter<T : Any> : ObjectAdapter, Iterable<T> {
 
 	// Custom
 	fun add(element: T) {
+		modificationCount++
 		data.add(element)
 		notifyItemRangeInserted(data.size - 1, 1)
 	}
 
 	fun add(index: Int, element: T) {
+		modificationCount++
 		data.add(index, element)
 		notifyItemRangeInserted(index, 1)
 	}
 
+	fun addAll(index: Int, elements: Collection<T>) {
+		if (elements.isEmpty()) return
+
+		modificationCount++
+		data.addAll(index, elements)
+		notifyItemRangeInserted(index, elements.size)
+	}
+
 	fun set(index: Int, element: T) {
+		modificationCount++
 		data.set(index, element)
 		notifyItemRangeChanged(index, 1)
 	}
@@ -46,17 +63,53 @@ open class MutableObjectAdapter<T : Any> : ObjectAdapter, Iterable<T> {
 		areItemsTheSame: (old: T, new: T) -> Boolean = { old, new -> old == new },
 		areContentsTheSame: (old: T, new: T) -> Boolean = { old, new -> old == new },
 	) {
-		val diff = DiffUtil.calculateDiff(object : DiffUtil.Callback() {
-			override fun getOldListSize(): Int = data.size
-			override fun getNewListSize(): Int = items.size
+		val diff = calculateDiff(data, items, areItemsTheSame, areContentsTheSame)
+		applyDiff(items, diff)
+	}
 
-			override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean =
-				areItemsTheSame(data[oldItemPosition], items[newItemPosition])
+	/**
+	 * Same as [replaceAll] but calculates the diff on a background dispatcher. The result is dropped
+	 * when a newer list is submitted while calculating, and recalculated on the calling thread when
+	 * the adapter was modified in the meantime.
+	 */
+	suspend fun submitList(
+		items: List<T>,
+		areItemsTheSame: (old: T, new: T) -> Boolean = { old, new -> old == new },
+		areContentsTheSame: (old: T, new: T) -> Boolean = { old, new -> old == new },
+	) {
+		val generation = ++submitGeneration
+		val expectedModificationCount = modificationCount
+		val snapshot = data.toList()
+
+		val diff = withContext(Dispatchers.Default) {
+			calculateDiff(snapshot, items, areItemsTheSame, areContentsTheSame)
+		}
+
+		when {
+			generation != submitGeneration -> return
+			expectedModificationCount != modificationCount -> replaceAll(items, areItemsTheSame, areContentsTheSame)
+			else -> applyDiff(items, diff)
+		}
+	}
 
-			override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean =
-				areContentsTheSame(data[oldItemPosition], items[newItemPosition])
-		})
+	private fun calculateDiff(
+		oldItems: List<T>,
+		newItems: List<T>,
+		areItemsTheSame: (old: T, new: T) -> Boolean,
+		areContentsTheSame: (old: T, new: T) -> Boolean,
+	) = DiffUtil.calculateDiff(object : DiffUtil.Callback() {
+		override fun getOldListSize(): Int = oldItems.size
+		override fun getNewListSize(): Int = newItems.size
+
+		override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean =
+			areItemsTheSame(oldItems[oldItemPosition], newItems[newItemPosition])
+
+		override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean =
+			areContentsTheSame(oldItems[oldItemPosition], newItems[newItemPosition])
+	})
 
+	private fun applyDiff(items: List<T>, diff: DiffUtil.DiffResult) {
+		modificationCount++
 		data.clear()
 		data.addAll(items)
 
@@ -72,6 +125,7 @@ open class MutableObjectAdapter<T : Any> : ObjectAdapter, Iterable<T> {
 		val size = data.size
 		if (size == 0) return
 
+		modificationCount++
 		notifyItemRangeRemoved(0, size)
 		data.clear()
 	}
@@ -85,6 +139,7 @@ open class MutableObjectAdapter<T : Any> : ObjectAdapter, Iterable<T> {
 	fun removeAt(index: Int, length: Int = 1): Boolean {
 		if (index < 0 || index >= data.size) return false
 
+		modificationCount++
 		data.subList(index, index + length).clear()
 		notifyItemRangeRemoved(index, length)
 
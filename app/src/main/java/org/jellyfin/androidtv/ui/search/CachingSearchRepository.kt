@@ -0,0 +1,152 @@
+package org.jellyfin.androidtv.ui.search
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemKind
+import timber.log.Timber
+import java.util.Locale
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.TimeMark
+import kotlin.time.TimeSource
+
+/**
+ * [SearchRepository] that keeps the results of previous queries in a bounded LRU indexed by a prefix
+ * trie. Queries that were searched before are replayed from the cache without a server request.
+ * Queries that extend a cached query are first answered by filtering the cached results locally,
+ * followed by the server results once they arrive.
+ */
+class CachingSearchRepository(
+	private val searchRepository: SearchRepository,
+	private val maxEntries: Int = 32,
+	private val maxAge: Duration = 5.minutes,
+) : SearchRepository {
+	private data class Key(
+		val query: String,
+		val itemTypes: Set<BaseItemKind>,
+		val limit: Int,
+	)
+
+	private class Entry(
+		val items: List<BaseItemDto>,
+		val created: TimeMark,
+	)
+
+	private class TrieNode {
+		val children = mutableMapOf<Char, TrieNode>()
+		var terminal = false
+	}
+
+	private val entries = object : LinkedHashMap<Key, Entry>(maxEntries, 0.75f, true) {
+		override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, Entry>): Boolean {
+			if (size <= maxEntries) return false
+			// The same query can be cached for different item types
+			val query = eldest.key.query
+			if (keys.none { it != eldest.key && it.query == query }) removeFromTrie(query)
+			return true
+		}
+	}
+	private val trie = TrieNode()
+
+	override fun search(
+		searchTerm: String,
+		itemTypes: Collection<BaseItemKind>,
+		limit: Int,
+	): Flow<Result<List<BaseItemDto>>> = flow {
+		val query = searchTerm.normalize()
+		val types = itemTypes.toSet()
+		val key = Key(query, types, limit)
+
+		val cached = synchronized(this@CachingSearchRepository) { entries[key] }
+		if (cached != null && cached.age() < maxAge) {
+			Timber.d("Replaying search results for \"$query\" from cache")
+			emit(Result.success(cached.items))
+			return@flow
+		}
+
+		val superset = synchronized(this@CachingSearchRepository) {
+			findPrefixes(query).firstNotNullOfOrNull { prefix ->
+				entries[key.copy(query = prefix)]?.takeIf { it.age() < maxAge }
+			}
+		}
+		if (superset != null) {
+			val terms = query.split(' ').filter { it.isNotEmpty() }
+			val filtered = superset.items.filter { item -> item.matchesAll(terms) }
+			Timber.d("Refined ${superset.items.size} cached search results to ${filtered.size} for \"$query\"")
+			emit(Result.success(filtered))
+		}
+
+		var complete: List<BaseItemDto>? = null
+		var failed = false
+		searchRepository.search(searchTerm, itemTypes, limit).collect { result ->
+			if (result.isFailure) failed = true
+			else complete = result.getOrNull()
+
+			// Keep showing the locally refined results when the server request fails
+			if (result.isFailure && superset != null) return@collect
+
+			emit(result)
+		}
+
+		// Only cache when all pages loaded, earlier pages are incomplete when a later page failed
+		if (!failed) complete?.let { items ->
+			synchronized(this@CachingSearchRepository) {
+				entries[key] = Entry(items, TimeSource.Monotonic.markNow())
+				insertIntoTrie(query)
+			}
+		}
+	}
+
+	@Synchronized
+	fun clear() {
+		entries.clear()
+		trie.children.clear()
+		trie.terminal = false
+	}
+
+	private fun Entry.age() = created.elapsedNow()
+
+	/**
+	 * Find the cached queries that are a strict prefix of [query], longest first.
+	 */
+	private fun findPrefixes(query: String): List<String> {
+		var node = trie
+		val matches = mutableListOf<String>()
+		for (index in 0 until query.length - 1) {
+			node = node.children[query[index]] ?: break
+			if (node.terminal) matches.add(0, query.substring(0, index + 1))
+		}
+		return matches
+	}
+
+	private fun insertIntoTrie(query: String) {
+		var node = trie
+		for (char in query) node = node.children.getOrPut(char) { TrieNode() }
+		node.terminal = true
+	}
+
+	private fun removeFromTrie(query: String) {
+		val path = mutableListOf(trie)
+		for (char in query) path += path.last().children[char] ?: return
+		path.last().terminal = false
+
+		// Prune nodes that no longer lead to a cached query
+		for (index in query.indices.reversed()) {
+			val node = path[index + 1]
+			if (node.terminal || node.children.isNotEmpty()) break
+			path[index].children.remove(query[index])
+		}
+	}
+
+	private fun BaseItemDto.matchesAll(terms: List<String>): Boolean {
+		val haystack = listOfNotNull(name, originalTitle, sortName).joinToString(" ").normalize()
+		return terms.all { it in haystack }
+	}
+
+	private fun String.normalize() = trim().lowercase(Locale.ROOT).replace(whitespace, " ")
+
+	private companion object {
+		private val whitespace = Regex("\\s+")
+	}
+}
@@ -1,61 +1,77 @@
 package org.jellyfin.androidtv.ui.search
 
 import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.withContext
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
 import org.jellyfin.androidtv.data.repository.ItemRepository
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.exception.ApiClientException
 import org.jellyfin.sdk.api.client.extensions.itemsApi
 import org.jellyfin.sdk.model.api.BaseItemDto
 import org.jellyfin.sdk.model.api.BaseItemKind
-import org.jellyfin.sdk.model.api.MediaType
 import org.jellyfin.sdk.model.api.request.GetItemsRequest
 import timber.log.Timber
 
 interface SearchRepository {
-	suspend fun search(
+	/**
+	 * Search for items of all [itemTypes] using a single combined query. The returned flow emits the
+	 * accumulated results after each received page so callers can render the first results while the
+	 * remaining ones are still being fetched. A failure is emitted when any page fails, results that
+	 * were emitted before it are incomplete. Collection is cancelled together with the underlying
+	 * HTTP call.
+	 */
+	fun search(
 		searchTerm: String,
 		itemTypes: Collection<BaseItemKind>,
-	): Result<List<BaseItemDto>>
+		limit: Int,
+	): Flow<Result<List<BaseItemDto>>>
 }
 
 class SearchRepositoryImpl(
 	private val apiClient: ApiClient
 ) : SearchRepository {
 	companion object {
-		private const val QUERY_LIMIT = 25
+		private const val FIRST_PAGE_SIZE = 50
 	}
 
-	override suspend fun search(
+	override fun search(
 		searchTerm: String,
 		itemTypes: Collection<BaseItemKind>,
-	): Result<List<BaseItemDto>> = try {
-		var request = GetItemsRequest(
-			searchTerm = searchTerm,
-			limit = QUERY_LIMIT,
-			imageTypeLimit = 1,
-			includeItemTypes = itemTypes,
-			fields = ItemRepository.itemFields,
-			recursive = true,
-			enableTotalRecordCount = false,
-		)
-
-		// Special case for video row
-		if (itemTypes.size == 1 && itemTypes.first() == BaseItemKind.VIDEO) {
-			request = request.copy(
-				mediaTypes = setOf(MediaType.VIDEO),
-				includeItemTypes = null,
-				excludeItemTypes = setOf(BaseItemKind.MOVIE, BaseItemKind.EPISODE, BaseItemKind.TV_CHANNEL)
+		limit: Int,
+	): Flow<Result<List<BaseItemDto>>> = flow {
+		val items = mutableListOf<BaseItemDto>()
+
+		// Fetch a small first page to show results quickly, followed by the remainder in one request
+		val pageSizes = listOf(minOf(FIRST_PAGE_SIZE, limit), limit - FIRST_PAGE_SIZE).filter { it > 0 }
+		for (pageSize in pageSizes) {
+			val request = GetItemsRequest(
+				searchTerm = searchTerm,
+				startIndex = items.size,
+				limit = pageSize,
+				imageTypeLimit = 1,
+				includeItemTypes = itemTypes,
+				fields = ItemRepository.searchFields,
+				recursive = true,
+				enableTotalRecordCount = false,
 			)
-		}
 
-		val result = withContext(Dispatchers.IO) {
-			apiClient.itemsApi.getItems(request).content
-		}
+			val page = try {
+				apiClient.itemsApi.getItems(request).content.items
+			} catch (e: ApiClientException) {
+				// Don't report failures caused by the query changing
+				currentCoroutineContext().ensureActive()
+				Timber.e(e, "Failed to search for items")
+				emit(Result.failure(e))
+				return@flow
+			}
 
-		Result.success(result.items)
-	} catch (e: ApiClientException) {
-		Timber.e(e, "Failed to search for items")
-		Result.failure(e)
-	}
+			items.addAll(page)
+			emit(Result.success(items.toList()))
+
+			if (page.size < pageSize) break
+		}
+	}.flowOn(Dispatchers.IO)
 }
@@ -3,13 +3,14 @@ package org.jellyfin.androidtv.ui.search
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import kotlinx.coroutines.Job
-import kotlinx.coroutines.async
-import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.lastOrNull
 import kotlinx.coroutines.launch
 import org.jellyfin.androidtv.R
+import org.jellyfin.sdk.model.api.BaseItemDto
 import org.jellyfin.sdk.model.api.BaseItemKind
 import kotlin.time.Duration
 import kotlin.time.Duration.Companion.milliseconds
@@ -19,12 +20,13 @@ class SearchViewModel(
 ) : ViewModel() {
 	companion object {
 		private val debounceDuration = 600.milliseconds
+		private const val GROUP_LIMIT = 25
 
 		private val groups = mapOf(
 			R.string.lbl_movies to setOf(BaseItemKind.MOVIE),
 			R.string.lbl_series to setOf(BaseItemKind.SERIES),
 			R.string.lbl_episodes to setOf(BaseItemKind.EPISODE),
-			R.string.lbl_videos to setOf(BaseItemKind.VIDEO),
+			R.string.lbl_videos to setOf(BaseItemKind.VIDEO, BaseItemKind.MUSIC_VIDEO, BaseItemKind.TRAILER),
 			R.string.lbl_programs to setOf(BaseItemKind.LIVE_TV_PROGRAM),
 			R.string.channels to setOf(BaseItemKind.LIVE_TV_CHANNEL),
 			R.string.lbl_playlists to setOf(BaseItemKind.PLAYLIST),
@@ -36,6 +38,9 @@ class SearchViewModel(
 			R.string.lbl_collections to setOf(BaseItemKind.BOX_SET),
 			R.string.lbl_people to setOf(BaseItemKind.PERSON),
 		)
+
+		private val itemKinds = groups.values.flatten().toSet()
+		private val combinedLimit = GROUP_LIMIT * groups.size
 	}
 
 	private var searchJob: Job? = null
@@ -59,19 +64,60 @@ class SearchViewModel(
 			return true
 		}
 
+		// Cancelling the job stops the collection, which also cancels the in-flight HTTP calls
 		searchJob = viewModelScope.launch {
 			delay(debounce)
+			search(trimmed)
+		}
 
-			_searchResultsFlow.value = groups.map { (stringRes, itemKinds) ->
-				async {
-					val result = searchRepository.search(trimmed, itemKinds)
-					val items = result.getOrNull().orEmpty()
+		return true
+	}
 
-					SearchResultGroup(stringRes, items)
-				}
-			}.awaitAll().filter { it.items.isNotEmpty() }
+	private suspend fun search(query: String) {
+		// All groups are searched in a single query first to show results quickly
+		var combined: List<BaseItemDto>? = null
+		searchRepository.search(query, itemKinds, combinedLimit).collect { result ->
+			val items = result.getOrNull()
+			if (items != null) {
+				combined = items
+				_searchResultsFlow.value = toResultGroups(partition(items))
+			} else if (combined == null) {
+				_searchResultsFlow.value = emptyList()
+			}
 		}
 
-		return true
+		// When the combined query reached its limit a dominant item kind may have pushed out the
+		// results of other groups, search the groups that are not full in a single follow-up query
+		val items = combined ?: return
+		if (items.size < combinedLimit) return
+
+		val itemsByGroup = partition(items)
+		val missingGroups = groups.filterKeys { stringRes -> itemsByGroup[stringRes].orEmpty().size < GROUP_LIMIT }
+		if (missingGroups.isEmpty()) return
+
+		val followUpItems = searchRepository.search(query, missingGroups.values.flatten().toSet(), GROUP_LIMIT * missingGroups.size)
+			.filter { it.isSuccess }
+			.lastOrNull()
+			?.getOrNull()
+			?: return
+
+		val followUpItemsByGroup = partition(followUpItems)
+		_searchResultsFlow.value = toResultGroups(itemsByGroup.mapValues { (stringRes, groupItems) ->
+			followUpItemsByGroup[stringRes]?.takeIf { it.size > groupItems.size } ?: groupItems
+		})
+	}
+
+	private fun partition(items: List<BaseItemDto>): Map<Int, List<BaseItemDto>> {
+		val itemsByKind = items.groupBy { it.type }
+
+		return groups.mapValues { (_, kinds) ->
+			kinds.flatMap { itemsByKind[it].orEmpty() }.take(GROUP_LIMIT)
+		}
+	}
+
+	private fun toResultGroups(itemsByGroup: Map<Int, List<BaseItemDto>>) = groups.keys.mapNotNull { stringRes ->
+		val groupItems = itemsByGroup[stringRes].orEmpty()
+		if (groupItems.isEmpty()) null
+		else SearchResultGroup(stringRes, groupItems)
 	}
 }
@@ -0,0 +1,73 @@
+package org.jellyfin.androidtv.util
+
+import android.graphics.Bitmap
+import android.util.LruCache
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import timber.log.Timber
+import kotlin.math.round
+
+/**
+ * Cache for decoded BlurHash placeholders. Placeholders are keyed by their hash and decoded size so
+ * cards showing the same image share a single bitmap and rebinding a card never decodes again.
+ */
+interface BlurHashCache {
+	/**
+	 * Get the placeholder for [blurHash] sized by [aspectRatio] and [resolution], decoding it on the
+	 * calling thread when it is not cached yet.
+	 */
+	fun get(blurHash: String, aspectRatio: Double, resolution: Int = DEFAULT_RESOLUTION): Bitmap?
+
+	/**
+	 * Decode the placeholders for [blurHashes] in the background so they are ready once their cards
+	 * are bound.
+	 */
+	fun prefetch(blurHashes: Collection<String>, aspectRatio: Double, resolution: Int = DEFAULT_RESOLUTION)
+
+	fun clear()
+
+	companion object {
+		const val DEFAULT_RESOLUTION = 32
+	}
+}
+
+class BlurHashCacheImpl(
+	maxSizeBytes: Int = 4 * 1024 * 1024,
+) : BlurHashCache {
+	private val scope = CoroutineScope(Dispatchers.Default + SupervisorJob())
+	private val bitmaps = object : LruCache<String, Bitmap>(maxSizeBytes) {
+		override fun sizeOf(key: String, value: Bitmap) = value.byteCount
+	}
+
+	override fun get(blurHash: String, aspectRatio: Double, resolution: Int): Bitmap? {
+		val width = if (aspectRatio > 1) round(resolution * aspectRatio).toInt() else resolution
+		val height = if (aspectRatio >= 1) resolution else round(resolution / aspectRatio).toInt()
+		val key = "$blurHash:${width}x$height"
+
+		bitmaps.get(key)?.let { return it }
+
+		val bitmap = try {
+			BlurHashDecoder.decode(blurHash, width, height)
+		} catch (err: IllegalArgumentException) {
+			Timber.w(err, "Failed to decode BlurHash")
+			null
+		} ?: return null
+
+		// Cached bitmaps are shared between views, they must never be written to again
+		bitmap.prepareToDraw()
+		bitmaps.put(key, bitmap)
+		return bitmap
+	}
+
+	override fun prefetch(blurHashes: Collection<String>, aspectRatio: Double, resolution: Int) {
+		if (blurHashes.isEmpty()) return
+
+		scope.launch {
+			for (blurHash in blurHashes) get(blurHash, aspectRatio, resolution)
+		}
+	}
+
+	override fun clear() = bitmaps.evictAll()
+}
@@ -3,7 +3,7 @@ package org.jellyfin.androidtv.util
 import android.app.ActivityManager
 import android.content.Context
 import android.graphics.Bitmap
-import android.graphics.Color
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.math.PI
 import kotlin.math.cos
 import kotlin.math.pow
@@ -43,18 +43,62 @@ object DeviceMemoryUtils {
 @Suppress("MagicNumber", "NestedBlockDepth")
 object BlurHashDecoder {
 	private const val CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~"
+	private const val MAX_CACHED_COSINES = 64
+
+	// Lookup table to avoid scanning CHARS for every decoded character
+	private val charIndex = IntArray(128) { -1 }.also { table ->
+		CHARS.forEachIndexed { index, char -> table[char.code] = index }
+	}
+
+	// Cosine tables only depend on the output size and component count, which are shared by most
+	// placeholders of a row
+	private val cosines = ConcurrentHashMap<Long, FloatArray>()
+
+	// Reused pixel buffer per decoding thread
+	private val pixelBuffer = ThreadLocal<IntArray>()
 
 	/**
 	 * Decode a blur hash into a new bitmap.
 	 */
 	fun decode(blurHash: String?, width: Int, height: Int, punch: Float = 1f): Bitmap? {
-		if (blurHash == null || blurHash.length < 6) return null
+		if (width <= 0 || height <= 0) return null
+
+		val pixels = obtainPixelBuffer(width * height)
+		if (!decode(blurHash, width, height, punch, pixels)) return null
+
+		return Bitmap.createBitmap(pixels, 0, width, width, height, Bitmap.Config.ARGB_8888)
+	}
+
+	/**
+	 * Decode a blur hash into an existing mutable ARGB_8888 [bitmap] using its size.
+	 *
+	 * @return whether the blur hash was valid and written to the bitmap
+	 */
+	fun decodeInto(blurHash: String?, bitmap: Bitmap, punch: Float = 1f): Boolean {
+		val width = bitmap.width
+		val height = bitmap.height
+
+		val pixels = obtainPixelBuffer(width * height)
+		if (!decode(blurHash, width, height, punch, pixels)) return false
+
+		bitmap.setPixels(pixels, 0, width, 0, 0, width, height)
+		return true
+	}
+
+	/**
+	 * Decode a blur hash into the first `width * height` entries of [pixels] as ARGB colors.
+	 *
+	 * @return whether the blur hash was valid
+	 */
+	fun decode(blurHash: String?, width: Int, height: Int, punch: Float, pixels: IntArray): Boolean {
+		if (blurHash == null || blurHash.length < 6) return false
+		require(pixels.size >= width * height) { "Pixel buffer too small for ${width}x$height" }
 
 		val numCompEnc = decode83(blurHash, 0, 1)
 		val numCompX = (numCompEnc % 9) + 1
 		val numCompY = (numCompEnc / 9) + 1
 		val totalComp = numCompX * numCompY
-		if (blurHash.length != 4 + 2 * totalComp) return null
+		if (blurHash.length != 4 + 2 * totalComp) return false
 
 		val maxAcEnc = decode83(blurHash, 1, 2)
 		val maxAc = (maxAcEnc + 1) / 166f
@@ -68,14 +112,23 @@ object BlurHashDecoder {
 			decodeAc(colorEnc, maxAc * punch, colors, i * 3)
 		}
 
-		return composeBitmap(width, height, numCompX, numCompY, colors)
+		composePixels(width, height, numCompX, numCompY, colors, pixels)
+		return true
+	}
+
+	private fun obtainPixelBuffer(size: Int): IntArray {
+		val buffer = pixelBuffer.get()
+		if (buffer != null && buffer.size >= size) return buffer
+
+		return IntArray(size).also(pixelBuffer::set)
 	}
 
 	private fun decode83(str: String, from: Int, to: Int): Int {
 		var result = 0
 
 		for (i in from until to) {
-			val index = CHARS.indexOf(str[i])
+			val code = str[i].code
+			val index = if (code < charIndex.size) charIndex[code] else -1
 			if (index != -1) result = result * 83 + index
 		}
 
@@ -113,14 +166,9 @@ object BlurHashDecoder {
 
 	private fun signedPow2(value: Float) = (value * value).withSign(value)
 
-	private fun composeBitmap(width: Int, height: Int, numCompX: Int, numCompY: Int, colors: FloatArray): Bitmap {
-		// use an array for better performance when writing pixel colors
-		val imageArray = IntArray(width * height)
-		val cosinesX = createCosines(width, numCompX)
-		val cosinesY = when {
-			width == height && numCompX == numCompY -> cosinesX
-			else -> createCosines(height, numCompY)
-		}
+	private fun composePixels(width: Int, height: Int, numCompX: Int, numCompY: Int, colors: FloatArray, pixels: IntArray) {
+		val cosinesX = getCosines(width, numCompX)
+		val cosinesY = getCosines(height, numCompY)
 
 		for (y in 0 until height) {
 			for (x in 0 until width) {
@@ -141,11 +189,18 @@ object BlurHashDecoder {
 					}
 				}
 
-				imageArray[x + width * y] = Color.rgb(linearToSrgb(r), linearToSrgb(g), linearToSrgb(b))
+				pixels[x + width * y] = rgb(linearToSrgb(r), linearToSrgb(g), linearToSrgb(b))
 			}
 		}
+	}
 
-		return Bitmap.createBitmap(imageArray, width, height, Bitmap.Config.ARGB_8888)
+	private fun getCosines(size: Int, numComp: Int): FloatArray {
+		val key = (size.toLong() shl 32) or numComp.toLong()
+		cosines[key]?.let { return it }
+
+		// Sizes are derived from a handful of aspect ratios, reset in the unlikely case they are not
+		if (cosines.size >= MAX_CACHED_COSINES) cosines.clear()
+		return createCosines(size, numComp).also { cosines[key] = it }
 	}
 
 	private fun createCosines(size: Int, numComp: Int) = FloatArray(size * numComp) { index ->
@@ -155,6 +210,8 @@ object BlurHashDecoder {
 		cos(PI * x * i / size).toFloat()
 	}
 
+	private fun rgb(red: Int, green: Int, blue: Int) = (0xFF shl 24) or (red shl 16) or (green shl 8) or blue
+
 	private fun linearToSrgb(value: Float): Int {
 		val v = value.coerceIn(0f, 1f)
 
@@ -2,6 +2,8 @@ package org.jellyfin.androidtv.util
 
 import android.content.Context
 import coil3.ImageLoader
+import coil3.network.NetworkHeaders
+import coil3.network.httpHeaders
 import coil3.request.ImageRequest
 import coil3.size.Size
 import kotlinx.coroutines.CoroutineScope
@@ -9,6 +11,8 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.launch
 import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.androidtv.util.http.HttpClientPurpose
+import org.jellyfin.androidtv.util.http.HttpStack
 import org.koin.core.component.KoinComponent
 import org.koin.core.component.inject
 
@@ -19,6 +23,9 @@ object ImagePreloader : KoinComponent {
     private val imageLoader by inject<ImageLoader>()
     private val userPreferences by inject<UserPreferences>()
     private val scope = CoroutineScope(Dispatchers.IO + Job())
+    private val prefetchHeaders = NetworkHeaders.Builder()
+        .set(HttpStack.PURPOSE_HEADER, HttpClientPurpose.PREFETCH.name)
+        .build()
 
     /**
      * Preload a list of image URLs.
@@ -38,6 +45,8 @@ object ImagePreloader : KoinComponent {
                         val request = ImageRequest.Builder(context)
                             .data(url)
                             .size(Size.ORIGINAL)
+                            // Never compete with images that are shown on screen
+                            .httpHeaders(prefetchHeaders)
                             .build()
                         imageLoader.enqueue(request)
                     } catch (e: Exception) {
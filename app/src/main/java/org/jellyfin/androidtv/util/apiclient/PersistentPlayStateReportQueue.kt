@@ -0,0 +1,169 @@
+package org.jellyfin.androidtv.util.apiclient
+
+import android.content.Context
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.json.Json
+import org.jellyfin.playback.jellyfin.playsession.PlayStateReportQueue
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.extensions.playStateApi
+import org.jellyfin.sdk.model.api.PlaybackProgressInfo
+import org.jellyfin.sdk.model.api.PlaybackStopInfo
+import timber.log.Timber
+import java.io.IOException
+import java.time.Instant
+import java.util.UUID
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.days
+
+/**
+ * [PlayStateReportQueue] stored on disk so reports survive app restarts. Reports are only sent for
+ * the server and user they were created for.
+ */
+class PersistentPlayStateReportQueue(
+	private val context: Context,
+	private val api: ApiClient,
+	private val maxReports: Int = 100,
+	private val maxAge: Duration = 7.days,
+) : PlayStateReportQueue {
+	@Serializable
+	private data class QueuedReport(
+		val account: Int,
+		val createdAt: Long,
+		val progress: PlaybackProgressInfo? = null,
+		val stop: PlaybackStopInfo? = null,
+	) {
+		val session get() = progress?.playSessionId ?: stop?.playSessionId
+		val itemId get() = progress?.itemId ?: stop?.itemId
+	}
+
+	// Single threaded so writes happen in order
+	private val scope = CoroutineScope(Dispatchers.IO.limitedParallelism(1) + SupervisorJob())
+	private val flushMutex = Mutex()
+
+	private val json = Json {
+		ignoreUnknownKeys = true
+	}
+
+	private val storeFile
+		get() = context.noBackupFilesDir.resolve("play_state_reports.json")
+
+	private val reports by lazy { restore().toMutableList() }
+
+	// Reports can only be sent with the credentials they were created with
+	private val account: Int?
+		get() = api.accessToken?.let { accessToken -> "${api.baseUrl}|$accessToken".hashCode() }
+
+	override fun add(info: PlaybackProgressInfo) {
+		val account = account ?: return
+
+		synchronized(this) {
+			// A stop report is newer than any progress of the same session
+			if (reports.any { it.stop != null && it.matches(info.playSessionId, info.itemId) }) return
+			reports.removeAll { it.matches(info.playSessionId, info.itemId) }
+			reports.add(QueuedReport(account, Instant.now().toEpochMilli(), progress = info))
+			prune()
+		}
+
+		Timber.i("Queued progress report for item ${info.itemId} at ${info.positionTicks}")
+		persist()
+	}
+
+	override fun add(info: PlaybackStopInfo) {
+		val account = account ?: return
+		val itemId = info.itemId ?: return
+
+		synchronized(this) {
+			reports.removeAll { it.matches(info.playSessionId, itemId) }
+			reports.add(QueuedReport(account, Instant.now().toEpochMilli(), stop = info))
+			prune()
+		}
+
+		Timber.i("Queued stop report for item $itemId at ${info.positionTicks}")
+		persist()
+	}
+
+	override fun removeProgress(info: PlaybackProgressInfo) {
+		val removed = synchronized(this) {
+			reports.removeAll { it.progress != null && it.matches(info.playSessionId, info.itemId) }
+		}
+
+		if (removed) persist()
+	}
+
+	override suspend fun flush() = flushMutex.withLock {
+		val account = account ?: return@withLock
+		val pending = withContext(Dispatchers.IO) {
+			synchronized(this@PersistentPlayStateReportQueue) { reports.filter { it.account == account } }
+		}
+		if (pending.isEmpty()) return@withLock
+
+		Timber.i("Sending ${pending.size} queued play state reports")
+		for (report in pending) {
+			// Removed while flushing because a newer report was sent
+			if (synchronized(this) { report !in reports }) continue
+
+			try {
+				when {
+					report.progress != null -> api.playStateApi.reportPlaybackProgress(report.progress)
+					report.stop != null -> api.playStateApi.reportPlaybackStopped(report.stop)
+				}
+			} catch (err: CancellationException) {
+				throw err
+			} catch (err: Exception) {
+				Timber.w(err, "Failed to send queued play state report")
+				break
+			}
+
+			synchronized(this) { reports.remove(report) }
+		}
+
+		persist()
+	}
+
+	private fun QueuedReport.matches(session: String?, itemId: UUID?) =
+		if (session != null) this.session == session else this.session == null && this.itemId == itemId
+
+	private fun prune() {
+		val expired = Instant.now().toEpochMilli() - maxAge.inWholeMilliseconds
+		reports.removeAll { it.createdAt < expired }
+		while (reports.size > maxReports) reports.removeAt(0)
+	}
+
+	private fun persist() {
+		scope.launch {
+			val stored = synchronized(this@PersistentPlayStateReportQueue) { reports.toList() }
+
+			try {
+				if (stored.isEmpty()) storeFile.delete()
+				else storeFile.writeText(json.encodeToString(stored))
+			} catch (err: IOException) {
+				Timber.w(err, "Unable to store play state reports")
+			}
+		}
+	}
+
+	private fun restore(): List<QueuedReport> {
+		val file = storeFile
+		if (!file.exists()) return emptyList()
+
+		return try {
+			json.decodeFromString<List<QueuedReport>>(file.readText())
+		} catch (err: SerializationException) {
+			Timber.w(err, "Unable to read stored play state reports")
+			file.delete()
+			emptyList()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to read stored play state reports")
+			emptyList()
+		}
+	}
+}
@@ -2,12 +2,17 @@ package org.jellyfin.androidtv.util.apiclient
 
 import androidx.lifecycle.LifecycleOwner
 import androidx.lifecycle.lifecycleScope
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.SupervisorJob
 import kotlinx.coroutines.launch
 import org.jellyfin.androidtv.data.compat.StreamInfo
 import org.jellyfin.androidtv.data.model.DataRefreshService
 import org.jellyfin.androidtv.ui.playback.PlaybackController
+import org.jellyfin.playback.jellyfin.playsession.PlayStateReportQueue
+import org.jellyfin.playback.jellyfin.playsession.PlaybackProgressCoalescer
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.playStateApi
 import org.jellyfin.sdk.model.api.BaseItemDto
@@ -23,7 +28,12 @@ import java.time.Instant
 class ReportingHelper(
 	private val dataRefreshService: DataRefreshService,
 	private val api: ApiClient,
+	private val reportQueue: PlayStateReportQueue,
 ) {
+	// Progress is not bound to a screen, the coalescer may send the last report after it closed
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val progressCoalescer = PlaybackProgressCoalescer(scope) { info -> sendProgress(info) }
+
 	fun reportStart(
 		lifecycleOwner: LifecycleOwner,
 		playbackController: PlaybackController?,
@@ -52,12 +62,13 @@ class ReportingHelper(
 			Timber.i("Reporting ${item.name} playback started at $position")
 			runCatching {
 				api.playStateApi.reportPlaybackStart(info)
+			}.onSuccess {
+				reportQueue.flush()
 			}.onFailure { error -> Timber.e(error, "Failed to report started playback!") }
 		}
 	}
 
 	fun reportProgress(
-		lifecycleOwner: LifecycleOwner,
 		playbackController: PlaybackController?,
 		item: BaseItemDto,
 		streamInfo: StreamInfo,
@@ -80,12 +91,24 @@ class ReportingHelper(
 			mediaSourceId = streamInfo.mediaSourceId,
 		)
 
-		lifecycleOwner.lifecycleScope.launch(Dispatchers.IO + NonCancellable) {
-			Timber.d("Reporting ${item.name} playback progress at $position")
-			runCatching {
-				api.playStateApi.reportPlaybackProgress(info)
-			}.onFailure { error -> Timber.w(error, "Failed to report playback progress") }
+		progressCoalescer.submit(info)
+	}
+
+	private suspend fun sendProgress(info: PlaybackProgressInfo) {
+		Timber.d("Reporting ${info.itemId} playback progress at ${info.positionTicks}")
+		try {
+			api.playStateApi.reportPlaybackProgress(info)
+		} catch (err: CancellationException) {
+			throw err
+		} catch (err: Exception) {
+			Timber.w(err, "Failed to report playback progress")
+			reportQueue.add(info)
+			return
 		}
+
+		// Queued progress of this session is older than the report that was just sent
+		reportQueue.removeProgress(info)
+		reportQueue.flush()
 	}
 
 	fun reportStopped(lifecycleOwner: LifecycleOwner, item: BaseItemDto, streamInfo: StreamInfo, position: Long?) {
@@ -98,11 +121,20 @@ class ReportingHelper(
 			failed = false,
 		)
 
+		// The stop report contains the final position, pending progress is not needed anymore
+		progressCoalescer.reset()
+
 		lifecycleOwner.lifecycleScope.launch(Dispatchers.IO + NonCancellable) {
+			// Send reports queued during network drops first so the stop report is the last one
+			reportQueue.flush()
+
 			Timber.i("Reporting ${item.name} playback stopped at $position")
 			runCatching {
 				api.playStateApi.reportPlaybackStopped(info)
-			}.onFailure { error -> Timber.e(error, "Failed to report stopped playback!") }
+			}.onFailure { error ->
+				Timber.e(error, "Failed to report stopped playback!")
+				reportQueue.add(info)
+			}
 		}
 
 		// Update dataRefreshService
@@ -0,0 +1,147 @@
+package org.jellyfin.androidtv.util.coil
+
+import android.app.ActivityManager
+import android.content.ComponentCallbacks2
+import android.content.Context
+import android.content.pm.ApplicationInfo
+import android.content.res.Configuration
+import android.os.SystemClock
+import coil3.memory.MemoryCache
+import timber.log.Timber
+
+data class ImageMemoryUsage(
+	val size: Long,
+	val limit: Long,
+	val maxSize: Long,
+)
+
+/**
+ * Sizes the Coil memory cache from the heap available to the app and shrinks it when the system
+ * reports memory pressure. Images of the focused row are touched before trimming so the least
+ * recently used images (offscreen rows) are evicted first and the focused row last. While the
+ * system is low on memory the lowered limit is enforced on every image added to the cache.
+ */
+class ImageMemoryBudget(
+	context: Context,
+) : ComponentCallbacks2 {
+	companion object {
+		private const val LOW_RAM_HEAP_FRACTION = 0.15
+		private const val HEAP_FRACTION = 0.25
+		private const val LIMIT_RESTORE_DELAY_MS = 60_000L
+	}
+
+	/**
+	 * The size of the memory cache when there is no memory pressure.
+	 */
+	val maxSize: Long
+
+	/**
+	 * The current size limit, lowered while the system is low on memory.
+	 */
+	@Volatile
+	var limit: Long
+		private set
+
+	private var memoryCache: MemoryCache? = null
+	private var focusedImages: Set<String> = emptySet()
+	private var lastTrim = 0L
+
+	init {
+		val activityManager = context.getSystemService(Context.ACTIVITY_SERVICE) as ActivityManager
+		val largeHeap = context.applicationInfo.flags and ApplicationInfo.FLAG_LARGE_HEAP != 0
+		val memoryClass = if (largeHeap) activityManager.largeMemoryClass else activityManager.memoryClass
+		val fraction = if (activityManager.isLowRamDevice) LOW_RAM_HEAP_FRACTION else HEAP_FRACTION
+
+		maxSize = (memoryClass * 1024L * 1024L * fraction).toLong()
+		limit = maxSize
+		Timber.i("Image memory cache budget is ${maxSize / 1024 / 1024}MB of ${memoryClass}MB heap")
+
+		context.applicationContext.registerComponentCallbacks(this)
+	}
+
+	/**
+	 * Memory cache that trims itself to the current [limit] when an image is added.
+	 */
+	private inner class LimitedMemoryCache(
+		private val delegate: MemoryCache,
+	) : MemoryCache by delegate {
+		override fun set(key: MemoryCache.Key, value: MemoryCache.Value) {
+			delegate[key] = value
+			if (delegate.size > limit) enforceLimit()
+		}
+	}
+
+	fun createMemoryCache(): MemoryCache {
+		// The underlying cache is sized for the maximum, a lowered limit is enforced by the wrapper
+		val cache = MemoryCache.Builder()
+			.maxSizeBytes(maxSize)
+			.build()
+
+		return LimitedMemoryCache(cache).also { memoryCache = it }
+	}
+
+	/**
+	 * Set the image urls of the currently focused row. These are evicted last when trimming.
+	 */
+	@Synchronized
+	fun setFocusedImages(urls: Collection<String>) {
+		focusedImages = urls.toSet()
+		enforceLimit()
+	}
+
+	fun getUsage() = ImageMemoryUsage(
+		size = memoryCache?.size ?: 0,
+		limit = limit,
+		maxSize = maxSize,
+	)
+
+	@Suppress("DEPRECATION")
+	@Synchronized
+	override fun onTrimMemory(level: Int) {
+		val target = when {
+			level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE -> 0L
+			level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND -> maxSize / 4
+			level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN -> maxSize / 2
+			level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL -> maxSize / 4
+			level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW -> maxSize / 2
+			level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE -> maxSize * 3 / 4
+			else -> return
+		}
+
+		// Only lower the limit while running, hidden apps get their cache back when they return
+		if (level < ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) limit = minOf(limit, target)
+		lastTrim = SystemClock.elapsedRealtime()
+
+		Timber.i("Trimming image memory cache to ${target / 1024 / 1024}MB (level $level)")
+		trimTo(target)
+	}
+
+	@Synchronized
+	override fun onLowMemory() = trimTo(0)
+
+	override fun onConfigurationChanged(newConfig: Configuration) = Unit
+
+	@Synchronized
+	private fun enforceLimit() {
+		if (limit < maxSize && SystemClock.elapsedRealtime() - lastTrim > LIMIT_RESTORE_DELAY_MS) {
+			Timber.d("Restoring image memory cache limit")
+			limit = maxSize
+		}
+
+		if ((memoryCache?.size ?: 0) > limit) trimTo(limit)
+	}
+
+	private fun trimTo(size: Long) {
+		val memoryCache = memoryCache ?: return
+		if (size == 0L) return memoryCache.clear()
+
+		// Access the focused images so they become the most recently used entries
+		if (focusedImages.isNotEmpty()) {
+			memoryCache.keys
+				.filter { it.key in focusedImages }
+				.forEach { memoryCache[it] }
+		}
+
+		memoryCache.trimToSize(size)
+	}
+}
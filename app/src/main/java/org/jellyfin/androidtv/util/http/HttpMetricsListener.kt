@@ -0,0 +1,77 @@
+package org.jellyfin.androidtv.util.http
+
+import okhttp3.Call
+import okhttp3.Connection
+import okhttp3.EventListener
+import okhttp3.Handshake
+import okhttp3.Protocol
+import java.io.IOException
+import java.net.InetSocketAddress
+import java.net.Proxy
+import java.util.concurrent.atomic.AtomicLong
+
+data class HttpMetrics(
+	val calls: Long = 0,
+	val connectionsOpened: Long = 0,
+	val connectionsReused: Long = 0,
+	val tlsHandshakes: Long = 0,
+	val connectFailures: Long = 0,
+	val openConnections: Int = 0,
+)
+
+/**
+ * Counts calls, new and reused connections and TLS handshakes of a client.
+ */
+class HttpMetricsListener private constructor(
+	private val factory: Factory,
+) : EventListener() {
+	class Factory : EventListener.Factory {
+		internal val calls = AtomicLong()
+		internal val connectionsOpened = AtomicLong()
+		internal val connectionsReused = AtomicLong()
+		internal val tlsHandshakes = AtomicLong()
+		internal val connectFailures = AtomicLong()
+
+		val metrics
+			get() = HttpMetrics(
+				calls = calls.get(),
+				connectionsOpened = connectionsOpened.get(),
+				connectionsReused = connectionsReused.get(),
+				tlsHandshakes = tlsHandshakes.get(),
+				connectFailures = connectFailures.get(),
+			)
+
+		override fun create(call: Call): EventListener = HttpMetricsListener(this)
+	}
+
+	// A call may acquire multiple connections when following redirects or retrying
+	private var connecting = false
+
+	override fun callStart(call: Call) {
+		factory.calls.incrementAndGet()
+	}
+
+	override fun connectStart(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy) {
+		connecting = true
+		factory.connectionsOpened.incrementAndGet()
+	}
+
+	override fun secureConnectEnd(call: Call, handshake: Handshake?) {
+		factory.tlsHandshakes.incrementAndGet()
+	}
+
+	override fun connectFailed(
+		call: Call,
+		inetSocketAddress: InetSocketAddress,
+		proxy: Proxy,
+		protocol: Protocol?,
+		ioe: IOException,
+	) {
+		factory.connectFailures.incrementAndGet()
+	}
+
+	override fun connectionAcquired(call: Call, connection: Connection) {
+		if (!connecting) factory.connectionsReused.incrementAndGet()
+		connecting = false
+	}
+}
@@ -0,0 +1,148 @@
+package org.jellyfin.androidtv.util.http
+
+import okhttp3.Call
+import okhttp3.ConnectionPool
+import okhttp3.Dispatcher
+import okhttp3.OkHttpClient
+import okhttp3.Protocol
+import org.jellyfin.sdk.api.client.HttpClientOptions
+import timber.log.Timber
+import java.util.concurrent.SynchronousQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.time.toJavaDuration
+
+/**
+ * The kind of traffic a client is used for, ordered from the highest to the lowest priority. Each
+ * purpose has its own dispatcher so a burst of requests of one purpose can never take the request
+ * slots of another.
+ */
+enum class HttpClientPurpose(
+	val maxRequests: Int,
+	val maxRequestsPerHost: Int,
+	val threadPriority: Int,
+) {
+	/**
+	 * Media segments and progressive streams.
+	 */
+	PLAYBACK(maxRequests = 32, maxRequestsPerHost = 16, threadPriority = Thread.NORM_PRIORITY + 2),
+
+	/**
+	 * Jellyfin API requests.
+	 */
+	API(maxRequests = 32, maxRequestsPerHost = 8, threadPriority = Thread.NORM_PRIORITY + 1),
+
+	/**
+	 * Images shown on screen.
+	 */
+	IMAGES(maxRequests = 16, maxRequestsPerHost = 6, threadPriority = Thread.NORM_PRIORITY),
+
+	/**
+	 * Images loaded ahead of time that may never be shown.
+	 */
+	PREFETCH(maxRequests = 4, maxRequestsPerHost = 2, threadPriority = Thread.MIN_PRIORITY),
+}
+
+/**
+ * The HTTP stack of the app. All clients share a single connection pool so a connection opened
+ * for one purpose can be reused by all others, avoiding additional TCP and TLS handshakes.
+ */
+class HttpStack(
+	private val httpClientOptions: HttpClientOptions,
+	http2Enabled: Boolean,
+) {
+	companion object {
+		/**
+		 * Request header used to route image requests to the [HttpClientPurpose.PREFETCH] client. The
+		 * header is removed before the request is sent.
+		 */
+		const val PURPOSE_HEADER = "X-Client-Purpose"
+
+		private const val MAX_IDLE_CONNECTIONS = 10
+		private const val KEEP_ALIVE_MINUTES = 5L
+	}
+
+	private val connectionPool = ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES)
+	private val metrics = HttpClientPurpose.entries.associateWith { HttpMetricsListener.Factory() }
+
+	private val baseClient = OkHttpClient.Builder().apply {
+		connectionPool(connectionPool)
+		followRedirects(httpClientOptions.followRedirects)
+		connectTimeout(httpClientOptions.connectTimeout.toJavaDuration())
+		callTimeout(httpClientOptions.requestTimeout.toJavaDuration())
+		readTimeout(httpClientOptions.socketTimeout.toJavaDuration())
+		writeTimeout(httpClientOptions.socketTimeout.toJavaDuration())
+
+		// HTTP/2 is negotiated with the server when available, some reverse proxies handle it badly
+		if (!http2Enabled) protocols(listOf(Protocol.HTTP_1_1))
+	}.build()
+
+	private val clients = HttpClientPurpose.entries.associateWith { purpose ->
+		baseClient.newBuilder()
+			.dispatcher(createDispatcher(purpose))
+			.eventListenerFactory(metrics.getValue(purpose))
+			.build()
+	}
+
+	/**
+	 * Get the client to use for requests of the given [purpose].
+	 */
+	fun client(purpose: HttpClientPurpose): OkHttpClient = clients.getValue(purpose)
+
+	/**
+	 * Create a call factory for image requests. Requests with the [PURPOSE_HEADER] set to a purpose
+	 * name are sent with the client of that purpose.
+	 */
+	fun createImageCallFactory() = Call.Factory { request ->
+		val purpose = request.header(PURPOSE_HEADER)
+			?.let { name -> HttpClientPurpose.entries.find { it.name == name } }
+
+		if (purpose == null) client(HttpClientPurpose.IMAGES).newCall(request)
+		else client(purpose).newCall(request.newBuilder().removeHeader(PURPOSE_HEADER).build())
+	}
+
+	/**
+	 * Get the metrics of all clients.
+	 */
+	fun getMetrics(): Map<HttpClientPurpose, HttpMetrics> = metrics.mapValues { (_, factory) -> factory.metrics }
+
+	/**
+	 * Get the metrics of all clients combined.
+	 */
+	fun getTotalMetrics() = getMetrics().values.fold(
+		HttpMetrics(openConnections = connectionPool.connectionCount())
+	) { total, metrics ->
+		total.copy(
+			calls = total.calls + metrics.calls,
+			connectionsOpened = total.connectionsOpened + metrics.connectionsOpened,
+			connectionsReused = total.connectionsReused + metrics.connectionsReused,
+			tlsHandshakes = total.tlsHandshakes + metrics.tlsHandshakes,
+			connectFailures = total.connectFailures + metrics.connectFailures,
+		)
+	}
+
+	fun logMetrics() {
+		for ((purpose, metrics) in getMetrics()) Timber.i("HTTP $purpose: $metrics")
+		Timber.i("HTTP connection pool: ${connectionPool.connectionCount()} connections (${connectionPool.idleConnectionCount()} idle)")
+	}
+
+	private fun createDispatcher(purpose: HttpClientPurpose): Dispatcher {
+		val threadCount = AtomicInteger()
+		val threadFactory = ThreadFactory { runnable ->
+			Thread(runnable, "OkHttp ${purpose.name.lowercase()} ${threadCount.incrementAndGet()}").apply {
+				isDaemon = true
+				priority = purpose.threadPriority
+			}
+		}
+
+		// Same executor as the OkHttp default, the request limits are enforced by the dispatcher
+		val executor = ThreadPoolExecutor(0, Int.MAX_VALUE, 60, TimeUnit.SECONDS, SynchronousQueue(), threadFactory)
+
+		return Dispatcher(executor).apply {
+			maxRequests = purpose.maxRequests
+			maxRequestsPerHost = purpose.maxRequestsPerHost
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.jellyfin.androidtv.util.profile
+
+import android.content.Context
+import android.os.Build
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.json.Json
+import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.sdk.model.api.DeviceProfile
+import timber.log.Timber
+import java.io.IOException
+
+/**
+ * Provides the device profile sent to the server. The decoder capabilities are tested once and
+ * stored for the build fingerprint of the device, the codec list only changes with system updates.
+ * Profiles are kept until the user preferences they are based on change.
+ */
+class DeviceProfileProvider(
+	private val context: Context,
+	private val userPreferences: UserPreferences,
+) {
+	@Serializable
+	private data class StoredCapabilities(
+		val fingerprint: String,
+		val capabilities: MediaCodecCapabilities,
+	)
+
+	private val json = Json {
+		ignoreUnknownKeys = true
+	}
+
+	private val storeFile
+		get() = context.noBackupFilesDir.resolve("media_codec_capabilities.json")
+
+	/**
+	 * The decoder capabilities of the device. Blocks on first access when they are not stored yet.
+	 */
+	val capabilities: MediaCodecCapabilities by lazy { restore() ?: createCapabilities() }
+
+	@Volatile
+	private var profiles = emptyMap<DeviceProfileOptions, DeviceProfile>()
+
+	/**
+	 * Get the device profile for the current user preferences.
+	 */
+	fun getDeviceProfile(disableDirectPlay: Boolean): DeviceProfile {
+		val options = userPreferences.getDeviceProfileOptions(disableDirectPlay)
+		profiles[options]?.let { return it }
+
+		val profile = createDeviceProfile(options, capabilities)
+		synchronized(this) {
+			// Drop profiles of previous preferences, at most one profile per direct play mode is in use
+			profiles = profiles.filterKeys { it.disableDirectPlay != disableDirectPlay } + (options to profile)
+		}
+		return profile
+	}
+
+	private fun createCapabilities(): MediaCodecCapabilities {
+		val capabilities = MediaCodecCapabilitiesTest().getCapabilities()
+		Timber.i("Tested media codec capabilities: $capabilities")
+
+		try {
+			storeFile.writeText(json.encodeToString(StoredCapabilities(Build.FINGERPRINT, capabilities)))
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to store media codec capabilities")
+		}
+
+		return capabilities
+	}
+
+	private fun restore(): MediaCodecCapabilities? {
+		val file = storeFile
+		if (!file.exists()) return null
+
+		val stored = try {
+			json.decodeFromString<StoredCapabilities>(file.readText())
+		} catch (err: SerializationException) {
+			Timber.w(err, "Unable to read stored media codec capabilities")
+			file.delete()
+			return null
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to read stored media codec capabilities")
+			return null
+		}
+
+		// The codecs may have changed with a system update
+		if (stored.fingerprint != Build.FINGERPRINT) return null
+
+		return stored.capabilities
+	}
+}
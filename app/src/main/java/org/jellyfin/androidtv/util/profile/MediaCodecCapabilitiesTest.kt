@@ -5,8 +5,36 @@ import android.media.MediaCodecList
 import android.media.MediaFormat
 import android.os.Build
 import android.util.Size
+import androidx.media3.common.MimeTypes
+import kotlinx.serialization.Serializable
 import timber.log.Timber
 
+/**
+ * Snapshot of the decoder capabilities used to create the device profile.
+ */
+@Serializable
+data class MediaCodecCapabilities(
+	val supportsHevc: Boolean,
+	val supportsHevcMain10: Boolean,
+	val hevcMainLevel: Int,
+	val hevcMain10Level: Int,
+	val supportsAVC: Boolean,
+	val supportsAVCHigh10: Boolean,
+	val avcMainLevel: Int,
+	val avcHigh10Level: Int,
+	val supportsAV1: Boolean,
+	val supportsAV1Main10: Boolean,
+	val maxResolutionAVC: Resolution,
+	val maxResolutionHevc: Resolution,
+	val maxResolutionAV1: Resolution,
+) {
+	@Serializable
+	data class Resolution(
+		val width: Int,
+		val height: Int,
+	)
+}
+
 class MediaCodecCapabilitiesTest {
 	private val mediaCodecList by lazy { MediaCodecList(MediaCodecList.REGULAR_CODECS) }
 
@@ -193,4 +221,26 @@ class MediaCodecCapabilitiesTest {
 		return Size(maxWidth, maxHeight)
 	}
 
+	/**
+	 * Run all tests and return the results. This scans the codec list multiple times and should not
+	 * be called from the main thread.
+	 */
+	fun getCapabilities() = MediaCodecCapabilities(
+		supportsHevc = supportsHevc(),
+		supportsHevcMain10 = supportsHevcMain10(),
+		hevcMainLevel = getHevcMainLevel(),
+		hevcMain10Level = getHevcMain10Level(),
+		supportsAVC = supportsAVC(),
+		supportsAVCHigh10 = supportsAVCHigh10(),
+		avcMainLevel = getAVCMainLevel(),
+		avcHigh10Level = getAVCHigh10Level(),
+		supportsAV1 = supportsAV1(),
+		supportsAV1Main10 = supportsAV1Main10(),
+		maxResolutionAVC = getMaxResolution(MimeTypes.VIDEO_H264).toResolution(),
+		maxResolutionHevc = getMaxResolution(MimeTypes.VIDEO_H265).toResolution(),
+		maxResolutionAV1 = getMaxResolution(MimeTypes.VIDEO_AV1).toResolution(),
+	)
+
+	private fun Size.toResolution() = MediaCodecCapabilities.Resolution(width, height)
+
 }
@@ -1,6 +1,5 @@
 package org.jellyfin.androidtv.util.profile
 
-import androidx.media3.common.MimeTypes
 import org.jellyfin.androidtv.constant.Codec
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.constant.AudioBehavior
@@ -51,43 +50,56 @@ private fun UserPreferences.getMaxBitrate(): Int {
 	return maxBitrate * 1_000_000
 }
 
-fun createDeviceProfile(userPreferences: UserPreferences, disableDirectPlay: Boolean) = createDeviceProfile(
-	maxBitrate = userPreferences.getMaxBitrate(),
+/**
+ * The user preferences that affect the device profile.
+ */
+data class DeviceProfileOptions(
+	val maxBitrate: Int,
+	val disableDirectPlay: Boolean,
+	val isAC3Enabled: Boolean,
+	val downMixAudio: Boolean,
+	val assDirectPlay: Boolean,
+	val pgsDirectPlay: Boolean,
+)
+
+fun UserPreferences.getDeviceProfileOptions(disableDirectPlay: Boolean) = DeviceProfileOptions(
+	maxBitrate = getMaxBitrate(),
 	disableDirectPlay = disableDirectPlay,
-	isAC3Enabled = userPreferences[UserPreferences.ac3Enabled],
-	downMixAudio = userPreferences[UserPreferences.audioBehaviour] == AudioBehavior.DOWNMIX_TO_STEREO,
-	assDirectPlay = userPreferences[UserPreferences.assDirectPlay],
-	pgsDirectPlay = userPreferences[UserPreferences.pgsDirectPlay],
+	isAC3Enabled = this[UserPreferences.ac3Enabled],
+	downMixAudio = this[UserPreferences.audioBehaviour] == AudioBehavior.DOWNMIX_TO_STEREO,
+	assDirectPlay = this[UserPreferences.assDirectPlay],
+	pgsDirectPlay = this[UserPreferences.pgsDirectPlay],
 )
 
 fun createDeviceProfile(
-	maxBitrate: Int,
-	disableDirectPlay: Boolean,
-	isAC3Enabled: Boolean,
-	downMixAudio: Boolean,
-	assDirectPlay: Boolean,
-	pgsDirectPlay: Boolean
+	options: DeviceProfileOptions,
+	capabilities: MediaCodecCapabilities,
 ) = buildDeviceProfile {
+	val maxBitrate = options.maxBitrate
+	val disableDirectPlay = options.disableDirectPlay
+	val downMixAudio = options.downMixAudio
+	val assDirectPlay = options.assDirectPlay
+	val pgsDirectPlay = options.pgsDirectPlay
+
 	val allowedAudioCodecs = when {
 		downMixAudio -> downmixSupportedAudioCodecs
-		!isAC3Enabled -> supportedAudioCodecs.filterNot { it == Codec.Audio.EAC3 || it == Codec.Audio.AC3 }.toTypedArray()
+		!options.isAC3Enabled -> supportedAudioCodecs.filterNot { it == Codec.Audio.EAC3 || it == Codec.Audio.AC3 }.toTypedArray()
 		else -> supportedAudioCodecs
 	}
 
-	val mediaTest = MediaCodecCapabilitiesTest()
-	val supportsHevc = mediaTest.supportsHevc()
-	val supportsHevcMain10 = mediaTest.supportsHevcMain10()
-	val hevcMainLevel = mediaTest.getHevcMainLevel()
-	val hevcMain10Level = mediaTest.getHevcMain10Level()
-	val supportsAVC = mediaTest.supportsAVC()
-	val supportsAVCHigh10 = mediaTest.supportsAVCHigh10()
-	val avcMainLevel = mediaTest.getAVCMainLevel()
-	val avcHigh10Level = mediaTest.getAVCHigh10Level()
-	val supportsAV1 = mediaTest.supportsAV1()
-	val supportsAV1Main10 = mediaTest.supportsAV1Main10()
-	val maxResolutionAVC = mediaTest.getMaxResolution(MimeTypes.VIDEO_H264)
-	val maxResolutionHevc = mediaTest.getMaxResolution(MimeTypes.VIDEO_H265)
-	val maxResolutionAV1 = mediaTest.getMaxResolution(MimeTypes.VIDEO_AV1)
+	val supportsHevc = capabilities.supportsHevc
+	val supportsHevcMain10 = capabilities.supportsHevcMain10
+	val hevcMainLevel = capabilities.hevcMainLevel
+	val hevcMain10Level = capabilities.hevcMain10Level
+	val supportsAVC = capabilities.supportsAVC
+	val supportsAVCHigh10 = capabilities.supportsAVCHigh10
+	val avcMainLevel = capabilities.avcMainLevel
+	val avcHigh10Level = capabilities.avcHigh10Level
+	val supportsAV1 = capabilities.supportsAV1
+	val supportsAV1Main10 = capabilities.supportsAV1Main10
+	val maxResolutionAVC = capabilities.maxResolutionAVC
+	val maxResolutionHevc = capabilities.maxResolutionHevc
+	val maxResolutionAV1 = capabilities.maxResolutionAV1
 
 	name = "AndroidTV-Default"
 
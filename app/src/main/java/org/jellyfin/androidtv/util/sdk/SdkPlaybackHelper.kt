@@ -80,7 +80,7 @@ class SdkPlaybackHelper(
 						startItemId = mainItem.id,
 						isMissing = false,
 						limit = ITEM_QUERY_LIMIT,
-						fields = ItemRepository.itemFields
+						fields = ItemRepository.playbackFields
 					)
 
 					response.items
@@ -101,7 +101,7 @@ class SdkPlaybackHelper(
 					sortBy = if (shuffle) listOf(ItemSortBy.RANDOM) else listOf(ItemSortBy.SORT_NAME),
 					recursive = true,
 					limit = ITEM_QUERY_LIMIT,
-					fields = ItemRepository.itemFields
+					fields = ItemRepository.playbackFields
 				)
 
 				response.items
@@ -117,7 +117,7 @@ class SdkPlaybackHelper(
 					),
 					recursive = true,
 					limit = ITEM_QUERY_LIMIT,
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.playbackFields,
 					albumIds = listOf(mainItem.id)
 				)
 
@@ -131,7 +131,7 @@ class SdkPlaybackHelper(
 					sortBy = listOf(ItemSortBy.SORT_NAME),
 					recursive = true,
 					limit = ITEM_QUERY_LIMIT,
-					fields = ItemRepository.itemFields,
+					fields = ItemRepository.playbackFields,
 					artistIds = listOf(mainItem.id)
 				)
 
@@ -145,7 +145,7 @@ class SdkPlaybackHelper(
 					sortBy = if (shuffle) listOf(ItemSortBy.RANDOM) else null,
 					recursive = true,
 					limit = ITEM_QUERY_LIMIT,
-					fields = ItemRepository.itemFields
+					fields = ItemRepository.playbackFields
 				)
 
 				response.items
@@ -240,7 +240,7 @@ class SdkPlaybackHelper(
 			val response = withContext(Dispatchers.IO) {
 				api.instantMixApi.getInstantMixFromItem(
 					itemId = item.id,
-					fields = ItemRepository.itemFields
+					fields = ItemRepository.playbackFields
 				).content
 			}
 
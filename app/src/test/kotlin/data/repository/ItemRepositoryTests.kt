@@ -0,0 +1,200 @@
+package org.jellyfin.androidtv.data.repository
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContain
+import io.kotest.matchers.collections.shouldContainAll
+import io.kotest.matchers.collections.shouldNotContain
+import io.kotest.matchers.ints.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.JsonElement
+import kotlinx.serialization.json.JsonPrimitive
+import kotlinx.serialization.json.buildJsonArray
+import kotlinx.serialization.json.buildJsonObject
+import kotlinx.serialization.json.put
+import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.sdk.model.api.ItemFields
+import java.util.UUID
+import kotlin.time.measureTime
+
+private val benchmarksEnabled = System.getenv("ITEM_FIELD_BENCHMARKS") != null
+
+private const val ROW_SIZE = 50
+private const val PARSE_ITERATIONS = 20
+
+/**
+ * The single field set that was requested for every item before the per-screen profiles.
+ */
+private val legacyFields = setOf(
+	ItemFields.CAN_DELETE,
+	ItemFields.CHANNEL_INFO,
+	ItemFields.CHAPTERS,
+	ItemFields.CHILD_COUNT,
+	ItemFields.CUMULATIVE_RUN_TIME_TICKS,
+	ItemFields.DATE_CREATED,
+	ItemFields.DISPLAY_PREFERENCES_ID,
+	ItemFields.ETAG,
+	ItemFields.GENRES,
+	ItemFields.ITEM_COUNTS,
+	ItemFields.MEDIA_SOURCE_COUNT,
+	ItemFields.MEDIA_SOURCES,
+	ItemFields.MEDIA_STREAMS,
+	ItemFields.OVERVIEW,
+	ItemFields.PATH,
+	ItemFields.PRIMARY_IMAGE_ASPECT_RATIO,
+	ItemFields.TAGLINES,
+	ItemFields.TRICKPLAY,
+)
+
+private fun createUserPreferences(resolutionBadge: Boolean, audioCodecBadge: Boolean) = mockk<UserPreferences> {
+	every { this@mockk[UserPreferences.showResolutionBadge] } returns resolutionBadge
+	every { this@mockk[UserPreferences.showAudioCodecBadge] } returns audioCodecBadge
+}
+
+private fun createMediaStream(index: Int) = buildJsonObject {
+	put("Codec", if (index == 0) "hevc" else "eac3")
+	put("Language", "eng")
+	put("DisplayTitle", "Stream $index - English - Dolby Digital+ 5.1 - Default")
+	put("Title", "Surround 5.1")
+	put("BitRate", 640000)
+	put("Channels", 6)
+	put("SampleRate", 48000)
+	put("Profile", "Main 10")
+	put("Type", if (index == 0) "Video" else "Audio")
+	put("Index", index)
+	put("IsDefault", index < 2)
+	put("IsForced", false)
+	put("IsExternal", false)
+	put("IsInterlaced", false)
+	put("IsHearingImpaired", false)
+	put("IsTextSubtitleStream", false)
+	put("SupportsExternalStream", false)
+	put("VideoRange", "HDR")
+	put("VideoRangeType", "DOVIWithHDR10")
+	put("AudioSpatialFormat", "None")
+}
+
+private fun createMediaSource(index: Int) = buildJsonObject {
+	put("Id", UUID.randomUUID().toString())
+	put("Path", "/media/movies/Some Movie (2024)/Some Movie (2024) - Version $index.mkv")
+	put("Container", "mkv")
+	put("Size", 58_000_000_000L)
+	put("Bitrate", 68_000_000)
+	put("MediaStreams", buildJsonArray { repeat(16) { add(createMediaStream(it)) } })
+}
+
+/**
+ * Synthetic response values for each item field, based on a movie with multiple versions.
+ */
+private val fieldValues: Map<ItemFields, Map<String, JsonElement>> = mapOf(
+	ItemFields.CAN_DELETE to mapOf("CanDelete" to JsonPrimitive(true)),
+	ItemFields.CHANNEL_INFO to mapOf("ChannelName" to JsonPrimitive("Channel")),
+	ItemFields.CHAPTERS to mapOf("Chapters" to buildJsonArray {
+		repeat(24) { add(buildJsonObject { put("StartPositionTicks", it * 3_000_000_000L); put("Name", "Chapter $it"); put("ImageTag", UUID.randomUUID().toString()) }) }
+	}),
+	ItemFields.CHILD_COUNT to mapOf("ChildCount" to JsonPrimitive(0)),
+	ItemFields.CUMULATIVE_RUN_TIME_TICKS to mapOf("CumulativeRunTimeTicks" to JsonPrimitive(72_000_000_000L)),
+	ItemFields.DATE_CREATED to mapOf("DateCreated" to JsonPrimitive("2024-01-01T00:00:00.0000000Z")),
+	ItemFields.DISPLAY_PREFERENCES_ID to mapOf("DisplayPreferencesId" to JsonPrimitive(UUID.randomUUID().toString())),
+	ItemFields.ETAG to mapOf("Etag" to JsonPrimitive("0123456789abcdef0123456789abcdef")),
+	ItemFields.GENRES to mapOf("Genres" to buildJsonArray { add(JsonPrimitive("Action")); add(JsonPrimitive("Adventure")) }),
+	ItemFields.ITEM_COUNTS to mapOf("SeriesCount" to JsonPrimitive(0), "MovieCount" to JsonPrimitive(0)),
+	ItemFields.MEDIA_SOURCE_COUNT to mapOf("MediaSourceCount" to JsonPrimitive(4)),
+	ItemFields.MEDIA_SOURCES to mapOf("MediaSources" to buildJsonArray { repeat(4) { add(createMediaSource(it)) } }),
+	ItemFields.MEDIA_STREAMS to mapOf("MediaStreams" to buildJsonArray { repeat(16) { add(createMediaStream(it)) } }),
+	ItemFields.OVERVIEW to mapOf("Overview" to JsonPrimitive("A".repeat(400))),
+	ItemFields.PATH to mapOf("Path" to JsonPrimitive("/media/movies/Some Movie (2024)/Some Movie (2024).mkv")),
+	ItemFields.PRIMARY_IMAGE_ASPECT_RATIO to mapOf("PrimaryImageAspectRatio" to JsonPrimitive(0.6666)),
+	ItemFields.TAGLINES to mapOf("Taglines" to buildJsonArray { add(JsonPrimitive("A tagline")) }),
+	ItemFields.TRICKPLAY to mapOf("Trickplay" to buildJsonObject {
+		put(UUID.randomUUID().toString(), buildJsonObject {
+			put("320", buildJsonObject { put("Width", 320); put("Height", 180); put("TileWidth", 10); put("TileHeight", 10); put("ThumbnailCount", 720); put("Interval", 10000) })
+		})
+	}),
+)
+
+private fun createRowPayload(fields: Set<ItemFields>) = Json.encodeToString(JsonElement.serializer(), buildJsonObject {
+	put("Items", buildJsonArray {
+		repeat(ROW_SIZE) { index ->
+			add(buildJsonObject {
+				put("Name", "Item $index")
+				put("Id", UUID.randomUUID().toString())
+				put("Type", "Movie")
+				put("RunTimeTicks", 72_000_000_000L)
+				put("ProductionYear", 2024)
+				put("OfficialRating", "PG-13")
+				put("CommunityRating", 7.5)
+				put("ImageTags", buildJsonObject { put("Primary", UUID.randomUUID().toString()) })
+				put("UserData", buildJsonObject { put("PlaybackPositionTicks", 0); put("PlayCount", 0); put("IsFavorite", false); put("Played", false) })
+
+				for (field in fields) fieldValues[field]?.forEach { (key, value) -> put(key, value) }
+			})
+		}
+	})
+	put("TotalRecordCount", ROW_SIZE)
+})
+
+private fun measureParse(payload: String) = measureTime {
+	repeat(PARSE_ITERATIONS) { Json.parseToJsonElement(payload) }
+} / PARSE_ITERATIONS
+
+class ItemRepositoryTests : FunSpec({
+	test("Card fields contain the fields used by cards and the launcher") {
+		// BaseItemInfoRow shows the counts of collections
+		ItemRepository.cardFields shouldContain ItemFields.ITEM_COUNTS
+		// LeanbackChannelWorker uses the creation date for new items in the watch next row
+		ItemRepository.cardFields shouldContain ItemFields.DATE_CREATED
+		ItemRepository.cardFields shouldContainAll listOf(ItemFields.OVERVIEW, ItemFields.PRIMARY_IMAGE_ASPECT_RATIO)
+		ItemRepository.cardFields shouldNotContain ItemFields.MEDIA_SOURCES
+	}
+
+	test("Browse fields only contain media sources when a media badge is shown") {
+		ItemRepository.browseFields(createUserPreferences(resolutionBadge = false, audioCodecBadge = false)) shouldBe ItemRepository.cardFields
+		ItemRepository.browseFields(createUserPreferences(resolutionBadge = true, audioCodecBadge = false)) shouldBe ItemRepository.cardFields + ItemFields.MEDIA_SOURCES
+		ItemRepository.browseFields(createUserPreferences(resolutionBadge = false, audioCodecBadge = true)) shouldBe ItemRepository.cardFields + ItemFields.MEDIA_SOURCES
+	}
+
+	test("Search fields contain the tagline used by the global search provider") {
+		ItemRepository.searchFields shouldContain ItemFields.TAGLINES
+	}
+
+	test("Item list fields can be played and sorted by date added") {
+		ItemRepository.itemListFields shouldContainAll ItemRepository.playbackFields
+		ItemRepository.itemListFields shouldContain ItemFields.DATE_CREATED
+	}
+
+	test("Playback fields contain the media information used to start playback") {
+		ItemRepository.playbackFields shouldContainAll listOf(
+			ItemFields.MEDIA_SOURCES,
+			ItemFields.MEDIA_STREAMS,
+			ItemFields.CHAPTERS,
+			ItemFields.TRICKPLAY,
+		)
+	}
+
+	// Compares the serialized size and parse time of a row of items per profile with the field set that was used for all
+	// requests before, only runs when the ITEM_FIELD_BENCHMARKS environment variable is set as the timings depend on the machine
+	test("Row payload per profile").config(enabledIf = { benchmarksEnabled }) {
+		val profiles = mapOf(
+			"legacy" to legacyFields,
+			"item list" to ItemRepository.itemListFields,
+			"playback" to ItemRepository.playbackFields,
+			"browse with badges" to ItemRepository.cardFields + ItemFields.MEDIA_SOURCES,
+			"card" to ItemRepository.cardFields,
+			"search" to ItemRepository.searchFields,
+			"guide" to ItemRepository.guideFields,
+		)
+
+		val payloads = profiles.mapValues { (_, fields) -> createRowPayload(fields) }
+		payloads.forEach { (name, payload) ->
+			// Warm up before measuring
+			measureParse(payload)
+			println("$name: ${payload.length} bytes per row of $ROW_SIZE, parsed in ${measureParse(payload)}")
+		}
+
+		payloads.getValue("card").length shouldBeLessThan payloads.getValue("legacy").length / 10
+		payloads.getValue("search").length shouldBeLessThan payloads.getValue("card").length
+	}
+})
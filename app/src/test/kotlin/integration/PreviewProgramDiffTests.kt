@@ -0,0 +1,54 @@
+package org.jellyfin.androidtv.integration
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.maps.shouldBeEmpty
+import io.kotest.matchers.maps.shouldContainExactly
+import io.kotest.matchers.shouldBe
+
+class PreviewProgramDiffTests : FunSpec({
+	val a = PreviewProgramKey(1, "a")
+	val b = PreviewProgramKey(1, "b")
+	val c = PreviewProgramKey(2, "c")
+
+	test("Unchanged programs are not touched") {
+		val diff = PreviewProgramDiff.compute(
+			wanted = mapOf(a to 10L, b to 20L),
+			stored = listOf(StoredPreviewProgram(100, a, 10), StoredPreviewProgram(101, b, 20)),
+		)
+
+		diff.isEmpty shouldBe true
+	}
+
+	test("Changes are split in inserts, updates and deletes") {
+		val diff = PreviewProgramDiff.compute(
+			wanted = mapOf(a to 10L, b to 21L, c to 30L),
+			stored = listOf(
+				StoredPreviewProgram(100, a, 10),
+				StoredPreviewProgram(101, b, 20),
+				StoredPreviewProgram(102, PreviewProgramKey(2, "d"), 40),
+			),
+		)
+
+		diff.inserts shouldContainExactly listOf(c)
+		diff.updates shouldContainExactly mapOf(101L to b)
+		diff.deletes shouldContainExactly listOf(102L)
+	}
+
+	test("Duplicate and unknown programs are deleted") {
+		val diff = PreviewProgramDiff.compute(
+			wanted = mapOf(a to 10L),
+			stored = listOf(
+				StoredPreviewProgram(100, a, 10),
+				StoredPreviewProgram(101, a, 10),
+				StoredPreviewProgram(102, PreviewProgramKey(1, ""), 0),
+			),
+		)
+
+		diff.inserts.shouldBeEmpty()
+		diff.updates.shouldBeEmpty()
+		diff.deletes shouldContainExactlyInAnyOrder listOf(101L, 102L)
+	}
+})
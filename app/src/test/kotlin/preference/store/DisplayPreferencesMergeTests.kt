@@ -0,0 +1,66 @@
+package org.jellyfin.androidtv.preference.store
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+import org.jellyfin.sdk.model.api.DisplayPreferencesDto
+import org.jellyfin.sdk.model.api.ScrollDirection
+import org.jellyfin.sdk.model.api.SortOrder
+
+private fun createPreferences(modifiedAt: Long?, vararg values: Pair<String, String>) = DisplayPreferencesDto(
+	primaryImageHeight = 0,
+	primaryImageWidth = 0,
+	customPrefs = buildMap {
+		putAll(values)
+		if (modifiedAt != null) put(DisplayPreferencesStore.MODIFIED_AT_KEY, modifiedAt.toString())
+	},
+	rememberIndexing = false,
+	scrollDirection = ScrollDirection.HORIZONTAL,
+	rememberSorting = false,
+	showBackdrop = false,
+	showSidebar = false,
+	sortOrder = SortOrder.ASCENDING,
+)
+
+private fun createEntry(modifiedAt: Long, dirty: Boolean, vararg values: Pair<String, String>) =
+	DisplayPreferencesLocalStore.Entry(createPreferences(modifiedAt, *values), modifiedAt, dirty)
+
+class DisplayPreferencesMergeTests : FunSpec({
+	test("Server preferences are used without a local copy") {
+		val server = createPreferences(null, "PosterSize" to "SMALL")
+
+		val merged = mergeDisplayPreferences(null, server)
+
+		merged.customPrefs shouldBe server.customPrefs
+		merged.send shouldBe false
+	}
+
+	test("Newer unsent local changes win and are sent") {
+		val local = createEntry(2000, dirty = true, "PosterSize" to "LARGE")
+		val server = createPreferences(1000, "PosterSize" to "SMALL")
+
+		val merged = mergeDisplayPreferences(local, server)
+
+		merged.customPrefs["PosterSize"] shouldBe "LARGE"
+		merged.send shouldBe true
+	}
+
+	test("Newer server changes win over unsent local changes") {
+		val local = createEntry(1000, dirty = true, "PosterSize" to "LARGE")
+		val server = createPreferences(2000, "PosterSize" to "SMALL")
+
+		val merged = mergeDisplayPreferences(local, server)
+
+		merged.customPrefs["PosterSize"] shouldBe "SMALL"
+		merged.send shouldBe false
+	}
+
+	test("Sent local preferences are replaced by the server") {
+		val local = createEntry(2000, dirty = false, "PosterSize" to "LARGE")
+		val server = createPreferences(1000, "PosterSize" to "SMALL")
+
+		val merged = mergeDisplayPreferences(local, server)
+
+		merged.customPrefs["PosterSize"] shouldBe "SMALL"
+		merged.send shouldBe false
+	}
+})
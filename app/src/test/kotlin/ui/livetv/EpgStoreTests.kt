@@ -0,0 +1,95 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import android.content.Context
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.flow.MutableStateFlow
+import org.jellyfin.androidtv.auth.repository.Session
+import org.jellyfin.androidtv.auth.repository.SessionRepository
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemKind
+import java.nio.file.Files
+import java.time.LocalDateTime
+import java.util.UUID
+
+private val channelId = UUID.randomUUID()
+private val guideStart = LocalDateTime.now().plusDays(1).withHour(12).withMinute(0).withSecond(0).withNano(0)
+
+private fun createProgram(name: String, startHour: Long, endHour: Long) = BaseItemDto(
+	id = UUID.randomUUID(),
+	type = BaseItemKind.LIVE_TV_PROGRAM,
+	name = name,
+	channelId = channelId,
+	startDate = guideStart.plusHours(startHour),
+	endDate = guideStart.plusHours(endHour),
+)
+
+private fun createStore(maxPrograms: Int = 1_000): EpgStore {
+	val context = mockk<Context> {
+		every { cacheDir } returns Files.createTempDirectory("epg").toFile()
+	}
+	val sessionRepository = mockk<SessionRepository> {
+		every { currentSession } returns MutableStateFlow(Session(UUID.randomUUID(), UUID.randomUUID(), "token"))
+	}
+	return EpgStoreImpl(context, sessionRepository, maxPrograms)
+}
+
+class EpgStoreTests : FunSpec({
+	test("Returns programs overlapping the window") {
+		val store = createStore()
+		store.putPrograms(
+			channelIds = listOf(channelId),
+			start = guideStart,
+			end = guideStart.plusHours(6),
+			programs = listOf(
+				createProgram("A", 0, 2),
+				createProgram("B", 2, 4),
+				createProgram("C", 4, 6),
+			),
+		)
+
+		store.getPrograms(channelId, guideStart.plusHours(3), guideStart.plusHours(5)).map { it.name } shouldContainExactly listOf("B", "C")
+		store.getPrograms(channelId, guideStart.plusHours(2), guideStart.plusHours(4)).map { it.name } shouldContainExactly listOf("B")
+	}
+
+	test("Reports coverage of loaded windows") {
+		val store = createStore()
+		store.putPrograms(listOf(channelId), guideStart, guideStart.plusHours(4), emptyList())
+		store.putPrograms(listOf(channelId), guideStart.plusHours(4), guideStart.plusHours(8), emptyList())
+
+		store.getCoverage(channelId, guideStart.plusHours(2), guideStart.plusHours(6)) shouldBe EpgCoverage.FRESH
+		store.getCoverage(channelId, guideStart.plusHours(6), guideStart.plusHours(10)) shouldBe EpgCoverage.MISSING
+		store.getCoverage(UUID.randomUUID(), guideStart, guideStart.plusHours(1)) shouldBe EpgCoverage.MISSING
+
+		store.invalidate()
+		store.getCoverage(channelId, guideStart, guideStart.plusHours(8)) shouldBe EpgCoverage.STALE
+	}
+
+	test("Keeps the part of a larger window outside of a smaller reload") {
+		val store = createStore()
+		store.putPrograms(listOf(channelId), guideStart, guideStart.plusHours(8), emptyList())
+		store.invalidate()
+		store.putPrograms(listOf(channelId), guideStart, guideStart.plusHours(4), emptyList())
+
+		store.getCoverage(channelId, guideStart, guideStart.plusHours(4)) shouldBe EpgCoverage.FRESH
+		store.getCoverage(channelId, guideStart.plusHours(4), guideStart.plusHours(8)) shouldBe EpgCoverage.STALE
+		store.getCoverage(channelId, guideStart, guideStart.plusHours(8)) shouldBe EpgCoverage.STALE
+	}
+
+	test("Evicts the least recently used channels") {
+		val store = createStore(maxPrograms = 3)
+		val otherChannelId = UUID.randomUUID()
+
+		store.putPrograms(listOf(channelId), guideStart, guideStart.plusHours(4), listOf(createProgram("A", 0, 2), createProgram("B", 2, 4)))
+		store.putPrograms(listOf(otherChannelId), guideStart, guideStart.plusHours(4), listOf(
+			createProgram("C", 0, 2).copy(channelId = otherChannelId),
+			createProgram("D", 2, 4).copy(channelId = otherChannelId),
+		))
+
+		store.getCoverage(channelId, guideStart, guideStart.plusHours(4)) shouldBe EpgCoverage.MISSING
+		store.getCoverage(otherChannelId, guideStart, guideStart.plusHours(4)) shouldBe EpgCoverage.FRESH
+	}
+})
@@ -0,0 +1,82 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import android.content.Context
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import org.jellyfin.androidtv.R
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemKind
+import java.time.LocalDateTime
+import java.util.UUID
+
+private val channelId = UUID.randomUUID()
+private val guideStart = LocalDateTime.of(2024, 1, 1, 12, 0)
+private val guideEnd = guideStart.plusHours(3)
+
+private val context = mockk<Context> {
+	every { getString(R.string.no_program_data) } returns "No program data"
+}
+
+private fun createProgram(name: String, startMinute: Long, endMinute: Long) = BaseItemDto(
+	id = UUID.randomUUID(),
+	type = BaseItemKind.LIVE_TV_PROGRAM,
+	name = name,
+	channelId = channelId,
+	startDate = guideStart.plusMinutes(startMinute),
+	endDate = guideStart.plusMinutes(endMinute),
+)
+
+private fun List<GuideSlot>.positions() = map { it.startMinute to it.endMinute }
+
+class GuideSlotsTests : FunSpec({
+	test("Fills a channel without programs with half hour slots") {
+		val slots = createGuideSlots(context, channelId, emptyList(), guideStart, guideEnd)
+
+		slots.positions() shouldContainExactly (0 until 180 step 30).map { it to it + 30 }
+		slots.first().isFirst shouldBe true
+		slots.last().isLast shouldBe true
+		slots.drop(1).dropLast(1).none { it.isFirst || it.isLast } shouldBe true
+		slots.last().program.endDate shouldBe guideEnd
+	}
+
+	test("Clips programs to the guide window") {
+		val programs = listOf(
+			createProgram("A", -30, 60),
+			createProgram("B", 60, 240),
+		)
+		val slots = createGuideSlots(context, channelId, programs, guideStart, guideEnd)
+
+		slots.map { it.program.name } shouldContainExactly listOf("A", "B")
+		slots.positions() shouldContainExactly listOf(0 to 60, 60 to 180)
+		slots.first().isFirst shouldBe true
+		slots.last().isLast shouldBe true
+	}
+
+	test("Fills gaps between and after programs") {
+		val programs = listOf(
+			createProgram("A", 30, 60),
+			createProgram("B", 90, 120),
+		)
+		val slots = createGuideSlots(context, channelId, programs, guideStart, guideEnd)
+
+		slots.map { it.program.name } shouldContainExactly listOf("No program data", "A", "No program data", "B", "No program data")
+		slots.positions() shouldContainExactly listOf(0 to 30, 30 to 60, 60 to 90, 90 to 120, 120 to 180)
+		slots.first().isFirst shouldBe true
+		slots.last().isLast shouldBe true
+	}
+
+	test("Skips overlapping programs and programs after the window") {
+		val programs = listOf(
+			createProgram("A", 0, 60),
+			createProgram("Overlap", 30, 90),
+			createProgram("B", 60, 180),
+			createProgram("Later", 180, 240),
+		)
+		val slots = createGuideSlots(context, channelId, programs, guideStart, guideEnd)
+
+		slots.map { it.program.name } shouldContainExactly listOf("A", "B")
+	}
+})
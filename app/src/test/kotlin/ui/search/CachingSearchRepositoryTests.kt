@@ -0,0 +1,161 @@
+package org.jellyfin.androidtv.ui.search
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.last
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.runTest
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemKind
+import java.io.IOException
+import java.util.UUID
+import kotlin.time.Duration.Companion.milliseconds
+
+private val networkLatency = 100.milliseconds
+private val itemTypes = setOf(BaseItemKind.MOVIE, BaseItemKind.SERIES)
+private const val LIMIT = 350
+
+private val titles = listOf("Star Wars", "Star Trek", "A Star Is Born", "Stargate", "Starship Troopers", "Wall-E")
+private val library = titles.map { BaseItemDto(id = UUID.randomUUID(), type = BaseItemKind.MOVIE, name = it) }
+
+/**
+ * Fake server that matches names containing the search term after a fixed delay. Queries in
+ * [failingQueries] fail after emitting the first result as a partial page.
+ */
+private class FakeSearchRepository : SearchRepository {
+	val queries = mutableListOf<String>()
+	val failingQueries = mutableSetOf<String>()
+
+	override fun search(
+		searchTerm: String,
+		itemTypes: Collection<BaseItemKind>,
+		limit: Int,
+	): Flow<Result<List<BaseItemDto>>> = flow {
+		queries += searchTerm
+		delay(networkLatency)
+		val items = library.filter { it.name.orEmpty().contains(searchTerm, ignoreCase = true) }
+
+		if (searchTerm in failingQueries) {
+			emit(Result.success(items.take(1)))
+			delay(networkLatency)
+			emit(Result.failure(IOException("Page failed")))
+		} else {
+			emit(Result.success(items))
+		}
+	}
+}
+
+/**
+ * Get the first result and the virtual time it took to arrive.
+ */
+private suspend fun TestScope.firstResult(repository: SearchRepository, query: String): Pair<Result<List<BaseItemDto>>, Long> {
+	val start = testScheduler.currentTime
+	val result = repository.search(query, itemTypes, LIMIT).first()
+	return result to testScheduler.currentTime - start
+}
+
+class CachingSearchRepositoryTests : FunSpec({
+	test("Refines cached results locally before the server responds") {
+		runTest {
+			val server = FakeSearchRepository()
+			val repository = CachingSearchRepository(server)
+
+			repository.search("star", itemTypes, LIMIT).last()
+			val (refined, latency) = firstResult(repository, "star w")
+
+			refined.getOrThrow().map { it.name } shouldContainExactly listOf("Star Wars")
+			latency shouldBe 0
+		}
+	}
+
+	test("Replays previous queries without a server request") {
+		runTest {
+			val server = FakeSearchRepository()
+			val repository = CachingSearchRepository(server)
+
+			repository.search("star", itemTypes, LIMIT).last()
+			repository.search("star w", itemTypes, LIMIT).last()
+			val replayed = repository.search("star", itemTypes, LIMIT).toList()
+
+			replayed.single().getOrThrow().size shouldBe 5
+			server.queries shouldContainExactly listOf("star", "star w")
+		}
+	}
+
+	test("Evicts the least recently used queries") {
+		runTest {
+			val server = FakeSearchRepository()
+			val repository = CachingSearchRepository(server, maxEntries = 2)
+
+			repository.search("star", itemTypes, LIMIT).last()
+			repository.search("wall", itemTypes, LIMIT).last()
+			repository.search("trek", itemTypes, LIMIT).last()
+			repository.search("star", itemTypes, LIMIT).last()
+
+			server.queries shouldContainExactly listOf("star", "wall", "trek", "star")
+		}
+	}
+
+	test("Does not cache results when a page failed") {
+		runTest {
+			val server = FakeSearchRepository()
+			server.failingQueries += "star"
+			val repository = CachingSearchRepository(server)
+
+			repository.search("star", itemTypes, LIMIT).last().isFailure shouldBe true
+			server.failingQueries.clear()
+			val retried = repository.search("star", itemTypes, LIMIT).last()
+
+			retried.getOrThrow().size shouldBe 5
+			server.queries shouldContainExactly listOf("star", "star")
+		}
+	}
+
+	test("Keeps refined results without caching them when a page of a refined query failed") {
+		runTest {
+			val server = FakeSearchRepository()
+			server.failingQueries += "star w"
+			val repository = CachingSearchRepository(server)
+
+			repository.search("star", itemTypes, LIMIT).last()
+			val results = repository.search("star w", itemTypes, LIMIT).toList()
+
+			// The refined results followed by the partial first page, the failure is not emitted
+			results.all { it.isSuccess } shouldBe true
+			server.failingQueries.clear()
+			repository.search("star w", itemTypes, LIMIT).last()
+
+			server.queries shouldContainExactly listOf("star", "star w", "star w")
+		}
+	}
+
+	test("Typing and deleting a query refines and replays cached results without waiting for the server") {
+		runTest {
+			val keystrokes = listOf("s", "st", "sta", "star", "star ", "star w", "star wa", "star war", "star wars")
+			val backspaces = keystrokes.reversed().drop(1)
+			val server = FakeSearchRepository()
+			val repository = CachingSearchRepository(server)
+
+			// Every keystroke after the first has a cached prefix to refine
+			val typingLatency = keystrokes.map { query ->
+				firstResult(repository, query).second.also { repository.search(query, itemTypes, LIMIT).last() }
+			}
+			typingLatency.first() shouldBe networkLatency.inWholeMilliseconds
+			typingLatency.drop(1).forEach { it shouldBe 0 }
+			// Taking the first result cancels the first keystroke before it is cached, the trailing
+			// space is normalized and replays the cached query
+			server.queries shouldContainExactly listOf("s", "s", "st", "sta", "star", "star w", "star wa", "star war", "star wars")
+
+			// Deleting characters replays the cached queries
+			val requestsWhileTyping = server.queries.size
+			backspaces.forEach { query -> firstResult(repository, query).second shouldBe 0 }
+			server.queries.size shouldBe requestsWhileTyping
+		}
+	}
+})
@@ -0,0 +1,68 @@
+package org.jellyfin.androidtv.util
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainOnly
+import io.kotest.matchers.ints.shouldBeLessThanOrEqual
+import io.kotest.matchers.shouldBe
+import kotlin.math.absoluteValue
+
+private const val BLUR_HASH = "LEHV6nWB2yk8pyo0adR*.7kCMdnj"
+private const val WIDTH = 57
+private const val HEIGHT = 32
+
+class BlurHashDecoderTests : FunSpec({
+	test("Rejects invalid blur hashes") {
+		val pixels = IntArray(WIDTH * HEIGHT)
+
+		BlurHashDecoder.decode(null, WIDTH, HEIGHT, 1f, pixels) shouldBe false
+		BlurHashDecoder.decode("LEHV6", WIDTH, HEIGHT, 1f, pixels) shouldBe false
+		BlurHashDecoder.decode(BLUR_HASH.dropLast(2), WIDTH, HEIGHT, 1f, pixels) shouldBe false
+	}
+
+	test("Decodes opaque pixels consistently") {
+		val first = IntArray(WIDTH * HEIGHT)
+		val second = IntArray(WIDTH * HEIGHT)
+
+		BlurHashDecoder.decode(BLUR_HASH, WIDTH, HEIGHT, 1f, first) shouldBe true
+		BlurHashDecoder.decode(BLUR_HASH, WIDTH, HEIGHT, 1f, second) shouldBe true
+
+		first.map { it ushr 24 }.toSet() shouldContainOnly setOf(0xFF)
+		second.toList() shouldBe first.toList()
+	}
+
+	test("Decodes the reference pixels") {
+		val pixels = IntArray(WIDTH * HEIGHT)
+		BlurHashDecoder.decode(BLUR_HASH, WIDTH, HEIGHT, 1f, pixels) shouldBe true
+
+		// Computed with the reference algorithm in double precision, allow rounding differences
+		mapOf(
+			(0 to 0) to 0x87A4B1,
+			(56 to 0) to 0x89A6B5,
+			(28 to 16) to 0x9E7D6C,
+			(0 to 31) to 0x889093,
+			(56 to 31) to 0x848E93,
+			(10 to 5) to 0x93A4AD,
+		).forEach { (position, expected) ->
+			val (x, y) = position
+			val actual = pixels[x + WIDTH * y]
+			for (shift in listOf(16, 8, 0)) {
+				val difference = ((actual shr shift) and 0xFF) - ((expected shr shift) and 0xFF)
+				difference.absoluteValue shouldBeLessThanOrEqual 1
+			}
+		}
+	}
+
+	test("Reuses cached cosines for different sizes") {
+		val small = IntArray(WIDTH * HEIGHT)
+		val large = IntArray(WIDTH * 2 * HEIGHT * 2)
+
+		BlurHashDecoder.decode(BLUR_HASH, WIDTH, HEIGHT, 1f, small) shouldBe true
+		BlurHashDecoder.decode(BLUR_HASH, WIDTH * 2, HEIGHT * 2, 1f, large) shouldBe true
+		val again = IntArray(WIDTH * HEIGHT)
+		BlurHashDecoder.decode(BLUR_HASH, WIDTH, HEIGHT, 1f, again) shouldBe true
+
+		// The top left corner has the same color at any size
+		large[0] shouldBe small[0]
+		again.toList() shouldBe small.toList()
+	}
+})
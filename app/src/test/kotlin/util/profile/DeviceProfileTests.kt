@@ -0,0 +1,59 @@
+package org.jellyfin.androidtv.util.profile
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldNotContain
+import org.jellyfin.androidtv.constant.Codec
+import org.jellyfin.sdk.model.api.DlnaProfileType
+
+class DeviceProfileTests : FunSpec({
+	val options = DeviceProfileOptions(
+		maxBitrate = 120_000_000,
+		disableDirectPlay = false,
+		isAC3Enabled = true,
+		downMixAudio = false,
+		assDirectPlay = false,
+		pgsDirectPlay = true,
+	)
+
+	val capabilities = MediaCodecCapabilities(
+		supportsHevc = false,
+		supportsHevcMain10 = false,
+		hevcMainLevel = 0,
+		hevcMain10Level = 0,
+		supportsAVC = true,
+		supportsAVCHigh10 = false,
+		avcMainLevel = 51,
+		avcHigh10Level = 0,
+		supportsAV1 = false,
+		supportsAV1Main10 = false,
+		maxResolutionAVC = MediaCodecCapabilities.Resolution(3840, 2160),
+		maxResolutionHevc = MediaCodecCapabilities.Resolution(0, 0),
+		maxResolutionAV1 = MediaCodecCapabilities.Resolution(0, 0),
+	)
+
+	test("createDeviceProfile() only transcodes to supported codecs") {
+		val profile = createDeviceProfile(options, capabilities)
+		val videoTranscoding = profile.transcodingProfiles.first { it.type == DlnaProfileType.VIDEO }
+
+		videoTranscoding.videoCodec shouldBe Codec.Video.H264
+	}
+
+	test("createDeviceProfile() respects the AC3 preference") {
+		val profile = createDeviceProfile(options.copy(isAC3Enabled = false), capabilities)
+		val videoTranscoding = profile.transcodingProfiles.first { it.type == DlnaProfileType.VIDEO }
+
+		videoTranscoding.audioCodec shouldNotContain Codec.Audio.AC3
+	}
+
+	test("createDeviceProfile() removes direct play profiles") {
+		val profile = createDeviceProfile(options.copy(disableDirectPlay = true), capabilities)
+
+		profile.directPlayProfiles.shouldBeEmpty()
+	}
+
+	test("createDeviceProfile() is stable for the same input") {
+		createDeviceProfile(options, capabilities) shouldBe createDeviceProfile(options, capabilities)
+	}
+})
@@ -1,30 +1,56 @@
 package org.jellyfin.playback.core.mediastream
 
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.plus
+import kotlinx.coroutines.withTimeoutOrNull
 import org.jellyfin.playback.core.backend.PlayerBackend
+import org.jellyfin.playback.core.backend.PlayerBackendEventListener
+import org.jellyfin.playback.core.model.PlayState
 import org.jellyfin.playback.core.plugin.PlayerService
 import org.jellyfin.playback.core.queue.QueueEntry
 import org.jellyfin.playback.core.queue.queue
 import timber.log.Timber
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.TimeMark
+import kotlin.time.TimeSource
 
 internal class MediaStreamService(
 	private val mediaStreamResolvers: Collection<MediaStreamResolver>,
 ) : PlayerService() {
+	private companion object {
+		/**
+		 * Maximum time to spend resolving the next entry ahead of time. When exceeded the entry is
+		 * resolved when it becomes the current entry instead.
+		 */
+		private val LOOKAHEAD_TIMEOUT = 15.seconds
+	}
+
+	private var lookaheadJob: Job? = null
+	private var streamEndedAt: TimeMark? = null
+
 	override suspend fun onInitialize() {
 		manager.queue.entry.onEach { entry ->
 			Timber.d("Queue entry changed to $entry")
 			val backend = requireNotNull(manager.backend)
+			lookaheadJob?.cancel()
 
 			if (entry == null) {
+				streamEndedAt = null
 				backend.setCurrent(null)
 			} else {
 				val hasMediaStream = entry.ensureMediaStream(backend)
 
 				if (hasMediaStream) {
 					backend.setCurrent(entry)
+					// Gapless transitions keep playing, there is no play state change to measure
+					if (state.playState.value == PlayState.PLAYING) logTransition()
+					lookaheadJob = coroutineScope.launch(Dispatchers.Main) { prepareNext(entry, backend) }
 				} else {
 					Timber.e("Unable to resolve stream for entry $entry")
 
@@ -37,7 +63,52 @@ internal class MediaStreamService(
 				}
 			}
 		}.launchIn(coroutineScope + Dispatchers.Main)
-		// TODO Register some kind of event when $current item is at -30 seconds to setNext()
+
+		// Measure the gap between the end of a stream and the start of the next one
+		manager.backendService.addListener(object : PlayerBackendEventListener {
+			override fun onVideoSizeChange(width: Int, height: Int) = Unit
+
+			override fun onMediaStreamEnd(mediaStream: PlayableMediaStream) {
+				streamEndedAt = TimeSource.Monotonic.markNow()
+			}
+
+			override fun onPlayStateChange(state: PlayState) {
+				when (state) {
+					PlayState.PLAYING -> logTransition()
+					// Playback ended without a next stream
+					PlayState.STOPPED, PlayState.ERROR -> streamEndedAt = null
+					PlayState.PAUSED -> Unit
+				}
+			}
+		})
+	}
+
+	private fun logTransition() {
+		val endedAt = streamEndedAt ?: return
+		streamEndedAt = null
+
+		Timber.i("Transition to the next stream took ${endedAt.elapsedNow()}")
+	}
+
+	/**
+	 * Resolve the entry that plays after [current] and let the [backend] preload it so it can start
+	 * without waiting for the server when the current entry ends.
+	 */
+	private suspend fun prepareNext(current: QueueEntry, backend: PlayerBackend) {
+		// Use the same arguments as the automatic advance in the queue service
+		val next = manager.queue.peekNext(usePlaybackOrder = true, useRepeatMode = true)
+		if (next == null || next == current) return
+
+		val hasMediaStream = withTimeoutOrNull(LOOKAHEAD_TIMEOUT) { next.ensureMediaStream(backend) }
+		if (hasMediaStream != true) {
+			Timber.w("Unable to resolve next entry $next ahead of time")
+			return
+		}
+
+		// The current entry may have changed while resolving
+		currentCoroutineContext().ensureActive()
+		Timber.d("Preparing next entry $next")
+		backend.prepareItem(next)
 	}
 
 	private suspend fun QueueEntry.ensureMediaStream(
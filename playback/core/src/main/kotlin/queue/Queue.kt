@@ -23,6 +23,12 @@ interface Queue {
 	 */
 	val entry: StateFlow<QueueEntry?>
 
+	/**
+	 * Revision of the queue entries, incremented when suppliers are added, the queue is cleared or
+	 * [notifyChanged] is called.
+	 */
+	val revision: StateFlow<Int>
+
 	/**
 	 * Add a supplier of queue items to the end of the queue. Will automatically fetch the first item if there is no current entry.
 	 */
@@ -33,6 +39,11 @@ interface Queue {
 	 */
 	fun clear()
 
+	/**
+	 * Notify the queue that the items of one of its suppliers changed.
+	 */
+	fun notifyChanged()
+
 	/**
 	 * Set the current entry to the previously played entry. Does nothing if there is no previous entry.
 	 */
@@ -5,6 +5,7 @@ import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import org.jellyfin.playback.core.PlaybackManager
 import org.jellyfin.playback.core.backend.PlayerBackendEventListener
@@ -18,19 +19,16 @@ import org.jellyfin.playback.core.queue.order.OrderIndexProvider
 import org.jellyfin.playback.core.queue.order.RandomOrderIndexProvider
 import org.jellyfin.playback.core.queue.order.ShuffleOrderIndexProvider
 import org.jellyfin.playback.core.queue.supplier.QueueSupplier
-import kotlin.math.max
 
 class QueueService internal constructor() : PlayerService(), Queue {
 	private val suppliers = mutableListOf<QueueSupplier>()
-	private var currentSupplierIndex = 0
-	private var currentSupplierItemIndex = 0
-	private val fetchedItems: MutableList<QueueEntry> = mutableListOf()
+	private val fetchedItems = mutableMapOf<Int, QueueEntry>()
 
 	private var defaultOrderIndexProvider = DefaultOrderIndexProvider()
 	private var orderIndexProvider: OrderIndexProvider = defaultOrderIndexProvider
 	private var currentQueueIndicesPlayed = mutableListOf<Int>()
 
-	override val estimatedSize get() = max(fetchedItems.size, suppliers.sumOf { it.size })
+	override val estimatedSize get() = suppliers.sumOf { it.size }
 
 	private val _entryIndex = MutableStateFlow(Queue.INDEX_NONE)
 	override val entryIndex: StateFlow<Int> get() = _entryIndex.asStateFlow()
@@ -38,6 +36,9 @@ class QueueService internal constructor() : PlayerService(), Queue {
 	private val _entry = MutableStateFlow<QueueEntry?>(null)
 	override val entry: StateFlow<QueueEntry?> get() = _entry.asStateFlow()
 
+	private val _revision = MutableStateFlow(0)
+	override val revision: StateFlow<Int> get() = _revision.asStateFlow()
+
 	override suspend fun onInitialize() {
 		// Reset calculated next-up indices when playback order changes
 		state.playbackOrder.onEach { playbackOrder ->
@@ -65,6 +66,7 @@ class QueueService internal constructor() : PlayerService(), Queue {
 
 	override fun addSupplier(supplier: QueueSupplier) {
 		suppliers.add(supplier)
+		notifyChanged()
 
 		if (_entryIndex.value == Queue.INDEX_NONE) {
 			coroutineScope.launch { setIndex(0) }
@@ -72,38 +74,41 @@ class QueueService internal constructor() : PlayerService(), Queue {
 	}
 
 	private suspend fun getOrSupplyItem(index: Int): QueueEntry? {
-		// Fetch additional items from suppliers until we reach the desired index
-		while (index >= fetchedItems.size) {
-			// No more suppliers to try
-			if (currentSupplierIndex >= suppliers.size) break
-
-			val supplier = suppliers[currentSupplierIndex]
-			val nextItem = supplier.getItem(currentSupplierItemIndex)
-
-			if (nextItem != null) {
-				// Add item to cache and icnrease item index
-				fetchedItems.add(nextItem)
-				currentSupplierItemIndex++
-			} else {
-				// Move to the next supplier if current one is exhausted
-				currentSupplierIndex++
-				currentSupplierItemIndex = 0
+		if (index < 0) return null
+		fetchedItems[index]?.let { return it }
+
+		// Find the supplier containing the index, suppliers only know their size after loading items
+		var offset = 0
+		for (supplier in suppliers.toList()) {
+			if (supplier.size == 0 || index < offset + supplier.size) {
+				val size = supplier.size
+				val item = supplier.getItem(index - offset)
+				// Paged suppliers only know their size after loading
+				if (supplier.size != size) notifyChanged()
+				if (item != null) {
+					// Keep the entry so its metadata (like the media stream) is retained
+					fetchedItems[index] = item
+					return item
+				}
 			}
+
+			offset += supplier.size
 		}
 
-		// Return item or null if not found
-		return if (index >= 0 && index < fetchedItems.size) fetchedItems[index]
-		else null
+		return null
 	}
 
 	override fun clear() {
 		suppliers.clear()
-		currentSupplierIndex = 0
-		currentSupplierItemIndex = 0
 		fetchedItems.clear()
 		_entry.value = null
 		_entryIndex.value = Queue.INDEX_NONE
 		currentQueueIndicesPlayed.clear()
+		notifyChanged()
+	}
+
+	override fun notifyChanged() {
+		_revision.update { it + 1 }
 	}
 
 	// Preloading
@@ -1,11 +1,39 @@
 package org.jellyfin.playback.core.queue.order
 
-import kotlin.math.min
+import java.util.BitSet
+import kotlin.random.Random
 
-internal class ShuffleOrderIndexProvider : OrderIndexProvider {
-	private val nextIndices = mutableListOf<Int>()
+/**
+ * Provides indices in a random order without repeating them. The order is created with an
+ * incremental Fisher–Yates shuffle, indices are only drawn when needed so each index costs O(1)
+ * amortized regardless of the queue size. Drawn indices that are no longer played, current or
+ * upcoming (e.g. after going back in the history) are returned to the part that is not shuffled yet.
+ */
+internal class ShuffleOrderIndexProvider(
+	private val random: Random = Random,
+) : OrderIndexProvider {
+	// Indices [0, drawn) of the pool are drawn, the remaining part is not shuffled yet
+	private var pool = IntArray(0)
+	private var drawn = 0
 
-	override fun reset() = nextIndices.clear()
+	// Drawn indices that were not played yet
+	private val nextIndices = ArrayDeque<Int>()
+
+	// Mirror of the played indices, the first syncedPlayedCount items of the played collection are included
+	private val played = BitSet()
+	private var syncedPlayedCount = 0
+	private var lastSyncedPlayedIndex = -1
+	private var lastCurrentIndex = -1
+
+	override fun reset() {
+		pool = IntArray(0)
+		drawn = 0
+		nextIndices.clear()
+		played.clear()
+		syncedPlayedCount = 0
+		lastSyncedPlayedIndex = -1
+		lastCurrentIndex = -1
+	}
 
 	override fun provideIndices(
 		amount: Int,
@@ -13,27 +41,99 @@ internal class ShuffleOrderIndexProvider : OrderIndexProvider {
 		playedIndices: Collection<Int>,
 		currentIndex: Int,
 	): Collection<Int> {
-		val remainingItemsSize = size - playedIndices.size
-		return if (remainingItemsSize <= 0) {
-			emptyList()
-		} else {
-			val remainingIndices = (0..size).filterNot {
-				it in playedIndices || it in nextIndices
-			}
-
-			List(min(amount, remainingItemsSize)) { i ->
-				if (i < nextIndices.lastIndex) {
-					nextIndices[i]
-				} else {
-					val index = remainingIndices.random()
-					nextIndices.add(index)
-					index
-				}
-			}
+		resize(size)
+		val historyShrunk = syncPlayed(playedIndices)
+
+		// Indices may be played in the meantime by jumping to them
+		nextIndices.removeAll { index -> index >= size || index == currentIndex || played[index] }
+
+		// The previous index was left without adding it to the history
+		val currentLeft = lastCurrentIndex in 0 until size && lastCurrentIndex != currentIndex && !played[lastCurrentIndex]
+		if (historyShrunk || currentLeft) returnUnplayed(currentIndex)
+		lastCurrentIndex = currentIndex
+
+		while (nextIndices.size < amount) {
+			val index = draw() ?: break
+			if (index != currentIndex && !played[index]) nextIndices.add(index)
 		}
+
+		return nextIndices.take(amount)
 	}
 
 	override fun useNextIndex() {
-		nextIndices.removeAt(0)
+		nextIndices.removeFirstOrNull()
+	}
+
+	private fun draw(): Int? {
+		if (drawn >= pool.size) return null
+
+		val swapIndex = random.nextInt(drawn, pool.size)
+		val index = pool[swapIndex]
+		pool[swapIndex] = pool[drawn]
+		pool[drawn] = index
+		drawn++
+
+		return index
+	}
+
+	/**
+	 * Move the drawn indices that are not played, current or upcoming back to the part of the pool
+	 * that is not shuffled yet so they are drawn again.
+	 */
+	private fun returnUnplayed(currentIndex: Int) {
+		val upcoming = nextIndices.toHashSet()
+
+		// Iterate backwards so the index swapped in from the end of the drawn part is already checked
+		for (i in drawn - 1 downTo 0) {
+			val index = pool[i]
+			if (index == currentIndex || played[index] || index in upcoming) continue
+
+			drawn--
+			pool[i] = pool[drawn]
+			pool[drawn] = index
+		}
+	}
+
+	private fun resize(size: Int) {
+		if (size == pool.size) return
+
+		if (size < pool.size) {
+			// Queue shrunk, start a new order
+			pool = IntArray(0)
+			drawn = 0
+		}
+
+		// New indices are added to the part that is not shuffled yet which keeps the order uniform
+		val previousSize = pool.size
+		pool = pool.copyOf(size)
+		for (i in previousSize until size) pool[i] = i
+	}
+
+	/**
+	 * Update the played indices, returns true when indices were removed from the history.
+	 */
+	private fun syncPlayed(playedIndices: Collection<Int>): Boolean {
+		val historyChanged = playedIndices is List<Int> &&
+			syncedPlayedCount in 1..playedIndices.size &&
+			playedIndices[syncedPlayedCount - 1] != lastSyncedPlayedIndex
+
+		val historyShrunk = playedIndices.size < syncedPlayedCount || historyChanged
+		if (historyShrunk) {
+			// Indices were removed from the history, rebuild
+			played.clear()
+			syncedPlayedCount = 0
+		}
+
+		if (playedIndices.size == syncedPlayedCount) return historyShrunk
+
+		// The history is only appended to, so only the new items need to be added
+		if (playedIndices is List<Int>) {
+			for (i in syncedPlayedCount until playedIndices.size) played.set(playedIndices[i])
+		} else {
+			for (index in playedIndices.drop(syncedPlayedCount)) played.set(index)
+		}
+		syncedPlayedCount = playedIndices.size
+		lastSyncedPlayedIndex = playedIndices.last()
+		return historyShrunk
 	}
 }
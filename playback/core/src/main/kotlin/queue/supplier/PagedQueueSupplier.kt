@@ -1,30 +1,70 @@
 package org.jellyfin.playback.core.queue.supplier
 
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import org.jellyfin.playback.core.queue.QueueEntry
 
+/**
+ * [QueueSupplier] that loads its items in pages. Only the page containing a requested item is
+ * awaited so any index is available with a single page request. The pages after it are prefetched
+ * in the background and concurrent requests for the same page share a single request.
+ *
+ * @param pageSize The amount of items requested per page.
+ * @param prefetchPages The amount of pages to load ahead of the last requested page.
+ * @param maxConcurrentPages The maximum amount of page requests running at the same time.
+ */
 abstract class PagedQueueSupplier(
-	private val pageSize: Int = 10,
+	private val pageSize: Int = 100,
+	private val prefetchPages: Int = 1,
+	maxConcurrentPages: Int = 2,
 ) : QueueSupplier {
-	companion object {
-		const val MAX_SIZE = 100
-	}
+	// Page requests are not bound to the caller, a cancelled caller must not fail other callers
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val pageLimiter = Semaphore(maxConcurrentPages)
+	private val pages = mutableMapOf<Int, Deferred<List<QueueEntry>>>()
 
-	private val buffer: MutableList<QueueEntry> = mutableListOf()
+	// Index of the first page that is not full, there are no items after it
+	@Volatile
+	private var lastPageIndex: Int? = null
 
 	override suspend fun getItem(index: Int): QueueEntry? {
-		require(index in 0 until MAX_SIZE)
+		require(index >= 0)
+
+		val pageIndex = index / pageSize
+		if (isAfterEnd(pageIndex)) return null
+
+		val items = getPage(pageIndex).await()
+
+		for (prefetchIndex in pageIndex + 1..pageIndex + prefetchPages) {
+			if (!isAfterEnd(prefetchIndex)) getPage(prefetchIndex)
+		}
 
-		var page: Collection<QueueEntry>
-		var pageOffset = buffer.size
-		do {
-			if (buffer.size > index) return buffer[index]
-			page = loadPage(pageOffset, pageSize)
-			pageOffset += page.size
+		return items.getOrNull(index % pageSize)
+	}
+
+	private fun isAfterEnd(pageIndex: Int): Boolean {
+		val lastPageIndex = lastPageIndex
+		if (lastPageIndex != null && pageIndex > lastPageIndex) return true
+
+		// The size is only known after the first page is loaded
+		return size > 0 && pageIndex * pageSize >= size
+	}
 
-			for (item in page) buffer.add(item)
-		} while (page.isNotEmpty())
+	private fun getPage(pageIndex: Int): Deferred<List<QueueEntry>> = synchronized(pages) {
+		// Failed requests (including failed prefetches) are cancelled and requested again
+		val existing = pages[pageIndex]
+		if (existing != null && !existing.isCancelled) return@synchronized existing
 
-		return null
+		scope.async {
+			val items = pageLimiter.withPermit { loadPage(pageIndex * pageSize, pageSize).toList() }
+			if (items.size < pageSize) lastPageIndex = minOf(lastPageIndex ?: pageIndex, pageIndex)
+			items
+		}.also { page -> pages[pageIndex] = page }
 	}
 
 	abstract suspend fun loadPage(offset: Int, size: Int): Collection<QueueEntry>
@@ -0,0 +1,82 @@
+package org.jellyfin.playback.core.queue.order
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.comparables.shouldBeLessThan
+import java.lang.management.ManagementFactory
+import kotlin.random.Random
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.measureTime
+
+private val benchmarksEnabled = System.getenv("QUEUE_ORDER_BENCHMARKS") != null
+
+private val threadMXBean by lazy { ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean }
+
+private data class BenchmarkResult(
+	val entries: Int,
+	val duration: Duration,
+	val allocatedBytes: Long,
+)
+
+/**
+ * Benchmarks for the order index providers with large queues, only run when the
+ * QUEUE_ORDER_BENCHMARKS environment variable is set as the timings depend on the machine. Each run
+ * plays through the complete queue the same way QueueService does: peek the upcoming indices, use
+ * the next index and add the previous index to the history. The limits are generous, they only
+ * catch quadratic behavior.
+ */
+class QueueOrderBenchmarks : FunSpec({
+	val size = 50_000
+	val peekAmount = 15
+
+	fun benchmark(name: String, provider: OrderIndexProvider, peek: Boolean): BenchmarkResult {
+		val played = mutableListOf<Int>()
+		var current = 0
+
+		// Warm up the JIT before measuring
+		repeat(1_000) { provider.provideIndices(peekAmount, size, played, current) }
+		provider.reset()
+
+		val allocatedBefore = threadMXBean.currentThreadAllocatedBytes
+		val duration = measureTime {
+			while (true) {
+				if (peek) provider.provideIndices(peekAmount, size, played, current)
+				val next = provider.provideIndices(1, size, played, current).firstOrNull() ?: break
+				provider.useNextIndex()
+				played.add(current)
+				current = next
+			}
+		}
+		val allocatedBytes = threadMXBean.currentThreadAllocatedBytes - allocatedBefore
+
+		val entries = played.size.coerceAtLeast(1)
+		println("$name: $entries entries in $duration (${duration / entries} and ${allocatedBytes / entries} bytes per entry)")
+		return BenchmarkResult(entries, duration, allocatedBytes)
+	}
+
+	test("shuffle next at 50k entries").config(enabledIf = { benchmarksEnabled }) {
+		val result = benchmark("shuffle next", ShuffleOrderIndexProvider(Random(0)), peek = false)
+		result.duration shouldBeLessThan 5.seconds
+		(result.allocatedBytes / result.entries) shouldBeLessThan 1_024L
+	}
+
+	test("shuffle peek and next at 50k entries").config(enabledIf = { benchmarksEnabled }) {
+		val result = benchmark("shuffle peek+next", ShuffleOrderIndexProvider(Random(0)), peek = true)
+		result.duration shouldBeLessThan 5.seconds
+		(result.allocatedBytes / result.entries) shouldBeLessThan 4_096L
+	}
+
+	test("default peek and next at 50k entries").config(enabledIf = { benchmarksEnabled }) {
+		val result = benchmark("default peek+next", DefaultOrderIndexProvider(), peek = true)
+		result.duration shouldBeLessThan 5.seconds
+	}
+
+	test("shuffle order creation at 50k entries").config(enabledIf = { benchmarksEnabled }) {
+		val duration = measureTime {
+			ShuffleOrderIndexProvider(Random(0)).provideIndices(size, size, emptyList(), 0)
+		}
+
+		println("shuffle order creation: $size entries in $duration")
+		duration shouldBeLessThan 5.seconds
+	}
+})
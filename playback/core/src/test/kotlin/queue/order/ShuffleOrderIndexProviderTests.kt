@@ -0,0 +1,174 @@
+package org.jellyfin.playback.core.queue.order
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.collections.shouldNotContain
+import io.kotest.matchers.ints.shouldBeInRange
+import io.kotest.matchers.ints.shouldBeLessThanOrEqual
+import io.kotest.matchers.shouldBe
+import kotlin.random.Random
+
+/**
+ * Random that counts the numbers drawn for the shuffle.
+ */
+private class CountingRandom(seed: Int) : Random() {
+	private val random = Random(seed)
+	var draws = 0
+		private set
+
+	override fun nextBits(bitCount: Int) = random.nextBits(bitCount)
+
+	override fun nextInt(from: Int, until: Int): Int {
+		draws++
+		return random.nextInt(from, until)
+	}
+}
+
+class ShuffleOrderIndexProviderTests : FunSpec({
+	fun ShuffleOrderIndexProvider.playAll(
+		size: Int,
+		played: MutableList<Int>,
+		startIndex: Int = 0,
+		peekAmount: Int = 0,
+	): Int {
+		var current = startIndex
+		while (true) {
+			if (peekAmount > 0) provideIndices(peekAmount, size, played, current)
+			val next = provideIndices(1, size, played, current).firstOrNull() ?: break
+			useNextIndex()
+			played.add(current)
+			current = next
+		}
+		return current
+	}
+
+	test("provideIndices() returns each index exactly once") {
+		val provider = ShuffleOrderIndexProvider(Random(0))
+		val played = mutableListOf<Int>()
+		val last = provider.playAll(100, played)
+
+		(played + last) shouldContainExactlyInAnyOrder (0 until 100).toList()
+	}
+
+	test("provideIndices() does not return the current or played indices") {
+		val provider = ShuffleOrderIndexProvider(Random(0))
+		val indices = provider.provideIndices(10, 10, listOf(1, 2, 3), 4)
+
+		indices shouldContainExactlyInAnyOrder listOf(0, 5, 6, 7, 8, 9)
+	}
+
+	test("provideIndices() returns the same indices until used") {
+		val provider = ShuffleOrderIndexProvider(Random(0))
+		val first = provider.provideIndices(5, 50, emptyList(), 0).toList()
+
+		provider.provideIndices(5, 50, emptyList(), 0) shouldBe first
+		provider.useNextIndex()
+		provider.provideIndices(4, 50, emptyList(), 0) shouldBe first.drop(1)
+	}
+
+	test("provideIndices() skips indices that were jumped to") {
+		val provider = ShuffleOrderIndexProvider(Random(0))
+		val first = provider.provideIndices(5, 50, emptyList(), 0).toList()
+
+		provider.provideIndices(5, 50, listOf(0), first[2]) shouldNotContain first[2]
+	}
+
+	test("provideIndices() includes indices added to the queue") {
+		val provider = ShuffleOrderIndexProvider(Random(0))
+		val played = mutableListOf<Int>()
+		provider.provideIndices(5, 10, played, 0)
+		val last = provider.playAll(20, played)
+
+		(played + last) shouldContainExactlyInAnyOrder (0 until 20).toList()
+	}
+
+	test("provideIndices() returns nothing when all indices are played") {
+		val provider = ShuffleOrderIndexProvider(Random(0))
+
+		provider.provideIndices(5, 3, listOf(0, 1), 2).shouldBeEmpty()
+	}
+
+	test("provideIndices() plays every index once after going back in the history") {
+		val size = 100
+		val provider = ShuffleOrderIndexProvider(Random(0))
+		val played = mutableListOf<Int>()
+		var current = 0
+
+		repeat(10) {
+			provider.provideIndices(5, size, played, current)
+			val next = provider.provideIndices(1, size, played, current).first()
+			provider.useNextIndex()
+			played.add(current)
+			current = next
+		}
+
+		// Go back twice the same way QueueService.previous() does
+		repeat(2) { current = played.removeAt(played.lastIndex) }
+		val last = provider.playAll(size, played, current, peekAmount = 5)
+
+		(played + last).sorted() shouldBe (0 until size).toList()
+	}
+
+	test("provideIndices() plays the previous index when it was left without history") {
+		val provider = ShuffleOrderIndexProvider(Random(0))
+		val jumpIndex = provider.provideIndices(5, 20, emptyList(), 0).last()
+
+		// Jump without adding the current index to the history
+		val played = mutableListOf<Int>()
+		val last = provider.playAll(20, played, jumpIndex)
+
+		(played + last).sorted() shouldBe (0 until 20).toList()
+	}
+
+	test("provideIndices() returns the same order for the same seed") {
+		val first = ShuffleOrderIndexProvider(Random(42)).provideIndices(20, 1_000, emptyList(), 0).toList()
+		val second = ShuffleOrderIndexProvider(Random(42)).provideIndices(20, 1_000, emptyList(), 0).toList()
+
+		second shouldBe first
+	}
+
+	test("provideIndices() returns each index exactly once in a large queue while peeking") {
+		val size = 50_000
+		val provider = ShuffleOrderIndexProvider(Random(0))
+		val played = mutableListOf<Int>()
+		val last = provider.playAll(size, played, peekAmount = 15)
+
+		(played + last).sorted() shouldBe (0 until size).toList()
+	}
+
+	test("provideIndices() only draws the indices that are needed") {
+		val random = CountingRandom(0)
+		val provider = ShuffleOrderIndexProvider(random)
+		val played = mutableListOf<Int>()
+		var current = 0
+
+		// Peeking does not shuffle the rest of the queue, the current index may be drawn once
+		provider.provideIndices(15, 50_000, played, current)
+		random.draws shouldBeInRange 15..16
+
+		// Playing through part of the queue draws one index per entry, plus the current index
+		repeat(100) {
+			provider.provideIndices(15, 50_000, played, current)
+			val next = provider.provideIndices(1, 50_000, played, current).first()
+			provider.useNextIndex()
+			played.add(current)
+			current = next
+		}
+		random.draws shouldBeLessThanOrEqual 15 + 100 + 1
+	}
+
+	test("provideIndices() creates every order equally often") {
+		val runs = 24_000
+		val counts = mutableMapOf<List<Int>, Int>()
+
+		repeat(runs) { seed ->
+			val order = ShuffleOrderIndexProvider(Random(seed)).provideIndices(4, 4, emptyList(), -1).toList()
+			counts[order] = counts.getOrDefault(order, 0) + 1
+		}
+
+		// All 24 permutations of 4 items appear close to 1000 times
+		counts.size shouldBe 24
+		counts.values.forEach { it shouldBeInRange 850..1150 }
+	}
+})
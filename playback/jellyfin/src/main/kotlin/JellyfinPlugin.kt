@@ -2,7 +2,9 @@ package org.jellyfin.playback.jellyfin
 
 import org.jellyfin.playback.core.plugin.playbackPlugin
 import org.jellyfin.playback.jellyfin.mediastream.JellyfinMediaStreamResolver
+import org.jellyfin.playback.jellyfin.mediastream.PlaybackInfoCache
 import org.jellyfin.playback.jellyfin.playsession.PlaySessionService
+import org.jellyfin.playback.jellyfin.playsession.PlayStateReportQueue
 import org.jellyfin.playback.jellyfin.playsession.PlaySessionSocketService
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.model.api.DeviceProfile
@@ -10,10 +12,12 @@ import org.jellyfin.sdk.model.api.DeviceProfile
 fun jellyfinPlugin(
 	api: ApiClient,
 	deviceProfileBuilder: () -> DeviceProfile,
+	playbackInfoCache: PlaybackInfoCache = PlaybackInfoCache(api),
+	reportQueue: PlayStateReportQueue? = null,
 ) = playbackPlugin {
-	provide(JellyfinMediaStreamResolver(api, deviceProfileBuilder))
+	provide(JellyfinMediaStreamResolver(api, deviceProfileBuilder, playbackInfoCache))
 
-	val playSessionService = PlaySessionService(api)
+	val playSessionService = PlaySessionService(api, reportQueue)
 	provide(playSessionService)
 	provide(PlaySessionSocketService(api, playSessionService))
 
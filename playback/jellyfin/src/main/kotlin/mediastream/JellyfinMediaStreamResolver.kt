@@ -20,6 +20,7 @@ import org.jellyfin.sdk.model.api.PlaybackInfoDto
 class JellyfinMediaStreamResolver(
 	private val api: ApiClient,
 	private val deviceProfileBuilder: () -> DeviceProfile,
+	private val playbackInfoCache: PlaybackInfoCache,
 ) : MediaStreamResolver {
 	companion object {
 		private val supportedMediaTypes = arrayOf(MediaType.VIDEO, MediaType.AUDIO)
@@ -68,19 +69,21 @@ class JellyfinMediaStreamResolver(
 		mediaSourceId: String? = null,
 	): MediaInfo {
 		val profile = deviceProfileBuilder()
-		val response by api.mediaInfoApi.getPostedPlaybackInfo(
-			itemId = item.id,
-			data = PlaybackInfoDto(
-				mediaSourceId = mediaSourceId,
-				deviceProfile = profile,
-				enableDirectPlay = true,
-				enableDirectStream = true,
-				enableTranscoding = true,
-				allowVideoStreamCopy = true,
-				allowAudioStreamCopy = true,
-				autoOpenLiveStream = false,
-			)
-		)
+		// Use the response of a probe (e.g. from the details screen) to skip the request
+		val response = playbackInfoCache.takePlaybackInfo(item.id, mediaSourceId, profile)
+			?: api.mediaInfoApi.getPostedPlaybackInfo(
+				itemId = item.id,
+				data = PlaybackInfoDto(
+					mediaSourceId = mediaSourceId,
+					deviceProfile = profile,
+					enableDirectPlay = true,
+					enableDirectStream = true,
+					enableTranscoding = true,
+					allowVideoStreamCopy = true,
+					allowAudioStreamCopy = true,
+					autoOpenLiveStream = false,
+				)
+			).content
 
 		if (response.errorCode != null) {
 			error("Failed to get media info for item ${item.id} source ${mediaSourceId}: ${response.errorCode}")
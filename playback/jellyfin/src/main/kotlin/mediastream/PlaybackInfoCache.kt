@@ -0,0 +1,144 @@
+package org.jellyfin.playback.jellyfin.mediastream
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.extensions.mediaInfoApi
+import org.jellyfin.sdk.model.api.DeviceProfile
+import org.jellyfin.sdk.model.api.PlaybackInfoDto
+import org.jellyfin.sdk.model.api.PlaybackInfoResponse
+import timber.log.Timber
+import java.util.UUID
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.TimeMark
+import kotlin.time.TimeSource
+
+/**
+ * Short lived cache for playback info responses. Concurrent requests for the same item, media
+ * source and device profile share a single request. A response requested without media source
+ * contains all media sources of the item and is used for requests of each of them.
+ *
+ * Each response contains a play session id, responses used to start playback are removed with
+ * [takePlaybackInfo] so a play session is never used twice.
+ */
+class PlaybackInfoCache(
+	private val api: ApiClient,
+	private val ttl: Duration = 60.seconds,
+) {
+	private data class Key(
+		val accessToken: String?,
+		val itemId: UUID,
+		val mediaSourceId: String?,
+		val deviceProfileHash: Int,
+	)
+
+	private class Entry(
+		val response: Deferred<PlaybackInfoResponse>,
+		val createdAt: TimeMark = TimeSource.Monotonic.markNow(),
+	)
+
+	// Requests are not bound to the caller, a cancelled caller must not fail other callers
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val entries = mutableMapOf<Key, Entry>()
+
+	/**
+	 * Get the playback info of an item, using a cached or in-flight response when available.
+	 * Pass a null [mediaSourceId] to get all media sources of the item in one request.
+	 */
+	suspend fun getPlaybackInfo(
+		itemId: UUID,
+		mediaSourceId: String?,
+		deviceProfile: DeviceProfile,
+	): PlaybackInfoResponse {
+		val key = createKey(itemId, mediaSourceId, deviceProfile)
+		findEntry(key)?.let { (_, entry) ->
+			val response = runCatching { entry.response.await() }.getOrNull()
+			if (response != null && response.containsMediaSource(mediaSourceId)) return response
+		}
+
+		val entry = synchronized(entries) {
+			entries.getOrPut(key) { Entry(scope.async { requestPlaybackInfo(itemId, mediaSourceId, deviceProfile) }) }
+		}
+
+		return try {
+			entry.response.await()
+		} catch (err: Exception) {
+			// Don't cache failures
+			synchronized(entries) { entries.remove(key, entry) }
+			throw err
+		}
+	}
+
+	/**
+	 * Take the cached playback info of an item to start playback. The response is removed from the
+	 * cache. Returns null when no usable response is cached.
+	 */
+	suspend fun takePlaybackInfo(
+		itemId: UUID,
+		mediaSourceId: String?,
+		deviceProfile: DeviceProfile,
+	): PlaybackInfoResponse? {
+		val key = createKey(itemId, mediaSourceId, deviceProfile)
+		val (entryKey, entry) = findEntry(key) ?: return null
+		synchronized(entries) { entries.remove(entryKey, entry) }
+
+		val response = runCatching { entry.response.await() }.getOrNull() ?: return null
+		if (response.errorCode != null || !response.containsMediaSource(mediaSourceId)) return null
+
+		Timber.d("Using cached playback info for item $itemId source $mediaSourceId")
+		return response
+	}
+
+	/**
+	 * Remove all cached responses of an item.
+	 */
+	fun invalidate(itemId: UUID) {
+		synchronized(entries) { entries.keys.removeAll { it.itemId == itemId } }
+	}
+
+	private fun createKey(
+		itemId: UUID,
+		mediaSourceId: String?,
+		deviceProfile: DeviceProfile,
+	) = Key(api.accessToken, itemId, mediaSourceId, deviceProfile.hashCode())
+
+	private fun findEntry(key: Key): Pair<Key, Entry>? = synchronized(entries) {
+		entries.values.removeAll { it.createdAt.elapsedNow() > ttl }
+
+		val allSourcesKey = key.copy(mediaSourceId = null)
+		when {
+			key in entries -> key to entries.getValue(key)
+			allSourcesKey in entries -> allSourcesKey to entries.getValue(allSourcesKey)
+			else -> null
+		}
+	}
+
+	private fun PlaybackInfoResponse.containsMediaSource(mediaSourceId: String?) =
+		mediaSourceId == null || mediaSources.any { it.id == mediaSourceId }
+
+	private suspend fun requestPlaybackInfo(
+		itemId: UUID,
+		mediaSourceId: String?,
+		deviceProfile: DeviceProfile,
+	): PlaybackInfoResponse {
+		Timber.d("Requesting playback info for item $itemId source $mediaSourceId")
+
+		return api.mediaInfoApi.getPostedPlaybackInfo(
+			itemId = itemId,
+			data = PlaybackInfoDto(
+				mediaSourceId = mediaSourceId,
+				deviceProfile = deviceProfile,
+				enableDirectPlay = true,
+				enableDirectStream = true,
+				enableTranscoding = true,
+				allowVideoStreamCopy = true,
+				allowAudioStreamCopy = true,
+				autoOpenLiveStream = false,
+			)
+		).content
+	}
+}
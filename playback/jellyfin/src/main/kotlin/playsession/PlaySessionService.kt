@@ -1,6 +1,9 @@
 package org.jellyfin.playback.jellyfin.playsession
 
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.collectLatest
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.launch
@@ -23,11 +26,27 @@ import org.jellyfin.sdk.model.api.QueueItem
 import org.jellyfin.sdk.model.extensions.inWholeTicks
 import timber.log.Timber
 import kotlin.math.roundToInt
+import kotlin.time.Duration.Companion.seconds
 import org.jellyfin.sdk.model.api.RepeatMode as SdkRepeatMode
 
 class PlaySessionService(
 	private val api: ApiClient,
+	private val reportQueue: PlayStateReportQueue? = null,
 ) : PlayerService() {
+	private companion object {
+		/**
+		 * Interval used to sample the playback position, the coalescer decides when it is sent.
+		 */
+		private val PROGRESS_SAMPLE_INTERVAL = 5.seconds
+	}
+
+	private val progressCoalescer by lazy {
+		PlaybackProgressCoalescer(coroutineScope) { info -> sendProgress(info) }
+	}
+
+	// The queue sent with the last report, it is only sent again when changed
+	private var lastQueue: List<QueueItem>? = null
+
 	override suspend fun onInitialize() {
 		state.playState.onEach { playState ->
 			when (playState) {
@@ -37,6 +56,18 @@ class PlaySessionService(
 				PlayState.ERROR -> sendStreamStop()
 			}
 		}.launchIn(coroutineScope)
+
+		// Sample progress while playing or paused, stopped states have nothing to report
+		coroutineScope.launch {
+			state.playState.collectLatest { playState ->
+				if (playState != PlayState.PLAYING && playState != PlayState.PAUSED) return@collectLatest
+
+				while (true) {
+					delay(PROGRESS_SAMPLE_INTERVAL)
+					sendStreamUpdate()
+				}
+			}
+		}
 	}
 
 	private val MediaConversionMethod.playMethod
@@ -66,11 +97,45 @@ class PlaySessionService(
 			.map { QueueItem(id = it.id, playlistItemId = it.playlistItemId) }
 	}
 
+	/**
+	 * Get the queue when it changed since the last report or null when unchanged. The server keeps
+	 * the previous queue for reports without queue.
+	 */
+	private suspend fun getChangedQueue(): List<QueueItem>? {
+		val queue = getQueue()
+		if (queue == lastQueue) return null
+		lastQueue = queue
+		return queue
+	}
+
+	private suspend fun sendProgress(info: PlaybackProgressInfo) {
+		// Add the queue when sending, coalesced reports would otherwise lose a queue change
+		val report = info.copy(nowPlayingQueue = getChangedQueue())
+
+		try {
+			api.playStateApi.reportPlaybackProgress(report)
+		} catch (err: CancellationException) {
+			throw err
+		} catch (err: Exception) {
+			Timber.w("Failed to send playback update event", err)
+			lastQueue = null
+			reportQueue?.add(report)
+			return
+		}
+
+		// Queued progress of this session is older than the report that was just sent
+		reportQueue?.removeProgress(report)
+		reportQueue?.flush()
+	}
+
 	private suspend fun sendStreamStart() {
 		val entry = manager.queue.entry.value ?: return
 		val stream = entry.mediaStream ?: return
 		val item = entry.baseItem ?: return
 
+		val queue = getQueue()
+		lastQueue = queue
+
 		runCatching {
 			api.playStateApi.reportPlaybackStart(
 				PlaybackStartInfo(
@@ -85,7 +150,7 @@ class PlaySessionService(
 					positionTicks = withContext(Dispatchers.Main) { state.positionInfo.active.inWholeTicks },
 					playMethod = stream.conversionMethod.playMethod,
 					repeatMode = state.repeatMode.value.remoteRepeatMode,
-					nowPlayingQueue = getQueue(),
+					nowPlayingQueue = queue,
 					playbackOrder = when (state.playbackOrder.value) {
 						org.jellyfin.playback.core.model.PlaybackOrder.DEFAULT -> PlaybackOrder.DEFAULT
 						org.jellyfin.playback.core.model.PlaybackOrder.RANDOM -> PlaybackOrder.SHUFFLE
@@ -93,6 +158,8 @@ class PlaySessionService(
 					}
 				)
 			)
+		}.onSuccess {
+			reportQueue?.flush()
 		}.onFailure { error -> Timber.w("Failed to send playback start event", error) }
 	}
 
@@ -101,29 +168,26 @@ class PlaySessionService(
 		val stream = entry.mediaStream ?: return
 		val item = entry.baseItem ?: return
 
-		runCatching {
-			api.playStateApi.reportPlaybackProgress(
-				PlaybackProgressInfo(
-					itemId = item.id,
-					playSessionId = stream.identifier,
-					playlistItemId = item.playlistItemId,
-					canSeek = true,
-					isMuted = state.volume.muted,
-					volumeLevel = (state.volume.volume * 100).roundToInt(),
-					isPaused = state.playState.value != PlayState.PLAYING,
-					aspectRatio = state.videoSize.value.aspectRatio.toString(),
-					positionTicks = withContext(Dispatchers.Main) { state.positionInfo.active.inWholeTicks },
-					playMethod = stream.conversionMethod.playMethod,
-					repeatMode = state.repeatMode.value.remoteRepeatMode,
-					nowPlayingQueue = getQueue(),
-					playbackOrder = when (state.playbackOrder.value) {
-						org.jellyfin.playback.core.model.PlaybackOrder.DEFAULT -> PlaybackOrder.DEFAULT
-						org.jellyfin.playback.core.model.PlaybackOrder.RANDOM -> PlaybackOrder.SHUFFLE
-						org.jellyfin.playback.core.model.PlaybackOrder.SHUFFLE -> PlaybackOrder.SHUFFLE
-					}
-				)
+		progressCoalescer.submit(
+			PlaybackProgressInfo(
+				itemId = item.id,
+				playSessionId = stream.identifier,
+				playlistItemId = item.playlistItemId,
+				canSeek = true,
+				isMuted = state.volume.muted,
+				volumeLevel = (state.volume.volume * 100).roundToInt(),
+				isPaused = state.playState.value != PlayState.PLAYING,
+				aspectRatio = state.videoSize.value.aspectRatio.toString(),
+				positionTicks = withContext(Dispatchers.Main) { state.positionInfo.active.inWholeTicks },
+				playMethod = stream.conversionMethod.playMethod,
+				repeatMode = state.repeatMode.value.remoteRepeatMode,
+				playbackOrder = when (state.playbackOrder.value) {
+					org.jellyfin.playback.core.model.PlaybackOrder.DEFAULT -> PlaybackOrder.DEFAULT
+					org.jellyfin.playback.core.model.PlaybackOrder.RANDOM -> PlaybackOrder.SHUFFLE
+					org.jellyfin.playback.core.model.PlaybackOrder.SHUFFLE -> PlaybackOrder.SHUFFLE
+				}
 			)
-		}.onFailure { error -> Timber.w("Failed to send playback update event", error) }
+		)
 	}
 
 	private suspend fun sendStreamStop() {
@@ -131,17 +195,27 @@ class PlaySessionService(
 		val stream = entry.mediaStream ?: return
 		val item = entry.baseItem ?: return
 
+		// The stop report contains the final position, pending progress is not needed anymore
+		progressCoalescer.reset()
+		lastQueue = null
+
+		val info = PlaybackStopInfo(
+			itemId = item.id,
+			playSessionId = stream.identifier,
+			playlistItemId = item.playlistItemId,
+			positionTicks = withContext(Dispatchers.Main) { state.positionInfo.active.inWholeTicks },
+			failed = false,
+			nowPlayingQueue = getQueue(),
+		)
+
+		// Send reports queued during network drops first so the stop report is the last one
+		reportQueue?.flush()
+
 		runCatching {
-			api.playStateApi.reportPlaybackStopped(
-				PlaybackStopInfo(
-					itemId = item.id,
-					playSessionId = stream.identifier,
-					playlistItemId = item.playlistItemId,
-					positionTicks = withContext(Dispatchers.Main) { state.positionInfo.active.inWholeTicks },
-					failed = false,
-					nowPlayingQueue = getQueue(),
-				)
-			)
-		}.onFailure { error -> Timber.w("Failed to send playback stop event", error) }
+			api.playStateApi.reportPlaybackStopped(info)
+		}.onFailure { error ->
+			Timber.w("Failed to send playback stop event", error)
+			reportQueue?.add(info)
+		}
 	}
 }
@@ -0,0 +1,31 @@
+package org.jellyfin.playback.jellyfin.playsession
+
+import org.jellyfin.sdk.model.api.PlaybackProgressInfo
+import org.jellyfin.sdk.model.api.PlaybackStopInfo
+
+/**
+ * Storage for play state reports that could not be sent to the server. The reports are sent again
+ * with [flush] once the server is reachable so resume positions are not lost on network drops.
+ */
+interface PlayStateReportQueue {
+	/**
+	 * Add a progress report. Replaces earlier queued reports of the same play session.
+	 */
+	fun add(info: PlaybackProgressInfo)
+
+	/**
+	 * Add a stop report. Replaces earlier queued reports of the same play session.
+	 */
+	fun add(info: PlaybackStopInfo)
+
+	/**
+	 * Remove queued progress reports of the same play session, used when a newer progress report
+	 * was sent so [flush] does not send an older position again.
+	 */
+	fun removeProgress(info: PlaybackProgressInfo)
+
+	/**
+	 * Send all queued reports in order. Stops at the first failure and keeps the remaining reports.
+	 */
+	suspend fun flush()
+}
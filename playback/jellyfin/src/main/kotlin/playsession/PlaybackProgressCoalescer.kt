@@ -0,0 +1,132 @@
+package org.jellyfin.playback.jellyfin.playsession
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import org.jellyfin.sdk.model.api.PlaybackProgressInfo
+import org.jellyfin.sdk.model.extensions.ticks
+import kotlin.time.ComparableTimeMark
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.TimeSource
+
+/**
+ * Coalesces progress reports so only the latest report is sent once per interval. The interval
+ * depends on the play state: reports are sent immediately when the play session or paused state
+ * changes, once per [playingInterval] while playing and once per [pausedInterval] while paused.
+ * A position jump is treated as a seek and debounced, the report is sent once no other seek
+ * happened for [seekDelay].
+ */
+class PlaybackProgressCoalescer(
+	private val scope: CoroutineScope,
+	private val playingInterval: Duration = 10.seconds,
+	private val pausedInterval: Duration = 60.seconds,
+	private val seekDelay: Duration = 2.seconds,
+	private val timeSource: TimeSource.WithComparableMarks = TimeSource.Monotonic,
+	private val send: suspend (info: PlaybackProgressInfo) -> Unit,
+) {
+	private companion object {
+		/**
+		 * Difference between the expected and reported position that is considered a seek.
+		 */
+		private val SEEK_THRESHOLD = 5.seconds
+	}
+
+	private class TimedReport(
+		val info: PlaybackProgressInfo,
+		val at: ComparableTimeMark,
+	)
+
+	private val lock = Any()
+	// Sends one report at a time so reports arrive in order
+	private val sendMutex = Mutex()
+	private var lastSent: TimedReport? = null
+	private var lastSubmitted: TimedReport? = null
+	private var pending: PlaybackProgressInfo? = null
+	// Job waiting to send the pending report, it is not cancelled anymore once sending started
+	private var scheduledJob: Job? = null
+	private var scheduledAt: ComparableTimeMark? = null
+
+	/**
+	 * Submit a progress report. The report replaces any report that was not sent yet.
+	 */
+	fun submit(info: PlaybackProgressInfo) = synchronized(lock) {
+		val now = timeSource.markNow()
+		val seek = isSeek(info, now)
+		pending = info
+		lastSubmitted = TimedReport(info, now)
+
+		val due = now + if (seek) seekDelay else getDelay(info, now)
+		val scheduledAt = scheduledAt
+
+		// A send that is already scheduled earlier picks up this report, seeks postpone it instead
+		if (!seek && scheduledAt != null && scheduledAt <= due) return@synchronized
+
+		scheduledJob?.cancel()
+		this.scheduledAt = due
+		scheduledJob = scope.launch {
+			delay(due - timeSource.markNow())
+
+			sendMutex.withLock {
+				val report = synchronized(lock) {
+					// Replaced by a newer schedule while waiting for the previous send
+					if (!isActive) return@launch
+					val report = pending ?: return@launch
+					pending = null
+					scheduledJob = null
+					this@PlaybackProgressCoalescer.scheduledAt = null
+					lastSent = TimedReport(report, timeSource.markNow())
+					report
+				}
+
+				send(report)
+			}
+		}
+	}
+
+	/**
+	 * Drop the report that was not sent yet and forget the last sent report. Used when the play
+	 * session ends, the stop report replaces any pending progress. A report that is already being
+	 * sent is not interrupted.
+	 */
+	fun reset() = synchronized(lock) {
+		scheduledJob?.cancel()
+		scheduledJob = null
+		scheduledAt = null
+		pending = null
+		lastSent = null
+		lastSubmitted = null
+	}
+
+	private fun isSameState(info: PlaybackProgressInfo, other: PlaybackProgressInfo) =
+		info.playSessionId == other.playSessionId &&
+			info.itemId == other.itemId &&
+			info.isPaused == other.isPaused &&
+			info.audioStreamIndex == other.audioStreamIndex &&
+			info.subtitleStreamIndex == other.subtitleStreamIndex
+
+	/**
+	 * Whether the position jumped compared to the previously submitted report.
+	 */
+	private fun isSeek(info: PlaybackProgressInfo, now: ComparableTimeMark): Boolean {
+		val last = lastSubmitted ?: return false
+		if (!isSameState(info, last.info)) return false
+
+		val position = info.positionTicks?.ticks ?: return false
+		val lastPosition = last.info.positionTicks?.ticks ?: return false
+		val expectedPosition = if (last.info.isPaused) lastPosition else lastPosition + (now - last.at)
+		return (position - expectedPosition).absoluteValue > SEEK_THRESHOLD
+	}
+
+	private fun getDelay(info: PlaybackProgressInfo, now: ComparableTimeMark): Duration {
+		val last = lastSent ?: return Duration.ZERO
+		if (!isSameState(info, last.info)) return Duration.ZERO
+
+		val interval = if (info.isPaused) pausedInterval else playingInterval
+		return (interval - (now - last.at)).coerceAtLeast(Duration.ZERO)
+	}
+}
@@ -11,8 +11,13 @@ import org.jellyfin.sdk.model.api.ItemFields
 class AudioInstantMixQueueSupplier(
 	private val item: BaseItemDto,
 	private val api: ApiClient,
-) : PagedQueueSupplier() {
+) : PagedQueueSupplier(pageSize = INSTANT_MIX_SIZE) {
 	companion object {
+		/**
+		 * Amount of items requested for a mix, the API returns the complete mix as a single page.
+		 */
+		private const val INSTANT_MIX_SIZE = 200
+
 		val instantMixableItems = arrayOf(
 			BaseItemKind.MUSIC_GENRE,
 			BaseItemKind.PLAYLIST,
@@ -40,7 +45,8 @@ class AudioInstantMixQueueSupplier(
 			// Pagination
 			limit = size,
 		)
-		this.size = result.totalRecordCount
+		// The mix is limited to the requested size
+		this.size = result.items.size
 		return result.items.map { createBaseItemQueueEntry(api, it) }
 	}
 }
@@ -0,0 +1,207 @@
+@file:OptIn(ExperimentalCoroutinesApi::class)
+
+package org.jellyfin.playback.jellyfin.playsession
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.jellyfin.sdk.model.api.PlayMethod
+import org.jellyfin.sdk.model.api.PlaybackOrder
+import org.jellyfin.sdk.model.api.PlaybackProgressInfo
+import org.jellyfin.sdk.model.api.RepeatMode
+import org.jellyfin.sdk.model.extensions.inWholeTicks
+import java.util.UUID
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+private val itemId = UUID.randomUUID()
+
+private fun progress(position: Duration, isPaused: Boolean = false) = PlaybackProgressInfo(
+	itemId = itemId,
+	playSessionId = "session",
+	canSeek = true,
+	isMuted = false,
+	isPaused = isPaused,
+	positionTicks = position.inWholeTicks,
+	playMethod = PlayMethod.DIRECT_PLAY,
+	repeatMode = RepeatMode.REPEAT_NONE,
+	playbackOrder = PlaybackOrder.DEFAULT,
+)
+
+private val List<PlaybackProgressInfo>.positions get() = map { it.positionTicks }
+
+/**
+ * Create a coalescer on the virtual time of the test that collects the sent reports in [sent].
+ */
+private fun TestScope.createCoalescer(
+	sent: MutableList<PlaybackProgressInfo>,
+	send: suspend (info: PlaybackProgressInfo) -> Unit = { info -> sent += info },
+) = PlaybackProgressCoalescer(
+	scope = backgroundScope,
+	timeSource = testScheduler.timeSource,
+	send = send,
+)
+
+/**
+ * Advance the virtual time and run the reports that are due at the new time.
+ */
+private fun TestScope.advance(duration: Duration) {
+	advanceTimeBy(duration)
+	runCurrent()
+}
+
+class PlaybackProgressCoalescerTests : FunSpec({
+	test("Sends state changes immediately") {
+		runTest {
+			val sent = mutableListOf<PlaybackProgressInfo>()
+			val coalescer = createCoalescer(sent)
+
+			coalescer.submit(progress(0.seconds))
+			runCurrent()
+			sent.size shouldBe 1
+
+			advance(1.seconds)
+			coalescer.submit(progress(1.seconds, isPaused = true))
+			runCurrent()
+			sent.size shouldBe 2
+
+			advance(1.seconds)
+			coalescer.submit(progress(1.seconds))
+			runCurrent()
+			sent.map { it.isPaused } shouldContainExactly listOf(false, true, false)
+		}
+	}
+
+	test("Sends the latest report once every 10 seconds while playing") {
+		runTest {
+			val sent = mutableListOf<PlaybackProgressInfo>()
+			val coalescer = createCoalescer(sent)
+
+			coalescer.submit(progress(0.seconds))
+			runCurrent()
+
+			for (second in 1..9) {
+				advance(1.seconds)
+				coalescer.submit(progress(second.seconds))
+			}
+			runCurrent()
+			sent.size shouldBe 1
+
+			advance(1.seconds)
+			sent.positions shouldContainExactly listOf(0.seconds, 9.seconds).map { it.inWholeTicks }
+		}
+	}
+
+	test("Sends the latest report once every 60 seconds while paused") {
+		runTest {
+			val sent = mutableListOf<PlaybackProgressInfo>()
+			val coalescer = createCoalescer(sent)
+
+			coalescer.submit(progress(0.seconds, isPaused = true))
+			runCurrent()
+
+			repeat(5) {
+				advance(10.seconds)
+				coalescer.submit(progress(0.seconds, isPaused = true))
+			}
+			runCurrent()
+			sent.size shouldBe 1
+
+			advance(9.seconds)
+			sent.size shouldBe 1
+			advance(1.seconds)
+			sent.size shouldBe 2
+		}
+	}
+
+	test("A seek postpones the pending report") {
+		runTest {
+			val sent = mutableListOf<PlaybackProgressInfo>()
+			val coalescer = createCoalescer(sent)
+
+			coalescer.submit(progress(0.seconds))
+			runCurrent()
+
+			// Regular report, due at 10 seconds
+			advance(5.seconds)
+			coalescer.submit(progress(5.seconds))
+
+			// Seek at 9 seconds, postpones the report to 11 seconds
+			advance(4.seconds)
+			coalescer.submit(progress(60.seconds))
+			advance(1.seconds)
+			sent.size shouldBe 1
+
+			// Another seek at 10.5 seconds, postpones the report to 12.5 seconds
+			advance(500.milliseconds)
+			coalescer.submit(progress(120.seconds))
+			advance(1.seconds)
+			sent.size shouldBe 1
+
+			advance(1.seconds)
+			sent.positions shouldContainExactly listOf(0.seconds, 120.seconds).map { it.inWholeTicks }
+		}
+	}
+
+	test("Reset drops the pending report") {
+		runTest {
+			val sent = mutableListOf<PlaybackProgressInfo>()
+			val coalescer = createCoalescer(sent)
+
+			coalescer.submit(progress(0.seconds))
+			runCurrent()
+
+			advance(1.seconds)
+			coalescer.submit(progress(1.seconds))
+			coalescer.reset()
+
+			advance(20.seconds)
+			sent.size shouldBe 1
+
+			// The last sent report is forgotten, the next report is sent immediately
+			coalescer.submit(progress(21.seconds))
+			runCurrent()
+			sent.positions shouldContainExactly listOf(0.seconds, 21.seconds).map { it.inWholeTicks }
+		}
+	}
+
+	test("Sends one report at a time in submission order") {
+		runTest {
+			val sent = mutableListOf<PlaybackProgressInfo>()
+			var sending = 0
+			var maxSending = 0
+			val coalescer = createCoalescer(sent) { info ->
+				sending++
+				maxSending = maxOf(maxSending, sending)
+				delay(5.seconds)
+				sent += info
+				sending--
+			}
+
+			// Takes until 5 seconds to send
+			coalescer.submit(progress(0.seconds))
+			runCurrent()
+
+			// Waits for the first report, sent from 5 until 10 seconds
+			advance(1.seconds)
+			coalescer.submit(progress(1.seconds, isPaused = true))
+			runCurrent()
+
+			// Waits for the paused report, sent from 10 until 15 seconds
+			advance(5.seconds)
+			coalescer.submit(progress(1.seconds))
+			runCurrent()
+
+			advance(10.seconds)
+			sent.map { it.isPaused } shouldContainExactly listOf(false, true, false)
+			maxSending shouldBe 1
+		}
+	}
+})
@@ -19,6 +19,7 @@ import androidx.media3.exoplayer.DefaultRenderersFactory
 import androidx.media3.exoplayer.ExoPlayer
 import androidx.media3.exoplayer.source.DefaultMediaSourceFactory
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter
 import androidx.media3.exoplayer.util.EventLogger
 import androidx.media3.extractor.DefaultExtractorsFactory
 import androidx.media3.extractor.ts.TsExtractor
@@ -30,6 +31,7 @@ import io.github.peerless2012.ass.media.parser.AssSubtitleParserFactory
 import io.github.peerless2012.ass.media.type.AssRenderType
 import io.github.peerless2012.ass.media.widget.AssSubtitleView
 import org.jellyfin.playback.core.backend.BasePlayerBackend
+import org.jellyfin.playback.core.mediastream.MediaConversionMethod
 import org.jellyfin.playback.core.mediastream.MediaStream
 import org.jellyfin.playback.core.mediastream.PlayableMediaStream
 import org.jellyfin.playback.core.mediastream.mediaStream
@@ -40,6 +42,9 @@ import org.jellyfin.playback.core.queue.QueueEntry
 import org.jellyfin.playback.core.support.PlaySupportReport
 import org.jellyfin.playback.core.ui.PlayerSubtitleView
 import org.jellyfin.playback.core.ui.PlayerSurfaceView
+import org.jellyfin.playback.media3.exoplayer.buffering.BufferingMetricsListener
+import org.jellyfin.playback.media3.exoplayer.buffering.ProfileLoadControl
+import org.jellyfin.playback.media3.exoplayer.buffering.getBufferMemoryBudget
 import org.jellyfin.playback.media3.exoplayer.support.getPlaySupportReport
 import org.jellyfin.playback.media3.exoplayer.support.toFormats
 import timber.log.Timber
@@ -60,15 +65,21 @@ class ExoPlayerBackend(
 	private var subtitleView: SubtitleView? = null
 	private var audioPipeline = ExoPlayerAudioPipeline()
 
+	private val bandwidthMeter by lazy { DefaultBandwidthMeter.getSingletonInstance(context) }
+	private val bufferMemoryBudget by lazy { getBufferMemoryBudget(context) }
+	private val loadControl by lazy {
+		ProfileLoadControl(selectBufferingProfile(MediaConversionMethod.None))
+	}
+
 	private val assHandler by lazy {
 		AssHandler(AssRenderType.OVERLAY)
 	}
 
 	private val exoPlayer by lazy {
-		val dataSourceFactory = DefaultDataSource.Factory(
-			context,
-			exoPlayerOptions.baseDataSourceFactory,
-		)
+		val baseDataSourceFactory = exoPlayerOptions.baseDataSourceFactory.let { factory ->
+			exoPlayerOptions.mediaCache?.createDataSourceFactory(factory) ?: factory
+		}
+		val dataSourceFactory = DefaultDataSource.Factory(context, baseDataSourceFactory)
 		val extractorsFactory = DefaultExtractorsFactory().apply {
 			val isLowRamDevice = context.getSystemService<ActivityManager>()?.isLowRamDevice == true
 			setTsExtractorTimestampSearchBytes(
@@ -115,6 +126,8 @@ class ExoPlayerBackend(
 				})
 			})
 			.setMediaSourceFactory(mediaSourceFactory)
+			.setLoadControl(loadControl)
+			.setBandwidthMeter(bandwidthMeter)
 			.setAudioAttributes(AudioAttributes.Builder().apply {
 				setUsage(C.USAGE_MEDIA)
 			}.build(), true)
@@ -122,6 +135,7 @@ class ExoPlayerBackend(
 			.build()
 			.also { player ->
 				player.addListener(PlayerListener())
+				player.addAnalyticsListener(BufferingMetricsListener { loadControl.profile })
 
 				if (exoPlayerOptions.enableDebugLogging) {
 					player.addAnalyticsListener(EventLogger())
@@ -172,6 +186,15 @@ class ExoPlayerBackend(
 		override fun onMediaItemTransition(mediaItem: MediaItem?, reason: Int) {
 			val queueEntry = mediaItem?.localConfiguration?.tag as? QueueEntry
 			audioPipeline.normalizationGain = queueEntry?.normalizationGain
+
+			// Automatically continued with the prepared next item, let the queue catch up
+			if (reason == Player.MEDIA_ITEM_TRANSITION_REASON_AUTO) {
+				val endedStream = currentStream
+				currentStream = queueEntry?.mediaStream
+				currentStream?.let { loadControl.profile = selectBufferingProfile(it.conversionMethod) }
+				updatePauseAtEndOfMediaItems()
+				if (endedStream != null) listener?.onMediaStreamEnd(endedStream)
+			}
 		}
 	}
 
@@ -208,10 +231,16 @@ class ExoPlayerBackend(
 			setUri(stream.url)
 		}.build()
 
-		// Remove any old preloaded items (skips the first which is the playing item)
-		while (exoPlayer.mediaItemCount > 1) exoPlayer.removeMediaItem(0)
+		// Remove any old preloaded items after the playing item
+		val currentIndex = exoPlayer.currentMediaItemIndex
+		if (exoPlayer.mediaItemCount > currentIndex + 1) {
+			exoPlayer.removeMediaItems(currentIndex + 1, exoPlayer.mediaItemCount)
+		}
+		// Remove items that finished playing
+		if (currentIndex > 0) exoPlayer.removeMediaItems(0, currentIndex)
 		// Add new item
 		exoPlayer.addMediaItem(mediaItem)
+		updatePauseAtEndOfMediaItems()
 
 		exoPlayer.prepare()
 	}
@@ -222,19 +251,38 @@ class ExoPlayerBackend(
 
 		currentStream = stream
 
-		var streamIsPrepared = false
-		repeat(exoPlayer.mediaItemCount) { index ->
-			streamIsPrepared =
-				streamIsPrepared || exoPlayer.getMediaItemAt(index).mediaId == stream.hashCode()
-					.toString()
+		val mediaId = stream.hashCode().toString()
+		var index = (0 until exoPlayer.mediaItemCount).firstOrNull { index ->
+			exoPlayer.getMediaItemAt(index).mediaId == mediaId
 		}
 
-		if (!streamIsPrepared) prepareItem(item)
+		if (index == null) {
+			loadControl.profile = selectBufferingProfile(stream.conversionMethod)
+			prepareItem(item)
+			index = exoPlayer.mediaItemCount - 1
+		}
 
-		exoPlayer.seekToNextMediaItem()
+		if (index != exoPlayer.currentMediaItemIndex) exoPlayer.seekToDefaultPosition(index)
+		updatePauseAtEndOfMediaItems()
+		if (exoPlayer.playbackState == Player.STATE_IDLE) exoPlayer.prepare()
 		exoPlayer.play()
 	}
 
+	private fun selectBufferingProfile(conversionMethod: MediaConversionMethod) =
+		exoPlayerOptions.bufferingProfileSelector.select(
+			conversionMethod = conversionMethod,
+			bandwidthEstimate = bandwidthMeter.bitrateEstimate,
+			memoryBudgetBytes = bufferMemoryBudget,
+		)
+
+	/**
+	 * Continue to the next item without pausing when it is prepared, this makes transitions
+	 * gapless. Otherwise pause at the end so the end of the stream can be reported.
+	 */
+	private fun updatePauseAtEndOfMediaItems() {
+		exoPlayer.pauseAtEndOfMediaItems = !exoPlayer.hasNextMediaItem()
+	}
+
 	override fun play() {
 		// If the item has ended, revert first so the item will start over again
 		if (exoPlayer.playbackState == Player.STATE_ENDED) exoPlayer.seekTo(0)
@@ -243,9 +291,11 @@ class ExoPlayerBackend(
 
 	override fun pause() {
 		exoPlayer.pause()
+		exoPlayerOptions.mediaCache?.keepResumeRange(exoPlayer)
 	}
 
 	override fun stop() {
+		exoPlayerOptions.mediaCache?.keepResumeRange(exoPlayer)
 		exoPlayer.stop()
 		currentStream = null
 	}
@@ -2,10 +2,15 @@ package org.jellyfin.playback.media3.exoplayer
 
 import androidx.media3.datasource.DataSource
 import androidx.media3.datasource.DefaultHttpDataSource
+import org.jellyfin.playback.media3.exoplayer.buffering.BufferingProfileSelector
+import org.jellyfin.playback.media3.exoplayer.buffering.DefaultBufferingProfileSelector
+import org.jellyfin.playback.media3.exoplayer.cache.MediaCache
 
 data class ExoPlayerOptions(
 	val preferFfmpeg: Boolean = false,
 	val enableDebugLogging: Boolean = false,
 	val enableLibass: Boolean = false,
 	val baseDataSourceFactory: DataSource.Factory = DefaultHttpDataSource.Factory(),
+	val bufferingProfileSelector: BufferingProfileSelector = DefaultBufferingProfileSelector,
+	val mediaCache: MediaCache? = null,
 )
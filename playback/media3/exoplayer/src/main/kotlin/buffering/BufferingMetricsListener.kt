@@ -0,0 +1,104 @@
+package org.jellyfin.playback.media3.exoplayer.buffering
+
+import androidx.annotation.OptIn
+import androidx.media3.common.MediaItem
+import androidx.media3.common.Player
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.exoplayer.analytics.AnalyticsListener
+import timber.log.Timber
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+
+/**
+ * Buffering statistics of a single media item.
+ */
+data class BufferingMetrics(
+	val profile: String?,
+	val timeToFirstFrame: Duration? = null,
+	val rebufferCount: Int = 0,
+	val seekRebufferCount: Int = 0,
+	val rebufferDuration: Duration = Duration.ZERO,
+)
+
+/**
+ * Records the time to first frame and rebuffers of each media item to tune the
+ * [BufferingProfile]s. The metrics are logged when the media item changes or the player is
+ * released.
+ */
+@OptIn(UnstableApi::class)
+class BufferingMetricsListener(
+	private val getProfile: () -> BufferingProfile?,
+) : AnalyticsListener {
+	var metrics = BufferingMetrics(profile = null)
+		private set
+
+	private var itemStartMs = 0L
+	private var bufferingStartMs: Long? = null
+	private var hasBeenReady = false
+	private var seeking = false
+
+	override fun onMediaItemTransition(
+		eventTime: AnalyticsListener.EventTime,
+		mediaItem: MediaItem?,
+		reason: Int,
+	) {
+		report()
+
+		metrics = BufferingMetrics(profile = getProfile()?.name)
+		itemStartMs = eventTime.realtimeMs
+		bufferingStartMs = null
+		hasBeenReady = false
+		seeking = false
+	}
+
+	override fun onPositionDiscontinuity(
+		eventTime: AnalyticsListener.EventTime,
+		oldPosition: Player.PositionInfo,
+		newPosition: Player.PositionInfo,
+		reason: Int,
+	) {
+		if (reason == Player.DISCONTINUITY_REASON_SEEK) seeking = true
+	}
+
+	override fun onRenderedFirstFrame(
+		eventTime: AnalyticsListener.EventTime,
+		output: Any,
+		renderTimeMs: Long,
+	) {
+		if (metrics.timeToFirstFrame != null) return
+
+		metrics = metrics.copy(timeToFirstFrame = (eventTime.realtimeMs - itemStartMs).milliseconds)
+		Timber.i("First frame rendered after ${metrics.timeToFirstFrame} (${metrics.profile})")
+	}
+
+	override fun onPlaybackStateChanged(
+		eventTime: AnalyticsListener.EventTime,
+		state: Int,
+	) {
+		when (state) {
+			Player.STATE_BUFFERING -> if (hasBeenReady && bufferingStartMs == null) {
+				bufferingStartMs = eventTime.realtimeMs
+				metrics = if (seeking) metrics.copy(seekRebufferCount = metrics.seekRebufferCount + 1)
+				else metrics.copy(rebufferCount = metrics.rebufferCount + 1)
+			}
+
+			Player.STATE_READY -> {
+				bufferingStartMs?.let { start ->
+					val duration = (eventTime.realtimeMs - start).milliseconds
+					metrics = metrics.copy(rebufferDuration = metrics.rebufferDuration + duration)
+				}
+				bufferingStartMs = null
+				hasBeenReady = true
+				seeking = false
+			}
+		}
+	}
+
+	override fun onPlayerReleased(eventTime: AnalyticsListener.EventTime) = report()
+
+	private fun report() {
+		if (!hasBeenReady) return
+
+		Timber.i("Buffering metrics: $metrics")
+	}
+}
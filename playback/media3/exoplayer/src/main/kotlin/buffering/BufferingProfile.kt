@@ -0,0 +1,123 @@
+package org.jellyfin.playback.media3.exoplayer.buffering
+
+import android.app.ActivityManager
+import android.content.Context
+import android.content.pm.ApplicationInfo
+import androidx.core.content.getSystemService
+import org.jellyfin.playback.core.mediastream.MediaConversionMethod
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * Buffer sizes used by the player for a stream.
+ *
+ * @property minBuffer The player always tries to keep this much media buffered.
+ * @property maxBuffer The player stops loading once this much media is buffered.
+ * @property bufferForPlayback Media that must be buffered before starting playback or after a seek.
+ * @property bufferForPlaybackAfterRebuffer Media that must be buffered to resume after a rebuffer.
+ * @property backBuffer Media kept behind the playback position for fast backward seeks.
+ * @property targetBufferBytes Memory cap for the buffer.
+ */
+data class BufferingProfile(
+	val name: String,
+	val minBuffer: Duration,
+	val maxBuffer: Duration,
+	val bufferForPlayback: Duration,
+	val bufferForPlaybackAfterRebuffer: Duration,
+	val backBuffer: Duration,
+	val targetBufferBytes: Int,
+) {
+	init {
+		require(bufferForPlayback <= minBuffer && bufferForPlaybackAfterRebuffer <= minBuffer)
+		require(minBuffer <= maxBuffer)
+	}
+}
+
+/**
+ * Selects the [BufferingProfile] for a stream.
+ */
+fun interface BufferingProfileSelector {
+	/**
+	 * @param conversionMethod How the server delivers the stream.
+	 * @param bandwidthEstimate The measured bandwidth in bits per second or 0 when unknown.
+	 * @param memoryBudgetBytes The maximum amount of memory the buffer may use.
+	 */
+	fun select(
+		conversionMethod: MediaConversionMethod,
+		bandwidthEstimate: Long,
+		memoryBudgetBytes: Int,
+	): BufferingProfile
+}
+
+object DefaultBufferingProfileSelector : BufferingProfileSelector {
+	private const val SLOW_NETWORK_BPS = 10_000_000L
+	private const val FAST_NETWORK_BPS = 100_000_000L
+	private const val SMALL_MEMORY_BUDGET_BYTES = 32 * 1024 * 1024
+
+	override fun select(
+		conversionMethod: MediaConversionMethod,
+		bandwidthEstimate: Long,
+		memoryBudgetBytes: Int,
+	): BufferingProfile {
+		val profile = when (conversionMethod) {
+			// Static files, large buffers absorb bitrate spikes of high bitrate remuxes
+			MediaConversionMethod.None,
+			MediaConversionMethod.Remux -> BufferingProfile(
+				name = "direct",
+				minBuffer = 30.seconds,
+				maxBuffer = 60.seconds,
+				bufferForPlayback = 2500.milliseconds,
+				bufferForPlaybackAfterRebuffer = 5.seconds,
+				backBuffer = 30.seconds,
+				targetBufferBytes = memoryBudgetBytes,
+			)
+
+			// The server transcodes in real time, there is no use in buffering far ahead
+			MediaConversionMethod.Transcode -> BufferingProfile(
+				name = "transcode",
+				minBuffer = 15.seconds,
+				maxBuffer = 40.seconds,
+				bufferForPlayback = 1500.milliseconds,
+				bufferForPlaybackAfterRebuffer = 4.seconds,
+				backBuffer = 10.seconds,
+				targetBufferBytes = memoryBudgetBytes,
+			)
+		}
+
+		return when {
+			memoryBudgetBytes <= SMALL_MEMORY_BUDGET_BYTES -> profile.copy(
+				name = "${profile.name}-low-memory",
+				maxBuffer = profile.minBuffer,
+				backBuffer = Duration.ZERO,
+			)
+
+			bandwidthEstimate in 1 until SLOW_NETWORK_BPS -> profile.copy(
+				name = "${profile.name}-slow",
+				bufferForPlayback = profile.bufferForPlayback * 2,
+				bufferForPlaybackAfterRebuffer = profile.bufferForPlaybackAfterRebuffer * 2,
+			)
+
+			bandwidthEstimate >= FAST_NETWORK_BPS -> profile.copy(
+				name = "${profile.name}-fast",
+				bufferForPlayback = profile.bufferForPlayback / 2,
+			)
+
+			else -> profile
+		}
+	}
+}
+
+/**
+ * Get the amount of memory the player buffer may use based on the heap size of the app.
+ */
+fun getBufferMemoryBudget(context: Context): Int {
+	val activityManager = context.getSystemService<ActivityManager>() ?: return 32 * 1024 * 1024
+	val largeHeap = context.applicationInfo.flags and ApplicationInfo.FLAG_LARGE_HEAP != 0
+	val memoryClass = if (largeHeap) activityManager.largeMemoryClass else activityManager.memoryClass
+	val fraction = if (activityManager.isLowRamDevice) 0.1 else 0.25
+
+	return (memoryClass * 1024L * 1024L * fraction).toLong()
+		.coerceIn(16L * 1024 * 1024, 256L * 1024 * 1024)
+		.toInt()
+}
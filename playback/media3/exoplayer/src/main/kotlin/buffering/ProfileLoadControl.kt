@@ -0,0 +1,120 @@
+package org.jellyfin.playback.media3.exoplayer.buffering
+
+import androidx.annotation.OptIn
+import androidx.media3.common.C
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.exoplayer.DefaultLoadControl
+import androidx.media3.exoplayer.LoadControl
+import androidx.media3.exoplayer.analytics.PlayerId
+import androidx.media3.exoplayer.source.TrackGroupArray
+import androidx.media3.exoplayer.trackselection.ExoTrackSelection
+import androidx.media3.exoplayer.upstream.Allocator
+import androidx.media3.exoplayer.upstream.DefaultAllocator
+import timber.log.Timber
+
+/**
+ * [LoadControl] that applies a [BufferingProfile] which can be changed between streams. Each
+ * profile is backed by a [DefaultLoadControl] sharing the allocator of this instance.
+ *
+ * The [DefaultLoadControl] is bound to the playback thread, so a changed profile is only applied
+ * from the next call on the playback thread.
+ */
+@OptIn(UnstableApi::class)
+class ProfileLoadControl(
+	profile: BufferingProfile,
+) : LoadControl {
+	private class PreparedPlayer(
+		var tracks: Triple<LoadControl.Parameters, TrackGroupArray, Array<ExoTrackSelection?>>? = null,
+	)
+
+	private val allocator = DefaultAllocator(true, C.DEFAULT_BUFFER_SEGMENT_SIZE)
+
+	// Only accessed from the playback thread
+	private val players = mutableMapOf<PlayerId, PreparedPlayer>()
+	private var loadControl = createLoadControl(profile)
+
+	// Set from the application thread, applied on the playback thread
+	@Volatile
+	private var pendingProfile: BufferingProfile? = null
+
+	@Volatile
+	var profile: BufferingProfile = profile
+		set(value) {
+			if (field == value) return
+			field = value
+
+			Timber.i("Using buffering profile $value")
+			pendingProfile = value
+		}
+
+	private fun createLoadControl(profile: BufferingProfile) = DefaultLoadControl.Builder()
+		.setAllocator(allocator)
+		.setBufferDurationsMs(
+			profile.minBuffer.inWholeMilliseconds.toInt(),
+			profile.maxBuffer.inWholeMilliseconds.toInt(),
+			profile.bufferForPlayback.inWholeMilliseconds.toInt(),
+			profile.bufferForPlaybackAfterRebuffer.inWholeMilliseconds.toInt(),
+		)
+		.setBackBuffer(profile.backBuffer.inWholeMilliseconds.toInt(), true)
+		.setTargetBufferBytes(profile.targetBufferBytes)
+		// Respect the memory cap, low memory devices are killed when the buffer grows too large
+		.setPrioritizeTimeOverSizeThresholds(false)
+		.build()
+
+	/**
+	 * Swap to the pending profile, must be called from the playback thread. The prepared players
+	 * are moved to the new [DefaultLoadControl] with their last selected tracks.
+	 */
+	private fun applyPendingProfile() {
+		val profile = pendingProfile ?: return
+		pendingProfile = null
+
+		val previous = loadControl
+		loadControl = createLoadControl(profile)
+		for ((playerId, player) in players) {
+			previous.onReleased(playerId)
+			loadControl.onPrepared(playerId)
+			player.tracks?.let { (parameters, trackGroups, trackSelections) ->
+				loadControl.onTracksSelected(parameters, trackGroups, trackSelections)
+			}
+		}
+	}
+
+	override fun getAllocator(): Allocator = allocator
+
+	override fun onPrepared(playerId: PlayerId) {
+		applyPendingProfile()
+		players[playerId] = PreparedPlayer()
+		loadControl.onPrepared(playerId)
+	}
+
+	override fun onTracksSelected(
+		parameters: LoadControl.Parameters,
+		trackGroups: TrackGroupArray,
+		trackSelections: Array<ExoTrackSelection?>,
+	) {
+		applyPendingProfile()
+		players[parameters.playerId]?.tracks = Triple(parameters, trackGroups, trackSelections)
+		loadControl.onTracksSelected(parameters, trackGroups, trackSelections)
+	}
+
+	override fun onStopped(playerId: PlayerId) {
+		players.remove(playerId)
+		loadControl.onStopped(playerId)
+	}
+
+	override fun onReleased(playerId: PlayerId) {
+		players.remove(playerId)
+		loadControl.onReleased(playerId)
+	}
+
+	override fun getBackBufferDurationUs(playerId: PlayerId) = loadControl.getBackBufferDurationUs(playerId)
+	override fun retainBackBufferFromKeyframe(playerId: PlayerId) = loadControl.retainBackBufferFromKeyframe(playerId)
+
+	override fun shouldContinueLoading(parameters: LoadControl.Parameters): Boolean {
+		applyPendingProfile()
+		return loadControl.shouldContinueLoading(parameters)
+	}
+
+	override fun shouldStartPlayback(parameters: LoadControl.Parameters) = loadControl.shouldStartPlayback(parameters)
+}
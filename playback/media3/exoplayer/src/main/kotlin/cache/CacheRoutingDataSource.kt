@@ -0,0 +1,47 @@
+package org.jellyfin.playback.media3.exoplayer.cache
+
+import android.net.Uri
+import androidx.annotation.OptIn
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.datasource.DataSource
+import androidx.media3.datasource.DataSpec
+import androidx.media3.datasource.TransferListener
+
+/**
+ * [DataSource] that reads cacheable uris through the [cacheDataSource] and all others directly
+ * from the [upstreamDataSource].
+ */
+@OptIn(UnstableApi::class)
+internal class CacheRoutingDataSource(
+	private val cacheDataSource: DataSource,
+	private val upstreamDataSource: DataSource,
+	private val isCacheable: (uri: Uri) -> Boolean,
+) : DataSource {
+	private var dataSource: DataSource? = null
+
+	override fun addTransferListener(transferListener: TransferListener) {
+		cacheDataSource.addTransferListener(transferListener)
+		upstreamDataSource.addTransferListener(transferListener)
+	}
+
+	override fun open(dataSpec: DataSpec): Long {
+		val source = if (isCacheable(dataSpec.uri)) cacheDataSource else upstreamDataSource
+		dataSource = source
+		return source.open(dataSpec)
+	}
+
+	override fun read(buffer: ByteArray, offset: Int, length: Int): Int =
+		requireNotNull(dataSource).read(buffer, offset, length)
+
+	override fun getUri(): Uri? = dataSource?.uri
+
+	override fun getResponseHeaders(): Map<String, List<String>> = dataSource?.responseHeaders.orEmpty()
+
+	override fun close() {
+		try {
+			dataSource?.close()
+		} finally {
+			dataSource = null
+		}
+	}
+}
@@ -0,0 +1,199 @@
+package org.jellyfin.playback.media3.exoplayer.cache
+
+import android.content.Context
+import android.net.Uri
+import androidx.annotation.OptIn
+import androidx.media3.common.C
+import androidx.media3.common.Player
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.database.StandaloneDatabaseProvider
+import androidx.media3.datasource.DataSource
+import androidx.media3.datasource.DataSpec
+import androidx.media3.datasource.TransferListener
+import androidx.media3.datasource.cache.CacheDataSource
+import androidx.media3.datasource.cache.CacheKeyFactory
+import androidx.media3.datasource.cache.ContentMetadata
+import androidx.media3.datasource.cache.ContentMetadataMutations
+import androidx.media3.datasource.cache.SimpleCache
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import timber.log.Timber
+import java.io.File
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+data class MediaCacheStats(
+	val size: Long,
+	val maxSize: Long,
+	val cachedBytes: Long,
+	val networkBytes: Long,
+) {
+	/**
+	 * Fraction of the bytes of cacheable streams that were read from the cache.
+	 */
+	val hitRatio: Float
+		get() = if (cachedBytes + networkBytes == 0L) 0f else cachedBytes.toFloat() / (cachedBytes + networkBytes)
+}
+
+/**
+ * Optional on-disk cache for direct play streams. Seeking backwards and resuming a stream read
+ * the ranges that were downloaded before from disk instead of the server.
+ *
+ * Only static streams are cached, transcoded and remuxed streams are generated by the server for
+ * a single play session and cannot be reused.
+ *
+ * @param maxSizeBytes The maximum size of the cache, the cache is disabled when 0.
+ * @param resumeDuration The amount of media after the resume position kept when evicting.
+ */
+@OptIn(UnstableApi::class)
+class MediaCache(
+	context: Context,
+	val maxSizeBytes: Long,
+	private val resumeDuration: Duration = 30.seconds,
+) {
+	private companion object {
+		private const val CACHE_DIRECTORY = "media_cache"
+
+		// Query parameters that identify the content of a static stream, all others are session specific
+		private val STABLE_QUERY_PARAMETERS = setOf("mediasourceid", "tag", "container")
+
+		/**
+		 * Part of the resume range kept before the resume position to include the preceding keyframe.
+		 */
+		private const val RESUME_RANGE_LEAD = 0.2
+	}
+
+	val enabled = maxSizeBytes > 0
+
+	private val cache by lazy {
+		SimpleCache(
+			File(context.cacheDir, CACHE_DIRECTORY),
+			ResumeRangeCacheEvictor(maxSizeBytes),
+			StandaloneDatabaseProvider(context),
+		)
+	}
+
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val cachedBytes = AtomicLong()
+	private val networkBytes = AtomicLong()
+
+	private val networkTransferListener = object : TransferListener {
+		override fun onTransferInitializing(source: DataSource, dataSpec: DataSpec, isNetwork: Boolean) = Unit
+		override fun onTransferStart(source: DataSource, dataSpec: DataSpec, isNetwork: Boolean) = Unit
+		override fun onTransferEnd(source: DataSource, dataSpec: DataSpec, isNetwork: Boolean) = Unit
+
+		override fun onBytesTransferred(
+			source: DataSource,
+			dataSpec: DataSpec,
+			isNetwork: Boolean,
+			bytesTransferred: Int,
+		) {
+			if (isNetwork) networkBytes.addAndGet(bytesTransferred.toLong())
+		}
+	}
+
+	private val cacheEventListener = object : CacheDataSource.EventListener {
+		override fun onCachedBytesRead(cacheSizeBytes: Long, cachedBytesRead: Long) {
+			cachedBytes.addAndGet(cachedBytesRead)
+		}
+
+		override fun onCacheIgnored(reason: Int) {
+			Timber.w("Media cache ignored (reason $reason)")
+		}
+	}
+
+	/**
+	 * Wrap the [upstream] factory so static streams are read through the cache. Returns the
+	 * [upstream] factory when the cache is disabled.
+	 */
+	fun createDataSourceFactory(upstream: DataSource.Factory): DataSource.Factory {
+		if (!enabled) return upstream
+
+		val cacheDataSourceFactory = CacheDataSource.Factory()
+			.setCache(cache)
+			.setCacheKeyFactory(CacheKeyFactory { dataSpec -> getCacheKey(dataSpec.uri) ?: dataSpec.uri.toString() })
+			.setUpstreamDataSourceFactory {
+				upstream.createDataSource().apply { addTransferListener(networkTransferListener) }
+			}
+			.setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR)
+			.setEventListener(cacheEventListener)
+
+		return DataSource.Factory {
+			CacheRoutingDataSource(
+				cacheDataSource = cacheDataSourceFactory.createDataSource(),
+				upstreamDataSource = upstream.createDataSource(),
+				isCacheable = { uri -> getCacheKey(uri) != null },
+			)
+		}
+	}
+
+	/**
+	 * Keep the part of the current stream of [player] after its current position when evicting so
+	 * resuming it later starts from the cache. Must be called from the application thread of the
+	 * player.
+	 */
+	fun keepResumeRange(player: Player) {
+		if (!enabled) return
+
+		val uri = player.currentMediaItem?.localConfiguration?.uri ?: return
+		val position = player.currentPosition.milliseconds
+		val duration = player.duration.takeIf { it != C.TIME_UNSET }?.milliseconds ?: return
+		val key = getCacheKey(uri) ?: return
+
+		scope.launch {
+			val contentLength = ContentMetadata.getContentLength(cache.getContentMetadata(key))
+			if (contentLength <= 0 || !duration.isPositive()) return@launch
+
+			val bytesPerMs = contentLength.toDouble() / duration.inWholeMilliseconds
+			val length = (resumeDuration.inWholeMilliseconds * bytesPerMs).toLong()
+			val start = (position.inWholeMilliseconds * bytesPerMs - length * RESUME_RANGE_LEAD).toLong().coerceAtLeast(0)
+			val end = (start + length).coerceAtMost(contentLength)
+
+			Timber.d("Keeping bytes $start-$end of $key for resume at $position")
+			cache.applyContentMetadataMutations(key, ContentMetadataMutations().apply {
+				set(ResumeRangeCacheEvictor.METADATA_RESUME_START, start)
+				set(ResumeRangeCacheEvictor.METADATA_RESUME_END, end)
+			})
+		}
+	}
+
+	fun getStats() = MediaCacheStats(
+		size = if (enabled) cache.cacheSpace else 0,
+		maxSize = maxSizeBytes,
+		cachedBytes = cachedBytes.get(),
+		networkBytes = networkBytes.get(),
+	)
+
+	fun clear() {
+		if (!enabled) return
+
+		scope.launch {
+			for (key in cache.keys) cache.removeResource(key)
+		}
+	}
+
+	/**
+	 * Get the cache key for a stream [uri] or null when the stream is not cacheable. The key only
+	 * contains the parts of the url that identify the content so it stays the same between play
+	 * sessions.
+	 */
+	private fun getCacheKey(uri: Uri): String? {
+		val parameters = uri.queryParameterNames.associateBy { it.lowercase() }
+		val static = parameters["static"]?.let { uri.getQueryParameter(it) }
+		if (!static.equals("true", ignoreCase = true)) return null
+
+		return buildString {
+			append(uri.authority)
+			append(uri.path)
+			for (name in STABLE_QUERY_PARAMETERS) {
+				val value = parameters[name]?.let { uri.getQueryParameter(it) } ?: continue
+				append(if (contains('?')) '&' else '?')
+				append("$name=$value")
+			}
+		}
+	}
+}
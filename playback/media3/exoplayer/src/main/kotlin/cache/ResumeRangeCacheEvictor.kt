@@ -0,0 +1,75 @@
+package org.jellyfin.playback.media3.exoplayer.cache
+
+import androidx.annotation.OptIn
+import androidx.media3.common.C
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.datasource.cache.Cache
+import androidx.media3.datasource.cache.CacheEvictor
+import androidx.media3.datasource.cache.CacheSpan
+import androidx.media3.datasource.cache.ContentMetadata
+import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor
+import java.util.TreeSet
+
+/**
+ * Evicts the least recently used spans like [LeastRecentlyUsedCacheEvictor], but skips spans
+ * overlapping the resume range stored in the content metadata of a resource. Those spans are only
+ * evicted when nothing else is left.
+ */
+@OptIn(UnstableApi::class)
+internal class ResumeRangeCacheEvictor(
+	private val maxBytes: Long,
+) : CacheEvictor {
+	companion object {
+		const val METADATA_RESUME_START = "resume_start"
+		const val METADATA_RESUME_END = "resume_end"
+	}
+
+	private val leastRecentlyUsed = TreeSet<CacheSpan> { a, b ->
+		when {
+			a.lastTouchTimestamp != b.lastTouchTimestamp -> a.lastTouchTimestamp.compareTo(b.lastTouchTimestamp)
+			else -> a.compareTo(b)
+		}
+	}
+	private var currentSize = 0L
+
+	override fun requiresCacheSpanTouches() = true
+
+	override fun onCacheInitialized() = Unit
+
+	override fun onStartFile(cache: Cache, key: String, position: Long, length: Long) {
+		if (length != C.LENGTH_UNSET.toLong()) evict(cache, length)
+	}
+
+	override fun onSpanAdded(cache: Cache, span: CacheSpan) {
+		leastRecentlyUsed.add(span)
+		currentSize += span.length
+		evict(cache, 0)
+	}
+
+	override fun onSpanRemoved(cache: Cache, span: CacheSpan) {
+		leastRecentlyUsed.remove(span)
+		currentSize -= span.length
+	}
+
+	override fun onSpanTouched(cache: Cache, oldSpan: CacheSpan, newSpan: CacheSpan) {
+		onSpanRemoved(cache, oldSpan)
+		onSpanAdded(cache, newSpan)
+	}
+
+	private fun evict(cache: Cache, requiredSpace: Long) {
+		while (currentSize + requiredSpace > maxBytes && leastRecentlyUsed.isNotEmpty()) {
+			val span = leastRecentlyUsed.firstOrNull { !cache.isInResumeRange(it) } ?: leastRecentlyUsed.first()
+			cache.removeSpan(span)
+		}
+	}
+
+	private fun Cache.isInResumeRange(span: CacheSpan): Boolean {
+		val metadata: ContentMetadata = getContentMetadata(span.key)
+		val start = metadata.get(METADATA_RESUME_START, C.LENGTH_UNSET.toLong())
+		val end = metadata.get(METADATA_RESUME_END, C.LENGTH_UNSET.toLong())
+		if (start == C.LENGTH_UNSET.toLong() || end == C.LENGTH_UNSET.toLong()) return false
+
+		val spanEnd = if (span.isOpenEnded) Long.MAX_VALUE else span.position + span.length
+		return span.position < end && spanEnd > start
+	}
+}
@@ -16,12 +16,12 @@ import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.guava.future
-import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.withContext
 import org.jellyfin.playback.core.PlaybackManager
 import org.jellyfin.playback.core.model.PlayState
 import org.jellyfin.playback.core.model.PlaybackOrder
 import org.jellyfin.playback.core.model.RepeatMode
+import org.jellyfin.playback.core.queue.QueueEntryMetadata
 import org.jellyfin.playback.core.queue.metadata
 import org.jellyfin.playback.core.queue.queue
 import timber.log.Timber
@@ -35,9 +35,17 @@ internal class MediaSessionPlayer(
 	private val state: org.jellyfin.playback.core.PlayerState,
 	private val manager: PlaybackManager,
 ) : SimpleBasePlayer(looper) {
+	// Snapshot of the queue around the current entry, kept up-to-date in the background so getState never suspends
+	private val queueWindowTracker = QueueWindowTracker(manager.queue, state.playbackOrder)
+
+	// The playlist of the last queue window, rebuilt only when the entries or their metadata change
+	private var playlist: Pair<List<QueueEntryMetadata>, List<MediaItemData>>? = null
+
 	init {
+		queueWindowTracker.launchIn(scope)
+
 		// Invalidate mediasession state when certain player state changes
-		manager.queue.entry.invalidateStateOnEach(scope)
+		queueWindowTracker.window.invalidateStateOnEach(scope)
 		state.playState.invalidateStateOnEach(scope)
 		state.videoSize.invalidateStateOnEach(scope)
 		state.speed.invalidateStateOnEach(scope)
@@ -52,18 +60,18 @@ internal class MediaSessionPlayer(
 	}.launchIn(scope)
 
 	override fun getState(): State = State.Builder().apply {
+		val window = queueWindowTracker.window.value
+
 		setAvailableCommands(Commands.Builder().apply {
 			add(COMMAND_PLAY_PAUSE)
 			add(COMMAND_PREPARE)
 			add(COMMAND_STOP)
 			add(COMMAND_SEEK_TO_DEFAULT_POSITION)
 			add(COMMAND_SEEK_IN_CURRENT_MEDIA_ITEM)
-			val allowPrevious = manager.queue.entryIndex.value > 0
-			addIf(COMMAND_SEEK_TO_PREVIOUS_MEDIA_ITEM, allowPrevious)
-			addIf(COMMAND_SEEK_TO_PREVIOUS, allowPrevious)
-			val allowNext = manager.queue.entryIndex.value < (manager.queue.estimatedSize - 1)
-			addIf(COMMAND_SEEK_TO_NEXT_MEDIA_ITEM, allowNext)
-			addIf(COMMAND_SEEK_TO_NEXT, allowNext)
+			addIf(COMMAND_SEEK_TO_PREVIOUS_MEDIA_ITEM, window.hasPrevious)
+			addIf(COMMAND_SEEK_TO_PREVIOUS, window.hasPrevious)
+			addIf(COMMAND_SEEK_TO_NEXT_MEDIA_ITEM, window.hasNext)
+			addIf(COMMAND_SEEK_TO_NEXT, window.hasNext)
 			// add(COMMAND_SEEK_TO_MEDIA_ITEM)
 			add(COMMAND_SEEK_BACK)
 			add(COMMAND_SEEK_FORWARD)
@@ -88,35 +96,21 @@ internal class MediaSessionPlayer(
 			// add(COMMAND_GET_TRACKS)
 		}.build())
 
-		runBlocking {
-			val current = manager.queue.entry.value
-
-			if (current != null) {
-				val previous = manager.queue.peekPrevious()
-				val next = manager.queue.peekNext()
-
-				val playlist = listOfNotNull(previous, current, next)
-					.distinctBy { it.metadata.mediaId }
-					.map {
-						MediaItemData.Builder(requireNotNull(it.metadata.mediaId)).apply {
-							setMediaItem(it.metadata.toMediaItem())
-							setDurationUs(it.metadata.duration?.inWholeMicroseconds ?: C.TIME_UNSET)
-						}.build()
-					}
-				setPlaylist(playlist)
-
-				setPlaybackState(when (state.playState.value) {
-					PlayState.STOPPED -> STATE_IDLE
-					PlayState.PLAYING -> STATE_READY
-					PlayState.PAUSED -> STATE_READY
-					PlayState.ERROR -> STATE_ENDED
-				})
-
-				setCurrentMediaItemIndex(if (previous == null || playlist.size <= 1) 0 else 1)
-			} else {
-				setPlaybackState(STATE_IDLE)
-				setCurrentMediaItemIndex(C.INDEX_UNSET)
-			}
+		if (window.current != null) {
+			val playlist = getPlaylist(window)
+			setPlaylist(playlist)
+
+			setPlaybackState(when (state.playState.value) {
+				PlayState.STOPPED -> STATE_IDLE
+				PlayState.PLAYING -> STATE_READY
+				PlayState.PAUSED -> STATE_READY
+				PlayState.ERROR -> STATE_ENDED
+			})
+
+			setCurrentMediaItemIndex(if (window.previous == null || playlist.size <= 1) 0 else 1)
+		} else {
+			setPlaybackState(STATE_IDLE)
+			setCurrentMediaItemIndex(C.INDEX_UNSET)
 		}
 
 		setContentPositionMs { state.positionInfo.active.inWholeMilliseconds }
@@ -134,6 +128,22 @@ internal class MediaSessionPlayer(
 		setSeekForwardIncrementMs(manager.options.defaultFastForwardAmount().inWholeMilliseconds)
 	}.build()
 
+	private fun getPlaylist(window: QueueWindow): List<MediaItemData> {
+		val metadata = listOfNotNull(window.previous, window.current, window.next)
+			.map { it.metadata }
+			.distinctBy { it.mediaId }
+		playlist?.let { (playlistMetadata, items) -> if (playlistMetadata == metadata) return items }
+
+		val items = metadata.map {
+			MediaItemData.Builder(requireNotNull(it.mediaId)).apply {
+				setMediaItem(it.toMediaItem())
+				setDurationUs(it.duration?.inWholeMicroseconds ?: C.TIME_UNSET)
+			}.build()
+		}
+		playlist = metadata to items
+		return items
+	}
+
 	override fun handleSetPlayWhenReady(playWhenReady: Boolean): ListenableFuture<*> {
 		Timber.d("handleSetPlayWhenReady(playWhenReady=${playWhenReady})")
 		if (playWhenReady) state.unpause()
@@ -0,0 +1,64 @@
+package org.jellyfin.playback.media3.session
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.collectLatest
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.launch
+import org.jellyfin.playback.core.queue.Queue
+import org.jellyfin.playback.core.queue.QueueEntry
+
+/**
+ * Immutable snapshot of the queue around the current entry.
+ */
+internal data class QueueWindow(
+	val previous: QueueEntry?,
+	val current: QueueEntry?,
+	val next: QueueEntry?,
+	val entryIndex: Int,
+	val estimatedSize: Int,
+) {
+	val hasPrevious get() = entryIndex > 0
+	val hasNext get() = entryIndex < estimatedSize - 1
+
+	companion object {
+		val Empty = QueueWindow(null, null, null, Queue.INDEX_NONE, 0)
+	}
+}
+
+/**
+ * Maintains a [QueueWindow] snapshot of the [queue]. The neighbouring entries may need to be loaded
+ * by the queue suppliers, this happens in the background whenever the current entry, the queue
+ * [revision][Queue.revision] or one of the [orderChanges] changes, so reading the [window] never
+ * suspends.
+ */
+internal class QueueWindowTracker(
+	private val queue: Queue,
+	private val orderChanges: Flow<*>,
+) {
+	private val _window = MutableStateFlow(QueueWindow.Empty)
+	val window: StateFlow<QueueWindow> = _window.asStateFlow()
+
+	fun launchIn(scope: CoroutineScope): Job = scope.launch {
+		combine(queue.entry, queue.revision, orderChanges) { entry, _, _ -> entry }.collectLatest { entry ->
+			val index = queue.entryIndex.value
+
+			if (entry == null) {
+				_window.value = QueueWindow.Empty
+				return@collectLatest
+			}
+
+			// Publish the current entry right away, the neighbours follow once loaded
+			_window.value = QueueWindow(null, entry, null, index, queue.estimatedSize)
+
+			val previous = queue.peekPrevious()
+			val next = queue.peekNext()
+			// Loading the neighbours may change the estimated size
+			_window.value = QueueWindow(previous, entry, next, index, queue.estimatedSize)
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package org.jellyfin.playback.media3.session
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.ints.shouldBeGreaterThan
+import io.kotest.matchers.shouldBe
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.asContextElement
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.withTimeout
+import org.jellyfin.playback.core.queue.Queue
+import org.jellyfin.playback.core.queue.QueueEntry
+import org.jellyfin.playback.core.queue.supplier.QueueSupplier
+import kotlin.coroutines.CoroutineContext
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+private class ListQueueSupplier(val items: MutableList<QueueEntry>) : QueueSupplier {
+	override val size get() = items.size
+	override suspend fun getItem(index: Int) = items.getOrNull(index)
+}
+
+/**
+ * Marks the coroutines that simulate the media session thread.
+ */
+private val onSessionThread = ThreadLocal.withInitial { false }
+
+/**
+ * Queue playing entries in order. Peeks wait for [peekGate] and [peekDelay] to simulate suppliers
+ * that load items from the server.
+ */
+private class TestQueue(private val peekDelay: Duration = Duration.ZERO) : Queue {
+	private val suppliers = mutableListOf<QueueSupplier>()
+	@Volatile
+	var peekGate = CompletableDeferred(Unit)
+	var peeks = 0
+	var sessionThreadPeeks = 0
+
+	override val estimatedSize get() = suppliers.sumOf { it.size }
+	override val entryIndex = MutableStateFlow(Queue.INDEX_NONE)
+	override val entry = MutableStateFlow<QueueEntry?>(null)
+
+	private val _revision = MutableStateFlow(0)
+	override val revision: StateFlow<Int> = _revision.asStateFlow()
+
+	override fun addSupplier(supplier: QueueSupplier) {
+		suppliers.add(supplier)
+		notifyChanged()
+	}
+
+	override fun clear() {
+		suppliers.clear()
+		entryIndex.value = Queue.INDEX_NONE
+		entry.value = null
+		notifyChanged()
+	}
+
+	override fun notifyChanged() = _revision.update { it + 1 }
+
+	private suspend fun getItem(index: Int): QueueEntry? {
+		var offset = 0
+		for (supplier in suppliers) {
+			if (index - offset < supplier.size) return supplier.getItem(index - offset)
+			offset += supplier.size
+		}
+		return null
+	}
+
+	override suspend fun previous() = setIndex(entryIndex.value - 1)
+	override suspend fun next(usePlaybackOrder: Boolean, useRepeatMode: Boolean) = setIndex(entryIndex.value + 1)
+
+	override suspend fun setIndex(index: Int, saveHistory: Boolean): QueueEntry? {
+		val item = if (index < 0) null else getItem(index)
+		entryIndex.value = if (item == null) Queue.INDEX_NONE else index
+		entry.value = item
+		return item
+	}
+
+	private suspend fun awaitPeek() {
+		peeks++
+		if (onSessionThread.get()) sessionThreadPeeks++
+		peekGate.await()
+		delay(peekDelay)
+	}
+
+	override suspend fun peekPrevious(): QueueEntry? {
+		awaitPeek()
+		return if (entryIndex.value > 0) getItem(entryIndex.value - 1) else null
+	}
+
+	override suspend fun peekNext(amount: Int, usePlaybackOrder: Boolean, useRepeatMode: Boolean): Collection<QueueEntry> {
+		awaitPeek()
+		return (1..amount).mapNotNull { offset -> getItem(entryIndex.value + offset) }
+	}
+
+	override suspend fun peekNext(usePlaybackOrder: Boolean, useRepeatMode: Boolean): QueueEntry? =
+		peekNext(1, usePlaybackOrder, useRepeatMode).firstOrNull()
+}
+
+private suspend fun withTracker(
+	queue: Queue,
+	context: CoroutineContext = Dispatchers.Default,
+	block: suspend (tracker: QueueWindowTracker) -> Unit,
+) {
+	val scope = CoroutineScope(context + SupervisorJob())
+	try {
+		val tracker = QueueWindowTracker(queue, MutableStateFlow(Unit))
+		tracker.launchIn(scope)
+		block(tracker)
+	} finally {
+		scope.cancel()
+	}
+}
+
+private suspend fun QueueWindowTracker.awaitWindow(predicate: (QueueWindow) -> Boolean) = withTimeout(5.seconds) {
+	window.first(predicate)
+}
+
+class QueueWindowTrackerTests : FunSpec({
+	test("QueueWindowTracker loads the neighbouring entries") {
+		val entries = List(3) { QueueEntry() }
+		val queue = TestQueue()
+		queue.addSupplier(ListQueueSupplier(entries.toMutableList()))
+		withTracker(queue) { tracker ->
+			queue.setIndex(1)
+			val window = tracker.awaitWindow { it.current == entries[1] && it.next != null }
+
+			window shouldBe QueueWindow(entries[0], entries[1], entries[2], 1, 3)
+			window.hasPrevious shouldBe true
+			window.hasNext shouldBe true
+		}
+	}
+
+	test("QueueWindowTracker publishes the current entry before the neighbours are loaded") {
+		val entries = List(3) { QueueEntry() }
+		val queue = TestQueue()
+		queue.addSupplier(ListQueueSupplier(entries.toMutableList()))
+		withTracker(queue) { tracker ->
+			queue.peekGate = CompletableDeferred()
+			queue.setIndex(1)
+			val loading = tracker.awaitWindow { it.current == entries[1] }
+			loading shouldBe QueueWindow(null, entries[1], null, 1, 3)
+
+			queue.peekGate.complete(Unit)
+			val loaded = tracker.awaitWindow { it.current == entries[1] && it.next != null }
+			loaded shouldBe QueueWindow(entries[0], entries[1], entries[2], 1, 3)
+		}
+	}
+
+	test("QueueWindowTracker updates when a supplier changes its items") {
+		val entries = mutableListOf(QueueEntry())
+		val queue = TestQueue()
+		queue.addSupplier(ListQueueSupplier(entries))
+		withTracker(queue) { tracker ->
+			queue.setIndex(0)
+			tracker.awaitWindow { it.current == entries[0] }.hasNext shouldBe false
+
+			// The current entry doesn't change when items are appended
+			val added = QueueEntry()
+			entries.add(added)
+			queue.notifyChanged()
+
+			val window = tracker.awaitWindow { it.next == added }
+			window shouldBe QueueWindow(null, entries[0], added, 0, 2)
+			window.hasNext shouldBe true
+		}
+	}
+
+	test("QueueWindowTracker updates when a supplier is added") {
+		val first = QueueEntry()
+		val queue = TestQueue()
+		queue.addSupplier(ListQueueSupplier(mutableListOf(first)))
+		withTracker(queue) { tracker ->
+			queue.setIndex(0)
+			tracker.awaitWindow { it.current == first }.hasNext shouldBe false
+
+			val added = QueueEntry()
+			queue.addSupplier(ListQueueSupplier(mutableListOf(added)))
+
+			val window = tracker.awaitWindow { it.next == added }
+			window.estimatedSize shouldBe 2
+			window.hasNext shouldBe true
+		}
+	}
+
+	test("QueueWindowTracker is empty after the queue is cleared") {
+		val entries = List(2) { QueueEntry() }
+		val queue = TestQueue()
+		queue.addSupplier(ListQueueSupplier(entries.toMutableList()))
+		withTracker(queue) { tracker ->
+			queue.setIndex(0)
+			tracker.awaitWindow { it.current == entries[0] }
+
+			queue.clear()
+			tracker.awaitWindow { it.current == null } shouldBe QueueWindow.Empty
+		}
+	}
+
+	test("QueueWindowTracker never peeks on the session thread") {
+		val entries = List(5_000) { QueueEntry() }
+		val queue = TestQueue(peekDelay = 1.milliseconds)
+		queue.addSupplier(ListQueueSupplier(entries.toMutableList()))
+
+		runTest {
+			withTracker(queue, StandardTestDispatcher(testScheduler)) { tracker ->
+				// Simulates the media session reading the state while the entry keeps changing
+				var reads = 0
+				backgroundScope.launch(onSessionThread.asContextElement(true)) {
+					while (true) {
+						val window = tracker.window.value
+						if (window.current != null) {
+							window.current shouldBe entries[window.entryIndex]
+							window.previous?.let { it shouldBe entries[window.entryIndex - 1] }
+							window.next?.let { it shouldBe entries[window.entryIndex + 1] }
+						}
+						reads++
+						delay(1)
+					}
+				}
+
+				// Entries change faster than, as fast as and slower than their neighbours load
+				for (index in entries.indices) {
+					queue.setIndex(index)
+					delay(index % 4L)
+				}
+
+				val window = tracker.awaitWindow { it.current == entries.last() && it.previous != null }
+				window shouldBe QueueWindow(entries[entries.lastIndex - 1], entries.last(), null, entries.lastIndex, entries.size)
+				queue.peeks shouldBeGreaterThan 0
+				queue.sessionThreadPeeks shouldBe 0
+				reads shouldBeGreaterThan 1_000
+			}
+		}
+	}
+})